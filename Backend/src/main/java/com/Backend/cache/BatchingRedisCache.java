@@ -0,0 +1,66 @@
+package com.Backend.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link RedisCache} that can also read many keys in one round trip. Keys and values go through
+ * the same prefixing and serialization as single-key lookups.
+ */
+public class BatchingRedisCache extends RedisCache {
+
+    // Keeps a single MGET from monopolising the connection for huge key sets.
+    private static final int MAX_KEYS_PER_MGET = 500;
+
+    private final RedisConnectionFactory connectionFactory;
+    private final CacheMetrics.CacheMeters meters;
+
+    BatchingRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                       RedisConnectionFactory connectionFactory, CacheMetrics metrics) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.connectionFactory = connectionFactory;
+        this.meters = metrics.forCache(name);
+    }
+
+    @Override
+    protected byte[] serializeCacheValue(Object value) {
+        byte[] bytes = super.serializeCacheValue(value);
+        meters.payload(bytes.length);
+        return bytes;
+    }
+
+    /** Values for the keys present in Redis; missing keys are absent from the map. */
+    public Map<Object, ValueWrapper> getAll(Collection<?> keys) {
+        List<Object> ordered = new ArrayList<>(keys);
+        Map<Object, ValueWrapper> found = new HashMap<>();
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            for (int from = 0; from < ordered.size(); from += MAX_KEYS_PER_MGET) {
+                List<Object> chunk = ordered.subList(from, Math.min(ordered.size(), from + MAX_KEYS_PER_MGET));
+                byte[][] rawKeys = new byte[chunk.size()][];
+                for (int i = 0; i < chunk.size(); i++) {
+                    rawKeys[i] = serializeCacheKey(createCacheKey(chunk.get(i)));
+                }
+                List<byte[]> rawValues = connection.stringCommands().mGet(rawKeys);
+                if (rawValues == null) {
+                    continue;
+                }
+                for (int i = 0; i < chunk.size(); i++) {
+                    byte[] rawValue = rawValues.get(i);
+                    if (rawValue != null) {
+                        found.put(chunk.get(i), toValueWrapper(deserializeCacheValue(rawValue)));
+                    }
+                }
+            }
+        }
+        return found;
+    }
+}
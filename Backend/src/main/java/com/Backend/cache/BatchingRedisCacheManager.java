@@ -0,0 +1,35 @@
+package com.Backend.cache;
+
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+/** {@link RedisCacheManager} whose caches are {@link BatchingRedisCache}s. */
+public class BatchingRedisCacheManager extends RedisCacheManager {
+
+    private final RedisConnectionFactory connectionFactory;
+    private final CacheMetrics metrics;
+
+    public BatchingRedisCacheManager(
+            RedisCacheWriter cacheWriter,
+            RedisCacheConfiguration defaultCacheConfiguration,
+            Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+            RedisConnectionFactory connectionFactory,
+            CacheMetrics metrics) {
+        super(cacheWriter, defaultCacheConfiguration, true, initialCacheConfigurations);
+        this.connectionFactory = connectionFactory;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, @Nullable RedisCacheConfiguration cacheConfiguration) {
+        return new BatchingRedisCache(name, getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration(),
+                connectionFactory, metrics);
+    }
+}
@@ -0,0 +1,40 @@
+package com.Backend.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+
+/**
+ * Weighs L1 entries by their uncompressed Kryo-serialized size.
+ * Values just read from Redis reuse the size of the payload they came from; only values loaded or
+ * written locally are serialized to be weighed.
+ * Heap footprint is a few times larger, so {@link CachePolicy#getLocalMaxWeight()} is a relative
+ * budget between caches rather than an exact heap limit.
+ */
+@Slf4j
+public class CacheEntryWeigher implements Weigher<Object, Object> {
+
+    /** Used when a value cannot be serialized; such values also fail in Redis and stay L1-only. */
+    private static final int UNKNOWN_WEIGHT = 1024;
+
+    private final KryoRedisSerializer<Object> serializer;
+
+    public CacheEntryWeigher(KryoRedisSerializer<Object> serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public int weigh(@NonNull Object key, @NonNull Object value) {
+        int payloadSize = KryoRedisSerializer.takePayloadSize(value);
+        if (payloadSize > 0) {
+            return payloadSize;
+        }
+        try {
+            return Math.max(1, serializer.serializedSize(value));
+        } catch (RuntimeException e) {
+            log.debug("Could not weigh cache value of type {}; assuming {} bytes. {}",
+                    value.getClass().getName(), UNKNOWN_WEIGHT, e.toString());
+            return UNKNOWN_WEIGHT;
+        }
+    }
+}
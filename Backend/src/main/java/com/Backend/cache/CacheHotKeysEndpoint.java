@@ -0,0 +1,31 @@
+package com.Backend.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/cachehotkeys}: the most requested cache keys, from {@link HotKeySampler}.
+ * Keys can contain user emails, so the path is restricted to admins in {@code SecurityConfig}.
+ */
+@Endpoint(id = "cachehotkeys")
+public class CacheHotKeysEndpoint {
+
+    private final HotKeySampler sampler;
+    private final int defaultLimit;
+
+    public CacheHotKeysEndpoint(HotKeySampler sampler, int defaultLimit) {
+        this.sampler = sampler;
+        this.defaultLimit = defaultLimit;
+    }
+
+    public record HotKeysReport(double sampleRate, List<HotKeySampler.HotKey> keys) {
+    }
+
+    @ReadOperation
+    public HotKeysReport hotKeys(@Nullable Integer limit) {
+        return new HotKeysReport(sampler.sampleRate(), sampler.top(limit != null ? limit : defaultLimit));
+    }
+}
@@ -0,0 +1,21 @@
+package com.Backend.cache;
+
+import java.io.Serializable;
+
+/**
+ * An evict ({@code key != null}) or clear ({@code key == null}) broadcast to peer L1 caches.
+ * {@code sequence} increases by one per message from {@code origin}, so receivers can detect
+ * messages they missed.
+ */
+public record CacheInvalidation(
+        String origin,
+        long sequence,
+        long sentAtEpochMillis,
+        String cacheName,
+        Object key
+) implements Serializable {
+
+    public boolean isClear() {
+        return key == null;
+    }
+}
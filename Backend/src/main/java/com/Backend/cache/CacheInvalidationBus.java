@@ -0,0 +1,314 @@
+package com.Backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Propagates {@link Multilevel_Cache} evictions to the L1 (Caffeine) tier of every other node over
+ * Redis pub/sub.
+ *
+ * <p>The subscription runs on a dedicated daemon thread and, like the sync wakeup listener, retries
+ * with backoff while Redis is unreachable instead of failing startup. Pub/sub is fire-and-forget,
+ * so the bus flushes the whole local L1 whenever it may have missed a message: on every
+ * re-subscription after a dropped connection, and when a peer's sequence number skips ahead. A
+ * publisher consumes a sequence number even when publishing fails, so peers notice the loss on
+ * its next message. Propagation lag is measured from the sender's wall clock and therefore
+ * includes clock skew between nodes.
+ *
+ * <p>The same subscription carries {@link CacheLoadCoordinator#LEASE_RELEASED_CHANNEL}, whose
+ * notices wake this node's waiters for another node's load.
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener, SubscriptionListener, SmartLifecycle {
+
+    public static final String CHANNEL = "cache:invalidation";
+    private static final byte[] CHANNEL_BYTES = CHANNEL.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LEASE_RELEASED_CHANNEL_BYTES =
+            CacheLoadCoordinator.LEASE_RELEASED_CHANNEL.getBytes(StandardCharsets.UTF_8);
+    private static final String METRIC_PREFIX = "cache.invalidation";
+    private static final long SUBSCRIPTION_CHECK_MS = 1_000L;
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000L;
+    private static final ObjectInputFilter MESSAGE_FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=8;maxbytes=65536;com.Backend.**;java.lang.*;java.util.*;java.time.*;"
+                    + "org.springframework.cache.interceptor.SimpleKey;!*");
+
+    private final CacheManager localCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    @Nullable
+    private final CacheLoadCoordinator loadCoordinator;
+    private final boolean enabled;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, Long> lastSequenceByOrigin = new ConcurrentHashMap<>();
+    private final AtomicBoolean subscribedBefore = new AtomicBoolean();
+    private volatile boolean running;
+    private Thread subscriberThread;
+
+    private final Counter published;
+    private final Counter publishFailures;
+    private final Counter received;
+    private final Counter flushesOnResubscribe;
+    private final Counter flushesOnGap;
+    private final Timer propagationLag;
+
+    public CacheInvalidationBus(
+            CacheManager localCacheManager,
+            StringRedisTemplate redisTemplate,
+            RedisConnectionFactory connectionFactory,
+            @Nullable CacheLoadCoordinator loadCoordinator,
+            MeterRegistry meterRegistry,
+            boolean enabled) {
+        this.localCacheManager = localCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.loadCoordinator = loadCoordinator;
+        this.enabled = enabled;
+
+        this.published = Counter.builder(METRIC_PREFIX + ".messages")
+                .description("Cache invalidation messages published or received from peers")
+                .tag("direction", "published")
+                .register(meterRegistry);
+        this.received = Counter.builder(METRIC_PREFIX + ".messages")
+                .description("Cache invalidation messages published or received from peers")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.publishFailures = Counter.builder(METRIC_PREFIX + ".publish.failures")
+                .description("Cache invalidation messages that could not be published")
+                .register(meterRegistry);
+        this.flushesOnResubscribe = Counter.builder(METRIC_PREFIX + ".l1.flushes")
+                .description("Full L1 flushes after possibly missing invalidation messages")
+                .tag("reason", "resubscribed")
+                .register(meterRegistry);
+        this.flushesOnGap = Counter.builder(METRIC_PREFIX + ".l1.flushes")
+                .description("Full L1 flushes after possibly missing invalidation messages")
+                .tag("reason", "sequence_gap")
+                .register(meterRegistry);
+        this.propagationLag = Timer.builder(METRIC_PREFIX + ".lag")
+                .description("Delay between a peer publishing an invalidation and this node applying it")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofMillis(10), Duration.ofMillis(100), Duration.ofSeconds(1))
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        subscriberThread = new Thread(this::subscribeLoop, "cache-invalidation-subscriber");
+        subscriberThread.setDaemon(true);
+        subscriberThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (subscriberThread != null) {
+            subscriberThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void subscribeLoop() {
+        long reconnectDelayMs = 1_000L;
+        while (running) {
+            RedisConnection connection = null;
+            try {
+                connection = connectionFactory.getConnection();
+                // Lettuce subscribes asynchronously and re-subscribes by itself after reconnecting;
+                // each confirmation arrives in onChannelSubscribed.
+                connection.subscribe(this, CHANNEL_BYTES, LEASE_RELEASED_CHANNEL_BYTES);
+                reconnectDelayMs = 1_000L;
+                while (running && connection.isSubscribed()) {
+                    Thread.sleep(SUBSCRIPTION_CHECK_MS);
+                }
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation subscriber lost Redis; retrying in {} ms: {}", reconnectDelayMs, ex.toString());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                reconnectDelayMs = Math.min(MAX_RECONNECT_DELAY_MS, reconnectDelayMs * 2);
+            } finally {
+                closeQuietly(connection);
+            }
+        }
+    }
+
+    private static void closeQuietly(RedisConnection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (RuntimeException ignored) {
+            // Already broken; nothing left to release.
+        }
+    }
+
+    public void publishEvict(String cacheName, Object key) {
+        publish(cacheName, key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName, null);
+    }
+
+    private void publish(String cacheName, @Nullable Object key) {
+        if (!enabled) {
+            return;
+        }
+        CacheInvalidation invalidation = new CacheInvalidation(
+                nodeId, sequence.incrementAndGet(), System.currentTimeMillis(), cacheName, key);
+        try {
+            byte[] payload = encode(invalidation);
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(CHANNEL_BYTES, payload));
+            published.increment();
+        } catch (RuntimeException | IOException e) {
+            publishFailures.increment();
+            log.warn("Cache invalidation publish failed for cache {} key {}. Peers flush L1 on the next message. {}",
+                    cacheName, key, e.toString());
+        }
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, @Nullable byte[] pattern) {
+        if (Arrays.equals(message.getChannel(), LEASE_RELEASED_CHANNEL_BYTES)) {
+            if (loadCoordinator != null) {
+                loadCoordinator.onLeaseReleased(new String(message.getBody(), StandardCharsets.UTF_8));
+            }
+            return;
+        }
+        CacheInvalidation invalidation;
+        try {
+            invalidation = decode(message.getBody());
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            // An unreadable message is a missed message.
+            log.warn("Unreadable cache invalidation message; flushing L1. {}", e.toString());
+            flushLocal();
+            flushesOnGap.increment();
+            return;
+        }
+        if (nodeId.equals(invalidation.origin())) {
+            return;
+        }
+        received.increment();
+        propagationLag.record(Math.max(0L, System.currentTimeMillis() - invalidation.sentAtEpochMillis()),
+                TimeUnit.MILLISECONDS);
+
+        Long previous = lastSequenceByOrigin.put(invalidation.origin(), invalidation.sequence());
+        if (previous != null && invalidation.sequence() > previous + 1) {
+            log.info("Missed {} cache invalidations from node {}; flushing L1",
+                    invalidation.sequence() - previous - 1, invalidation.origin());
+            flushLocal();
+            flushesOnGap.increment();
+            return;
+        }
+        apply(invalidation);
+    }
+
+    @Override
+    public void onChannelSubscribed(@NonNull byte[] channel, long count) {
+        if (!Arrays.equals(channel, CHANNEL_BYTES)) {
+            return;
+        }
+        if (subscribedBefore.getAndSet(true)) {
+            log.info("Re-subscribed to {}; flushing L1 in case invalidations were missed", CHANNEL);
+            // Sequence baselines from before the disconnect no longer say anything about gaps.
+            lastSequenceByOrigin.clear();
+            flushLocal();
+            flushesOnResubscribe.increment();
+        }
+    }
+
+    private void apply(CacheInvalidation invalidation) {
+        Cache cache = localCacheManager.getCache(invalidation.cacheName());
+        if (cache == null) {
+            return;
+        }
+        if (invalidation.isClear()) {
+            cache.clear();
+        } else {
+            cache.evict(invalidation.key());
+        }
+    }
+
+    private void flushLocal() {
+        for (String name : localCacheManager.getCacheNames()) {
+            Cache cache = localCacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    private static byte[] encode(CacheInvalidation invalidation) throws IOException {
+        try {
+            return serialize(invalidation);
+        } catch (NotSerializableException e) {
+            // Keys are expected to be serializable; if one is not, peers clear the whole cache instead.
+            return serialize(new CacheInvalidation(invalidation.origin(), invalidation.sequence(),
+                    invalidation.sentAtEpochMillis(), invalidation.cacheName(), null));
+        }
+    }
+
+    private static byte[] serialize(CacheInvalidation invalidation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(invalidation);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static CacheInvalidation decode(byte[] body) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(body))) {
+            in.setObjectInputFilter(MESSAGE_FILTER);
+            return (CacheInvalidation) in.readObject();
+        }
+    }
+}
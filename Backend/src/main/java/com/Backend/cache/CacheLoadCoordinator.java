@@ -0,0 +1,470 @@
+package com.Backend.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stampede protection for {@link Multilevel_Cache#get(Object, Callable)}, i.e. {@code @Cacheable(sync = true)}.
+ *
+ * <ul>
+ *   <li>Single-flight: concurrent misses for one key on this node share one loader call.</li>
+ *   <li>Lease: the loading node holds {@code cache:lease:<cache>::<key>} in Redis (SET NX PX) while it
+ *   loads and announces its release on {@link #LEASE_RELEASED_CHANNEL}; other nodes wait for that
+ *   notice (rechecking L2 with growing intervals in case it is lost) for up to {@code max-wait},
+ *   then load themselves. If Redis is unreachable the lease is skipped.</li>
+ *   <li>Refresh-ahead (XFetch), for caches whose {@link CachePolicy#refreshesAhead()} is set: a hit on
+ *   an entry this node loaded reloads it in the background with probability rising towards
+ *   expiry, weighted by how long the load took ({@code now - delta * beta * ln(rand) >= expiry}).
+ *   Load times are kept per node, so entries pulled from L2 are refreshed by whichever node loaded
+ *   them. {@code beta <= 0} disables it. A cache's {@link CachePolicy#getRefreshAfterWrite()}
+ *   additionally refreshes every hit on an entry older than that. The background loader runs in a
+ *   read-only transaction, since the caller's transaction and open session stay on its thread.</li>
+ * </ul>
+ *
+ * <p>Local-only caches skip the lease, since other nodes cannot pick up the result from L2.
+ */
+@Slf4j
+public class CacheLoadCoordinator {
+
+    /** Carries the lease key of every released lease; {@link CacheInvalidationBus} subscribes to it. */
+    public static final String LEASE_RELEASED_CHANNEL = "cache:lease:released";
+    private static final String LEASE_PREFIX = "cache:lease:";
+    private static final RedisScript<Long> RELEASE_LEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then redis.call('del', KEYS[1]); "
+                    + "redis.call('publish', ARGV[2], KEYS[1]); return 1 else return 0 end",
+            Long.class);
+    private static final String[] LEASE_WAIT_OUTCOMES =
+            {"filled", "released", "timeout", "interrupted", "redis_error"};
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisCircuitBreaker breaker;
+    private final Executor refreshExecutor;
+    @Nullable
+    private final TransactionTemplate refreshTransaction;
+    private final MeterRegistry meterRegistry;
+    private final Settings settings;
+    private final ConcurrentHashMap<LoadKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Set<LoadKey> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<String, CompletableFuture<Void>> leaseReleases = new ConcurrentHashMap<>();
+    private final Map<String, Meters> metersByCache = new ConcurrentHashMap<>();
+    private final com.github.benmanes.caffeine.cache.Cache<LoadKey, LoadStats> loadStats;
+
+    /**
+     * @param transactionManager runs background refreshes in a read-only transaction; null runs
+     *                           them without one
+     */
+    public CacheLoadCoordinator(
+            StringRedisTemplate redisTemplate,
+            RedisCircuitBreaker breaker,
+            Executor refreshExecutor,
+            @Nullable PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            Settings settings) {
+        this.redisTemplate = redisTemplate;
+        this.breaker = breaker;
+        this.refreshExecutor = refreshExecutor;
+        if (transactionManager != null) {
+            this.refreshTransaction = new TransactionTemplate(transactionManager);
+            this.refreshTransaction.setReadOnly(true);
+        } else {
+            this.refreshTransaction = null;
+        }
+        this.meterRegistry = meterRegistry;
+        this.settings = settings;
+        this.loadStats = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(settings.longestEntryTtl())
+                .build();
+    }
+
+    /**
+     * @param leaseEnabled     take a Redis lease around loads so one node loads per key
+     * @param leaseTtl         lease expiry, bounding how long a crashed loader blocks others
+     * @param leaseMaxWait     how long a node waits for the lease holder's result before loading itself
+     * @param leasePoll        first L2 recheck while waiting for a release notice; later ones back off
+     * @param refreshAheadBeta XFetch aggressiveness; 1.0 is the standard setting, 0 disables it
+     * @param longestEntryTtl  longest lifetime of any cache's entries; load times are kept this long
+     */
+    public record Settings(
+            boolean leaseEnabled,
+            Duration leaseTtl,
+            Duration leaseMaxWait,
+            Duration leasePoll,
+            double refreshAheadBeta,
+            Duration longestEntryTtl
+    ) {
+    }
+
+    /** Loads a value missing from both tiers and stores it in both. */
+    public <T> T load(Cache cache, CachePolicy policy, Object key, Callable<T> loader) throws Exception {
+        LoadKey id = new LoadKey(cache.getName(), key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(id, flight);
+        if (existing != null) {
+            meters(id.cacheName()).coalesced.increment();
+            return await(existing);
+        }
+
+        meters(id.cacheName()).leader.increment();
+        try {
+            T value = policy.usesRemote()
+                    ? loadUnderLease(cache, policy, id, loader)
+                    : loadAndStore(cache, policy, id, loader, false);
+            flight.complete(value);
+            return value;
+        } catch (Exception | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, flight);
+        }
+    }
+
+    /** Called on a cache hit; schedules a background reload when the entry is due. */
+    public void refreshAheadIfDue(Cache cache, CachePolicy policy, Object key, Callable<?> loader) {
+        if (!policy.refreshesAhead()
+                || (settings.refreshAheadBeta() <= 0 && policy.getRefreshAfterWrite() == null)) {
+            return;
+        }
+        LoadKey id = new LoadKey(cache.getName(), key);
+        LoadStats stats = loadStats.getIfPresent(id);
+        if (stats == null || !stats.dueForRefresh(System.nanoTime(), settings.refreshAheadBeta(), policy)) {
+            return;
+        }
+        if (!refreshing.add(id)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(cache, policy, id, loader));
+        } catch (RejectedExecutionException ex) {
+            refreshing.remove(id);
+            meters(id.cacheName()).refreshRejected.increment();
+        }
+    }
+
+    /** Wakes this node's waiters for a lease released by another node. */
+    public void onLeaseReleased(String leaseKey) {
+        CompletableFuture<Void> released = leaseReleases.remove(leaseKey);
+        if (released != null) {
+            released.complete(null);
+        }
+    }
+
+    private void refresh(Cache cache, CachePolicy policy, LoadKey id, Callable<?> loader) {
+        String token = UUID.randomUUID().toString();
+        Boolean leased = settings.leaseEnabled() && policy.usesRemote() ? tryAcquireLease(id, token) : null;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        try {
+            // Another node, or a miss on this one, is already loading this key.
+            if (Boolean.FALSE.equals(leased) || inFlight.putIfAbsent(id, flight) != null) {
+                meters(id.cacheName()).refreshSkipped.increment();
+                return;
+            }
+            // Misses arriving meanwhile join this flight instead of loading again.
+            flight.complete(loadAndStore(cache, policy, id, inRefreshTransaction(loader), Boolean.TRUE.equals(leased)));
+            meters(id.cacheName()).refreshed.increment();
+        } catch (Exception ex) {
+            flight.completeExceptionally(ex);
+            meters(id.cacheName()).refreshFailed.increment();
+            log.warn("Refresh-ahead failed for cache {} key {}; the entry expires normally. {}",
+                    id.cacheName(), id.key(), ex.toString());
+        } finally {
+            inFlight.remove(id, flight);
+            refreshing.remove(id);
+            if (Boolean.TRUE.equals(leased)) {
+                releaseLease(id, token);
+            }
+        }
+    }
+
+    /**
+     * The loader of a {@code sync = true} {@code @Cacheable} continues the original method
+     * invocation, which may skip the transaction interceptor; give it a transaction of its own so
+     * lazy associations still load on the refresh thread.
+     */
+    private <T> Callable<T> inRefreshTransaction(Callable<T> loader) {
+        TransactionTemplate transaction = refreshTransaction;
+        if (transaction == null) {
+            return loader;
+        }
+        return () -> {
+            try {
+                return transaction.execute(status -> {
+                    try {
+                        return loader.call();
+                    } catch (RuntimeException ex) {
+                        throw ex;
+                    } catch (Exception ex) {
+                        throw new UndeclaredThrowableException(ex);
+                    }
+                });
+            } catch (UndeclaredThrowableException ex) {
+                throw (Exception) ex.getUndeclaredThrowable();
+            }
+        };
+    }
+
+    private <T> T loadUnderLease(Cache cache, CachePolicy policy, LoadKey id, Callable<T> loader) throws Exception {
+        if (!settings.leaseEnabled()) {
+            return loadAndStore(cache, policy, id, loader, false);
+        }
+        String token = UUID.randomUUID().toString();
+        Boolean leased = tryAcquireLease(id, token);
+        if (Boolean.FALSE.equals(leased)) {
+            Cache.ValueWrapper peerValue = awaitLeaseHolder(cache, id);
+            if (peerValue != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) peerValue.get();
+                return value;
+            }
+            return loadAndStore(cache, policy, id, loader, false);
+        }
+        try {
+            if (Boolean.TRUE.equals(leased)) {
+                // The previous holder may have stored the value just before releasing.
+                Cache.ValueWrapper stored = cache.get(id.key());
+                if (stored != null) {
+                    @SuppressWarnings("unchecked")
+                    T value = (T) stored.get();
+                    return value;
+                }
+            }
+            return loadAndStore(cache, policy, id, loader, Boolean.TRUE.equals(leased));
+        } finally {
+            if (Boolean.TRUE.equals(leased)) {
+                releaseLease(id, token);
+            }
+        }
+    }
+
+    /**
+     * @param leased whether this load holds the lease; peers read Redis as soon as it is released,
+     *               so the value is written through rather than queued behind write-behind
+     */
+    private <T> T loadAndStore(Cache cache, CachePolicy policy, LoadKey id, Callable<T> loader, boolean leased)
+            throws Exception {
+        long started = System.nanoTime();
+        T value;
+        try {
+            value = loader.call();
+        } catch (Exception ex) {
+            meters(id.cacheName()).loadFailure.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        long finished = System.nanoTime();
+        meters(id.cacheName()).loadSuccess.record(finished - started, TimeUnit.NANOSECONDS);
+        if (leased && cache instanceof Multilevel_Cache multilevel) {
+            multilevel.putThrough(id.key(), value);
+        } else {
+            cache.put(id.key(), value);
+        }
+        loadStats.put(id, new LoadStats(finished - started, finished, finished + policy.entryTtl().toNanos()));
+        return value;
+    }
+
+    /**
+     * Waits until the lease holder stores the value, the lease goes away, or the wait runs out. The
+     * holder's release notice ends the wait; L2 is also rechecked at doubling intervals, which covers
+     * a lost notice and a holder whose lease expired without one.
+     */
+    @Nullable
+    private Cache.ValueWrapper awaitLeaseHolder(Cache cache, LoadKey id) {
+        long started = System.nanoTime();
+        long deadline = started + settings.leaseMaxWait().toNanos();
+        String leaseKey = leaseKey(id);
+        CompletableFuture<Void> released = leaseReleases.computeIfAbsent(leaseKey, ignored -> new CompletableFuture<>());
+        String outcome = "timeout";
+        Cache.ValueWrapper value = null;
+        try {
+            long recheckNanos = Math.max(1L, settings.leasePoll().toNanos());
+            while (true) {
+                if (!Boolean.TRUE.equals(redisTemplate.hasKey(leaseKey))) {
+                    // The holder may have stored the value between our read and its release.
+                    value = cache.get(id.key());
+                    // Otherwise it finished without storing anything, or its lease expired.
+                    outcome = value != null ? "filled" : "released";
+                    break;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                try {
+                    released.get(Math.min(recheckNanos, remaining), TimeUnit.NANOSECONDS);
+                    // Released, yet possibly leased again by another node: wait for its notice next.
+                    leaseReleases.remove(leaseKey, released);
+                    released = leaseReleases.computeIfAbsent(leaseKey, ignored -> new CompletableFuture<>());
+                } catch (TimeoutException ex) {
+                    recheckNanos *= 2;
+                }
+                value = cache.get(id.key());
+                if (value != null) {
+                    outcome = "filled";
+                    break;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            outcome = "interrupted";
+        } catch (ExecutionException | RuntimeException ex) {
+            outcome = "redis_error";
+        } finally {
+            leaseReleases.remove(leaseKey, released);
+        }
+        meters(id.cacheName()).leaseWaits.get(outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return value;
+    }
+
+    /** TRUE if acquired, FALSE if another loader holds it, null if Redis could not be asked. */
+    @Nullable
+    private Boolean tryAcquireLease(LoadKey id, String token) {
+        if (!breaker.tryAcquirePermission()) {
+            return null;
+        }
+        long started = System.nanoTime();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(leaseKey(id), token, settings.leaseTtl());
+            breaker.onSuccess(System.nanoTime() - started);
+            return acquired;
+        } catch (RuntimeException ex) {
+            breaker.onError(System.nanoTime() - started);
+            log.debug("Cache lease unavailable for {}::{}; loading without it. {}", id.cacheName(), id.key(), ex.toString());
+            return null;
+        }
+    }
+
+    private void releaseLease(LoadKey id, String token) {
+        if (!breaker.tryAcquirePermission()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            // Only delete our own lease; it may have expired and been taken by another node.
+            redisTemplate.execute(RELEASE_LEASE, List.of(leaseKey(id)), token, LEASE_RELEASED_CHANNEL);
+            breaker.onSuccess(System.nanoTime() - started);
+        } catch (RuntimeException ex) {
+            breaker.onError(System.nanoTime() - started);
+            log.debug("Cache lease release failed for {}::{}; it expires on its own. {}", id.cacheName(), id.key(), ex.toString());
+        }
+    }
+
+    private static String leaseKey(LoadKey id) {
+        return LEASE_PREFIX + id.cacheName() + "::" + id.key();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T await(CompletableFuture<Object> flight) throws Exception {
+        try {
+            return (T) flight.get();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof Exception exception) {
+                throw exception;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private Meters meters(String cacheName) {
+        return metersByCache.computeIfAbsent(cacheName, name -> new Meters(meterRegistry, name));
+    }
+
+    /** Per-cache meters, registered once when a cache first loads. */
+    private static final class Meters {
+        private final Counter leader;
+        private final Counter coalesced;
+        private final Counter refreshed;
+        private final Counter refreshSkipped;
+        private final Counter refreshFailed;
+        private final Counter refreshRejected;
+        private final Timer loadSuccess;
+        private final Timer loadFailure;
+        private final Map<String, Timer> leaseWaits = new ConcurrentHashMap<>();
+
+        private Meters(MeterRegistry meterRegistry, String cacheName) {
+            this.leader = load(meterRegistry, cacheName, "leader");
+            this.coalesced = load(meterRegistry, cacheName, "coalesced");
+            this.refreshed = refresh(meterRegistry, cacheName, "refreshed");
+            this.refreshSkipped = refresh(meterRegistry, cacheName, "skipped");
+            this.refreshFailed = refresh(meterRegistry, cacheName, "failed");
+            this.refreshRejected = refresh(meterRegistry, cacheName, "rejected");
+            this.loadSuccess = loadDuration(meterRegistry, cacheName, "success");
+            this.loadFailure = loadDuration(meterRegistry, cacheName, "failure");
+            for (String outcome : LEASE_WAIT_OUTCOMES) {
+                leaseWaits.put(outcome, Timer.builder("cache.lease.wait")
+                        .description("Time spent waiting for another node's load of the same key")
+                        .tags("cache", cacheName, "outcome", outcome)
+                        .register(meterRegistry));
+            }
+        }
+
+        private static Counter load(MeterRegistry meterRegistry, String cacheName, String path) {
+            return Counter.builder("cache.loads")
+                    .description("Cache misses that ran the loader (leader) or joined an in-flight load (coalesced)")
+                    .tags("cache", cacheName, "path", path)
+                    .register(meterRegistry);
+        }
+
+        private static Counter refresh(MeterRegistry meterRegistry, String cacheName, String outcome) {
+            return Counter.builder("cache.refresh.ahead")
+                    .description("Background refreshes of entries nearing expiry")
+                    .tags("cache", cacheName, "outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        private static Timer loadDuration(MeterRegistry meterRegistry, String cacheName, String outcome) {
+            return Timer.builder("cache.load.duration")
+                    .description("Time spent loading values on cache misses")
+                    .tags("cache", cacheName, "outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+    private record LoadKey(String cacheName, Object key) {
+    }
+
+    private record LoadStats(long deltaNanos, long loadedAtNanos, long expiresAtNanos) {
+
+        boolean dueForRefresh(long nowNanos, double beta, CachePolicy policy) {
+            if (policy.getRefreshAfterWrite() != null
+                    && nowNanos - loadedAtNanos >= policy.getRefreshAfterWrite().toNanos()) {
+                return true;
+            }
+            if (beta <= 0) {
+                return false;
+            }
+            // 1 - nextDouble() is in (0, 1], so the log is finite and never positive.
+            double jitter = -Math.log(1.0 - ThreadLocalRandom.current().nextDouble());
+            return nowNanos + deltaNanos * beta * jitter >= expiresAtNanos;
+        }
+    }
+}
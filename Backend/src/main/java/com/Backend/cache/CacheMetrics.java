@@ -0,0 +1,197 @@
+package com.Backend.cache;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for the two cache tiers, tagged by cache name and tier ({@code l1} for
+ * Caffeine, {@code l2} for Redis):
+ * <ul>
+ *   <li>{@code cache.gets{cache,tier,result}}: lookups per tier; an L2 lookup only follows an L1 miss</li>
+ *   <li>{@code cache.load.duration{cache,outcome}}: time spent in value loaders</li>
+ *   <li>{@code cache.remote.duration{cache,op,outcome}}: Redis round trips</li>
+ *   <li>{@code cache.payload.size{cache}}: serialized bytes written to Redis</li>
+ *   <li>{@code cache.evictions{cache,tier,cause}}: removals by Caffeine cause, explicit L2 evicts and clears</li>
+ *   <li>{@code cache.size} / {@code cache.weight{cache,tier=l1}}: estimated L1 entries and weighed bytes</li>
+ *   <li>{@code cache.offheap.read} / {@code cache.offheap.reserved{cache}}: hit cost and direct memory of
+ *   {@link OffHeapCache}s, whose {@code cache.weight} is the heap they save</li>
+ * </ul>
+ * Loads themselves are counted by {@link CacheLoadCoordinator} as {@code cache.loads}.
+ */
+public class CacheMetrics {
+
+    public static final String L1 = "l1";
+    public static final String L2 = "l2";
+
+    private final MeterRegistry meterRegistry;
+    private final HotKeySampler hotKeys;
+    private final Map<String, CacheMeters> byCache = new ConcurrentHashMap<>();
+
+    public CacheMetrics(MeterRegistry meterRegistry, HotKeySampler hotKeys) {
+        this.meterRegistry = meterRegistry;
+        this.hotKeys = hotKeys;
+    }
+
+    public CacheMeters forCache(String cacheName) {
+        return byCache.computeIfAbsent(cacheName, name -> new CacheMeters(meterRegistry, name));
+    }
+
+    public HotKeySampler hotKeys() {
+        return hotKeys;
+    }
+
+    /** Publishes size and weight gauges for a Caffeine (L1) cache. */
+    public void bindLocal(String cacheName, com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+        Gauge.builder("cache.size", nativeCache, com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                .description("Estimated number of entries in the local cache")
+                .tags("cache", cacheName, "tier", L1)
+                .register(meterRegistry);
+        nativeCache.policy().eviction()
+                .filter(eviction -> eviction.isWeighted())
+                .ifPresent(eviction -> Gauge.builder("cache.weight", eviction,
+                                policy -> policy.weightedSize().orElse(0L))
+                        .description("Serialized bytes held by the local cache, as weighed by CacheEntryWeigher")
+                        .baseUnit("bytes")
+                        .tags("cache", cacheName, "tier", L1)
+                        .register(meterRegistry));
+    }
+
+    /** Publishes size, used and reserved bytes for an {@link OffHeapCache}. */
+    public void bindOffHeap(String cacheName, OffHeapCache cache) {
+        Gauge.builder("cache.size", cache, OffHeapCache::estimatedSize)
+                .description("Estimated number of entries in the local cache")
+                .tags("cache", cacheName, "tier", L1)
+                .register(meterRegistry);
+        Gauge.builder("cache.weight", cache, OffHeapCache::usedBytes)
+                .description("Bytes of off-heap blocks holding entries of the local cache")
+                .baseUnit("bytes")
+                .tags("cache", cacheName, "tier", L1)
+                .register(meterRegistry);
+        Gauge.builder("cache.offheap.reserved", cache, OffHeapCache::reservedBytes)
+                .description("Direct memory reserved by an off-heap local cache")
+                .baseUnit("bytes")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    /** Counts L1 removals by cause; replacing a value is not a removal and is skipped. */
+    public RemovalListener<Object, Object> removalListener(String cacheName) {
+        return (key, value, cause) -> {
+            if (cause != RemovalCause.REPLACED) {
+                forCache(cacheName).eviction(L1, cause.name().toLowerCase(Locale.ROOT));
+            }
+        };
+    }
+
+    public static final class CacheMeters {
+        private final MeterRegistry meterRegistry;
+        private final String cacheName;
+        private final Counter l1Hits;
+        private final Counter l1Misses;
+        private final Counter l2Hits;
+        private final Counter l2Misses;
+        private final DistributionSummary payloadSize;
+        private final Timer offHeapReads;
+        private final Timer loadSuccess;
+        private final Timer loadFailure;
+        private final Map<String, Timer> remoteTimers = new ConcurrentHashMap<>();
+        private final Map<String, Counter> evictions = new ConcurrentHashMap<>();
+
+        private CacheMeters(MeterRegistry meterRegistry, String cacheName) {
+            this.meterRegistry = meterRegistry;
+            this.cacheName = cacheName;
+            this.l1Hits = gets(L1, "hit");
+            this.l1Misses = gets(L1, "miss");
+            this.l2Hits = gets(L2, "hit");
+            this.l2Misses = gets(L2, "miss");
+            this.payloadSize = DistributionSummary.builder("cache.payload.size")
+                    .description("Serialized size of values written to Redis")
+                    .baseUnit("bytes")
+                    .tag("cache", cacheName)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(64.0)
+                    .maximumExpectedValue(4.0 * 1024 * 1024)
+                    .register(meterRegistry);
+            this.offHeapReads = Timer.builder("cache.offheap.read")
+                    .description("Copying and deserializing a value on an off-heap L1 hit")
+                    .tag("cache", cacheName)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.loadSuccess = loadDuration("success");
+            this.loadFailure = loadDuration("failure");
+        }
+
+        public void localGet(boolean hit) {
+            (hit ? l1Hits : l1Misses).increment();
+        }
+
+        public void remoteGet(boolean hit) {
+            (hit ? l2Hits : l2Misses).increment();
+        }
+
+        /** Bulk lookups count every key, so hit ratios stay comparable with single-key reads. */
+        public void remoteGets(int hits, int misses) {
+            l2Hits.increment(hits);
+            l2Misses.increment(misses);
+        }
+
+        public void localGets(int hits, int misses) {
+            l1Hits.increment(hits);
+            l1Misses.increment(misses);
+        }
+
+        public void remoteCall(String op, boolean success, long nanos) {
+            remoteTimers.computeIfAbsent(op + (success ? ":success" : ":error"), ignored ->
+                    Timer.builder("cache.remote.duration")
+                            .description("Redis cache round trips")
+                            .tags("cache", cacheName, "op", op, "outcome", success ? "success" : "error")
+                            .publishPercentileHistogram()
+                            .register(meterRegistry))
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void load(boolean success, long nanos) {
+            (success ? loadSuccess : loadFailure).record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void offHeapRead(long nanos) {
+            offHeapReads.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        public void payload(int bytes) {
+            payloadSize.record(bytes);
+        }
+
+        public void eviction(String tier, String cause) {
+            evictions.computeIfAbsent(tier + ":" + cause, ignored -> Counter.builder("cache.evictions")
+                            .description("Cache entries removed, by tier and cause")
+                            .tags("cache", cacheName, "tier", tier, "cause", cause)
+                            .register(meterRegistry))
+                    .increment();
+        }
+
+        private Timer loadDuration(String outcome) {
+            return Timer.builder("cache.load.duration")
+                    .description("Time spent loading values on cache misses")
+                    .tags("cache", cacheName, "outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        private Counter gets(String tier, String result) {
+            return Counter.builder("cache.gets")
+                    .description("Cache lookups per tier")
+                    .tags("cache", cacheName, "tier", tier, "result", result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.Backend.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Tiering, size and lifetime settings of one cache, bound from {@code cache.policies} in
+ * application.yml. Unset fields fall back to {@code cache.policies.defaults}, then to
+ * {@link #builtIn()}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachePolicy {
+
+    public enum Mode {
+        /** Caffeine in front of Redis. */
+        MULTILEVEL,
+        /** Caffeine only; evictions still reach peers over the invalidation bus. */
+        LOCAL_ONLY,
+        /** Redis only, for values too large or too rarely reused to hold on every node's heap. */
+        REMOTE_ONLY
+    }
+
+    public enum LocalStore {
+        /** Live objects in Caffeine. */
+        HEAP,
+        /** Serialized bytes in direct memory ({@link OffHeapCache}); each hit deserializes. */
+        OFF_HEAP
+    }
+
+    private Mode mode;
+    private LocalStore localStore;
+    /** L1 budget, measured as the serialized size of the cached values; off-heap, the direct memory used. */
+    private DataSize localMaxWeight;
+    private Duration localTtl;
+    private Duration remoteTtl;
+    /** Hits on entries older than this are reloaded in the background; unset leaves only XFetch. */
+    private Duration refreshAfterWrite;
+    /**
+     * Whether hits may reload entries in the background at all. The loader then runs on a refresh
+     * thread inside a read-only transaction, without the caller's request or security context, so
+     * only enable it for loaders that depend on nothing but their arguments.
+     */
+    private Boolean refreshAhead;
+
+    public static CachePolicy builtIn() {
+        return CachePolicy.builder()
+                .mode(Mode.MULTILEVEL)
+                .localStore(LocalStore.HEAP)
+                .localMaxWeight(DataSize.ofMegabytes(32))
+                .localTtl(Duration.ofMinutes(10))
+                .remoteTtl(Duration.ofMinutes(10))
+                .refreshAhead(false)
+                .build();
+    }
+
+    public boolean usesLocal() {
+        return mode != Mode.REMOTE_ONLY;
+    }
+
+    public boolean usesRemote() {
+        return mode != Mode.LOCAL_ONLY;
+    }
+
+    public boolean refreshesAhead() {
+        return Boolean.TRUE.equals(refreshAhead);
+    }
+
+    /** How long an entry can be served from the tiers this cache uses. */
+    public Duration entryTtl() {
+        if (!usesRemote()) {
+            return localTtl;
+        }
+        return usesLocal() && localTtl.compareTo(remoteTtl) < 0 ? localTtl : remoteTtl;
+    }
+
+    /** This policy with unset fields taken from {@code fallback}. */
+    CachePolicy withFallback(CachePolicy fallback) {
+        return CachePolicy.builder()
+                .mode(mode != null ? mode : fallback.mode)
+                .localStore(localStore != null ? localStore : fallback.localStore)
+                .localMaxWeight(localMaxWeight != null ? localMaxWeight : fallback.localMaxWeight)
+                .localTtl(localTtl != null ? localTtl : fallback.localTtl)
+                .remoteTtl(remoteTtl != null ? remoteTtl : fallback.remoteTtl)
+                .refreshAfterWrite(refreshAfterWrite != null ? refreshAfterWrite : fallback.refreshAfterWrite)
+                .refreshAhead(refreshAhead != null ? refreshAhead : fallback.refreshAhead)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.Backend.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Per-cache {@link CachePolicy} overrides. Cache names are case-sensitive, so yml keys use the
+ * bracket form, e.g. {@code "[userMeDTO]"}.
+ */
+@Data
+@ConfigurationProperties(prefix = "cache.policies")
+public class CachePolicyProperties {
+
+    private CachePolicy defaults = new CachePolicy();
+    private Map<String, CachePolicy> caches = new LinkedHashMap<>();
+
+    /** Policy of caches without their own entry, e.g. ones created on first use. */
+    public CachePolicy defaultPolicy() {
+        return defaults.withFallback(CachePolicy.builtIn());
+    }
+
+    public CachePolicy policyFor(String cacheName) {
+        CachePolicy override = caches.get(cacheName);
+        return override == null ? defaultPolicy() : override.withFallback(defaultPolicy());
+    }
+
+    /** Longest time any configured cache may serve an entry. */
+    public Duration longestEntryTtl() {
+        return Stream.concat(Stream.of(defaultPolicy()), caches.keySet().stream().map(this::policyFor))
+                .map(CachePolicy::entryTtl)
+                .max(Duration::compareTo)
+                .orElseThrow();
+    }
+}
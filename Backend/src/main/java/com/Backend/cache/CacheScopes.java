@@ -0,0 +1,111 @@
+package com.Backend.cache;
+
+import com.Backend.services.FilmType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generation-tagged cache scopes: invalidating everything cached for one chat, film, review or
+ * user in O(1), without {@code allEntries} clears.
+ *
+ * <p>Each scope (e.g. {@code chat:42}) has a generation token stored in the
+ * {@value #GENERATIONS} cache, so it lives in Redis and L1 and peers learn of changes through the
+ * invalidation bus. Scoped entries are cached under {@link #key(String, Object...)}, which embeds
+ * the current token; invalidating the scope evicts the token, a fresh random one is drawn on the
+ * next read, and entries under the old token are never read again and expire by TTL.
+ *
+ * <p>Declare scoped reads with {@code key = "@cacheScopes.key('chat:' + #chatId, #page)"} and
+ * invalidate with {@code @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "'chat:' + #chatId")},
+ * or call {@link #invalidate(String...)} when the scope is only known inside the method. Scope
+ * names are built by the static helpers below; annotations spell out the same strings.
+ */
+@Slf4j
+@Component("cacheScopes")
+public class CacheScopes {
+
+    public static final String GENERATIONS = "cacheScopeGenerations";
+    /** Every user search result; any registration, rename, role change or deletion can alter them. */
+    public static final String USER_DIRECTORY = "users:directory";
+
+    private final CacheManager cacheManager;
+
+    public CacheScopes(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public static String chatScope(Long chatId) {
+        return "chat:" + chatId;
+    }
+
+    public static String filmScope(FilmType type, Long filmId) {
+        return "film:" + type + ":" + filmId;
+    }
+
+    /** Replies to a review. */
+    public static String reviewScope(Long reviewId) {
+        return "review:" + reviewId;
+    }
+
+    /** One facet of a user's data, e.g. {@code reviews}, {@code votes} or {@code friends}. */
+    public static String userScope(Long userId, String facet) {
+        return "user:" + userId + ":" + facet;
+    }
+
+    /** Cache key for {@code parts} within {@code scope}'s current generation. */
+    public String key(String scope, Object... parts) {
+        StringJoiner key = new StringJoiner(":", scope + "#" + Long.toHexString(generation(scope)) + ":", "");
+        for (Object part : parts) {
+            key.add(String.valueOf(part));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Invalidates every entry cached under the given scopes. Inside a transaction this happens
+     * after commit, so a concurrent read cannot re-cache pre-commit data under the new generation.
+     */
+    public void invalidate(String... scopes) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictGenerations(scopes);
+                }
+            });
+        } else {
+            evictGenerations(scopes);
+        }
+    }
+
+    long generation(String scope) {
+        Cache generations = generations();
+        Long current = generations.get(scope, Long.class);
+        if (current != null) {
+            return current;
+        }
+        // Random rather than counted, so a token is never reused after an evicted one.
+        long candidate = ThreadLocalRandom.current().nextLong(1, Long.MAX_VALUE);
+        Cache.ValueWrapper existing = generations.putIfAbsent(scope, candidate);
+        return existing != null && existing.get() instanceof Long winner ? winner : candidate;
+    }
+
+    private void evictGenerations(String... scopes) {
+        Cache generations = generations();
+        for (String scope : scopes) {
+            generations.evict(scope);
+            log.debug("Invalidated cache scope {}", scope);
+        }
+    }
+
+    private Cache generations() {
+        return Objects.requireNonNull(cacheManager.getCache(GENERATIONS), GENERATIONS);
+    }
+}
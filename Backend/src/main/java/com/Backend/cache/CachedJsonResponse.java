@@ -0,0 +1,18 @@
+package com.Backend.cache;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a handler whose response body is a value served from an object cache (or a page built
+ * with {@link JsonResponseCache#page}); its JSON is then serialized once per cached value and
+ * written from {@link JsonResponseCache} on later requests.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachedJsonResponse {
+}
@@ -1,20 +1,56 @@
 package com.Backend.cache;
 
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
+@EnableConfigurationProperties(CachePolicyProperties.class)
 public class CaffeineCacheConfig {
     @Bean
-    public CacheManager caffeineCacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(1000)
-                .expireAfterWrite(10, java.util.concurrent.TimeUnit.MINUTES)
-        );
+    public CacheManager caffeineCacheManager(CachePolicyProperties policies, CacheMetrics cacheMetrics) {
+        KryoRedisSerializer<Object> serializer = new KryoRedisSerializer<>(Object.class);
+        CacheEntryWeigher weigher = new CacheEntryWeigher(serializer);
+        // Every cache, listed or created on first use, gets its own builder so its meters carry its name.
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache createCaffeineCache(String name) {
+                // Off-heap caches are served from here too, so the invalidation bus reaches them.
+                CachePolicy policy = policies.policyFor(name);
+                if (policy.getLocalStore() == CachePolicy.LocalStore.OFF_HEAP) {
+                    return new OffHeapCache(name, policy, serializer, cacheMetrics);
+                }
+                return super.createCaffeineCache(name);
+            }
+
+            @Override
+            protected Cache<Object, Object> createNativeCaffeineCache(String name) {
+                return buildLocalCache(name, policies.policyFor(name), weigher, cacheMetrics);
+            }
+        };
+        // Caches with their own policy get their own budget; the rest use the defaults.
+        policies.getCaches().keySet().forEach(name -> {
+            CachePolicy policy = policies.policyFor(name);
+            if (policy.usesLocal() && policy.getLocalStore() != CachePolicy.LocalStore.OFF_HEAP) {
+                cacheManager.registerCustomCache(name, buildLocalCache(name, policy, weigher, cacheMetrics));
+            }
+        });
         return cacheManager;
     }
+
+    private static Cache<Object, Object> buildLocalCache(
+            String name, CachePolicy policy, CacheEntryWeigher weigher, CacheMetrics cacheMetrics) {
+        Cache<Object, Object> cache = Caffeine.newBuilder()
+                .maximumWeight(policy.getLocalMaxWeight().toBytes())
+                .weigher(weigher)
+                .expireAfterWrite(policy.getLocalTtl())
+                .removalListener(cacheMetrics.removalListener(name))
+                .build();
+        cacheMetrics.bindLocal(name, cache);
+        return cache;
+    }
 }
@@ -0,0 +1,102 @@
+package com.Backend.cache;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Approximate top-N of the most requested cache keys.
+ *
+ * <p>Only a {@code sampleRate} fraction of lookups is counted, so the hot path costs one random
+ * number for most requests. Counts halve every {@code decayInterval}, which lets the ranking
+ * follow shifting traffic; once more than {@code capacity} keys are tracked, the colder half is
+ * dropped. Keys are stored as (truncated) strings and never hold on to cached objects.
+ */
+public class HotKeySampler {
+
+    private static final int MAX_KEY_LENGTH = 200;
+
+    /** @param estimatedRequests {@code samples / sampleRate}, a rough count since the last decays */
+    public record HotKey(String cache, String key, long samples, long estimatedRequests) {
+    }
+
+    private record SampledKey(String cache, String key) {
+    }
+
+    private final double sampleRate;
+    private final int capacity;
+    private final long decayIntervalNanos;
+    private final Map<SampledKey, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final AtomicLong lastDecayNanos = new AtomicLong(System.nanoTime());
+    private final ReentrantLock trimLock = new ReentrantLock();
+
+    public HotKeySampler(double sampleRate, int capacity, Duration decayInterval) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+        this.capacity = Math.max(1, capacity);
+        this.decayIntervalNanos = Math.max(1L, decayInterval.toNanos());
+    }
+
+    public double sampleRate() {
+        return sampleRate;
+    }
+
+    public void sample(String cacheName, Object key) {
+        if (sampleRate <= 0.0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        decayIfDue();
+        String keyText = String.valueOf(key);
+        if (keyText.length() > MAX_KEY_LENGTH) {
+            keyText = keyText.substring(0, MAX_KEY_LENGTH);
+        }
+        counts.computeIfAbsent(new SampledKey(cacheName, keyText), ignored -> new AtomicLong()).incrementAndGet();
+        if (counts.size() > capacity) {
+            trim();
+        }
+    }
+
+    public List<HotKey> top(int limit) {
+        return counts.entrySet().stream()
+                .map(entry -> {
+                    long samples = entry.getValue().get();
+                    return new HotKey(entry.getKey().cache(), entry.getKey().key(), samples,
+                            sampleRate > 0.0 ? Math.round(samples / sampleRate) : 0L);
+                })
+                .filter(hotKey -> hotKey.samples() > 0)
+                .sorted(Comparator.comparingLong(HotKey::samples).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+
+    private void decayIfDue() {
+        long last = lastDecayNanos.get();
+        long now = System.nanoTime();
+        if (now - last < decayIntervalNanos || !lastDecayNanos.compareAndSet(last, now)) {
+            return;
+        }
+        // Samples racing with the decay may be lost; that is within the sampling error anyway.
+        counts.values().forEach(count -> count.updateAndGet(value -> value / 2));
+        counts.values().removeIf(count -> count.get() == 0);
+    }
+
+    private void trim() {
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            if (counts.size() <= capacity) {
+                return;
+            }
+            long[] sorted = counts.values().stream().mapToLong(AtomicLong::get).sorted().toArray();
+            long median = sorted[sorted.length / 2];
+            counts.values().removeIf(count -> count.get() <= median);
+        } finally {
+            trimLock.unlock();
+        }
+    }
+}
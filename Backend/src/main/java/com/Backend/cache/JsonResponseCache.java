@@ -0,0 +1,130 @@
+package com.Backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON of response bodies that come straight out of an object cache, kept next to it.
+ *
+ * <p>Entries are keyed by the identity of the cached value (Caffeine weak keys compare with
+ * {@code ==}), so they share the value's invalidation: once an evict, clear or refresh replaces it
+ * in L1, the old instance is never returned again and its bytes are collected with it. Values read
+ * from Redis or an {@link OffHeapCache} are fresh copies on every hit and simply miss here. Cached
+ * values must not be mutated after they are cached, which the object cache already relies on.
+ */
+public class JsonResponseCache {
+
+    private static final String METRIC_PREFIX = "cache.response";
+    // Rough per-entry overhead of the weak key, record and arrays.
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * @param maxWeightBytes bound on the bytes held, on top of the weak keys following L1
+     * @param gzipMinBytes   smallest JSON body also kept gzipped; 0 or less disables gzip
+     */
+    public record Settings(boolean enabled, long maxWeightBytes, int gzipMinBytes) {
+    }
+
+    /** JSON as the message converter wrote it, plus its gzip encoding when worth keeping. */
+    public record SerializedBody(MediaType contentType, byte[] json, @Nullable byte[] gzip) {
+    }
+
+    private final Settings settings;
+    private final Cache<Object, SerializedBody> bodies;
+    private final Cache<List<?>, PageImpl<?>> pages;
+    private final Counter hits;
+    private final Counter misses;
+
+    public JsonResponseCache(Settings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.bodies = Caffeine.newBuilder()
+                .weakKeys()
+                .maximumWeight(Math.max(0L, settings.maxWeightBytes()))
+                .weigher((Object body, SerializedBody serialized) -> ENTRY_OVERHEAD + serialized.json().length
+                        + (serialized.gzip() != null ? serialized.gzip().length : 0))
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .weakKeys()
+                .build();
+        this.hits = lookups(meterRegistry, "hit");
+        this.misses = lookups(meterRegistry, "miss");
+        Gauge.builder(METRIC_PREFIX + ".weight", bodies,
+                        cache -> cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Bytes of serialized response bodies held")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean enabled() {
+        return settings.enabled();
+    }
+
+    /** The bytes for {@code body}, serializing (and gzipping) it on the first request only. */
+    public SerializedBody serialized(Object body, Supplier<SerializedBody> serializer) {
+        SerializedBody cached = bodies.getIfPresent(body);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        SerializedBody serialized = serializer.get();
+        if (settings.gzipMinBytes() > 0 && serialized.json().length >= settings.gzipMinBytes()) {
+            serialized = new SerializedBody(serialized.contentType(), serialized.json(), gzip(serialized.json()));
+        }
+        // Concurrent first requests may both serialize; the result is the same either way.
+        bodies.put(body, serialized);
+        return serialized;
+    }
+
+    /**
+     * The same {@link Page} instance for as long as {@code content} (a cached page of results) lives,
+     * so the page's bytes are reused too. A different pageable or total builds a new page.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Page<T> page(List<T> content, Pageable pageable, long total) {
+        if (!settings.enabled()) {
+            return new PageImpl<>(content, pageable, total);
+        }
+        PageImpl<?> cached = pages.getIfPresent(content);
+        if (cached != null && cached.getTotalElements() == total && Objects.equals(cached.getPageable(), pageable)) {
+            return (Page<T>) cached;
+        }
+        // PageImpl copies the content into its own list, so the value does not keep its weak key alive.
+        PageImpl<T> page = new PageImpl<>(content, pageable, total);
+        pages.put(content, page);
+        return page;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Counter lookups(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_PREFIX + ".lookups")
+                .description("Cached response bodies written from stored bytes (hit) or serialized (miss)")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,123 @@
+package com.Backend.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Writes the bodies of {@link CachedJsonResponse} handlers from {@link JsonResponseCache}, straight
+ * to the response stream. The bytes are produced by the same Jackson converter MVC would have used,
+ * so the output is identical; a gzipped copy is sent to clients that accept it.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class JsonResponseCacheAdvice implements ResponseBodyAdvice<Object> {
+
+    private final JsonResponseCache responseCache;
+    private final MappingJackson2HttpMessageConverter jsonConverter;
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType,
+                            @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return responseCache.enabled()
+                && returnType.hasMethodAnnotation(CachedJsonResponse.class)
+                && MappingJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    @Nullable
+    public Object beforeBodyWrite(@Nullable Object body, @NonNull MethodParameter returnType,
+                                  @NonNull MediaType selectedContentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        if (body == null || !MediaType.APPLICATION_JSON.equalsTypeAndSubtype(selectedContentType)) {
+            return body;
+        }
+        JsonResponseCache.SerializedBody serialized = responseCache.serialized(body,
+                () -> serialize(body, bodyType(returnType), selectedContentType));
+        boolean gzip = serialized.gzip() != null && acceptsGzip(request.getHeaders());
+        byte[] bytes = gzip ? serialized.gzip() : serialized.json();
+
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(serialized.contentType());
+        headers.setContentLength(bytes.length);
+        if (serialized.gzip() != null) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        try {
+            response.getBody().write(bytes);
+        } catch (IOException ex) {
+            throw new HttpMessageNotWritableException("Could not write cached JSON response: " + ex.getMessage(), ex);
+        }
+        // Nothing left for the converter to write.
+        return null;
+    }
+
+    private JsonResponseCache.SerializedBody serialize(Object body, Type type, MediaType contentType) {
+        BufferedOutputMessage message = new BufferedOutputMessage();
+        try {
+            jsonConverter.write(body, type, contentType, message);
+        } catch (IOException ex) {
+            throw new HttpMessageNotWritableException("Could not serialize JSON response: " + ex.getMessage(), ex);
+        }
+        MediaType written = message.getHeaders().getContentType();
+        return new JsonResponseCache.SerializedBody(written != null ? written : contentType,
+                message.body.toByteArray(), null);
+    }
+
+    // Same target type MVC resolves: the body type of a ResponseEntity, else the declared return type.
+    private static Type bodyType(MethodParameter returnType) {
+        if (HttpEntity.class.isAssignableFrom(returnType.getParameterType())) {
+            return ResolvableType.forMethodParameter(returnType).getGeneric().getType();
+        }
+        return returnType.getGenericParameterType();
+    }
+
+    static boolean acceptsGzip(HttpHeaders requestHeaders) {
+        for (String value : requestHeaders.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+                }
+            }
+        }
+        return false;
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+
+        @Override
+        public @NonNull OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public @NonNull HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
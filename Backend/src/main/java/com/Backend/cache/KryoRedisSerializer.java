@@ -1,61 +1,313 @@
 package com.Backend.cache;
 
+import com.Backend.services.FilmType;
+import com.Backend.services.chat_service.message.dto.MessageDTO;
+import com.Backend.services.chat_service.message.dto.MessageDTOPage;
+import com.Backend.services.chat_service.model.DTO.ChatDTO;
+import com.Backend.services.chat_service.model.DTO.SimpleChatDTO;
+import com.Backend.services.film_service.model.TmdbCreditsResponse;
+import com.Backend.services.film_service.model.TmdbFilmResponse;
+import com.Backend.services.film_service.model.TmdbKeywordsResponse;
+import com.Backend.services.film_service.model.TmdbSimilarItem;
+import com.Backend.services.friend_service.model.DTO.FriendRequestDTO;
+import com.Backend.services.friend_service.model.Status;
+import com.Backend.services.notification_service.model.NotificationDTO;
+import com.Backend.services.recommendation_service.model.RecommendationResultDTO;
+import com.Backend.services.review_service.model.ReviewsDTO;
+import com.Backend.services.review_service.model.vote.SimpleVoteDTO;
+import com.Backend.services.user_service.model.DTO.ChatSummaryDTO;
+import com.Backend.services.user_service.model.DTO.FriendDTO;
+import com.Backend.services.user_service.model.DTO.SimpleUserDTO;
+import com.Backend.services.user_service.model.DTO.UserMeDTO;
+import com.Backend.services.user_service.model.DTO.UserMessageDTO;
+import com.Backend.services.watchlist_service.model.WatchlistDTO;
 import com.esotericsoftware.kryo.Kryo;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.util.Pool;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.SerializationException;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Kryo codec for Redis cache values.
+ *
+ * <p>Payloads start with a format byte. Legacy payloads (unregistered classes, reference tracking,
+ * no header) always begin with a small class-id varint below {@code 0x80}, so the header bytes
+ * {@link #FORMAT_PLAIN} and {@link #FORMAT_LZ4} never collide with them and both formats stay
+ * readable. The current format writes registered class ids instead of class names, tracks no
+ * references (cached DTOs are acyclic trees), and LZ4-compresses payloads of at least
+ * {@code compressionThresholdBytes} when that actually saves space.
+ *
+ * <p>For a rolling deploy, run with {@code write-version: 0} until every node reads the new format,
+ * then switch to 1. Kryo instances and buffers are pooled rather than allocated per call.
+ */
 public class KryoRedisSerializer<T> implements RedisSerializer<T> {
 
+    public static final int LEGACY_WRITE_VERSION = 0;
+    public static final int CURRENT_WRITE_VERSION = 1;
+    static final byte FORMAT_PLAIN = (byte) 0x81;
+    static final byte FORMAT_LZ4 = (byte) 0x82;
+
+    private static final int DEFAULT_COMPRESSION_THRESHOLD_BYTES = 1024;
+    private static final int POOL_CAPACITY = 32;
+    private static final int INITIAL_BUFFER_BYTES = 4096;
+    /** Larger buffers are dropped after use instead of pinning memory in the pool. */
+    private static final int MAX_POOLED_BUFFER_BYTES = 1 << 20;
+    private static final int FIRST_REGISTRATION_ID = 100;
+    private static final byte[] NO_BYTES = new byte[0];
+    private static final LZ4Compressor LZ4_COMPRESSOR = LZ4Factory.fastestInstance().fastCompressor();
+    private static final LZ4FastDecompressor LZ4_DECOMPRESSOR = LZ4Factory.fastestInstance().fastDecompressor();
+    /** Sizes of values read on this thread while {@link #capturePayloadSizes()} is open, by identity. */
+    private static final ThreadLocal<Map<Object, Integer>> CAPTURED_SIZES = new ThreadLocal<>();
+
     private final Class<T> type;
-    private final ThreadLocal<Kryo> kryoThreadLocal = ThreadLocal.withInitial(() -> {
-        Kryo kryo = new Kryo();
-        kryo.setReferences(true);
-        kryo.setRegistrationRequired(false);
-        return kryo;
-    });
+    private final int writeVersion;
+    private final int compressionThresholdBytes;
+
+    private final Pool<Kryo> kryoPool = new Pool<>(true, false, POOL_CAPACITY) {
+        @Override
+        protected Kryo create() {
+            Kryo kryo = new Kryo();
+            kryo.setReferences(false);
+            // Unlisted classes still work, written by name; list every cached type to keep payloads small.
+            kryo.setRegistrationRequired(false);
+            registerCachedTypes(kryo);
+            return kryo;
+        }
+    };
+    private final Pool<Kryo> legacyKryoPool = new Pool<>(true, false, POOL_CAPACITY) {
+        @Override
+        protected Kryo create() {
+            Kryo kryo = new Kryo();
+            kryo.setReferences(true);
+            kryo.setRegistrationRequired(false);
+            return kryo;
+        }
+    };
+    private final Pool<Output> outputPool = new Pool<>(true, false, POOL_CAPACITY) {
+        @Override
+        protected Output create() {
+            return new Output(INITIAL_BUFFER_BYTES, -1);
+        }
+    };
+    private final Pool<Input> inputPool = new Pool<>(true, false, POOL_CAPACITY) {
+        @Override
+        protected Input create() {
+            return new Input();
+        }
+    };
 
     public KryoRedisSerializer(Class<T> type) {
+        this(type, CURRENT_WRITE_VERSION, DEFAULT_COMPRESSION_THRESHOLD_BYTES);
+    }
+
+    /**
+     * @param writeVersion              {@link #LEGACY_WRITE_VERSION} or {@link #CURRENT_WRITE_VERSION}
+     * @param compressionThresholdBytes smallest payload worth compressing; 0 or less disables LZ4
+     */
+    public KryoRedisSerializer(Class<T> type, int writeVersion, int compressionThresholdBytes) {
+        if (writeVersion != LEGACY_WRITE_VERSION && writeVersion != CURRENT_WRITE_VERSION) {
+            throw new IllegalArgumentException("Unsupported Kryo cache write version " + writeVersion);
+        }
         this.type = type;
+        this.writeVersion = writeVersion;
+        this.compressionThresholdBytes = compressionThresholdBytes;
+    }
+
+    /**
+     * Stable ids of every cached type. Append only: never reorder, remove or reuse an id, since
+     * payloads written by other nodes and earlier deploys refer to them.
+     */
+    private static void registerCachedTypes(Kryo kryo) {
+        List<Class<?>> types = List.of(
+                // JDK value and collection types
+                ArrayList.class, HashSet.class, LinkedHashSet.class, HashMap.class, LinkedHashMap.class,
+                // List.of / Stream.toList, Set.of and Map.of implementations (the empty ones share a class)
+                List.of(1).getClass(), List.of(1, 2, 3).getClass(),
+                Set.of(1).getClass(), Set.of(1, 2, 3).getClass(),
+                Map.of(1, 1).getClass(), Map.of(1, 1, 2, 2).getClass(),
+                LocalDateTime.class, LocalDate.class, Instant.class,
+                // Users, friends and chats
+                SimpleUserDTO.class, UserMeDTO.class, FriendDTO.class, FriendRequestDTO.class, Status.class,
+                ChatSummaryDTO.class, UserMessageDTO.class, ChatDTO.class, SimpleChatDTO.class,
+                MessageDTO.class, MessageDTOPage.class, NotificationDTO.class, WatchlistDTO.class,
+                // Reviews and recommendations
+                ReviewsDTO.class, SimpleVoteDTO.class, RecommendationResultDTO.class, FilmType.class,
+                // TMDB responses
+                TmdbCreditsResponse.class, TmdbCreditsResponse.CastMember.class, TmdbCreditsResponse.CrewMember.class,
+                TmdbKeywordsResponse.class, TmdbKeywordsResponse.KeywordItem.class,
+                TmdbFilmResponse.class, TmdbFilmResponse.GenreItem.class, TmdbSimilarItem.class
+        );
+        for (int i = 0; i < types.size(); i++) {
+            kryo.register(types.get(i), FIRST_REGISTRATION_ID + i);
+        }
     }
 
     @Override
     public byte[] serialize(T value) {
         if (value == null) return new byte[0];
-        Kryo kryo = kryoThreadLocal.get();
-        try (ByteArrayOutputStream bos = new ByteArrayOutputStream();
-             Output output = new Output(bos)) {
+        if (writeVersion == LEGACY_WRITE_VERSION) {
+            return write(legacyKryoPool, value, false);
+        }
+        return write(kryoPool, value, true);
+    }
+
+    /** Uncompressed size of {@code value} in the current format, without copying the payload. */
+    public int serializedSize(Object value) {
+        Kryo kryo = kryoPool.obtain();
+        Output output = outputPool.obtain();
+        try {
+            output.reset();
             kryo.writeClassAndObject(output, value);
-            output.close();
-            return bos.toByteArray();
-        } catch (IOException e) {
+            return output.position() + 1;
+        } catch (RuntimeException e) {
             throw new SerializationException("Kryo serialization failed", e);
+        } finally {
+            release(output);
+            kryoPool.free(kryo);
         }
     }
 
+    /**
+     * Starts recording the uncompressed size of every value this thread deserializes, so an L1
+     * promotion can weigh a value read from Redis without serializing it again. Always pair with
+     * {@link #releasePayloadSizes()}.
+     */
+    static void capturePayloadSizes() {
+        CAPTURED_SIZES.set(new IdentityHashMap<>());
+    }
+
+    static void releasePayloadSizes() {
+        CAPTURED_SIZES.remove();
+    }
+
+    /** Size recorded for exactly this instance while capturing, or -1 if it was not read here. */
+    static int takePayloadSize(Object value) {
+        Map<Object, Integer> sizes = CAPTURED_SIZES.get();
+        Integer size = sizes != null ? sizes.remove(value) : null;
+        return size != null ? size : -1;
+    }
+
+    private byte[] write(Pool<Kryo> pool, Object value, boolean withHeader) {
+        Kryo kryo = pool.obtain();
+        Output output = outputPool.obtain();
+        try {
+            output.reset();
+            if (withHeader) {
+                output.writeByte(FORMAT_PLAIN);
+            }
+            kryo.writeClassAndObject(output, value);
+            if (withHeader && compressionThresholdBytes > 0 && output.position() >= compressionThresholdBytes) {
+                byte[] compressed = compress(output.getBuffer(), output.position());
+                if (compressed != null) {
+                    return compressed;
+                }
+            }
+            return output.toBytes();
+        } catch (RuntimeException e) {
+            throw new SerializationException("Kryo serialization failed", e);
+        } finally {
+            release(output);
+            pool.free(kryo);
+        }
+    }
+
+    /**
+     * {@code [FORMAT_LZ4][raw length: int][LZ4 block of the body]}, or null if that is not smaller.
+     * The raw body is everything after the plain-format header byte.
+     */
+    private static byte[] compress(byte[] buffer, int length) {
+        int rawLength = length - 1;
+        byte[] compressed = new byte[5 + LZ4_COMPRESSOR.maxCompressedLength(rawLength)];
+        int compressedLength = LZ4_COMPRESSOR.compress(buffer, 1, rawLength, compressed, 5, compressed.length - 5);
+        if (5 + compressedLength >= length) {
+            return null;
+        }
+        compressed[0] = FORMAT_LZ4;
+        compressed[1] = (byte) (rawLength >>> 24);
+        compressed[2] = (byte) (rawLength >>> 16);
+        compressed[3] = (byte) (rawLength >>> 8);
+        compressed[4] = (byte) rawLength;
+        return Arrays.copyOf(compressed, 5 + compressedLength);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public T deserialize(byte[] bytes) {
         if (bytes == null || bytes.length == 0) return null;
 
-        Kryo kryo = kryoThreadLocal.get();
-
-        try (Input input = new Input(new ByteArrayInputStream(bytes))) {
-            Object obj = kryo.readClassAndObject(input);
+        try {
+            // Uncompressed size including the header byte, the same measure as serializedSize.
+            int payloadSize = bytes.length;
+            Object obj = switch (bytes[0]) {
+                case FORMAT_PLAIN -> read(kryoPool, bytes, 1, bytes.length - 1);
+                case FORMAT_LZ4 -> {
+                    int rawLength = ((bytes[1] & 0xff) << 24) | ((bytes[2] & 0xff) << 16)
+                            | ((bytes[3] & 0xff) << 8) | (bytes[4] & 0xff);
+                    byte[] raw = new byte[rawLength];
+                    LZ4_DECOMPRESSOR.decompress(bytes, 5, raw, 0, rawLength);
+                    payloadSize = rawLength + 1;
+                    yield read(kryoPool, raw, 0, rawLength);
+                }
+                default -> {
+                    if ((bytes[0] & 0x80) != 0) {
+                        // Written by a newer codec; callers treat it as a miss.
+                        throw new IllegalStateException("Unknown cache payload format 0x" + Integer.toHexString(bytes[0] & 0xff));
+                    }
+                    yield read(legacyKryoPool, bytes, 0, bytes.length);
+                }
+            };
 
             if (obj == null) return null;
 
+            Map<Object, Integer> sizes = CAPTURED_SIZES.get();
+            if (sizes != null) {
+                sizes.put(obj, payloadSize);
+            }
             return (T) obj;
 
         } catch (Exception e) {
             throw new SerializationException(buildKryoErrorMessage(bytes, e), e);
         }
     }
+
+    private Object read(Pool<Kryo> pool, byte[] bytes, int offset, int length) {
+        Kryo kryo = pool.obtain();
+        Input input = inputPool.obtain();
+        try {
+            input.setBuffer(bytes, offset, length);
+            return kryo.readClassAndObject(input);
+        } finally {
+            input.setBuffer(NO_BYTES);
+            inputPool.free(input);
+            pool.free(kryo);
+        }
+    }
+
+    private void release(Output output) {
+        if (output.getBuffer().length > MAX_POOLED_BUFFER_BYTES) {
+            output.setBuffer(new byte[INITIAL_BUFFER_BYTES], -1);
+        }
+        outputPool.free(output);
+    }
+
     private String buildKryoErrorMessage(byte[] bytes, Exception e) {
         StringBuilder sb = new StringBuilder();
 
@@ -94,4 +346,3 @@ public class KryoRedisSerializer<T> implements RedisSerializer<T> {
         return hex.toString().trim();
     }
 }
-
@@ -6,13 +6,27 @@ import org.springframework.cache.Cache;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.function.Function;
 
 @RequiredArgsConstructor
 @Slf4j
 public class Multilevel_Cache implements Cache {
     private final Cache remote;
     private final Cache local;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final CachePolicy policy;
+    private final RedisCircuitBreaker breaker;
+    private final RemoteWriteBehind writeBehind;
+    private final CacheMetrics metrics;
 
     @Override
     public @NonNull String getName() {
@@ -26,114 +40,380 @@ public class Multilevel_Cache implements Cache {
 
     @Override
     public ValueWrapper get(@NonNull Object key) {
+        metrics.hotKeys().sample(getName(), key);
         // Try to get from local cache first
         ValueWrapper localValue = local.get(key);
+        meters().localGet(localValue != null);
         if (localValue != null) {
             return localValue;
         }
 
         // If not in local cache, try remote cache
+        KryoRedisSerializer.capturePayloadSizes();
         try {
-            ValueWrapper remoteValue = remote.get(key);
+            ValueWrapper remoteValue = remoteGet(key);
             if (remoteValue != null) {
                 // Store in local cache for future access
                 local.put(key, remoteValue.get());
             }
-            return remoteValue; 
-        } catch (RuntimeException e) {
-            log.warn("Remote cache get failed for key {}. Falling back to local. {}", key, e.toString());
-            return null;
+            return remoteValue;
+        } finally {
+            KryoRedisSerializer.releasePayloadSizes();
         }
     }
 
     @Override
     public <T> T get(@NonNull Object key,@Nullable Class<T> type) {
+        metrics.hotKeys().sample(getName(), key);
         // Try local cache first
         T localValue = local.get(key, type);
+        meters().localGet(localValue != null);
         if (localValue != null) {
             return localValue;
         }
 
         // If not in local cache, try remote cache
+        KryoRedisSerializer.capturePayloadSizes();
         try {
-            T remoteValue = remote.get(key, type);
-            if (remoteValue != null) {
-                // Store in local cache for future access
-                local.put(key, remoteValue);
+            ValueWrapper remoteWrapper = remoteGet(key);
+            Object remoteValue = remoteWrapper != null ? remoteWrapper.get() : null;
+            if (remoteValue == null) {
+                return null;
             }
-            return remoteValue;
-        } catch (RuntimeException e) {
-            log.warn("Remote cache get(type) failed for key {}. Falling back to local. {}", key, e.toString());
-            return null;
+            if (type != null && !type.isInstance(remoteValue)) {
+                throw new IllegalStateException(
+                        "Cached value is not of required type [" + type.getName() + "]: " + remoteValue);
+            }
+            // Store in local cache for future access
+            local.put(key, remoteValue);
+            @SuppressWarnings("unchecked")
+            T value = (T) remoteValue;
+            return value;
+        } finally {
+            KryoRedisSerializer.releasePayloadSizes();
         }
     }
 
     @Override
     public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        metrics.hotKeys().sample(getName(), key);
         try {
             // First try local cache without forcing a type
             ValueWrapper localWrapper = local.get(key);
+            meters().localGet(localWrapper != null);
             if (localWrapper != null) {
+                loadCoordinator.refreshAheadIfDue(this, policy, key, valueLoader);
                 @SuppressWarnings("unchecked")
                 T value = (T) localWrapper.get();
                 return value;
             }
 
             // Next try remote cache
+            ValueWrapper remoteWrapper;
+            KryoRedisSerializer.capturePayloadSizes();
             try {
-                ValueWrapper remoteWrapper = remote.get(key);
+                remoteWrapper = remoteGet(key);
                 if (remoteWrapper != null) {
-                    @SuppressWarnings("unchecked")
-                    T value = (T) remoteWrapper.get();
                     // Populate local cache for faster subsequent access
-                    local.put(key, value);
-                    return value;
+                    local.put(key, remoteWrapper.get());
                 }
-            } catch (RuntimeException e) {
-                log.warn("Remote cache get(wrapper) failed for key {}. Proceeding to load. {}", key, e.toString());
+            } finally {
+                KryoRedisSerializer.releasePayloadSizes();
+            }
+            if (remoteWrapper != null) {
+                loadCoordinator.refreshAheadIfDue(this, policy, key, valueLoader);
+                @SuppressWarnings("unchecked")
+                T value = (T) remoteWrapper.get();
+                return value;
             }
 
-            // Not found in either cache -> load
-            T loaded = valueLoader.call();
-            // Populate both caches
-            put(key, loaded);
-            return loaded;
+            // Not found in either cache -> one load per key, stored in both caches
+            return loadCoordinator.load(this, policy, key, valueLoader);
         } catch (Exception e) {
             throw new ValueRetrievalException(key, valueLoader, e);
         }
     }
 
+    /**
+     * Looks up many keys at once: L1 first, then a single Redis MGET for the misses, then one
+     * {@code bulkLoader} call for whatever is still missing. Loaded values are stored in both tiers.
+     * The result follows the order of {@code keys}; keys the loader does not return are absent.
+     */
+    public <K, V> Map<K, V> getAll(Collection<? extends K> keys, Function<Set<K>, Map<K, V>> bulkLoader) {
+        Set<K> requested = new LinkedHashSet<>(keys);
+        Map<K, V> found = new HashMap<>();
+        Set<K> missing = new LinkedHashSet<>();
+        for (K key : requested) {
+            metrics.hotKeys().sample(getName(), key);
+            ValueWrapper localValue = local.get(key);
+            if (localValue != null) {
+                found.put(key, cast(localValue.get()));
+            } else {
+                missing.add(key);
+            }
+        }
+        meters().localGets(requested.size() - missing.size(), missing.size());
+
+        if (!missing.isEmpty()) {
+            KryoRedisSerializer.capturePayloadSizes();
+            try {
+                remoteGetAll(missing).forEach((key, remoteValue) -> {
+                    @SuppressWarnings("unchecked")
+                    K typedKey = (K) key;
+                    // Store in local cache for future access
+                    local.put(typedKey, remoteValue.get());
+                    found.put(typedKey, cast(remoteValue.get()));
+                    missing.remove(typedKey);
+                });
+            } finally {
+                KryoRedisSerializer.releasePayloadSizes();
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<K, V> loaded;
+            long started = System.nanoTime();
+            try {
+                loaded = bulkLoader.apply(Collections.unmodifiableSet(missing));
+            } catch (RuntimeException e) {
+                meters().load(false, System.nanoTime() - started);
+                throw e;
+            }
+            meters().load(true, System.nanoTime() - started);
+            if (loaded != null) {
+                loaded.forEach((key, value) -> {
+                    if (missing.contains(key)) {
+                        put(key, value);
+                        found.put(key, value);
+                    }
+                });
+            }
+        }
+
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : requested) {
+            if (found.containsKey(key)) {
+                result.put(key, found.get(key));
+            }
+        }
+        return result;
+    }
+
     @Override
     public void put(@NonNull Object key, @Nullable Object value) {
-        // Update both caches
+        local.put(key, value);
+        if (!policy.usesRemote()) {
+            return;
+        }
+        if (writeBehind.enabled()) {
+            writeBehind.enqueuePut(this, key, value);
+            return;
+        }
         try {
-            remote.put(key, value);
+            applyRemotePut(key, value);
         } catch (RuntimeException e) {
             log.warn("Remote cache put failed for key {}. Continuing with local. {}", key, e.toString());
         }
-        local.put(key, value);
     }
 
     @Override
-    public void evict(@NonNull Object key) {
-        // Remove from both caches
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        // A queued evict means Redis may still hold the value it invalidates; SET NX would lose to it
+        // and pin it in L1. Settle locally instead; peers converge once the evict is applied.
+        if (!policy.usesRemote() || writeBehind.hasPendingInvalidation(getName(), key)
+                || !breaker.tryAcquirePermission()) {
+            return local.putIfAbsent(key, value);
+        }
+        // Redis decides the winner (SET NX) so every node converges on the same value.
+        ValueWrapper existing;
+        long started = System.nanoTime();
         try {
-            remote.evict(key);
+            existing = remote.putIfAbsent(key, value);
+            remoteSucceeded("put_if_absent", started);
         } catch (RuntimeException e) {
-            log.warn("Remote cache evict failed for key {}. Continuing with local. {}", key, e.toString());
+            remoteFailed("put_if_absent", started);
+            log.warn("Remote cache putIfAbsent failed for key {}. Continuing with local. {}", key, e.toString());
+            return local.putIfAbsent(key, value);
         }
+        local.put(key, existing != null ? existing.get() : value);
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
         local.evict(key);
-        log.info("Evicted key {} from both caches", key);
+        if (!policy.usesRemote()) {
+            invalidationBus.publishEvict(getName(), key);
+        } else if (writeBehind.enabled()) {
+            // Reads on this node skip Redis until the evict is applied; peers hear of it afterwards.
+            writeBehind.enqueueEvict(this, key);
+        } else {
+            boolean applied = false;
+            try {
+                applied = applyRemoteEvict(key);
+            } catch (RuntimeException e) {
+                log.warn("Remote cache evict failed for key {}. Continuing with local. {}", key, e.toString());
+            }
+            if (!applied) {
+                invalidationBus.publishEvict(getName(), key);
+            }
+        }
+        log.debug("Evicted key {} from both caches", key);
     }
 
     @Override
     public void clear() {
-        // Clear both caches
+        local.clear();
+        if (!policy.usesRemote()) {
+            invalidationBus.publishClear(getName());
+        } else if (writeBehind.enabled()) {
+            writeBehind.enqueueClear(this);
+        } else {
+            boolean applied = false;
+            try {
+                applied = applyRemoteClear();
+            } catch (RuntimeException e) {
+                log.warn("Remote cache clear failed. Continuing with local. {}", e.toString());
+            }
+            if (!applied) {
+                invalidationBus.publishClear(getName());
+            }
+        }
+    }
+
+    /**
+     * Like {@link #put}, but writes Redis before returning, bypassing write-behind. Used by a lease
+     * holder, whose peers poll Redis for the value as soon as the lease is released.
+     */
+    void putThrough(Object key, @Nullable Object value) {
+        if (!policy.usesRemote() || !writeBehind.enabled() || writeBehind.hasPendingInvalidation(getName(), key)) {
+            // Queued behind the pending evict, which must reach Redis first.
+            put(key, value);
+            return;
+        }
+        local.put(key, value);
+        writeBehind.discardPut(getName(), key);
         try {
-            remote.clear();
+            applyRemotePut(key, value);
         } catch (RuntimeException e) {
-            log.warn("Remote cache clear failed. Continuing with local. {}", e.toString());
+            log.warn("Remote cache put failed for key {}. Continuing with local. {}", key, e.toString());
+        }
+    }
+
+    /** Writes the value to Redis; false if the breaker is open, throws if Redis fails. */
+    boolean applyRemotePut(Object key, @Nullable Object value) {
+        return applyRemote("put", () -> remote.put(key, value));
+    }
+
+    /** Evicts from Redis, then tells peers to drop their L1 copy so their next read misses. */
+    boolean applyRemoteEvict(Object key) {
+        if (!applyRemote("evict", () -> remote.evict(key))) {
+            return false;
+        }
+        meters().eviction(CacheMetrics.L2, "explicit");
+        invalidationBus.publishEvict(getName(), key);
+        return true;
+    }
+
+    boolean applyRemoteClear() {
+        if (!applyRemote("clear", remote::clear)) {
+            return false;
+        }
+        meters().eviction(CacheMetrics.L2, "clear");
+        invalidationBus.publishClear(getName());
+        return true;
+    }
+
+    private boolean applyRemote(String op, Runnable write) {
+        if (!breaker.tryAcquirePermission()) {
+            return false;
+        }
+        long started = System.nanoTime();
+        try {
+            write.run();
+            remoteSucceeded(op, started);
+            return true;
+        } catch (RuntimeException e) {
+            remoteFailed(op, started);
+            log.debug("Remote cache write failed for cache {}. {}", getName(), e.toString());
+            throw e;
+        }
+    }
+
+    private Map<Object, ValueWrapper> remoteGetAll(Set<?> keys) {
+        if (!policy.usesRemote()) {
+            return Map.of();
+        }
+        if (!(remote instanceof BatchingRedisCache batching)) {
+            Map<Object, ValueWrapper> found = new HashMap<>();
+            for (Object key : keys) {
+                ValueWrapper value = remoteGet(key);
+                if (value != null) {
+                    found.put(key, value);
+                }
+            }
+            return found;
+        }
+        Set<Object> readable = new LinkedHashSet<>();
+        for (Object key : keys) {
+            if (!writeBehind.hasPendingInvalidation(getName(), key)) {
+                readable.add(key);
+            }
+        }
+        if (readable.isEmpty() || !breaker.tryAcquirePermission()) {
+            return Map.of();
+        }
+        long started = System.nanoTime();
+        try {
+            Map<Object, ValueWrapper> found = batching.getAll(readable);
+            remoteSucceeded("mget", started);
+            meters().remoteGets(found.size(), readable.size() - found.size());
+            return found;
+        } catch (RuntimeException e) {
+            remoteFailed("mget", started);
+            log.warn("Remote cache getAll failed for {} keys. Falling back to loader. {}", readable.size(), e.toString());
+            return Map.of();
+        }
+    }
+
+    private CacheMetrics.CacheMeters meters() {
+        return metrics.forCache(getName());
+    }
+
+    private void remoteSucceeded(String op, long startedNanos) {
+        long elapsed = System.nanoTime() - startedNanos;
+        breaker.onSuccess(elapsed);
+        meters().remoteCall(op, true, elapsed);
+    }
+
+    private void remoteFailed(String op, long startedNanos) {
+        long elapsed = System.nanoTime() - startedNanos;
+        breaker.onError(elapsed);
+        meters().remoteCall(op, false, elapsed);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V cast(@Nullable Object value) {
+        return (V) value;
+    }
+
+    @Nullable
+    private ValueWrapper remoteGet(Object key) {
+        // A pending invalidation means Redis may still hold the old value.
+        if (!policy.usesRemote() || writeBehind.hasPendingInvalidation(getName(), key)
+                || !breaker.tryAcquirePermission()) {
+            return null;
+        }
+        long started = System.nanoTime();
+        try {
+            ValueWrapper value = remote.get(key);
+            remoteSucceeded("get", started);
+            meters().remoteGet(value != null);
+            return value;
+        } catch (RuntimeException e) {
+            remoteFailed("get", started);
+            log.warn("Remote cache get failed for key {}. Falling back to local. {}", key, e.toString());
+            return null;
         }
-        local.clear();
     }
 }
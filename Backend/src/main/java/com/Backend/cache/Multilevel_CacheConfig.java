@@ -1,10 +1,19 @@
 package com.Backend.cache;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
 
 @Configuration
 public class Multilevel_CacheConfig {
@@ -12,8 +21,124 @@ public class Multilevel_CacheConfig {
     @Primary
     public CacheManager cacheManager(
         @Qualifier("caffeineCacheManager")CacheManager caffeine,
-        @Qualifier("redisCacheManager")CacheManager redis
+        @Qualifier("redisCacheManager")CacheManager redis,
+        CacheInvalidationBus invalidationBus,
+        CacheLoadCoordinator loadCoordinator,
+        CachePolicyProperties policies,
+        RedisCircuitBreaker redisCircuitBreaker,
+        RemoteWriteBehind remoteWriteBehind,
+        CacheMetrics cacheMetrics
+    ) {
+        return new Multilevel_CacheManager(redis, caffeine, invalidationBus, loadCoordinator, policies,
+                redisCircuitBreaker, remoteWriteBehind, cacheMetrics);
+    }
+
+    @Bean
+    public CacheMetrics cacheMetrics(
+        MeterRegistry meterRegistry,
+        @Value("${cache.metrics.hot-keys.sample-rate:0.01}") double sampleRate,
+        @Value("${cache.metrics.hot-keys.capacity:1000}") int capacity,
+        @Value("${cache.metrics.hot-keys.decay-interval-ms:60000}") long decayIntervalMs
+    ) {
+        HotKeySampler hotKeys = new HotKeySampler(sampleRate, capacity, Duration.ofMillis(Math.max(1L, decayIntervalMs)));
+        return new CacheMetrics(meterRegistry, hotKeys);
+    }
+
+    @Bean
+    public CacheHotKeysEndpoint cacheHotKeysEndpoint(
+        CacheMetrics cacheMetrics,
+        @Value("${cache.metrics.hot-keys.default-limit:20}") int defaultLimit
+    ) {
+        return new CacheHotKeysEndpoint(cacheMetrics.hotKeys(), Math.max(1, defaultLimit));
+    }
+
+    @Bean
+    public JsonResponseCache jsonResponseCache(
+        MeterRegistry meterRegistry,
+        @Value("${cache.response.enabled:true}") boolean enabled,
+        @Value("${cache.response.max-weight:32MB}") DataSize maxWeight,
+        @Value("${cache.response.gzip-min-size:2KB}") DataSize gzipMinSize
+    ) {
+        JsonResponseCache.Settings settings = new JsonResponseCache.Settings(
+                enabled,
+                maxWeight.toBytes(),
+                (int) Math.min(Integer.MAX_VALUE, gzipMinSize.toBytes()));
+        return new JsonResponseCache(settings, meterRegistry);
+    }
+
+    @Bean
+    public RedisCircuitBreaker redisCircuitBreaker(
+        MeterRegistry meterRegistry,
+        @Value("${cache.remote.breaker.window-size:50}") int windowSize,
+        @Value("${cache.remote.breaker.minimum-calls:10}") int minimumCalls,
+        @Value("${cache.remote.breaker.failure-rate-threshold:50}") double failureRateThreshold,
+        @Value("${cache.remote.breaker.slow-call-rate-threshold:80}") double slowCallRateThreshold,
+        @Value("${cache.remote.breaker.slow-call-ms:250}") long slowCallMs,
+        @Value("${cache.remote.breaker.open-ms:10000}") long openMs,
+        @Value("${cache.remote.breaker.half-open-probes:3}") int halfOpenProbes
+    ) {
+        RedisCircuitBreaker.Settings settings = new RedisCircuitBreaker.Settings(
+                Math.max(1, windowSize),
+                Math.max(1, minimumCalls),
+                failureRateThreshold,
+                slowCallRateThreshold,
+                Duration.ofMillis(Math.max(1L, slowCallMs)),
+                Duration.ofMillis(Math.max(1L, openMs)),
+                Math.max(1, halfOpenProbes));
+        return new RedisCircuitBreaker(settings, meterRegistry);
+    }
+
+    @Bean
+    public RemoteWriteBehind remoteWriteBehind(
+        MeterRegistry meterRegistry,
+        @Value("${cache.remote.write-behind.enabled:true}") boolean enabled,
+        @Value("${cache.remote.write-behind.max-pending-puts:10000}") int maxPendingPuts,
+        @Value("${cache.remote.write-behind.max-pending-evicts:10000}") int maxPendingEvicts,
+        @Value("${cache.remote.write-behind.retry-ms:500}") long retryMs
+    ) {
+        RemoteWriteBehind.Settings settings = new RemoteWriteBehind.Settings(
+                enabled,
+                Math.max(0, maxPendingPuts),
+                Math.max(1, maxPendingEvicts),
+                Duration.ofMillis(Math.max(1L, retryMs)));
+        return new RemoteWriteBehind(settings, meterRegistry);
+    }
+
+    @Bean
+    public CacheLoadCoordinator cacheLoadCoordinator(
+        StringRedisTemplate redisTemplate,
+        RedisCircuitBreaker redisCircuitBreaker,
+        @Qualifier("cacheRefreshExecutor") Executor refreshExecutor,
+        PlatformTransactionManager transactionManager,
+        MeterRegistry meterRegistry,
+        CachePolicyProperties policies,
+        @Value("${cache.stampede.lease.enabled:true}") boolean leaseEnabled,
+        @Value("${cache.stampede.lease.ttl-ms:10000}") long leaseTtlMs,
+        @Value("${cache.stampede.lease.max-wait-ms:1500}") long leaseMaxWaitMs,
+        @Value("${cache.stampede.lease.poll-ms:50}") long leasePollMs,
+        @Value("${cache.refresh-ahead.beta:1.0}") double refreshAheadBeta
+    ) {
+        CacheLoadCoordinator.Settings settings = new CacheLoadCoordinator.Settings(
+                leaseEnabled,
+                Duration.ofMillis(Math.max(1L, leaseTtlMs)),
+                Duration.ofMillis(Math.max(0L, leaseMaxWaitMs)),
+                Duration.ofMillis(Math.max(1L, leasePollMs)),
+                refreshAheadBeta,
+                policies.longestEntryTtl());
+        return new CacheLoadCoordinator(redisTemplate, redisCircuitBreaker, refreshExecutor, transactionManager,
+                meterRegistry, settings);
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(
+        @Qualifier("caffeineCacheManager") CacheManager caffeine,
+        StringRedisTemplate redisTemplate,
+        RedisConnectionFactory connectionFactory,
+        CacheLoadCoordinator loadCoordinator,
+        MeterRegistry meterRegistry,
+        @Value("${cache.invalidation.enabled:true}") boolean enabled
     ) {
-        return new Multilevel_CacheManager(redis, caffeine);
+        return new CacheInvalidationBus(caffeine, redisTemplate, connectionFactory, loadCoordinator, meterRegistry,
+                enabled);
     }
 }
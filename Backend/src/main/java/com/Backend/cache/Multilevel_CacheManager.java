@@ -4,6 +4,7 @@ import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.NoOpCache;
 
 
 
@@ -15,14 +16,21 @@ import java.util.concurrent.ConcurrentHashMap;
 public class Multilevel_CacheManager implements CacheManager {
     private final CacheManager redis;
     private final CacheManager caffeine;
+    private final CacheInvalidationBus invalidationBus;
+    private final CacheLoadCoordinator loadCoordinator;
+    private final CachePolicyProperties policies;
+    private final RedisCircuitBreaker breaker;
+    private final RemoteWriteBehind writeBehind;
+    private final CacheMetrics metrics;
     private Map<String, Cache> cacheMap = new ConcurrentHashMap<>();
 
     @Override
     public Cache getCache(@NonNull String name) {
         return cacheMap.computeIfAbsent(name, cacheName -> {
-            Cache remote = redis.getCache(cacheName);
-            Cache local = caffeine.getCache(cacheName);
-            return new Multilevel_Cache(remote, local);
+            CachePolicy policy = policies.policyFor(cacheName);
+            Cache remote = policy.usesRemote() ? redis.getCache(cacheName) : new NoOpCache(cacheName);
+            Cache local = policy.usesLocal() ? caffeine.getCache(cacheName) : new NoOpCache(cacheName);
+            return new Multilevel_Cache(remote, local, invalidationBus, loadCoordinator, policy, breaker, writeBehind, metrics);
         });
     }
 
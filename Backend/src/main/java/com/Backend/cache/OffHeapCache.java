@@ -0,0 +1,296 @@
+package com.Backend.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * L1 cache that keeps values Kryo-serialized in direct (off-heap) memory, for large aggregates
+ * whose object graphs would otherwise sit in the old generation.
+ *
+ * <p>Only the index lives on the heap: a Caffeine cache from key to the blocks holding the bytes,
+ * weighed by the bytes those blocks take, so admission and eviction are Caffeine's W-TinyLFU and
+ * the {@link CachePolicy#getLocalMaxWeight()} budget bounds off-heap memory. Blocks come from a
+ * {@link BlockArena} of fixed-size blocks carved lazily out of direct buffers; the buffers are
+ * kept for the life of the cache and freed blocks are reused. Every hit pays for a copy and a
+ * deserialization, which {@code cache.offheap.read} measures.
+ */
+@Slf4j
+public class OffHeapCache extends AbstractValueAdaptingCache {
+
+    static final int BLOCK_SIZE = 1024;
+    private static final int CHUNK_SIZE = 8 * 1024 * 1024;
+
+    private final String name;
+    private final KryoRedisSerializer<Object> serializer;
+    private final BlockArena arena;
+    private final int maxEntryBlocks;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Slot> index;
+    private final CacheMetrics.CacheMeters meters;
+
+    public OffHeapCache(String name, CachePolicy policy, KryoRedisSerializer<Object> serializer, CacheMetrics metrics) {
+        super(true);
+        this.name = name;
+        this.serializer = serializer;
+        this.meters = metrics.forCache(name);
+        long budget = Math.max(BLOCK_SIZE, policy.getLocalMaxWeight().toBytes());
+        // Headroom for the entry being written before Caffeine evicts to make room for it.
+        int budgetBlocks = (int) Math.min(Integer.MAX_VALUE / 2, budget / BLOCK_SIZE);
+        this.maxEntryBlocks = Math.max(1, budgetBlocks / 8);
+        this.arena = new BlockArena(BLOCK_SIZE, budgetBlocks + maxEntryBlocks, CHUNK_SIZE);
+        RemovalListener<Object, Object> removalMetrics = metrics.removalListener(name);
+        this.index = Caffeine.newBuilder()
+                .maximumWeight(budget)
+                .weigher((Object key, Slot slot) -> slot.blocks.length * BLOCK_SIZE)
+                .expireAfterWrite(policy.getLocalTtl())
+                // Runs the removal listener on the writing thread, so blocks are free before the next allocation.
+                .executor(Runnable::run)
+                .removalListener((Object key, Slot slot, com.github.benmanes.caffeine.cache.RemovalCause cause) -> {
+                    if (slot != null) {
+                        slot.release(arena);
+                    }
+                    removalMetrics.onRemoval(key, slot, cause);
+                })
+                .build();
+        metrics.bindOffHeap(name, this);
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return name;
+    }
+
+    @Override
+    public @NonNull Object getNativeCache() {
+        return index;
+    }
+
+    public long estimatedSize() {
+        return index.estimatedSize();
+    }
+
+    /** Bytes of blocks holding entries. */
+    public long usedBytes() {
+        return arena.usedBlocks() * (long) BLOCK_SIZE;
+    }
+
+    /** Direct memory taken from the JVM so far; never shrinks. */
+    public long reservedBytes() {
+        return arena.reservedBytes();
+    }
+
+    @Override
+    @Nullable
+    protected Object lookup(@NonNull Object key) {
+        Slot slot = index.getIfPresent(key);
+        if (slot == null) {
+            return null;
+        }
+        if (slot == Slot.NULL) {
+            return NullValue.INSTANCE;
+        }
+        // The entry may be evicted meanwhile; the reference keeps its blocks from being reused.
+        if (!slot.retain()) {
+            return null;
+        }
+        long started = System.nanoTime();
+        try {
+            return serializer.deserialize(arena.read(slot.blocks, slot.length));
+        } catch (RuntimeException e) {
+            log.debug("Dropping unreadable off-heap entry {} in cache {}. {}", key, name, e.toString());
+            index.asMap().remove(key, slot);
+            return null;
+        } finally {
+            slot.release(arena);
+            meters.offHeapRead(System.nanoTime() - started);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        Object storeValue = toStoreValue(value);
+        Slot slot = storeValue == NullValue.INSTANCE ? Slot.NULL : write(serializer.serialize(storeValue));
+        if (slot == null) {
+            // Never leave an older value behind for a write we could not store.
+            index.invalidate(key);
+            meters.eviction(CacheMetrics.L1, "rejected");
+            return;
+        }
+        index.put(key, slot);
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        index.invalidate(key);
+    }
+
+    @Override
+    public void clear() {
+        index.invalidateAll();
+    }
+
+    @Nullable
+    private Slot write(byte[] bytes) {
+        int blockCount = Math.max(1, (bytes.length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        if (blockCount > maxEntryBlocks) {
+            return null;
+        }
+        int[] blocks = arena.allocate(blockCount);
+        if (blocks == null) {
+            // Let Caffeine finish pending evictions, then try once more.
+            index.cleanUp();
+            blocks = arena.allocate(blockCount);
+        }
+        if (blocks == null) {
+            return null;
+        }
+        arena.write(blocks, bytes);
+        return new Slot(blocks, bytes.length);
+    }
+
+    /** Blocks of one entry, reference-counted so readers never see them reused. */
+    static final class Slot {
+        static final Slot NULL = new Slot(new int[0], 0);
+
+        final int[] blocks;
+        final int length;
+        // 1 for the index; readers add one each while copying.
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        Slot(int[] blocks, int length) {
+            this.blocks = blocks;
+            this.length = length;
+        }
+
+        boolean retain() {
+            while (true) {
+                int current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release(BlockArena arena) {
+            if (this != NULL && references.decrementAndGet() == 0) {
+                arena.free(blocks);
+            }
+        }
+    }
+
+    /** Fixed-size blocks in direct buffers, allocated chunk by chunk up to {@code maxBlocks}. */
+    static final class BlockArena {
+        private final int blockSize;
+        private final int maxBlocks;
+        private final int blocksPerChunk;
+        private final ByteBuffer[] chunks;
+        private final int[] freeBlocks;
+        private int freeCount;
+        private int carvedBlocks;
+
+        BlockArena(int blockSize, int maxBlocks, int chunkSize) {
+            this.blockSize = blockSize;
+            this.maxBlocks = maxBlocks;
+            this.blocksPerChunk = Math.max(1, Math.min(maxBlocks, chunkSize / blockSize));
+            this.chunks = new ByteBuffer[(maxBlocks + blocksPerChunk - 1) / blocksPerChunk];
+            this.freeBlocks = new int[maxBlocks];
+        }
+
+        @Nullable
+        synchronized int[] allocate(int count) {
+            while (freeCount < count && carvedBlocks < maxBlocks) {
+                carveChunk();
+            }
+            if (freeCount < count) {
+                return null;
+            }
+            int[] blocks = new int[count];
+            for (int i = 0; i < count; i++) {
+                blocks[i] = freeBlocks[--freeCount];
+            }
+            return blocks;
+        }
+
+        synchronized void free(int[] blocks) {
+            for (int block : blocks) {
+                freeBlocks[freeCount++] = block;
+            }
+        }
+
+        synchronized long usedBlocks() {
+            return carvedBlocks - freeCount;
+        }
+
+        synchronized long reservedBytes() {
+            return carvedBlocks * (long) blockSize;
+        }
+
+        void write(int[] blocks, byte[] bytes) {
+            for (int i = 0; i < blocks.length; i++) {
+                int offset = i * blockSize;
+                int length = Math.min(blockSize, bytes.length - offset);
+                if (length > 0) {
+                    chunkOf(blocks[i]).put(offsetOf(blocks[i]), bytes, offset, length);
+                }
+            }
+        }
+
+        byte[] read(int[] blocks, int totalLength) {
+            byte[] bytes = new byte[totalLength];
+            for (int i = 0; i < blocks.length; i++) {
+                int offset = i * blockSize;
+                int length = Math.min(blockSize, totalLength - offset);
+                if (length > 0) {
+                    chunkOf(blocks[i]).get(offsetOf(blocks[i]), bytes, offset, length);
+                }
+            }
+            return bytes;
+        }
+
+        private void carveChunk() {
+            int chunkIndex = carvedBlocks / blocksPerChunk;
+            int blocks = Math.min(blocksPerChunk, maxBlocks - carvedBlocks);
+            chunks[chunkIndex] = ByteBuffer.allocateDirect(blocks * blockSize);
+            for (int i = blocks - 1; i >= 0; i--) {
+                freeBlocks[freeCount++] = carvedBlocks + i;
+            }
+            carvedBlocks += blocks;
+        }
+
+        private ByteBuffer chunkOf(int block) {
+            return chunks[block / blocksPerChunk];
+        }
+
+        private int offsetOf(int block) {
+            return (block % blocksPerChunk) * blockSize;
+        }
+    }
+}
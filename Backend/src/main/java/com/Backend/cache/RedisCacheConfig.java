@@ -1,22 +1,44 @@
 package com.Backend.cache;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
 public class RedisCacheConfig {
     @Bean
-    public RedisCacheManager redisCacheManager(RedisConnectionFactory factory) {
-       KryoRedisSerializer<Object> serializer = new KryoRedisSerializer<>(Object.class);
+    public RedisCacheManager redisCacheManager(
+            RedisConnectionFactory factory,
+            CachePolicyProperties policies,
+            CacheMetrics cacheMetrics,
+            @Value("${cache.codec.write-version:0}") int codecWriteVersion,
+            @Value("${cache.codec.compression-threshold-bytes:1024}") int compressionThresholdBytes) {
+       KryoRedisSerializer<Object> serializer =
+               new KryoRedisSerializer<>(Object.class, codecWriteVersion, compressionThresholdBytes);
        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
-               .entryTtl(java.time.Duration.ofMinutes(10));
-        return RedisCacheManager.builder(factory).cacheDefaults(config).enableCreateOnMissingCache().build();
+               .entryTtl(policies.defaultPolicy().getRemoteTtl());
+        Map<String, RedisCacheConfiguration> perCache = new HashMap<>();
+        policies.getCaches().keySet().forEach(name -> {
+            CachePolicy policy = policies.policyFor(name);
+            if (policy.usesRemote()) {
+                perCache.put(name, config.entryTtl(policy.getRemoteTtl()));
+            }
+        });
+        // Remaining clear() calls delete with incremental SCAN instead of a blocking KEYS.
+        RedisCacheWriter writer = RedisCacheWriter.nonLockingRedisCacheWriter(factory, BatchStrategies.scan(1000));
+        // Batching caches add a one-round-trip MGET for Multilevel_Cache.getAll.
+        return new BatchingRedisCacheManager(writer, config, perCache, factory, cacheMetrics);
     }
 }
@@ -0,0 +1,170 @@
+package com.Backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Circuit breaker around the Redis (L2) cache tier.
+ *
+ * <p>Outcomes of the last {@code windowSize} calls are kept in a ring buffer. Once at least
+ * {@code minimumCalls} are recorded and the share of failed or slow calls reaches its threshold,
+ * the breaker opens and callers skip Redis entirely. After {@code openDuration} it lets
+ * {@code halfOpenProbes} calls through: if all succeed quickly it closes, otherwise it opens again.
+ * Every permitted call must report back through {@link #onSuccess(long)} or {@link #onError(long)}.
+ */
+@Slf4j
+public class RedisCircuitBreaker {
+
+    private static final String METRIC_PREFIX = "cache.remote.breaker";
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /**
+     * @param failureRateThreshold  percentage of failed calls in the window that opens the breaker
+     * @param slowCallRateThreshold percentage of calls slower than {@code slowCallDuration} that opens it
+     */
+    public record Settings(
+            int windowSize,
+            int minimumCalls,
+            double failureRateThreshold,
+            double slowCallRateThreshold,
+            Duration slowCallDuration,
+            Duration openDuration,
+            int halfOpenProbes
+    ) {
+    }
+
+    private final Settings settings;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int nextSlot;
+    private int recorded;
+    private int failures;
+    private int slow;
+    private State state = State.CLOSED;
+    private long stateSinceNanos = System.nanoTime();
+    private int probesIssued;
+    private int probesSucceeded;
+
+    private final Counter rejected;
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+
+    public RedisCircuitBreaker(Settings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.slowCallNanos = settings.slowCallDuration().toNanos();
+        this.openNanos = settings.openDuration().toNanos();
+        this.failedCalls = new boolean[Math.max(1, settings.windowSize())];
+        this.slowCalls = new boolean[failedCalls.length];
+
+        this.rejected = Counter.builder(METRIC_PREFIX + ".rejected")
+                .description("Redis cache calls skipped because the breaker was open")
+                .register(meterRegistry);
+        for (State candidate : State.values()) {
+            String tag = candidate.name().toLowerCase(Locale.ROOT);
+            Gauge.builder(METRIC_PREFIX + ".state", this, breaker -> breaker.state() == candidate ? 1 : 0)
+                    .description("1 for the breaker's current state, 0 otherwise")
+                    .tag("state", tag)
+                    .register(meterRegistry);
+            transitions.put(candidate, Counter.builder(METRIC_PREFIX + ".transitions")
+                    .description("Redis cache breaker state changes")
+                    .tag("to", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /** Whether a Redis call may be made now; a permitted call must then report its outcome. */
+    public synchronized boolean tryAcquirePermission() {
+        long now = System.nanoTime();
+        if (state == State.OPEN && now - stateSinceNanos >= openNanos) {
+            transitionTo(State.HALF_OPEN, now);
+        } else if (state == State.HALF_OPEN && now - stateSinceNanos >= openNanos) {
+            // Probes that never reported back must not keep the breaker half-open forever.
+            probesIssued = probesSucceeded;
+        }
+        if (state == State.CLOSED) {
+            return true;
+        }
+        if (state == State.HALF_OPEN && probesIssued < settings.halfOpenProbes()) {
+            probesIssued++;
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        record(false, durationNanos >= slowCallNanos);
+    }
+
+    public synchronized void onError(long durationNanos) {
+        record(true, durationNanos >= slowCallNanos);
+    }
+
+    private void record(boolean failed, boolean slowCall) {
+        long now = System.nanoTime();
+        if (state == State.HALF_OPEN) {
+            if (failed || slowCall) {
+                transitionTo(State.OPEN, now);
+            } else if (++probesSucceeded >= settings.halfOpenProbes()) {
+                transitionTo(State.CLOSED, now);
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            // A call admitted before the breaker opened.
+            return;
+        }
+
+        if (recorded == failedCalls.length) {
+            failures -= failedCalls[nextSlot] ? 1 : 0;
+            slow -= slowCalls[nextSlot] ? 1 : 0;
+        } else {
+            recorded++;
+        }
+        failedCalls[nextSlot] = failed;
+        slowCalls[nextSlot] = slowCall;
+        failures += failed ? 1 : 0;
+        slow += slowCall ? 1 : 0;
+        nextSlot = (nextSlot + 1) % failedCalls.length;
+
+        if (recorded >= settings.minimumCalls()
+                && (failures * 100.0 / recorded >= settings.failureRateThreshold()
+                || slow * 100.0 / recorded >= settings.slowCallRateThreshold())) {
+            transitionTo(State.OPEN, now);
+        }
+    }
+
+    private void transitionTo(State next, long now) {
+        if (next == State.OPEN) {
+            log.warn("Redis cache breaker opened (failed {}/{}, slow {}/{}); serving from L1 for {} ms",
+                    failures, recorded, slow, recorded, settings.openDuration().toMillis());
+        } else if (next == State.CLOSED) {
+            log.info("Redis cache breaker closed after {} successful probe(s)", probesSucceeded);
+        }
+        state = next;
+        stateSinceNanos = now;
+        probesIssued = 0;
+        probesSucceeded = 0;
+        if (next != State.HALF_OPEN) {
+            // Each closed period and each half-open trial starts from a clean window.
+            recorded = 0;
+            failures = 0;
+            slow = 0;
+            nextSlot = 0;
+        }
+        transitions.get(next).increment();
+    }
+}
@@ -0,0 +1,286 @@
+package com.Backend.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link Multilevel_Cache} writes to Redis off the request thread.
+ *
+ * <p>Pending writes are coalesced per cache key, so a hot key costs one Redis round trip per drain
+ * however often it is written. Invalidations (clears, then evicts) always drain before puts and
+ * are kept while Redis is unreachable, because a lost evict would leave a stale L2 entry until its
+ * TTL; a full evict lane degrades to clearing the whole cache. Puts are only an optimisation: they
+ * are dropped when the lane is full, when the breaker is open, or when Redis rejects them.
+ *
+ * <p>While an invalidation is pending, {@link #hasPendingInvalidation} tells readers to skip L2, so
+ * the node that evicted never reads back the value it just invalidated.
+ */
+@Slf4j
+public class RemoteWriteBehind implements SmartLifecycle {
+
+    private static final String METRIC_PREFIX = "cache.write_behind";
+
+    /**
+     * @param maxPendingPuts   distinct keys awaiting a put before new puts are dropped
+     * @param maxPendingEvicts distinct keys awaiting an evict before a cache falls back to a clear
+     * @param retryDelay       pause before retrying invalidations Redis could not take
+     */
+    public record Settings(boolean enabled, int maxPendingPuts, int maxPendingEvicts, Duration retryDelay) {
+    }
+
+    private record PendingKey(String cacheName, Object key) {
+    }
+
+    private record PendingPut(Multilevel_Cache cache, Object value) {
+    }
+
+    // Entries are compared by identity so a drain only removes the exact request it applied.
+    private static final class PendingInvalidation {
+        private final Multilevel_Cache cache;
+
+        private PendingInvalidation(Multilevel_Cache cache) {
+            this.cache = cache;
+        }
+    }
+
+    private final Settings settings;
+    private final Map<String, PendingInvalidation> clears = new ConcurrentHashMap<>();
+    private final Map<PendingKey, PendingInvalidation> evicts = new ConcurrentHashMap<>();
+    private final Map<PendingKey, PendingPut> puts = new ConcurrentHashMap<>();
+    private final BlockingQueue<Boolean> wakeup = new ArrayBlockingQueue<>(1);
+    private volatile boolean running;
+    private Thread worker;
+
+    private final Counter appliedPuts;
+    private final Counter appliedEvicts;
+    private final Counter appliedClears;
+    private final Counter coalesced;
+    private final Counter droppedFull;
+    private final Counter droppedBreakerOpen;
+    private final Counter droppedError;
+    private final Counter evictOverflows;
+
+    public RemoteWriteBehind(Settings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        for (String lane : new String[]{"put", "evict", "clear"}) {
+            Gauge.builder(METRIC_PREFIX + ".pending", this, queue -> queue.pending(lane))
+                    .description("Redis cache writes waiting to be applied")
+                    .tag("lane", lane)
+                    .register(meterRegistry);
+        }
+        this.appliedPuts = applied(meterRegistry, "put");
+        this.appliedEvicts = applied(meterRegistry, "evict");
+        this.appliedClears = applied(meterRegistry, "clear");
+        this.coalesced = Counter.builder(METRIC_PREFIX + ".coalesced")
+                .description("Redis cache writes merged into one already pending for the same key")
+                .register(meterRegistry);
+        this.droppedFull = dropped(meterRegistry, "queue_full");
+        this.droppedBreakerOpen = dropped(meterRegistry, "breaker_open");
+        this.droppedError = dropped(meterRegistry, "error");
+        this.evictOverflows = Counter.builder(METRIC_PREFIX + ".evict.overflow")
+                .description("Evicts turned into a whole-cache clear because the evict lane was full")
+                .register(meterRegistry);
+    }
+
+    public boolean enabled() {
+        return settings.enabled();
+    }
+
+    public void enqueuePut(Multilevel_Cache cache, Object key, Object value) {
+        PendingKey id = new PendingKey(cache.getName(), key);
+        // A newer put replaces the pending one; nothing older is ever written after it.
+        if (puts.size() >= settings.maxPendingPuts() && !puts.containsKey(id)) {
+            droppedFull.increment();
+            return;
+        }
+        if (puts.put(id, new PendingPut(cache, value)) != null) {
+            coalesced.increment();
+        }
+        signal();
+    }
+
+    public void enqueueEvict(Multilevel_Cache cache, Object key) {
+        PendingKey id = new PendingKey(cache.getName(), key);
+        puts.remove(id);
+        if (clears.containsKey(id.cacheName())) {
+            coalesced.increment();
+            return;
+        }
+        if (evicts.size() >= settings.maxPendingEvicts() && !evicts.containsKey(id)) {
+            evictOverflows.increment();
+            enqueueClear(cache);
+            return;
+        }
+        if (evicts.put(id, new PendingInvalidation(cache)) != null) {
+            coalesced.increment();
+        }
+        signal();
+    }
+
+    public void enqueueClear(Multilevel_Cache cache) {
+        String cacheName = cache.getName();
+        // Register the clear first so readers never see a gap between the lanes.
+        clears.put(cacheName, new PendingInvalidation(cache));
+        evicts.keySet().removeIf(id -> id.cacheName().equals(cacheName));
+        puts.keySet().removeIf(id -> id.cacheName().equals(cacheName));
+        signal();
+    }
+
+    /** Drops a queued put superseded by a value written to Redis directly. */
+    public void discardPut(String cacheName, Object key) {
+        if (!puts.isEmpty()) {
+            puts.remove(new PendingKey(cacheName, key));
+        }
+    }
+
+    public boolean hasPendingInvalidation(String cacheName, Object key) {
+        return !clears.isEmpty() && clears.containsKey(cacheName)
+                || !evicts.isEmpty() && evicts.containsKey(new PendingKey(cacheName, key));
+    }
+
+    public int pending(String lane) {
+        return switch (lane) {
+            case "put" -> puts.size();
+            case "evict" -> evicts.size();
+            case "clear" -> clears.size();
+            default -> 0;
+        };
+    }
+
+    /**
+     * Applies everything pending once: invalidations until Redis refuses one, then puts.
+     *
+     * @return false if an invalidation could not be applied and must be retried later
+     */
+    boolean drain() {
+        for (Iterator<Map.Entry<String, PendingInvalidation>> it = clears.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, PendingInvalidation> entry = it.next();
+            if (!apply(() -> entry.getValue().cache.applyRemoteClear())) {
+                return false;
+            }
+            clears.remove(entry.getKey(), entry.getValue());
+            appliedClears.increment();
+        }
+        for (Iterator<Map.Entry<PendingKey, PendingInvalidation>> it = evicts.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<PendingKey, PendingInvalidation> entry = it.next();
+            if (!apply(() -> entry.getValue().cache.applyRemoteEvict(entry.getKey().key()))) {
+                return false;
+            }
+            evicts.remove(entry.getKey(), entry.getValue());
+            appliedEvicts.increment();
+        }
+        for (Iterator<Map.Entry<PendingKey, PendingPut>> it = puts.entrySet().iterator(); it.hasNext(); ) {
+            if (!clears.isEmpty() || !evicts.isEmpty()) {
+                // An invalidation arrived meanwhile; it must reach Redis before any further put.
+                return true;
+            }
+            Map.Entry<PendingKey, PendingPut> entry = it.next();
+            if (!puts.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            PendingPut put = entry.getValue();
+            try {
+                if (put.cache().applyRemotePut(entry.getKey().key(), put.value())) {
+                    appliedPuts.increment();
+                } else {
+                    droppedBreakerOpen.increment();
+                }
+            } catch (RuntimeException ex) {
+                droppedError.increment();
+            }
+        }
+        return true;
+    }
+
+    private boolean apply(RemoteWrite write) {
+        try {
+            return write.apply();
+        } catch (RuntimeException ex) {
+            return false;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RemoteWrite {
+        boolean apply();
+    }
+
+    private void signal() {
+        wakeup.offer(Boolean.TRUE);
+    }
+
+    private void drainLoop() {
+        while (running) {
+            try {
+                wakeup.poll(1, TimeUnit.SECONDS);
+                while (running && !drain()) {
+                    Thread.sleep(Math.max(1L, settings.retryDelay().toMillis()));
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.warn("Cache write-behind drain failed; retrying. {}", ex.toString());
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!settings.enabled()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drainLoop, "cache-write-behind");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(2));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Last attempt so a clean shutdown does not leave stale entries behind in Redis.
+        if (!drain()) {
+            log.warn("Shutting down with {} cache clear(s) and {} evict(s) not applied to Redis",
+                    clears.size(), evicts.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private static Counter applied(MeterRegistry meterRegistry, String op) {
+        return Counter.builder(METRIC_PREFIX + ".applied")
+                .description("Redis cache writes applied by the write-behind worker")
+                .tag("op", op)
+                .register(meterRegistry);
+    }
+
+    private static Counter dropped(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder(METRIC_PREFIX + ".dropped")
+                .description("Redis cache puts dropped instead of written")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
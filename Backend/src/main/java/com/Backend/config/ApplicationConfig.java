@@ -48,6 +48,42 @@ public class ApplicationConfig {
         return buildExecutor(corePoolSize, maxPoolSize, queueCapacity, threadNamePrefix);
     }
 
+    @Bean(name = "enrichmentFetchExecutor")
+    public Executor enrichmentFetchExecutor(
+            @Value("${app.enrichment.fetch-executor.core-pool-size:3}") int corePoolSize,
+            @Value("${app.enrichment.fetch-executor.max-pool-size:12}") int maxPoolSize,
+            @Value("${app.enrichment.fetch-executor.queue-capacity:60}") int queueCapacity,
+            @Value("${app.enrichment.fetch-executor.thread-name-prefix:enrichment-fetch-}") String threadNamePrefix
+    ) {
+        return buildExecutor(corePoolSize, maxPoolSize, queueCapacity, threadNamePrefix);
+    }
+
+    @Bean(name = "syncWorkerExecutor")
+    public Executor syncWorkerExecutor(
+            @Value("${sync.worker.concurrency:4}") int concurrency,
+            @Value("${sync.worker.thread-name-prefix:sync-worker-}") String threadNamePrefix
+    ) {
+        // Tasks are only claimed for free slots, so the queue just absorbs hand-off races.
+        return buildExecutor(concurrency, concurrency, Math.max(1, concurrency), threadNamePrefix);
+    }
+
+    @Bean(name = "cacheRefreshExecutor")
+    public Executor cacheRefreshExecutor(
+            @Value("${cache.refresh-ahead.executor.pool-size:2}") int poolSize,
+            @Value("${cache.refresh-ahead.executor.queue-capacity:100}") int queueCapacity
+    ) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(1, poolSize));
+        executor.setMaxPoolSize(Math.max(1, poolSize));
+        executor.setQueueCapacity(Math.max(0, queueCapacity));
+        executor.setThreadNamePrefix("cache-refresh-");
+        // Refresh-ahead is optional work: when saturated, skip it rather than run it on the request thread.
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+
     @Bean(name = "taskScheduler")
     public ThreadPoolTaskScheduler taskScheduler(
             @Value("${app.scheduling.pool-size:2}") int poolSize,
@@ -45,6 +45,8 @@ public class SecurityConfig {
                             .requestMatchers("/user/authenticate").permitAll()
                             .requestMatchers(HttpMethod.GET, "/reviews/**").permitAll()
                             .requestMatchers(HttpMethod.GET, "/recommendations/similar").permitAll()
+                            // Hot cache keys include user emails.
+                            .requestMatchers("/actuator/cachehotkeys/**").hasRole("ADMIN")
                             .requestMatchers("/actuator/**").permitAll()
                             .requestMatchers("/ws/**").permitAll()
                             .requestMatchers("/swagger-ui/**").permitAll()
@@ -0,0 +1,39 @@
+package com.Backend.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Chunking and placeholder helpers for the set-based JDBC repositories.
+ *
+ * <p>Multi-row inserts and {@code IN} lists are cut into chunks of at most
+ * {@link #MAX_ROWS_PER_STATEMENT} rows, which keeps bind parameters well below PostgreSQL's
+ * 65535-per-statement limit.
+ */
+public final class JdbcBatches {
+
+    public static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private JdbcBatches() {
+    }
+
+    /** Splits {@code rows} into chunks of at most {@link #MAX_ROWS_PER_STATEMENT}, in order. */
+    public static <T> List<List<T>> chunks(Collection<T> rows) {
+        List<List<T>> chunks = new ArrayList<>();
+        if (rows == null || rows.isEmpty()) {
+            return chunks;
+        }
+        List<T> all = List.copyOf(rows);
+        for (int start = 0; start < all.size(); start += MAX_ROWS_PER_STATEMENT) {
+            chunks.add(all.subList(start, Math.min(all.size(), start + MAX_ROWS_PER_STATEMENT)));
+        }
+        return chunks;
+    }
+
+    /** Returns {@code count} comma-separated {@code ?} placeholders for an {@code IN} list. */
+    public static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
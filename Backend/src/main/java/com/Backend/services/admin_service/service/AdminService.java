@@ -1,5 +1,6 @@
 package com.Backend.services.admin_service.service;
 
+import com.Backend.cache.CacheScopes;
 import com.Backend.services.admin_service.model.AdminStatsDTO;
 import com.Backend.services.admin_service.model.AdminUserDTO;
 import com.Backend.services.user_service.model.ROLE;
@@ -60,8 +61,7 @@ public class AdminService {
     @Transactional
     @Caching(evict = {
             @CacheEvict(value = "userMeDTO", key = "#updated.email"),
-            @CacheEvict(value = "userSearch", allEntries = true),
-            @CacheEvict(value = "userSearchCache", allEntries = true),
+            @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "T(com.Backend.cache.CacheScopes).USER_DIRECTORY"),
             @CacheEvict(value = "allUsersDTO", key = "'all'"),
             @CacheEvict(value = "users", key = "#updated.id")
     })
@@ -0,0 +1,38 @@
+package com.Backend.services.catalog_import_service.model;
+
+import com.Backend.services.FilmType;
+
+/**
+ * TMDB daily export files the catalog import understands, keyed by file name prefix
+ * (e.g. {@code movie_ids_05_15_2024.json.gz}).
+ */
+public enum CatalogExportKind {
+    MOVIE_IDS("movie_ids_", FilmType.MOVIE),
+    TV_SERIES_IDS("tv_series_ids_", FilmType.SERIES),
+    KEYWORD_IDS("keyword_ids_", null);
+
+    private final String filePrefix;
+    private final FilmType filmType;
+
+    CatalogExportKind(String filePrefix, FilmType filmType) {
+        this.filePrefix = filePrefix;
+        this.filmType = filmType;
+    }
+
+    /** The film type of the rows in a film export; {@code null} for dictionary exports. */
+    public FilmType filmType() {
+        return filmType;
+    }
+
+    public static CatalogExportKind fromFileName(String fileName) {
+        if (fileName == null || !fileName.endsWith(".json.gz")) {
+            return null;
+        }
+        for (CatalogExportKind kind : values()) {
+            if (fileName.startsWith(kind.filePrefix)) {
+                return kind;
+            }
+        }
+        return null;
+    }
+}
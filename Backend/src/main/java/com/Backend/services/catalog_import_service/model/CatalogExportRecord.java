@@ -0,0 +1,23 @@
+package com.Backend.services.catalog_import_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** One line of a TMDB export file; films carry a title field, keywords a name. */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CatalogExportRecord(
+        Long id,
+        @JsonProperty("original_title") String originalTitle,
+        @JsonProperty("original_name") String originalName,
+        String name,
+        Boolean adult,
+        Double popularity
+) {
+
+    public String title() {
+        if (originalTitle != null) {
+            return originalTitle;
+        }
+        return originalName != null ? originalName : name;
+    }
+}
@@ -0,0 +1,42 @@
+package com.Backend.services.catalog_import_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/** Progress of one export file: lines applied so far, and when the file was finished. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "catalog_import_checkpoint")
+public class CatalogImportCheckpoint {
+
+    @Id
+    @Column(name = "file_name", length = 255)
+    @EqualsAndHashCode.Include
+    private String fileName;
+
+    @Column(name = "lines_applied", nullable = false)
+    @Builder.Default
+    private Long linesApplied = 0L;
+
+    @Column(name = "rows_inserted", nullable = false)
+    @Builder.Default
+    private Long rowsInserted = 0L;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,36 @@
+package com.Backend.services.catalog_import_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/** The node currently running the catalog import; a single row with {@link #SINGLETON_ID}. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "catalog_import_lease")
+public class CatalogImportLease {
+
+    public static final short SINGLETON_ID = 1;
+
+    @Id
+    @Column(name = "id")
+    @EqualsAndHashCode.Include
+    private Short id;
+
+    @Column(name = "lease_owner", length = 128)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+}
@@ -0,0 +1,188 @@
+package com.Backend.services.catalog_import_service.repository;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.film_service.model.FilmEnrichmentStatus;
+import com.Backend.services.film_service.repository.FilmBulkRepository;
+import com.Backend.services.film_service.repository.FilmBulkRepository.FilmSnapshotRow;
+import com.Backend.services.keyword_service.repository.KeywordBulkRepository;
+import com.Backend.services.keyword_service.repository.KeywordBulkRepository.KeywordRow;
+import com.Backend.services.sync_service.model.SyncCategory;
+import com.Backend.services.sync_service.model.SyncTaskStatus;
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Bulk writes for the offline catalog import.
+ *
+ * <p>On PostgreSQL each batch is streamed with {@code COPY} into a transaction-scoped staging table
+ * and moved into the target table with one {@code insert ... select ... on conflict do nothing},
+ * so rows that already exist are skipped without a lookup. Other databases (the H2 test profile)
+ * fall back to the multi-row inserts of {@link FilmBulkRepository} and {@link KeywordBulkRepository}.
+ * Must run inside a transaction: the staging tables are emptied on commit.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CatalogImportBulkRepository {
+
+    // Matches the varchar(255) title and name columns.
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FilmBulkRepository filmBulkRepository;
+    private final KeywordBulkRepository keywordBulkRepository;
+
+    public int insertFilmsIfAbsent(FilmType type, List<CatalogFilmRow> films) {
+        if (films == null || films.isEmpty()) {
+            return 0;
+        }
+        Integer inserted = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return null;
+            }
+            StringBuilder csv = new StringBuilder(films.size() * 32);
+            for (CatalogFilmRow row : films) {
+                csv.append(row.tmdbId()).append(',');
+                appendCsvText(csv, row.title());
+                csv.append('\n');
+            }
+            execute(connection, """
+                    create temporary table if not exists catalog_import_film_stage (
+                        film_id bigint not null,
+                        title varchar(255)
+                    ) on commit delete rows
+                    """);
+            copyIn(connection, "copy catalog_import_film_stage (film_id, title) from stdin with (format csv)", csv);
+            return update(connection, """
+                    insert into film (film_id, type, title, credits_sync_completed, keyword_sync_completed,
+                                      genre_sync_completed, recommendation_sync_completed, enrichment_status)
+                    select s.film_id, ?, s.title, false, false, false, false, ?
+                    from catalog_import_film_stage s
+                    on conflict do nothing
+                    """, type.name(), FilmEnrichmentStatus.PENDING.name());
+        });
+        if (inserted != null) {
+            return inserted;
+        }
+        return filmBulkRepository.insertSnapshotsIfAbsent(type, films.stream()
+                .map(row -> new FilmSnapshotRow(row.tmdbId(), truncate(row.title()), null, null, null, null))
+                .toList());
+    }
+
+    public int insertKeywordsIfAbsent(FilmType type, List<CatalogKeywordRow> keywords) {
+        if (keywords == null || keywords.isEmpty()) {
+            return 0;
+        }
+        Integer inserted = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                return null;
+            }
+            StringBuilder csv = new StringBuilder(keywords.size() * 24);
+            for (CatalogKeywordRow row : keywords) {
+                csv.append(row.keywordId()).append(',');
+                appendCsvText(csv, row.name());
+                csv.append('\n');
+            }
+            execute(connection, """
+                    create temporary table if not exists catalog_import_keyword_stage (
+                        keyword_id bigint not null,
+                        name varchar(255) not null
+                    ) on commit delete rows
+                    """);
+            copyIn(connection, "copy catalog_import_keyword_stage (keyword_id, name) from stdin with (format csv)", csv);
+            return update(connection, """
+                    insert into keyword (keyword_id, name, type)
+                    select s.keyword_id, s.name, ?
+                    from catalog_import_keyword_stage s
+                    on conflict do nothing
+                    """, type.name());
+        });
+        if (inserted != null) {
+            return inserted;
+        }
+        return keywordBulkRepository.insertKeywordsIfAbsent(keywords.stream()
+                .map(row -> new KeywordRow(row.keywordId(), truncate(row.name()), type))
+                .toList());
+    }
+
+    /**
+     * Queues an ENRICHMENT task for every watchlisted film that is not enriched and has no task
+     * yet, in one statement. Returns the number of tasks created.
+     */
+    public int insertMissingEnrichmentTasks(int maxAttempts, Instant dueAt) {
+        return jdbcTemplate.update("""
+                insert into sync_task (film_internal_id, tmdb_id, sync_category, status, attempts,
+                                       max_attempts, next_retry_at, demand_score)
+                select f.internal_id, f.film_id, ?, ?, 0, ?, ?, 0
+                from film f
+                where f.enrichment_status <> ?
+                  and exists (select 1 from watchlist_items wi where wi.internal_film_id = f.internal_id)
+                  and not exists (
+                      select 1 from sync_task t
+                      where t.film_internal_id = f.internal_id and t.sync_category = ?
+                  )
+                """,
+                SyncCategory.ENRICHMENT.name(),
+                SyncTaskStatus.PENDING.name(),
+                maxAttempts,
+                Timestamp.from(dueAt),
+                FilmEnrichmentStatus.DONE.name(),
+                SyncCategory.ENRICHMENT.name());
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static int update(Connection connection, String sql, Object... args) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+    private static void copyIn(Connection connection, String sql, CharSequence csv) throws SQLException {
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+        } catch (IOException ex) {
+            throw new DataAccessResourceFailureException("COPY into catalog import stage failed", ex);
+        }
+    }
+
+    private static void appendCsvText(StringBuilder csv, String value) {
+        if (value == null) {
+            // An unquoted empty field is NULL in COPY's csv format.
+            return;
+        }
+        csv.append('"').append(truncate(value).replace("\"", "\"\"")).append('"');
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_TEXT_LENGTH) {
+            return value;
+        }
+        return value.substring(0, MAX_TEXT_LENGTH);
+    }
+
+    public record CatalogFilmRow(Long tmdbId, String title) {
+    }
+
+    public record CatalogKeywordRow(Long keywordId, String name) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.Backend.services.catalog_import_service.repository;
+
+import com.Backend.services.catalog_import_service.model.CatalogImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CatalogImportCheckpointRepository extends JpaRepository<CatalogImportCheckpoint, String> {
+}
@@ -0,0 +1,47 @@
+package com.Backend.services.catalog_import_service.repository;
+
+import com.Backend.services.catalog_import_service.model.CatalogImportLease;
+import java.time.Instant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CatalogImportLeaseRepository extends JpaRepository<CatalogImportLease, Short> {
+
+    /** Takes the lease if it is free, expired or already held by {@code owner}; returns 1 on success. */
+    @Modifying
+    @Query("""
+            update CatalogImportLease l
+               set l.leaseOwner = :owner,
+                   l.leaseExpiresAt = :leaseExpiresAt
+             where l.id = :id
+               and (l.leaseOwner is null or l.leaseOwner = :owner or l.leaseExpiresAt < :now)
+            """)
+    int claim(
+            @Param("id") Short id,
+            @Param("owner") String owner,
+            @Param("now") Instant now,
+            @Param("leaseExpiresAt") Instant leaseExpiresAt
+    );
+
+    /** Extends a lease {@code owner} still holds; returns 0 once another node has taken it over. */
+    @Modifying
+    @Query("""
+            update CatalogImportLease l
+               set l.leaseExpiresAt = :leaseExpiresAt
+             where l.id = :id
+               and l.leaseOwner = :owner
+            """)
+    int renew(@Param("id") Short id, @Param("owner") String owner, @Param("leaseExpiresAt") Instant leaseExpiresAt);
+
+    @Modifying
+    @Query("""
+            update CatalogImportLease l
+               set l.leaseOwner = null,
+                   l.leaseExpiresAt = null
+             where l.id = :id
+               and l.leaseOwner = :owner
+            """)
+    int release(@Param("id") Short id, @Param("owner") String owner);
+}
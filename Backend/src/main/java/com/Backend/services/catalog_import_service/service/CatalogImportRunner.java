@@ -0,0 +1,52 @@
+package com.Backend.services.catalog_import_service.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Runs the offline catalog import once the application is ready when {@code catalog.import.enabled}
+ * is set and {@code catalog.import.directory} points at the downloaded export files. The import
+ * runs in the background so it never holds up startup, and under the import lease so only one node
+ * of a cluster reads the files. Finished files are checkpointed, so leaving the flag on across
+ * restarts only re-reads files that are new.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogImportRunner {
+
+    private final CatalogImportService catalogImportService;
+
+    @Value("${catalog.import.enabled:false}")
+    private boolean enabled;
+
+    @Value("${catalog.import.directory:}")
+    private String directory;
+
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void importOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        if (!StringUtils.hasText(directory) || !Files.isDirectory(Path.of(directory))) {
+            log.warn("Catalog import enabled but catalog.import.directory '{}' is not a directory; skipping", directory);
+            return;
+        }
+        try {
+            if (catalogImportService.importDirectoryUnderLease(Path.of(directory)).isEmpty()) {
+                log.info("Catalog import is running on another node; skipping");
+            }
+        } catch (RuntimeException ex) {
+            log.error("Catalog import failed; committed batches resume on the next start: {}", ex.toString());
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.Backend.services.catalog_import_service.service;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.catalog_import_service.model.CatalogExportKind;
+import com.Backend.services.catalog_import_service.model.CatalogExportRecord;
+import com.Backend.services.catalog_import_service.model.CatalogImportCheckpoint;
+import com.Backend.services.catalog_import_service.model.CatalogImportLease;
+import com.Backend.services.catalog_import_service.repository.CatalogImportBulkRepository;
+import com.Backend.services.catalog_import_service.repository.CatalogImportBulkRepository.CatalogFilmRow;
+import com.Backend.services.catalog_import_service.repository.CatalogImportBulkRepository.CatalogKeywordRow;
+import com.Backend.services.catalog_import_service.repository.CatalogImportCheckpointRepository;
+import com.Backend.services.catalog_import_service.repository.CatalogImportLeaseRepository;
+import com.Backend.services.sync_service.helper.SyncTaskHelper;
+import com.Backend.services.sync_service.model.SyncCategory;
+import com.Backend.services.sync_service.service.SyncDemandService;
+import com.Backend.services.sync_service.wakeup.WorkQueue;
+import com.Backend.services.sync_service.wakeup.WorkWakeupChannel;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * Loads TMDB's daily export files ({@code movie_ids_*.json.gz}, {@code tv_series_ids_*.json.gz},
+ * {@code keyword_ids_*.json.gz}) from local disk into {@code film} and {@code keyword}.
+ *
+ * <p>Files are streamed line by line and written in batches of {@code catalog.import.batch-size}
+ * rows, so memory stays bounded by one batch whatever the file size. Each batch commits together
+ * with its file's checkpoint; an interrupted import resumes after the last committed line, and
+ * finished files are skipped. Films and keywords that already exist are left untouched.
+ *
+ * <p>Imported films are identity rows only (TMDB id, type, original title) in {@code PENDING}
+ * enrichment state; they are enriched on demand like any other film. Genres are not part of the
+ * exports and keep coming from the genre list API. After the files, {@link #reconcileSyncTasks()}
+ * queues enrichment for watchlisted films that lost their task, e.g. after restoring from backup.
+ *
+ * <p>{@link #importDirectoryUnderLease(Path)} lets only one node import at a time: it takes the
+ * {@code catalog_import_lease} row and renews it in every batch transaction, so a node that lost
+ * its lease stops at its next batch instead of importing alongside the new holder.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+
+    private static final int READ_BUFFER_BYTES = 1 << 16;
+
+    private final CatalogImportBulkRepository bulkRepository;
+    private final CatalogImportCheckpointRepository checkpointRepository;
+    private final CatalogImportLeaseRepository leaseRepository;
+    private final SyncTaskHelper syncTaskHelper;
+    private final SyncDemandService syncDemandService;
+    private final WorkWakeupChannel wakeupChannel;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader recordReader;
+    private final int batchSize;
+    private final boolean includeAdult;
+    private final double minPopularity;
+    private final FilmType keywordType;
+    private final Duration leaseTtl;
+    private final String leaseOwner;
+
+    public CatalogImportService(
+            CatalogImportBulkRepository bulkRepository,
+            CatalogImportCheckpointRepository checkpointRepository,
+            CatalogImportLeaseRepository leaseRepository,
+            SyncTaskHelper syncTaskHelper,
+            SyncDemandService syncDemandService,
+            WorkWakeupChannel wakeupChannel,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${catalog.import.batch-size:5000}") int batchSize,
+            @Value("${catalog.import.include-adult:false}") boolean includeAdult,
+            @Value("${catalog.import.min-popularity:0}") double minPopularity,
+            @Value("${catalog.import.keyword-type:MOVIE}") FilmType keywordType,
+            @Value("${catalog.import.lease-ttl-ms:600000}") long leaseTtlMs) {
+        this.bulkRepository = bulkRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.leaseRepository = leaseRepository;
+        this.syncTaskHelper = syncTaskHelper;
+        this.syncDemandService = syncDemandService;
+        this.wakeupChannel = wakeupChannel;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recordReader = objectMapper.readerFor(CatalogExportRecord.class);
+        this.batchSize = Math.max(1, batchSize);
+        this.includeAdult = includeAdult;
+        this.minPopularity = Math.max(0.0d, minPopularity);
+        this.keywordType = keywordType == null ? FilmType.MOVIE : keywordType;
+        this.leaseTtl = Duration.ofMillis(Math.max(1_000L, leaseTtlMs));
+        this.leaseOwner = resolveLeaseOwner();
+    }
+
+    /**
+     * Imports {@code directory} while holding the import lease, or returns empty without reading
+     * anything when another node holds it.
+     */
+    public Optional<ImportSummary> importDirectoryUnderLease(Path directory) {
+        if (!claimLease()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(importDirectory(directory, true));
+        } finally {
+            transactionTemplate.executeWithoutResult(status ->
+                    leaseRepository.release(CatalogImportLease.SINGLETON_ID, leaseOwner));
+        }
+    }
+
+    /** Imports every recognised export file in {@code directory}, in name order, then reconciles. */
+    public ImportSummary importDirectory(Path directory) {
+        return importDirectory(directory, false);
+    }
+
+    private ImportSummary importDirectory(Path directory, boolean leased) {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(path -> CatalogExportKind.fromFileName(path.getFileName().toString()) != null)
+                    .sorted()
+                    .toList();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot list catalog export directory " + directory, ex);
+        }
+
+        long started = System.nanoTime();
+        long inserted = 0L;
+        for (Path file : files) {
+            inserted += importFile(file, leased);
+        }
+        int tasksQueued = reconcileSyncTasks();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000L;
+        log.info("Catalog import finished files={} rowsInserted={} enrichmentTasksQueued={} elapsedMs={}",
+                files.size(), inserted, tasksQueued, elapsedMs);
+        return new ImportSummary(files.size(), inserted, tasksQueued);
+    }
+
+    /** Imports one export file from its checkpoint; returns the rows inserted by this call. */
+    public long importFile(Path file) {
+        return importFile(file, false);
+    }
+
+    private long importFile(Path file, boolean leased) {
+        String fileName = file.getFileName().toString();
+        CatalogExportKind kind = CatalogExportKind.fromFileName(fileName);
+        if (kind == null) {
+            log.warn("Skipping unrecognised catalog export file {}", fileName);
+            return 0L;
+        }
+
+        CatalogImportCheckpoint checkpoint = checkpointRepository.findById(fileName)
+                .orElseGet(() -> CatalogImportCheckpoint.builder().fileName(fileName).build());
+        if (checkpoint.getCompletedAt() != null) {
+            log.info("Catalog export {} already imported; skipping", fileName);
+            return 0L;
+        }
+
+        long resumeAfter = checkpoint.getLinesApplied() == null ? 0L : checkpoint.getLinesApplied();
+        long lineNumber = 0L;
+        long inserted = 0L;
+        long malformed = 0L;
+        List<CatalogExportRecord> batch = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), READ_BUFFER_BYTES), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber <= resumeAfter || !StringUtils.hasText(line)) {
+                    continue;
+                }
+                CatalogExportRecord record = parse(line);
+                if (record == null) {
+                    malformed++;
+                    continue;
+                }
+                if (accept(kind, record)) {
+                    batch.add(record);
+                }
+                if (batch.size() >= batchSize) {
+                    inserted += flush(kind, checkpoint, batch, lineNumber, false, leased);
+                    batch.clear();
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed reading catalog export " + fileName, ex);
+        }
+        inserted += flush(kind, checkpoint, batch, lineNumber, true, leased);
+
+        log.info("Imported catalog export {} kind={} lines={} resumedAfter={} inserted={} malformed={}",
+                fileName, kind, lineNumber, resumeAfter, inserted, malformed);
+        return inserted;
+    }
+
+    /**
+     * Queues ENRICHMENT for watchlisted films that are not enriched and have no task, scores the
+     * new tasks and wakes the workers. Returns the number of tasks created.
+     */
+    public int reconcileSyncTasks() {
+        Integer created = transactionTemplate.execute(status -> bulkRepository.insertMissingEnrichmentTasks(
+                syncTaskHelper.resolveMaxAttempts(SyncCategory.ENRICHMENT),
+                Instant.now()
+        ));
+        int tasks = created == null ? 0 : created;
+        if (tasks > 0) {
+            syncDemandService.refreshQueuedDemand();
+            wakeupChannel.signal(WorkQueue.SYNC_TASK, null);
+        }
+        return tasks;
+    }
+
+    private long flush(
+            CatalogExportKind kind,
+            CatalogImportCheckpoint checkpoint,
+            List<CatalogExportRecord> batch,
+            long lineNumber,
+            boolean complete,
+            boolean leased) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            if (leased && leaseRepository.renew(
+                    CatalogImportLease.SINGLETON_ID, leaseOwner, Instant.now().plus(leaseTtl)) == 0) {
+                throw new IllegalStateException("Catalog import lease was taken over by another node");
+            }
+            int rows = write(kind, batch);
+            checkpoint.setLinesApplied(lineNumber);
+            checkpoint.setRowsInserted(checkpoint.getRowsInserted() + rows);
+            checkpoint.setUpdatedAt(Instant.now());
+            if (complete) {
+                checkpoint.setCompletedAt(Instant.now());
+            }
+            checkpointRepository.save(checkpoint);
+            return rows;
+        });
+        return inserted == null ? 0L : inserted;
+    }
+
+    private boolean claimLease() {
+        Instant now = Instant.now();
+        try {
+            Boolean claimed = transactionTemplate.execute(status -> {
+                if (!leaseRepository.existsById(CatalogImportLease.SINGLETON_ID)) {
+                    leaseRepository.saveAndFlush(CatalogImportLease.builder()
+                            .id(CatalogImportLease.SINGLETON_ID)
+                            .leaseOwner(leaseOwner)
+                            .leaseExpiresAt(now.plus(leaseTtl))
+                            .build());
+                    return true;
+                }
+                return leaseRepository.claim(
+                        CatalogImportLease.SINGLETON_ID, leaseOwner, now, now.plus(leaseTtl)) == 1;
+            });
+            return Boolean.TRUE.equals(claimed);
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created the lease row first and holds it.
+            return false;
+        }
+    }
+
+    private static String resolveLeaseOwner() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            host = "unknown-host";
+        }
+        return host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private int write(CatalogExportKind kind, List<CatalogExportRecord> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        if (kind.filmType() == null) {
+            return bulkRepository.insertKeywordsIfAbsent(keywordType, batch.stream()
+                    .map(record -> new CatalogKeywordRow(record.id(), record.name()))
+                    .toList());
+        }
+        return bulkRepository.insertFilmsIfAbsent(kind.filmType(), batch.stream()
+                .map(record -> new CatalogFilmRow(record.id(), record.title()))
+                .toList());
+    }
+
+    private boolean accept(CatalogExportKind kind, CatalogExportRecord record) {
+        if (record.id() == null) {
+            return false;
+        }
+        if (kind.filmType() == null) {
+            return StringUtils.hasText(record.name());
+        }
+        if (!includeAdult && Boolean.TRUE.equals(record.adult())) {
+            return false;
+        }
+        return minPopularity <= 0.0d
+                || (record.popularity() != null && record.popularity() >= minPopularity);
+    }
+
+    private CatalogExportRecord parse(String line) {
+        try {
+            return recordReader.readValue(line);
+        } catch (JsonProcessingException ex) {
+            log.debug("Skipping malformed catalog export line: {}", ex.getOriginalMessage());
+            return null;
+        }
+    }
+
+    public record ImportSummary(int files, long rowsInserted, int enrichmentTasksQueued) {
+    }
+}
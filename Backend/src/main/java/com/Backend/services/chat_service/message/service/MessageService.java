@@ -1,5 +1,6 @@
 package com.Backend.services.chat_service.message.service;
 
+import com.Backend.cache.CacheScopes;
 import com.Backend.services.chat_service.message.dto.MarkAsReadNotificationDTO;
 import com.Backend.services.chat_service.message.dto.MessageDTOPage;
 import com.Backend.services.chat_service.model.Chat;
@@ -47,7 +48,7 @@ public class MessageService {
 
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "messagesDTO", allEntries = true),
+        @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "'chat:' + #chatId"),
         @CacheEvict(value = "latestMessageDTO", key = "#chatId"),
     })
     public Message sendMessage(String text, Long chatId, User sender) {
@@ -76,7 +77,7 @@ public class MessageService {
     // ==================== Retrieve Messages ====================
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "messagesDTO", key = "#chatId + '-' + #page + '-' + #size")
+    @Cacheable(value = "messagesDTO", key = "@cacheScopes.key('chat:' + #chatId, #page, #size)")
     public MessageDTOPage getMessagesDTO(Long chatId, int page, int size) {
         validateNotNull(chatId, "Chat ID");
         
@@ -148,7 +149,7 @@ public class MessageService {
         @CacheEvict(value = "chatNotifications", key = "#user.id"),
         @CacheEvict(value = "notifications", key = "#user.id"),
         @CacheEvict(value = "chats", key = "#user.id"),
-        @CacheEvict(value = "messagesDTO", allEntries = true)
+        @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "'chat:' + #chatId")
     })
     public void markMessagesAsRead(Long chatId, User user) {
         validateNotNull(chatId, "Chat ID");
@@ -186,7 +187,7 @@ public class MessageService {
 
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "messagesDTO", allEntries = true),
+        @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "'chat:' + #chatId"),
         @CacheEvict(value = "latestMessageDTO", key = "#chatId")
     })
     public void deleteMessagesByChatId(Long chatId) {
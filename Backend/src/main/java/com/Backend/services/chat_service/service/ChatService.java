@@ -3,12 +3,15 @@ package com.Backend.services.chat_service.service;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import com.Backend.cache.CacheScopes;
 import com.Backend.services.chat_service.message.dto.MessageDTO;
 import com.Backend.services.chat_service.message.service.MessageService;
 import com.Backend.services.chat_service.model.ChatLookUpHelper;
 import com.Backend.services.chat_service.model.DTO.ChatResponseDTO;
 import com.Backend.services.notification_service.model.UserIdAndChatId;
 import com.Backend.services.user_service.model.UserLookUpHelper;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Caching;
 import org.springframework.context.ApplicationEventPublisher;
@@ -40,6 +43,7 @@ public class ChatService {
     private final UserLookUpHelper userLookUpHelper;
     private final ApplicationEventPublisher publisher;
     private final MessageService messageService;
+    private final CacheManager cacheManager;
     @Autowired
     @Lazy
     private ChatService self;
@@ -121,10 +125,6 @@ public class ChatService {
     // ==================== Create Group Chat Methods ====================
 
     @Transactional
-    @Caching(evict = {
-        @CacheEvict(value = "chats", allEntries = true),
-        @CacheEvict(value = "userMeDTO", allEntries = true)
-    })
     public Chat createGroupChat(Set<User> users) {
         validateNotNull(users, "Users set");
         
@@ -139,10 +139,7 @@ public class ChatService {
         
         Chat savedChat = chatRepository.save(chat);
         
-        // Evict userMeDTO for all participants
-        users.forEach(user -> {
-            log.debug("Evicting userMeDTO cache for user: {}", user.getEmail());
-        });
+        evictChatListsFor(users);
         
         log.info("Successfully created group chat with id: {}", savedChat.getId());
         
@@ -223,10 +220,8 @@ public class ChatService {
     @Caching(evict = {
             @CacheEvict(value = "chatByIdDTO", key = "#chat.id"),
             @CacheEvict(value = "chatParticipants", key = "#chat.id"),
-            @CacheEvict(value = "chats", allEntries = true),
-            @CacheEvict(value = "messagesDTO", allEntries = true),
-            @CacheEvict(value = "latestMessageDTO", key = "#chat.id"),
-            @CacheEvict(value = "userMeDTO", allEntries = true)
+            @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "'chat:' + #chat.id"),
+            @CacheEvict(value = "latestMessageDTO", key = "#chat.id")
     })
     public void deleteChat(Chat chat) {
         validateNotNull(chat, "Chat");
@@ -236,7 +231,9 @@ public class ChatService {
         // Delete messages first to avoid FK constraint violations or orphan records
         messageService.deleteMessagesByChatId(chat.getId());
         
+        Set<User> participants = Set.copyOf(chat.getParticipants());
         chatRepository.delete(chat);
+        evictChatListsFor(participants);
         
         log.info("Successfully deleted chat with id: {}", chat.getId());
     }
@@ -262,6 +259,20 @@ public class ChatService {
             throw new ChatValidationException(fieldName + " cannot be null");
         }
     }
+
+    // Only the participants' chat lists and profiles mention the chat, so evict just those keys.
+    private void evictChatListsFor(Set<User> participants) {
+        Cache chatsCache = cacheManager.getCache("chats");
+        Cache userMeCache = cacheManager.getCache("userMeDTO");
+        for (User participant : participants) {
+            if (chatsCache != null && participant.getId() != null) {
+                chatsCache.evict(participant.getId());
+            }
+            if (userMeCache != null && participant.getEmail() != null) {
+                userMeCache.evict(participant.getEmail());
+            }
+        }
+    }
     
     private void validateGroupChatUserIds(Set<Long> userIds) {
         if (userIds == null || userIds.size() < MIN_GROUP_CHAT_PARTICIPANTS) {
@@ -0,0 +1,37 @@
+package com.Backend.services.credit_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/** The last film the credit retention compactor has pruned; a single row with {@link #SINGLETON_ID}. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "credit_retention_checkpoint")
+public class CreditRetentionCheckpoint {
+
+    public static final short SINGLETON_ID = 1;
+
+    @Id
+    @Column(name = "id")
+    @EqualsAndHashCode.Include
+    private Short id;
+
+    @Column(name = "film_cursor", nullable = false)
+    @Builder.Default
+    private Long filmCursor = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
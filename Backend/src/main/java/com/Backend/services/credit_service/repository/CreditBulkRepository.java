@@ -0,0 +1,70 @@
+package com.Backend.services.credit_service.repository;
+
+import com.Backend.services.JdbcBatches;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based writes for credit ingestion.
+ *
+ * <p>Each call issues one multi-row statement per chunk of
+ * {@link JdbcBatches#MAX_ROWS_PER_STATEMENT} rows, so ingesting a film's credits costs a constant
+ * number of round trips instead of several per cast/crew member. Runs on the JDBC connection bound to the current JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CreditBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertCreditsIfAbsent(Collection<CreditRow> credits) {
+        int inserted = 0;
+        for (List<CreditRow> chunk : JdbcBatches.chunks(credits)) {
+            StringBuilder sql = new StringBuilder(
+                    "insert into credit (credit_id, name, department, profile_path) values ");
+            List<Object> args = new ArrayList<>(chunk.size() * 4);
+            for (int i = 0; i < chunk.size(); i++) {
+                CreditRow row = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?, ?)" : ", (?, ?, ?, ?)");
+                args.add(row.creditId());
+                args.add(row.name());
+                args.add(row.department());
+                args.add(row.profilePath());
+            }
+            sql.append(" on conflict do nothing");
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+
+    public int insertFilmRolesIfAbsent(Long filmInternalId, Collection<FilmRoleRow> filmRoles) {
+        int inserted = 0;
+        for (List<FilmRoleRow> chunk : JdbcBatches.chunks(filmRoles)) {
+            StringBuilder sql = new StringBuilder(
+                    "insert into film_role (film_id, credit_id, role_id, character_name, job_name) values ");
+            List<Object> args = new ArrayList<>(chunk.size() * 5);
+            for (int i = 0; i < chunk.size(); i++) {
+                FilmRoleRow row = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+                args.add(filmInternalId);
+                args.add(row.creditId());
+                args.add(row.roleId());
+                args.add(row.characterName());
+                args.add(row.jobName());
+            }
+            sql.append(" on conflict do nothing");
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+
+    public record CreditRow(Long creditId, String name, String department, String profilePath) {
+    }
+
+    public record FilmRoleRow(Long creditId, Long roleId, String characterName, String jobName) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.Backend.services.credit_service.repository;
+
+import com.Backend.services.credit_service.model.CreditRetentionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CreditRetentionCheckpointRepository extends JpaRepository<CreditRetentionCheckpoint, Short> {
+}
@@ -0,0 +1,114 @@
+package com.Backend.services.credit_service.repository;
+
+import com.Backend.services.JdbcBatches;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based pruning of stored credits down to the retention policy.
+ *
+ * <p>Films are walked in keyset pages by internal id; each prune statement covers one page. Cast
+ * rank is the {@code film_role} insertion order, which ingestion writes in billing order.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CreditRetentionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Keyset page over films that have any stored credit, in id order. */
+    public List<Long> findFilmIdsWithRolesAfter(long afterFilmInternalId, int limit) {
+        return jdbcTemplate.queryForList("""
+                select distinct film_id
+                from film_role
+                where film_id > ?
+                order by film_id
+                limit ?
+                """, Long.class, afterFilmInternalId, limit);
+    }
+
+    /** Deletes cast rows ranked after {@code maxCast} within each of the given films. */
+    public int pruneCastBeyond(Collection<Long> filmInternalIds, int maxCast) {
+        if (filmInternalIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(filmInternalIds);
+        args.add(maxCast);
+        return jdbcTemplate.update("""
+                delete from film_role
+                where id in (
+                    select ranked.id
+                    from (
+                        select fr.id, row_number() over (partition by fr.film_id order by fr.id) as position
+                        from film_role fr
+                        join role r on r.role_id = fr.role_id
+                        where r.role_code = 'CAST'
+                          and fr.film_id in (%s)
+                    ) ranked
+                    where ranked.position > ?
+                )
+                """.formatted(JdbcBatches.placeholders(filmInternalIds.size())), args.toArray());
+    }
+
+    /** Deletes crew rows of the given films whose job is not in {@code retainedJobs} (lower-cased). */
+    public int pruneCrewOutside(Collection<Long> filmInternalIds, Collection<String> retainedJobs) {
+        if (filmInternalIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(filmInternalIds);
+        String jobFilter = "";
+        if (!retainedJobs.isEmpty()) {
+            jobFilter = " and (fr.job_name is null or lower(fr.job_name) not in (%s))"
+                    .formatted(JdbcBatches.placeholders(retainedJobs.size()));
+            args.addAll(retainedJobs);
+        }
+        return jdbcTemplate.update("""
+                delete from film_role
+                where id in (
+                    select fr.id
+                    from film_role fr
+                    join role r on r.role_id = fr.role_id
+                    where r.role_code = 'CREW'
+                      and fr.film_id in (%s)%s
+                )
+                """.formatted(JdbcBatches.placeholders(filmInternalIds.size()), jobFilter), args.toArray());
+    }
+
+    /** Deletes up to {@code limit} credits no film role or user weight references. */
+    public int deleteOrphanCredits(int limit) {
+        return jdbcTemplate.update("""
+                delete from credit
+                where credit_id in (
+                    select c.credit_id
+                    from credit c
+                    where not exists (select 1 from film_role fr where fr.credit_id = c.credit_id)
+                      and not exists (select 1 from user_credit_weight w where w.credit_id = c.credit_id)
+                    limit ?
+                )
+                """, limit);
+    }
+
+    /**
+     * Average on-disk bytes per row of {@code table}, indexes included, from PostgreSQL's relation
+     * size and planner statistics. Returns 0 on other databases.
+     */
+    public long estimateBytesPerRow(String table) {
+        Boolean postgres = jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+        if (!Boolean.TRUE.equals(postgres)) {
+            return 0L;
+        }
+        Long bytes = jdbcTemplate.queryForObject("""
+                select (pg_total_relation_size(c.oid) / greatest(c.reltuples, 1))::bigint
+                from pg_class c
+                where c.oid = to_regclass(?)
+                """, Long.class, table);
+        return bytes == null ? 0L : Math.max(0L, bytes);
+    }
+}
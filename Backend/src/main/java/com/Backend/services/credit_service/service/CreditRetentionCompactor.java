@@ -0,0 +1,148 @@
+package com.Backend.services.credit_service.service;
+
+import com.Backend.services.JdbcBatches;
+import com.Backend.services.credit_service.model.CreditRetentionCheckpoint;
+import com.Backend.services.credit_service.repository.CreditRetentionCheckpointRepository;
+import com.Backend.services.credit_service.repository.CreditRetentionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Prunes credits stored before {@link CreditRetentionPolicy} existed, or under a wider policy,
+ * down to the current policy.
+ *
+ * <p>Each run walks up to {@code max-pages-per-run} pages of films from where the previous run
+ * stopped, pruning cast and crew rows in one transaction per page, then deletes credits no longer
+ * referenced by any film or user weight. The page cursor is saved in
+ * {@code credit_retention_checkpoint} with each page, so a restart resumes where the last run
+ * stopped. Reclaimed bytes are estimated from PostgreSQL's average
+ * row size; the space becomes reusable after vacuum.
+ */
+@Slf4j
+@Service
+public class CreditRetentionCompactor {
+
+    private static final String METRIC_PREFIX = "credits.retention";
+
+    private final CreditRetentionRepository retentionRepository;
+    private final CreditRetentionCheckpointRepository checkpointRepository;
+    private final CreditRetentionPolicy retentionPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int filmsPerPage;
+    private final int maxPagesPerRun;
+    private final Counter prunedFilmRoles;
+    private final Counter prunedCredits;
+    private final Counter reclaimedBytes;
+
+    public CreditRetentionCompactor(
+            CreditRetentionRepository retentionRepository,
+            CreditRetentionCheckpointRepository checkpointRepository,
+            CreditRetentionPolicy retentionPolicy,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${credits.retention.compactor.enabled:true}") boolean enabled,
+            @Value("${credits.retention.compactor.films-per-page:200}") int filmsPerPage,
+            @Value("${credits.retention.compactor.max-pages-per-run:50}") int maxPagesPerRun) {
+        this.retentionRepository = retentionRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.retentionPolicy = retentionPolicy;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        // One IN list per page.
+        this.filmsPerPage = Math.min(JdbcBatches.MAX_ROWS_PER_STATEMENT, Math.max(1, filmsPerPage));
+        this.maxPagesPerRun = Math.max(1, maxPagesPerRun);
+
+        this.prunedFilmRoles = Counter.builder(METRIC_PREFIX + ".pruned")
+                .description("Stored credit rows removed by the retention compactor")
+                .tag("table", "film_role")
+                .register(meterRegistry);
+        this.prunedCredits = Counter.builder(METRIC_PREFIX + ".pruned")
+                .description("Stored credit rows removed by the retention compactor")
+                .tag("table", "credit")
+                .register(meterRegistry);
+        this.reclaimedBytes = Counter.builder(METRIC_PREFIX + ".reclaimed.bytes")
+                .description("Estimated bytes freed by the retention compactor, reusable after vacuum")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${credits.retention.compactor.interval-ms:3600000}",
+            initialDelayString = "${credits.retention.compactor.initial-delay-ms:300000}")
+    public void compactOnSchedule() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            compact();
+        } catch (RuntimeException ex) {
+            log.warn("Credit retention compaction failed; resuming from the last saved page next run: {}",
+                    ex.toString());
+        }
+    }
+
+    /** Runs one pass and returns the estimated bytes reclaimed. */
+    public synchronized long compact() {
+        long filmRoleBytes = retentionRepository.estimateBytesPerRow("film_role");
+        long creditBytes = retentionRepository.estimateBytesPerRow("credit");
+
+        long filmCursor = checkpointRepository.findById(CreditRetentionCheckpoint.SINGLETON_ID)
+                .map(CreditRetentionCheckpoint::getFilmCursor)
+                .orElse(0L);
+        int rolesRemoved = 0;
+        for (int page = 0; page < maxPagesPerRun; page++) {
+            List<Long> filmIds = retentionRepository.findFilmIdsWithRolesAfter(filmCursor, filmsPerPage);
+            if (filmIds.isEmpty()) {
+                // Reached the end of the catalog; the next run starts over.
+                transactionTemplate.executeWithoutResult(status -> saveCheckpoint(0L));
+                break;
+            }
+            long pageEnd = filmIds.get(filmIds.size() - 1);
+            Integer removed = transactionTemplate.execute(status -> {
+                int pruned = retentionRepository.pruneCastBeyond(filmIds, retentionPolicy.maxCast())
+                        + retentionRepository.pruneCrewOutside(filmIds, retentionPolicy.crewJobs());
+                saveCheckpoint(pageEnd);
+                return pruned;
+            });
+            rolesRemoved += removed == null ? 0 : removed;
+            filmCursor = pageEnd;
+        }
+
+        int creditsRemoved = 0;
+        for (int batch = 0; batch < maxPagesPerRun; batch++) {
+            Integer removed = transactionTemplate.execute(status -> retentionRepository.deleteOrphanCredits(filmsPerPage));
+            int count = removed == null ? 0 : removed;
+            creditsRemoved += count;
+            if (count < filmsPerPage) {
+                break;
+            }
+        }
+
+        long reclaimed = rolesRemoved * filmRoleBytes + creditsRemoved * creditBytes;
+        prunedFilmRoles.increment(rolesRemoved);
+        prunedCredits.increment(creditsRemoved);
+        reclaimedBytes.increment(reclaimed);
+        if (rolesRemoved > 0 || creditsRemoved > 0) {
+            log.info("Credit retention pruned filmRoles={} credits={} reclaimedBytes≈{}",
+                    rolesRemoved, creditsRemoved, reclaimed);
+        }
+        return reclaimed;
+    }
+
+    private void saveCheckpoint(long filmCursor) {
+        CreditRetentionCheckpoint checkpoint = checkpointRepository.findById(CreditRetentionCheckpoint.SINGLETON_ID)
+                .orElseGet(() -> CreditRetentionCheckpoint.builder().id(CreditRetentionCheckpoint.SINGLETON_ID).build());
+        checkpoint.setFilmCursor(filmCursor);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+}
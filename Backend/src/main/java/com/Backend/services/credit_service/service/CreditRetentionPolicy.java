@@ -0,0 +1,68 @@
+package com.Backend.services.credit_service.service;
+
+import com.Backend.services.film_service.model.TmdbCreditsResponse.CastMember;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Which of a film's TMDB credits are stored: the first {@code credits.retention.max-cast} cast
+ * members by billing order, every director, and crew whose job is listed in
+ * {@code credits.retention.crew-jobs}. Applied at ingestion and by {@link CreditRetentionCompactor}.
+ */
+@Component
+public class CreditRetentionPolicy {
+
+    private static final String DIRECTOR_JOB = "director";
+
+    private final int maxCast;
+    private final Set<String> crewJobs;
+
+    public CreditRetentionPolicy(
+            @Value("${credits.retention.max-cast:15}") int maxCast,
+            @Value("${credits.retention.crew-jobs:Screenplay,Writer,Story,Novel,Director of Photography,"
+                    + "Original Music Composer,Editor,Producer}") String crewJobs) {
+        this.maxCast = Math.max(0, maxCast);
+        this.crewJobs = Arrays.stream(crewJobs.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .map(job -> job.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public int maxCast() {
+        return maxCast;
+    }
+
+    /** Retained crew jobs, lower-cased; directors are retained regardless. */
+    public Set<String> crewJobs() {
+        return crewJobs;
+    }
+
+    /** The cast members to store, most prominent first; entries without an order keep their position last. */
+    public List<CastMember> selectCast(List<CastMember> cast) {
+        if (cast == null || cast.isEmpty()) {
+            return List.of();
+        }
+        return cast.stream()
+                .filter(Objects::nonNull)
+                .sorted(Comparator.comparing(CastMember::getOrder, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(maxCast)
+                .toList();
+    }
+
+    public boolean retainsCrewJob(String job) {
+        if (!StringUtils.hasText(job)) {
+            return false;
+        }
+        String normalized = job.trim().toLowerCase(Locale.ROOT);
+        return DIRECTOR_JOB.equals(normalized) || crewJobs.contains(normalized);
+    }
+}
@@ -2,27 +2,31 @@ package com.Backend.services.credit_service.service;
 
 import com.Backend.services.FilmType;
 import com.Backend.services.credit_service.model.Credit;
-import com.Backend.services.credit_service.model.FilmRole;
 import com.Backend.services.credit_service.model.Role;
 import com.Backend.services.credit_service.model.RoleGroup;
 import com.Backend.services.credit_service.repository.CreditRepository;
-import com.Backend.services.credit_service.repository.FilmRoleRepository;
+import com.Backend.services.credit_service.repository.CreditBulkRepository;
+import com.Backend.services.credit_service.repository.CreditBulkRepository.CreditRow;
+import com.Backend.services.credit_service.repository.CreditBulkRepository.FilmRoleRow;
 import com.Backend.services.credit_service.repository.RoleRepository;
 import com.Backend.services.film_service.model.Film;
 import com.Backend.services.film_service.model.TmdbCreditsResponse;
 import com.Backend.services.film_service.model.TmdbCreditsResponse.CastMember;
 import com.Backend.services.film_service.model.TmdbCreditsResponse.CrewMember;
 import com.Backend.services.film_service.service.TmdbClient;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
-import lombok.RequiredArgsConstructor;
+import java.util.TreeMap;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 @Service
-@RequiredArgsConstructor
 public class CreditService {
 
     public static final String ROLE_CODE_CAST = "CAST";
@@ -31,9 +35,30 @@ public class CreditService {
     private static final String DIRECTOR_JOB = "Director";
 
     private final CreditRepository creditRepository;
-    private final FilmRoleRepository filmRoleRepository;
+    private final CreditBulkRepository creditBulkRepository;
     private final RoleRepository roleRepository;
     private final TmdbClient tmdbClient;
+    private final CreditRetentionPolicy retentionPolicy;
+    private final TransactionTemplate requiresNew;
+
+    private volatile Map<String, Long> roleIdsByCode;
+
+    public CreditService(
+            CreditRepository creditRepository,
+            CreditBulkRepository creditBulkRepository,
+            RoleRepository roleRepository,
+            TmdbClient tmdbClient,
+            CreditRetentionPolicy retentionPolicy,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.creditRepository = creditRepository;
+        this.creditBulkRepository = creditBulkRepository;
+        this.roleRepository = roleRepository;
+        this.tmdbClient = tmdbClient;
+        this.retentionPolicy = retentionPolicy;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     @Transactional
     public void syncCreditsForFilm(Long tmdbId, FilmType type, Film film) {
@@ -41,43 +66,74 @@ public class CreditService {
             return;
         }
 
-        TmdbCreditsResponse credits = tmdbClient.fetchCredits(tmdbId, type);
-        if (credits == null) {
+        applyCreditsToFilm(tmdbClient.fetchCredits(tmdbId, type), film);
+    }
+
+    /**
+     * Write half of {@link #syncCreditsForFilm}: stores an already fetched TMDB credits payload for
+     * the film without touching TMDB.
+     *
+     * <p>The payload is deduplicated in memory, then written set-based: one multi-row insert for new
+     * {@code credit} rows and one for {@code film_role} links, both {@code on conflict do nothing}.
+     * Statement count is constant per film regardless of crew size. Existing credits keep their
+     * stored name/department/profile. Only the credits {@link CreditRetentionPolicy} keeps are
+     * stored: leading cast by billing order, directors and whitelisted crew jobs.
+     */
+    @Transactional
+    public void applyCreditsToFilm(TmdbCreditsResponse credits, Film film) {
+        if (credits == null || film == null || film.getInternalId() == null) {
             return;
         }
 
-        Role castRole = ensureRole(ROLE_CODE_CAST, "Cast", RoleGroup.CAST);
-        Role directorRole = ensureRole(ROLE_CODE_DIRECTOR, "Director", RoleGroup.CREW);
-        Role crewRole = ensureRole(ROLE_CODE_CREW, "Crew", RoleGroup.CREW);
+        Map<String, Long> roleIds = resolveRoleIds();
+        Long castRoleId = roleIds.get(ROLE_CODE_CAST);
+        Long directorRoleId = roleIds.get(ROLE_CODE_DIRECTOR);
+        Long crewRoleId = roleIds.get(ROLE_CODE_CREW);
 
-        Set<String> seen = new HashSet<>();
+        // Sorted by id so concurrent films inserting overlapping people take row locks in the same order.
+        Map<Long, CreditRow> creditRows = new TreeMap<>();
+        Map<String, FilmRoleRow> filmRoleRows = new LinkedHashMap<>();
 
         if (credits.getCast() != null) {
-            for (CastMember castMember : credits.getCast()) {
-                upsertFilmRole(film, castRole, castMember != null ? castMember.getId() : null,
-                        castMember != null ? castMember.getName() : null,
-                        castMember != null ? castMember.getDepartment() : null,
-                        castMember != null ? castMember.getProfilePath() : null,
-                        castMember != null ? castMember.getCharacter() : null,
-                        null,
-                        seen);
+            for (CastMember castMember : retentionPolicy.selectCast(credits.getCast())) {
+                collect(creditRows, filmRoleRows, castRoleId,
+                        castMember.getId(),
+                        castMember.getName(),
+                        castMember.getDepartment(),
+                        castMember.getProfilePath(),
+                        castMember.getCharacter(),
+                        null);
             }
         }
 
         if (credits.getCrew() != null) {
             for (CrewMember crewMember : credits.getCrew()) {
-                Role role = crewMember != null && DIRECTOR_JOB.equalsIgnoreCase(crewMember.getJob())
-                        ? directorRole
-                        : crewRole;
-                upsertFilmRole(film, role, crewMember != null ? crewMember.getId() : null,
-                        crewMember != null ? crewMember.getName() : null,
-                        crewMember != null ? crewMember.getDepartment() : null,
-                        crewMember != null ? crewMember.getProfilePath() : null,
+                if (crewMember == null || !retentionPolicy.retainsCrewJob(crewMember.getJob())) {
+                    continue;
+                }
+                Long roleId = DIRECTOR_JOB.equalsIgnoreCase(crewMember.getJob()) ? directorRoleId : crewRoleId;
+                collect(creditRows, filmRoleRows, roleId,
+                        crewMember.getId(),
+                        crewMember.getName(),
+                        crewMember.getDepartment(),
+                        crewMember.getProfilePath(),
                         null,
-                        crewMember != null ? crewMember.getJob() : null,
-                        seen);
+                        crewMember.getJob());
             }
         }
+
+        if (filmRoleRows.isEmpty()) {
+            return;
+        }
+
+        creditBulkRepository.insertCreditsIfAbsent(creditRows.values());
+        try {
+            creditBulkRepository.insertFilmRolesIfAbsent(film.getInternalId(), filmRoleRows.values());
+        } catch (DataIntegrityViolationException ex) {
+            // A cached role id no longer exists; reload the role map on the next attempt.
+            roleIdsByCode = null;
+            throw ex;
+        }
     }
 
     @Transactional
@@ -110,70 +166,52 @@ public class CreditService {
         return creditRepository.save(credit);
     }
 
-    private void upsertFilmRole(
-            Film film,
-            Role role,
+    private void collect(
+            Map<Long, CreditRow> creditRows,
+            Map<String, FilmRoleRow> filmRoleRows,
+            Long roleId,
             Long creditId,
             String creditName,
             String department,
             String profilePath,
             String characterName,
-            String jobName,
-            Set<String> seen
+            String jobName
     ) {
-        if (film == null || film.getInternalId() == null || role == null || role.getRoleId() == null) {
-            return;
-        }
-        if (creditId == null || !StringUtils.hasText(creditName)) {
+        if (roleId == null || creditId == null || !StringUtils.hasText(creditName)) {
             return;
         }
 
-        String dedupeKey = role.getRoleId() + ":" + creditId;
-        if (!seen.add(dedupeKey)) {
+        String dedupeKey = roleId + ":" + creditId;
+        if (filmRoleRows.containsKey(dedupeKey)) {
             return;
         }
 
-        Credit credit = getOrCreateCredit(creditId, creditName, department, profilePath);
-        if (credit == null || credit.getCreditsId() == null) {
-            return;
-        }
+        creditRows.putIfAbsent(creditId, new CreditRow(creditId, creditName, department, profilePath));
+        filmRoleRows.put(dedupeKey, new FilmRoleRow(creditId, roleId, characterName, jobName));
+    }
 
-        boolean exists = filmRoleRepository.existsByFilm_InternalIdAndCredit_CreditsIdAndRole_RoleId(
-                film.getInternalId(),
-                credit.getCreditsId(),
-                role.getRoleId()
-        );
-        if (exists) {
-            return;
+    /**
+     * Role ids by code, loaded once per node. Roles are seeded by migration; any missing row is
+     * created in its own committed transaction so the cached id can never point at a rolled-back row.
+     */
+    private Map<String, Long> resolveRoleIds() {
+        Map<String, Long> cached = roleIdsByCode;
+        if (cached != null) {
+            return cached;
         }
 
-        FilmRole filmRole = FilmRole.builder()
-                .film(film)
-                .credit(credit)
-                .role(role)
-                .characterName(characterName)
-                .jobName(jobName)
-                .build();
-
-        filmRoleRepository.save(filmRole);
-
-        if (film.getFilmRoles() != null) {
-            film.getFilmRoles().add(filmRole);
-        }
+        Map<String, Long> loaded = requiresNew.execute(status -> Map.of(
+                ROLE_CODE_CAST, ensureRole(ROLE_CODE_CAST, "Cast", RoleGroup.CAST).getRoleId(),
+                ROLE_CODE_DIRECTOR, ensureRole(ROLE_CODE_DIRECTOR, "Director", RoleGroup.CREW).getRoleId(),
+                ROLE_CODE_CREW, ensureRole(ROLE_CODE_CREW, "Crew", RoleGroup.CREW).getRoleId()
+        ));
+        roleIdsByCode = loaded;
+        return loaded;
     }
 
     private Role ensureRole(String roleCode, String roleName, RoleGroup roleGroup) {
         return roleRepository.findByRoleCode(roleCode)
-                .map(existing -> {
-                    if (!roleName.equals(existing.getRoleName())) {
-                        existing.setRoleName(roleName);
-                    }
-                    if (existing.getRoleGroup() != roleGroup) {
-                        existing.setRoleGroup(roleGroup);
-                    }
-                    return existing;
-                })
-                .orElseGet(() -> roleRepository.save(Role.builder()
+                .orElseGet(() -> roleRepository.saveAndFlush(Role.builder()
                         .roleCode(roleCode)
                         .roleName(roleName)
                         .roleGroup(roleGroup)
@@ -0,0 +1,27 @@
+package com.Backend.services.film_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+
+/** One page of TMDB's {@code /movie/changes} or {@code /tv/changes} feed. */
+@Data
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class TmdbChangesResponse {
+
+    private List<ChangeItem> results = new ArrayList<>();
+
+    private Integer page;
+
+    @JsonProperty("total_pages")
+    private Integer totalPages;
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ChangeItem {
+        private Long id;
+        private Boolean adult;
+    }
+}
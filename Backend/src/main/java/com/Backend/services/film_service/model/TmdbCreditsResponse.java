@@ -18,6 +18,8 @@ public class TmdbCreditsResponse {
         private Long id;
         private String name;
         private String character;
+        // Billing position; lower is more prominent.
+        private Integer order;
         @JsonProperty("known_for_department")
         private String department;
         @JsonProperty("profile_path")
@@ -0,0 +1,82 @@
+package com.Backend.services.film_service.model;
+
+import com.Backend.services.FilmType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Durable copy of a TMDB document together with its validators, so refreshes can be sent as
+ * conditional requests and answered with a bodiless 304.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(
+    name = "tmdb_response_cache",
+    indexes = {
+        @Index(name = "idx_tmdb_response_cache_last_accessed", columnList = "last_accessed_at")
+    },
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uq_tmdb_response_cache_key", columnNames = {"endpoint", "tmdb_id", "type"})
+    }
+)
+public class TmdbResponseCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "endpoint", nullable = false, length = 32)
+    private String endpoint;
+
+    @Column(name = "tmdb_id", nullable = false)
+    private Long tmdbId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private FilmType type;
+
+    @Column(name = "etag", length = 256)
+    private String etag;
+
+    @Column(name = "last_modified", length = 64)
+    private String lastModified;
+
+    @Column(name = "body_gzip", nullable = false)
+    @ToString.Exclude
+    private byte[] bodyGzip;
+
+    @Column(name = "body_size", nullable = false)
+    private Integer bodySize;
+
+    @Column(name = "compressed_size", nullable = false)
+    private Integer compressedSize;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    @Column(name = "validated_at", nullable = false)
+    private Instant validatedAt;
+
+    @Column(name = "last_accessed_at", nullable = false)
+    private Instant lastAccessedAt;
+}
@@ -1,37 +0,0 @@
-package com.Backend.services.film_service.model;
-
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import java.util.ArrayList;
-import java.util.List;
-import lombok.Data;
-
-@Data
-@JsonIgnoreProperties(ignoreUnknown = true)
-public class TmdbTvSimilarResponse {
-
-    private List<TvSimilarItem> results = new ArrayList<>();
-
-    @Data
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    public static class TvSimilarItem {
-        private Long id;
-        private String name;
-
-        @JsonProperty("first_air_date")
-        private String firstAirDate;
-
-        @JsonProperty("vote_average")
-        private Double voteAverage;
-
-        @JsonProperty("original_language")
-        private String originalLanguage;
-
-        @JsonProperty("backdrop_path")
-        private String backdropPath;
-
-        // TMDB response payload field.
-        @JsonProperty("genre_ids")
-        private List<Integer> genreIds = new ArrayList<>();
-    }
-}
@@ -0,0 +1,91 @@
+package com.Backend.services.film_service.repository;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.JdbcBatches;
+import com.Backend.services.film_service.model.FilmEnrichmentStatus;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based reads and writes for resolving TMDB ids to {@code film} rows.
+ *
+ * <p>Resolving a page of TMDB results costs one lookup, one multi-row insert for the films not
+ * seen before and one lookup of the inserted ids, instead of a select-then-insert per film. Each
+ * call issues one statement per chunk of {@link JdbcBatches#MAX_ROWS_PER_STATEMENT} rows. Runs on
+ * the JDBC connection bound to the current JPA transaction, if any.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FilmBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Returns the internal id of each given TMDB id that has a film row of {@code type}. */
+    public Map<Long, Long> findInternalIdsByTmdbIds(FilmType type, Collection<Long> tmdbIds) {
+        Map<Long, Long> internalIds = new HashMap<>();
+        for (List<Long> chunk : JdbcBatches.chunks(tmdbIds)) {
+            StringBuilder sql = new StringBuilder(
+                    "select film_id, internal_id from film where type = ? and film_id in (");
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(type.name());
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                args.add(chunk.get(i));
+            }
+            sql.append(")");
+            jdbcTemplate.query(sql.toString(),
+                    rs -> {
+                        internalIds.put(rs.getLong("film_id"), rs.getLong("internal_id"));
+                    },
+                    args.toArray());
+        }
+        return internalIds;
+    }
+
+    /**
+     * Inserts snapshot rows for films not stored yet. Rows that already exist, including ones a
+     * concurrent sync inserted first, are left untouched.
+     */
+    public int insertSnapshotsIfAbsent(FilmType type, Collection<FilmSnapshotRow> films) {
+        int inserted = 0;
+        for (List<FilmSnapshotRow> chunk : JdbcBatches.chunks(films)) {
+            StringBuilder sql = new StringBuilder(
+                    "insert into film (film_id, type, title, rating, date, background_img, original_language, "
+                            + "credits_sync_completed, keyword_sync_completed, genre_sync_completed, "
+                            + "recommendation_sync_completed, enrichment_status) values ");
+            List<Object> args = new ArrayList<>(chunk.size() * 8);
+            for (int i = 0; i < chunk.size(); i++) {
+                FilmSnapshotRow row = chunk.get(i);
+                sql.append(i == 0 ? "" : ", ")
+                        .append("(?, ?, ?, ?, ?, ?, ?, false, false, false, false, ?)");
+                args.add(row.tmdbId());
+                args.add(type.name());
+                args.add(row.title());
+                args.add(row.rating());
+                args.add(row.date());
+                args.add(row.backgroundImg());
+                args.add(row.originalLanguage());
+                args.add(FilmEnrichmentStatus.PENDING.name());
+            }
+            sql.append(" on conflict do nothing");
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+
+    public record FilmSnapshotRow(
+            Long tmdbId,
+            String title,
+            Double rating,
+            LocalDate date,
+            String backgroundImg,
+            String originalLanguage) {
+    }
+}
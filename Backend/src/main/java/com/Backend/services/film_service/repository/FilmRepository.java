@@ -7,6 +7,7 @@ import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
@@ -42,4 +43,48 @@ public interface FilmRepository extends JpaRepository<Film, Long> {
             @Param("now") Instant now,
             @Param("leaseExpiresAt") Instant leaseExpiresAt
     );
+
+    @Query("""
+            select f.internalId from Film f
+             where f.type = :type
+               and f.filmId in :filmIds
+               and f.enrichmentStatus = :status
+               and f.enrichedAt < :enrichedBefore
+            """)
+    List<Long> findInternalIdsByTypeAndFilmIdsEnrichedBefore(
+            @Param("type") FilmType type,
+            @Param("filmIds") Collection<Long> filmIds,
+            @Param("status") FilmEnrichmentStatus status,
+            @Param("enrichedBefore") Instant enrichedBefore
+    );
+
+    @Query("""
+            select f.internalId from Film f
+             where f.enrichmentStatus = :status
+               and f.enrichedAt < :cutoff
+             order by f.enrichedAt asc
+            """)
+    List<Long> findInternalIdsEnrichedBefore(
+            @Param("status") FilmEnrichmentStatus status,
+            @Param("cutoff") Instant cutoff,
+            Pageable pageable
+    );
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            update Film f
+               set f.creditsSyncCompleted = false,
+                   f.keywordSyncCompleted = false,
+                   f.genreSyncCompleted = false,
+                   f.enrichmentStatus = :pending,
+                   f.leaseExpiresAt = null,
+                   f.enrichedAt = null
+             where f.internalId in :filmInternalIds
+               and f.enrichmentStatus = :done
+            """)
+    int resetEnrichmentForRefresh(
+            @Param("filmInternalIds") Collection<Long> filmInternalIds,
+            @Param("done") FilmEnrichmentStatus done,
+            @Param("pending") FilmEnrichmentStatus pending
+    );
 }
@@ -0,0 +1,95 @@
+package com.Backend.services.film_service.repository;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.film_service.model.TmdbResponseCacheEntry;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface TmdbResponseCacheRepository extends JpaRepository<TmdbResponseCacheEntry, Long> {
+    Optional<TmdbResponseCacheEntry> findByEndpointAndTmdbIdAndType(String endpoint, Long tmdbId, FilmType type);
+
+    /** Validators only; the stored body is read with {@link #findBodyGzipById} once TMDB answers 304. */
+    Optional<Validators> findValidatorsByEndpointAndTmdbIdAndType(String endpoint, Long tmdbId, FilmType type);
+
+    @Query("select e.bodyGzip from TmdbResponseCacheEntry e where e.id = :id")
+    Optional<byte[]> findBodyGzipById(@Param("id") Long id);
+
+    @Modifying
+    @Query("""
+            update TmdbResponseCacheEntry e
+               set e.validatedAt = :now,
+                   e.lastAccessedAt = :now
+             where e.id = :id
+            """)
+    int markValidated(@Param("id") Long id, @Param("now") Instant now);
+
+    /**
+     * Overwrites the stored response for a key in place, without reading the old body first.
+     * Returns 0 when nothing is stored for the key yet.
+     */
+    @Modifying
+    @Query("""
+            update TmdbResponseCacheEntry e
+               set e.etag = :etag,
+                   e.lastModified = :lastModified,
+                   e.bodyGzip = :bodyGzip,
+                   e.bodySize = :bodySize,
+                   e.compressedSize = :compressedSize,
+                   e.fetchedAt = :now,
+                   e.validatedAt = :now,
+                   e.lastAccessedAt = :now
+             where e.endpoint = :endpoint
+               and e.tmdbId = :tmdbId
+               and e.type = :type
+            """)
+    int replaceResponse(
+            @Param("endpoint") String endpoint,
+            @Param("tmdbId") Long tmdbId,
+            @Param("type") FilmType type,
+            @Param("etag") String etag,
+            @Param("lastModified") String lastModified,
+            @Param("bodyGzip") byte[] bodyGzip,
+            @Param("bodySize") int bodySize,
+            @Param("compressedSize") int compressedSize,
+            @Param("now") Instant now
+    );
+
+    @Modifying
+    @Query("""
+            delete from TmdbResponseCacheEntry e
+             where e.endpoint = :endpoint
+               and e.tmdbId = :tmdbId
+               and e.type = :type
+            """)
+    int deleteByKey(@Param("endpoint") String endpoint, @Param("tmdbId") Long tmdbId, @Param("type") FilmType type);
+
+    @Query(value = "select coalesce(sum(compressed_size), 0) from tmdb_response_cache", nativeQuery = true)
+    long sumCompressedSize();
+
+    @Modifying
+    @Query(value = """
+        delete from tmdb_response_cache
+        where id in (
+            select id from tmdb_response_cache
+            order by last_accessed_at asc
+            limit :batchSize
+        )
+        """, nativeQuery = true)
+    int deleteLeastRecentlyAccessed(@Param("batchSize") int batchSize);
+
+    @Modifying
+    @Query(value = "delete from tmdb_response_cache where last_accessed_at < :cutoff", nativeQuery = true)
+    int deleteNotAccessedSince(@Param("cutoff") Instant cutoff);
+
+    interface Validators {
+        Long getId();
+
+        String getEtag();
+
+        String getLastModified();
+    }
+}
@@ -3,28 +3,51 @@ package com.Backend.services.film_service.service;
 import com.Backend.services.FilmType;
 import com.Backend.services.film_service.model.Film;
 import com.Backend.services.film_service.model.TmdbFilmResponse;
+import com.Backend.services.film_service.model.TmdbSimilarItem;
+import com.Backend.services.film_service.repository.FilmBulkRepository;
+import com.Backend.services.film_service.repository.FilmBulkRepository.FilmSnapshotRow;
 import com.Backend.services.film_service.repository.FilmRepository;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class FilmService {
 
     private final FilmRepository filmRepository;
+    private final FilmBulkRepository filmBulkRepository;
     private final TmdbClient tmdbClient;
+    private final TransactionTemplate requiresNew;
+
+    public FilmService(
+            FilmRepository filmRepository,
+            FilmBulkRepository filmBulkRepository,
+            TmdbClient tmdbClient,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.filmRepository = filmRepository;
+        this.filmBulkRepository = filmBulkRepository;
+        this.tmdbClient = tmdbClient;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     public Optional<Film> findByTmdbIdAndType(Long tmdbId, FilmType type) {
         return filmRepository.findByFilmIdAndType(tmdbId, type);
@@ -54,38 +77,70 @@ public class FilmService {
         }
     }
 
-    @Transactional
-    public Film getOrCreateFilmFromTmdbSnapshot(
-            Long tmdbId,
-            FilmType type,
-            String title,
-            String dateValue,
-            String backgroundImg,
-            Double voteAverage,
-            String originalLanguage
-    ) {
-        Optional<Film> existing = filmRepository.findByFilmIdAndType(tmdbId, type);
-        if (existing.isPresent()) {
-            return existing.get();
+    /**
+     * Resolves TMDB list items to film rows, inserting a snapshot row for each film not stored yet.
+     * Returns TMDB id to internal id; existing rows keep their stored values.
+     *
+     * <p>Costs one lookup plus, when something is missing, one multi-row insert and one lookup of
+     * the new ids. Each insert attempt commits in its own transaction, so a failed attempt never
+     * aborts the caller's: if the batch insert fails, missing films are inserted one at a time and
+     * the ones that still fail are left out of the result.
+     */
+    public Map<Long, Long> resolveFilmIdsFromTmdbSnapshots(FilmType type, Collection<TmdbSimilarItem> items) {
+        if (type == null || items == null || items.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, FilmSnapshotRow> rowsByTmdbId = new LinkedHashMap<>();
+        for (TmdbSimilarItem item : items) {
+            if (item == null || item.tmdbId() == null) {
+                continue;
+            }
+            rowsByTmdbId.putIfAbsent(item.tmdbId(), new FilmSnapshotRow(
+                    item.tmdbId(),
+                    item.title(),
+                    item.voteAverage(),
+                    parseDate(item.dateValue()),
+                    item.backgroundImg(),
+                    normalizeLanguageCode(item.originalLanguage())
+            ));
+        }
+        if (rowsByTmdbId.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Long> resolved = new HashMap<>(filmBulkRepository.findInternalIdsByTmdbIds(type, rowsByTmdbId.keySet()));
+        List<FilmSnapshotRow> missing = rowsByTmdbId.values().stream()
+                .filter(row -> !resolved.containsKey(row.tmdbId()))
+                .toList();
+        if (missing.isEmpty()) {
+            return resolved;
         }
 
-        Film film = Film.builder()
-                .filmId(tmdbId)
-                .type(type)
-                .title(title)
-                .rating(voteAverage)
-                .date(parseDate(dateValue))
-                .backgroundImg(backgroundImg)
-                .originalLanguage(normalizeLanguageCode(originalLanguage))
-                .build();
-
         try {
-            return filmRepository.save(Objects.requireNonNull(film, "film"));
-        } catch (DataIntegrityViolationException ex) {
-            log.debug("Film already inserted for tmdbId={} type={}", tmdbId, type);
-            return filmRepository.findByFilmIdAndType(tmdbId, type)
-                    .orElseThrow(() -> ex);
-        }
+            insertSnapshotsInNewTransaction(type, missing);
+        } catch (DataAccessException ex) {
+            log.warn("Bulk film snapshot insert failed for {} film(s) type={}; inserting one by one",
+                    missing.size(), type, ex);
+            for (FilmSnapshotRow row : missing) {
+                try {
+                    insertSnapshotsInNewTransaction(type, List.of(row));
+                } catch (DataAccessException rowEx) {
+                    log.warn("Skipping film snapshot tmdbId={} type={}: {}", row.tmdbId(), type, rowEx.toString());
+                }
+            }
+        }
+
+        // Rows lost to a concurrent insert are picked up here along with our own.
+        resolved.putAll(filmBulkRepository.findInternalIdsByTmdbIds(
+                type,
+                missing.stream().map(FilmSnapshotRow::tmdbId).toList()
+        ));
+        return resolved;
+    }
+
+    private void insertSnapshotsInNewTransaction(FilmType type, List<FilmSnapshotRow> rows) {
+        requiresNew.executeWithoutResult(status -> filmBulkRepository.insertSnapshotsIfAbsent(type, rows));
     }
 
     @Transactional
@@ -2,21 +2,25 @@ package com.Backend.services.film_service.service;
 
 import com.Backend.exception.TmdbClientException;
 import com.Backend.services.FilmType;
+import com.Backend.services.film_service.model.TmdbChangesResponse;
 import com.Backend.services.film_service.model.TmdbCreditsResponse;
 import com.Backend.services.film_service.model.TmdbFilmResponse;
 import com.Backend.services.film_service.model.TmdbGenreListResponse;
 import com.Backend.services.film_service.model.TmdbKeywordsResponse;
-import com.Backend.services.film_service.model.TmdbMovieSimilarResponse;
 import com.Backend.services.film_service.model.TmdbSimilarItem;
-import com.Backend.services.film_service.model.TmdbTvSimilarResponse;
 import com.Backend.services.sync_service.model.SyncRetryDecision;
 import com.Backend.services.sync_service.service.SyncRetryPolicy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Objects;
-import java.util.stream.Collectors;
 import java.util.function.Supplier;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -29,9 +33,14 @@ public class TmdbClient {
     private static final String ERROR_CODE_RETRY_INTERRUPTED = "TMDB_RETRY_INTERRUPTED";
     private static final String ERROR_CODE_NO_EXCEPTION = "TMDB_OPERATION_FAILED_WITHOUT_CAUSE";
     private static final String ERROR_CODE_RATE_LIMIT_INTERRUPTED = "TMDB_RATE_LIMIT_INTERRUPTED";
+    private static final String ERROR_CODE_DECODE_FAILED = "TMDB_DECODE_FAILED";
 
     private final WebClient webClient;
     private final SyncRetryPolicy syncRetryPolicy;
+    private final TmdbRequestCoalescer requestCoalescer;
+    private final TmdbResponseStore responseStore;
+    private final ObjectMapper objectMapper;
+    private final TmdbPayloadDecoder payloadDecoder;
     private final String apiToken;
     private final int retryAttempts;
     private final long retryBackoffMs;
@@ -45,14 +54,23 @@ public class TmdbClient {
     public TmdbClient(
             WebClient.Builder builder,
             SyncRetryPolicy syncRetryPolicy,
+            TmdbRequestCoalescer requestCoalescer,
+            TmdbResponseStore responseStore,
+            ObjectMapper objectMapper,
+            TmdbPayloadDecoder payloadDecoder,
             @Value("${tmdb.api.base-url}") String baseUrl,
             @Value("${tmdb.api.api-token:}") String apiToken,
             @Value("${tmdb.api.retry.attempts:3}") int retryAttempts,
             @Value("${tmdb.api.retry.backoff-ms:200}") long retryBackoffMs,
             @Value("${tmdb.api.rate-limit.capacity:40}") long rateLimitCapacity,
             @Value("${tmdb.api.rate-limit.refill-tokens:40}") long rateLimitRefillTokens,
-            @Value("${tmdb.api.rate-limit.refill-period-seconds:10}") long rateLimitRefillPeriodSeconds) {
+            @Value("${tmdb.api.rate-limit.refill-period-seconds:10}") long rateLimitRefillPeriodSeconds,
+            @Value("${tmdb.api.max-response-bytes:4194304}") int maxResponseBytes) {
         this.syncRetryPolicy = syncRetryPolicy;
+        this.requestCoalescer = requestCoalescer;
+        this.responseStore = responseStore;
+        this.objectMapper = objectMapper;
+        this.payloadDecoder = payloadDecoder;
         this.apiToken = apiToken;
         this.retryAttempts = Math.max(1, retryAttempts);
         this.retryBackoffMs = Math.max(0L, retryBackoffMs);
@@ -64,7 +82,10 @@ public class TmdbClient {
         this.availableTokens = this.rateLimitCapacity;
         this.lastRefillNanos = System.nanoTime();
 
-        WebClient.Builder webClientBuilder = builder.baseUrl(Objects.requireNonNull(baseUrl, "tmdb.api.base-url"));
+        // Bounds how much of a single response body is buffered; larger bodies fail instead of growing the heap.
+        WebClient.Builder webClientBuilder = builder
+                .baseUrl(Objects.requireNonNull(baseUrl, "tmdb.api.base-url"))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(Math.max(256 * 1024, maxResponseBytes)));
         if (StringUtils.hasText(this.apiToken)) {
             webClientBuilder.defaultHeader("Authorization", "Bearer " + this.apiToken);
         }
@@ -74,42 +95,22 @@ public class TmdbClient {
     public TmdbFilmResponse fetchFilmDetails(Long tmdbId, FilmType type) {
         ensureApiTokenConfigured();
         String path = type == FilmType.MOVIE ? "/movie/{id}" : "/tv/{id}";
-        return executeWithRetry(() -> webClient.get()
-                .uri(uriBuilder -> {
-                    uriBuilder.path(path);
-                    return uriBuilder.build(tmdbId);
-                })
-                .retrieve()
-                .bodyToMono(TmdbFilmResponse.class)
-                .block(), "film-details");
+        return fetchDocument("details", path, tmdbId, type, body -> objectMapper.readValue(body, TmdbFilmResponse.class),
+                "film-details");
     }
 
     @Cacheable(value = "tmdbCredits", key = "{#tmdbId, #type.name()}")
     public TmdbCreditsResponse fetchCredits(Long tmdbId, FilmType type) {
         ensureApiTokenConfigured();
         String path = type == FilmType.MOVIE ? "/movie/{id}/credits" : "/tv/{id}/credits";
-        return executeWithRetry(() -> webClient.get()
-                .uri(uriBuilder -> {
-                    uriBuilder.path(path);
-                    return uriBuilder.build(tmdbId);
-                })
-                .retrieve()
-                .bodyToMono(TmdbCreditsResponse.class)
-                .block(), "credits");
+        return fetchDocument("credits", path, tmdbId, type, payloadDecoder::decodeCredits, "credits");
     }
 
     @Cacheable(value = "tmdbKeywords", key = "{#tmdbId, #type.name()}")
     public TmdbKeywordsResponse fetchKeywords(Long tmdbId, FilmType type) {
         ensureApiTokenConfigured();
         String path = type == FilmType.MOVIE ? "/movie/{id}/keywords" : "/tv/{id}/keywords";
-        return executeWithRetry(() -> webClient.get()
-                .uri(uriBuilder -> {
-                    uriBuilder.path(path);
-                    return uriBuilder.build(tmdbId);
-                })
-                .retrieve()
-                .bodyToMono(TmdbKeywordsResponse.class)
-                .block(), "keywords");
+        return fetchDocument("keywords", path, tmdbId, type, payloadDecoder::decodeKeywords, "keywords");
     }
 
     /**
@@ -128,132 +129,143 @@ public class TmdbClient {
                 .block(), "genre-list");
     }
 
+    /**
+     * Fetches one page of the ids TMDB reports as changed between {@code startDate} and
+     * {@code endDate} (inclusive, at most 14 days apart).
+     *
+     * <p>Not coalesced or stored: the feed is read by a single scheduler and every page is new.
+     */
+    public TmdbChangesResponse fetchChanges(FilmType type, LocalDate startDate, LocalDate endDate, int page) {
+        ensureApiTokenConfigured();
+        String path = type == FilmType.MOVIE ? "/movie/changes" : "/tv/changes";
+        return executeWithRetry(() -> webClient.get()
+                .uri(uriBuilder -> uriBuilder.path(path)
+                        .queryParam("start_date", startDate)
+                        .queryParam("end_date", endDate)
+                        .queryParam("page", Math.max(1, page))
+                        .build())
+                .retrieve()
+                .bodyToMono(TmdbChangesResponse.class)
+                .block(), "changes");
+    }
+
+    /**
+     * Hits the same details endpoint as {@link #fetchFilmDetails}, so both share the "details"
+     * single-flight key and stored response, and concurrent callers of either method reuse one exchange.
+     */
     @Cacheable(value = "tmdbGenres", key = "{#tmdbId, #type.name()}")
     public TmdbFilmResponse fetchGenres(Long tmdbId, FilmType type) {
         ensureApiTokenConfigured();
         String path = type == FilmType.MOVIE ? "/movie/{id}" : "/tv/{id}";
-        return executeWithRetry(() -> webClient.get()
-                .uri(uriBuilder -> {
-                    uriBuilder.path(path);
-                    return uriBuilder.build(tmdbId);
-                })
-                .retrieve()
-                .bodyToMono(TmdbFilmResponse.class)
-                .block(), "genres");
+        return fetchDocument("details", path, tmdbId, type, body -> objectMapper.readValue(body, TmdbFilmResponse.class),
+                "genres");
     }
 
     @Cacheable(value = "tmdbSimilar", key = "{#tmdbId, #type.name()}")
     public java.util.List<TmdbSimilarItem> fetchSimilar(Long tmdbId, FilmType type) {
         ensureApiTokenConfigured();
-
-        if (type == FilmType.MOVIE) {
-            TmdbMovieSimilarResponse response = executeWithRetry(() -> webClient.get()
-                    .uri(uriBuilder -> {
-                        uriBuilder.path("/movie/{id}/similar");
-                        return uriBuilder.build(tmdbId);
-                    })
-                    .retrieve()
-                    .bodyToMono(TmdbMovieSimilarResponse.class)
-                    .block(), "similar-movie");
-
-            if (response == null || response.getResults() == null) {
-                return java.util.List.of();
-            }
-            return response.getResults().stream()
-                    .filter(item -> item != null && item.getId() != null)
-                    .map(item -> new TmdbSimilarItem(
-                            item.getId(),
-                            item.getTitle(),
-                            item.getReleaseDate(),
-                            item.getBackdropPath(),
-                            item.getVoteAverage(),
-                            item.getOriginalLanguage(),
-                            item.getGenreIds()
-                    ))
-                    .collect(Collectors.toList());
-        }
-
-        TmdbTvSimilarResponse response = executeWithRetry(() -> webClient.get()
-                .uri(uriBuilder -> {
-                    uriBuilder.path("/tv/{id}/similar");
-                    return uriBuilder.build(tmdbId);
-                })
-                .retrieve()
-                .bodyToMono(TmdbTvSimilarResponse.class)
-                .block(), "similar-tv");
-
-        if (response == null || response.getResults() == null) {
-            return java.util.List.of();
-        }
-        return response.getResults().stream()
-                .filter(item -> item != null && item.getId() != null)
-                .map(item -> new TmdbSimilarItem(
-                        item.getId(),
-                        item.getName(),
-                        item.getFirstAirDate(),
-                        item.getBackdropPath(),
-                        item.getVoteAverage(),
-                        item.getOriginalLanguage(),
-                        item.getGenreIds()
-                ))
-                .collect(Collectors.toList());
+        String path = type == FilmType.MOVIE ? "/movie/{id}/similar" : "/tv/{id}/similar";
+        java.util.List<TmdbSimilarItem> items = fetchDocument(
+                "similar", path, tmdbId, type, body -> payloadDecoder.decodeSimilarItems(body, type),
+                type == FilmType.MOVIE ? "similar-movie" : "similar-tv");
+        return items == null ? java.util.List.of() : items;
     }
 
     @Cacheable(value = "tmdbRecommendations", key = "{#tmdbId, #type.name()}")
     public java.util.List<TmdbSimilarItem> fetchRecommendations(Long tmdbId, FilmType type) {
         ensureApiTokenConfigured();
+        String path = type == FilmType.MOVIE ? "/movie/{id}/recommendations" : "/tv/{id}/recommendations";
+        java.util.List<TmdbSimilarItem> items = fetchDocument(
+                "recommendations", path, tmdbId, type, body -> payloadDecoder.decodeSimilarItems(body, type),
+                type == FilmType.MOVIE ? "recommendations-movie" : "recommendations-tv");
+        return items == null ? java.util.List.of() : items;
+    }
 
-        if (type == FilmType.MOVIE) {
-            TmdbMovieSimilarResponse response = executeWithRetry(() -> webClient.get()
-                    .uri(uriBuilder -> {
-                        uriBuilder.path("/movie/{id}/recommendations");
-                        return uriBuilder.build(tmdbId);
-                    })
-                    .retrieve()
-                    .bodyToMono(TmdbMovieSimilarResponse.class)
-                    .block(), "recommendations-movie");
-
-            if (response == null || response.getResults() == null) {
-                return java.util.List.of();
-            }
-            return response.getResults().stream()
-                    .filter(item -> item != null && item.getId() != null)
-                    .map(item -> new TmdbSimilarItem(
-                            item.getId(),
-                            item.getTitle(),
-                            item.getReleaseDate(),
-                            item.getBackdropPath(),
-                            item.getVoteAverage(),
-                            item.getOriginalLanguage(),
-                            item.getGenreIds()
-                    ))
-                    .collect(Collectors.toList());
-        }
+    /**
+     * Single-flight, rate-limited, conditional GET of a per-film TMDB document.
+     *
+     * <p>If {@link TmdbResponseStore} holds validators for the document they are sent as
+     * {@code If-None-Match} / {@code If-Modified-Since}; a 304 is answered from the stored body.
+     */
+    private <T> T fetchDocument(
+            String endpoint,
+            String path,
+            Long tmdbId,
+            FilmType type,
+            BodyDecoder<T> decoder,
+            String operation) {
+        return requestCoalescer.execute(endpoint, tmdbId, type, () -> executeWithRetry(() -> {
+            byte[] body = exchangeDocument(endpoint, path, tmdbId, type, true);
+            return decodeBody(body, decoder, operation);
+        }, operation));
+    }
+
+    private byte[] exchangeDocument(String endpoint, String path, Long tmdbId, FilmType type, boolean allowConditional) {
+        TmdbResponseStore.StoredResponse stored = allowConditional
+                ? responseStore.lookup(endpoint, tmdbId, type).orElse(null)
+                : null;
 
-        TmdbTvSimilarResponse response = executeWithRetry(() -> webClient.get()
+        ResponseEntity<byte[]> response = webClient.get()
                 .uri(uriBuilder -> {
-                    uriBuilder.path("/tv/{id}/recommendations");
+                    uriBuilder.path(path);
                     return uriBuilder.build(tmdbId);
                 })
+                .headers(headers -> applyValidators(headers, stored))
                 .retrieve()
-                .bodyToMono(TmdbTvSimilarResponse.class)
-                .block(), "recommendations-tv");
+                .toEntity(byte[].class)
+                .block();
+        if (response == null) {
+            return null;
+        }
+
+        if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            byte[] storedBody = stored == null ? null : responseStore.revalidated(stored);
+            if (storedBody != null) {
+                return storedBody;
+            }
+            // Stored copy vanished or is unreadable; one unconditional request recovers the document.
+            consumeRateLimitToken();
+            return exchangeDocument(endpoint, path, tmdbId, type, false);
+        }
 
-        if (response == null || response.getResults() == null) {
-            return java.util.List.of();
+        byte[] body = response.getBody();
+        HttpHeaders responseHeaders = response.getHeaders();
+        responseStore.store(
+                endpoint,
+                tmdbId,
+                type,
+                stored != null,
+                responseHeaders.getETag(),
+                responseHeaders.getFirst(HttpHeaders.LAST_MODIFIED),
+                body
+        );
+        return body;
+    }
+
+    private void applyValidators(HttpHeaders headers, TmdbResponseStore.StoredResponse stored) {
+        if (stored == null) {
+            return;
+        }
+        if (StringUtils.hasText(stored.etag())) {
+            headers.set(HttpHeaders.IF_NONE_MATCH, stored.etag());
+        } else if (StringUtils.hasText(stored.lastModified())) {
+            headers.set(HttpHeaders.IF_MODIFIED_SINCE, stored.lastModified());
+        }
+    }
+
+    private <T> T decodeBody(byte[] body, BodyDecoder<T> decoder, String operation) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            return decoder.decode(body);
+        } catch (IOException ex) {
+            throw new TmdbClientException(
+                    ERROR_CODE_DECODE_FAILED,
+                    "TMDB " + operation + " response could not be decoded",
+                    ex
+            );
         }
-        return response.getResults().stream()
-                .filter(item -> item != null && item.getId() != null)
-                .map(item -> new TmdbSimilarItem(
-                        item.getId(),
-                        item.getName(),
-                        item.getFirstAirDate(),
-                        item.getBackdropPath(),
-                        item.getVoteAverage(),
-                        item.getOriginalLanguage(),
-                        item.getGenreIds()
-                ))
-                .collect(Collectors.toList());
     }
 
     public double getAvailableTokens() {
@@ -345,6 +357,11 @@ public class TmdbClient {
         }
     }
 
+    @FunctionalInterface
+    private interface BodyDecoder<T> {
+        T decode(byte[] body) throws IOException;
+    }
+
     private void refillTokensLocked() {
         long nowNanos = System.nanoTime();
         long elapsedNanos = nowNanos - lastRefillNanos;
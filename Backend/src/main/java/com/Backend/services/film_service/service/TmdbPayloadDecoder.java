@@ -0,0 +1,279 @@
+package com.Backend.services.film_service.service;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.credit_service.service.CreditRetentionPolicy;
+import com.Backend.services.film_service.model.TmdbCreditsResponse;
+import com.Backend.services.film_service.model.TmdbCreditsResponse.CastMember;
+import com.Backend.services.film_service.model.TmdbCreditsResponse.CrewMember;
+import com.Backend.services.film_service.model.TmdbKeywordsResponse;
+import com.Backend.services.film_service.model.TmdbKeywordsResponse.KeywordItem;
+import com.Backend.services.film_service.model.TmdbSimilarItem;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streaming decoders for the large per-film TMDB documents (credits, keywords, similar and
+ * recommendation pages).
+ *
+ * <p>Each decoder walks the body with a {@link JsonParser} and builds only the fields the sync
+ * processors read. Unused fields and subtrees are skipped without being materialised, so no
+ * intermediate tree or full binding of a 3000-entry crew list is allocated.
+ *
+ * <p>Crew is trimmed while parsing to the jobs {@link CreditRetentionPolicy} keeps, deduplicated
+ * by person and stored role exactly like {@code CreditService}: a person's Director credit is
+ * always kept, and their other retained jobs share one crew row, so only the first of those
+ * survives (a Director who also wrote the screenplay keeps both). Crew rows are capped at
+ * {@code tmdb.api.decode.max-crew-entries}; directors are not counted.
+ */
+@Slf4j
+@Component
+public class TmdbPayloadDecoder {
+
+    private static final String DIRECTOR_JOB = "Director";
+
+    private final JsonFactory jsonFactory;
+    private final CreditRetentionPolicy retentionPolicy;
+    private final int maxCrewEntries;
+
+    public TmdbPayloadDecoder(
+            ObjectMapper objectMapper,
+            CreditRetentionPolicy retentionPolicy,
+            @Value("${tmdb.api.decode.max-crew-entries:300}") int maxCrewEntries) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.retentionPolicy = retentionPolicy;
+        this.maxCrewEntries = Math.max(0, maxCrewEntries);
+    }
+
+    public TmdbCreditsResponse decodeCredits(byte[] body) throws IOException {
+        TmdbCreditsResponse credits = new TmdbCreditsResponse();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("cast".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        credits.getCast().add(readCastMember(parser));
+                    }
+                } else if ("crew".equals(field) && value == JsonToken.START_ARRAY) {
+                    readCrew(parser, credits.getCrew());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return credits;
+    }
+
+    public TmdbKeywordsResponse decodeKeywords(byte[] body) throws IOException {
+        TmdbKeywordsResponse keywords = new TmdbKeywordsResponse();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("id".equals(field)) {
+                    keywords.setId(longValue(parser, value));
+                } else if ("keywords".equals(field) && value == JsonToken.START_ARRAY) {
+                    readKeywords(parser, keywords.getKeywords());
+                } else if ("results".equals(field) && value == JsonToken.START_ARRAY) {
+                    readKeywords(parser, keywords.getResults());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return keywords;
+    }
+
+    /** Decodes a similar or recommendations page; movies carry {@code title}, series {@code name}. */
+    public List<TmdbSimilarItem> decodeSimilarItems(byte[] body, FilmType type) throws IOException {
+        String titleField = type == FilmType.MOVIE ? "title" : "name";
+        String dateField = type == FilmType.MOVIE ? "release_date" : "first_air_date";
+        List<TmdbSimilarItem> items = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expectObject(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"results".equals(field) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    TmdbSimilarItem item = readSimilarItem(parser, titleField, dateField);
+                    if (item.tmdbId() != null) {
+                        items.add(item);
+                    }
+                }
+            }
+        }
+        return items;
+    }
+
+    private void readCrew(JsonParser parser, List<CrewMember> crew) throws IOException {
+        Set<Long> keptDirectors = new HashSet<>();
+        Set<Long> keptCrew = new HashSet<>();
+        int dropped = 0;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            CrewMember member = readCrewMember(parser);
+            if (member.getId() == null || !retentionPolicy.retainsCrewJob(member.getJob())) {
+                dropped++;
+            } else if (DIRECTOR_JOB.equalsIgnoreCase(member.getJob())) {
+                if (keptDirectors.add(member.getId())) {
+                    crew.add(member);
+                } else {
+                    dropped++;
+                }
+            } else if (keptCrew.size() < maxCrewEntries && keptCrew.add(member.getId())) {
+                crew.add(member);
+            } else {
+                dropped++;
+            }
+        }
+        if (dropped > 0) {
+            log.debug("Dropped {} TMDB crew entries outside the retention policy, repeating a stored role"
+                    + " or over the cap of {}", dropped, maxCrewEntries);
+        }
+    }
+
+    private static CastMember readCastMember(JsonParser parser) throws IOException {
+        CastMember member = new CastMember();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> member.setId(longValue(parser, value));
+                case "name" -> member.setName(textValue(parser, value));
+                case "character" -> member.setCharacter(textValue(parser, value));
+                case "order" -> member.setOrder(intValue(parser, value));
+                case "known_for_department" -> member.setDepartment(textValue(parser, value));
+                case "profile_path" -> member.setProfilePath(textValue(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return member;
+    }
+
+    private static CrewMember readCrewMember(JsonParser parser) throws IOException {
+        CrewMember member = new CrewMember();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> member.setId(longValue(parser, value));
+                case "name" -> member.setName(textValue(parser, value));
+                case "job" -> member.setJob(textValue(parser, value));
+                case "known_for_department" -> member.setDepartment(textValue(parser, value));
+                case "profile_path" -> member.setProfilePath(textValue(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return member;
+    }
+
+    private static void readKeywords(JsonParser parser, List<KeywordItem> target) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            KeywordItem item = new KeywordItem();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "id" -> item.setId(longValue(parser, value));
+                    case "name" -> item.setName(textValue(parser, value));
+                    default -> parser.skipChildren();
+                }
+            }
+            target.add(item);
+        }
+    }
+
+    private static TmdbSimilarItem readSimilarItem(JsonParser parser, String titleField, String dateField)
+            throws IOException {
+        Long id = null;
+        String title = null;
+        String date = null;
+        String backdropPath = null;
+        Double voteAverage = null;
+        String originalLanguage = null;
+        List<Integer> genreIds = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("id".equals(field)) {
+                id = longValue(parser, value);
+            } else if (titleField.equals(field)) {
+                title = textValue(parser, value);
+            } else if (dateField.equals(field)) {
+                date = textValue(parser, value);
+            } else if ("backdrop_path".equals(field)) {
+                backdropPath = textValue(parser, value);
+            } else if ("vote_average".equals(field)) {
+                voteAverage = doubleValue(parser, value);
+            } else if ("original_language".equals(field)) {
+                originalLanguage = textValue(parser, value);
+            } else if ("genre_ids".equals(field) && value == JsonToken.START_ARRAY) {
+                genreIds = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                        genreIds.add(parser.getIntValue());
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new TmdbSimilarItem(id, title, date, backdropPath, voteAverage, originalLanguage, genreIds);
+    }
+
+    private static void expectObject(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object at " + parser.currentLocation());
+        }
+    }
+
+    // The value readers below skip an unexpected object or array so the parser stays aligned.
+    private static Long longValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Integer intValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Double doubleValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value != null && value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static String textValue(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
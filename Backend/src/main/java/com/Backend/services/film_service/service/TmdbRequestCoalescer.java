@@ -0,0 +1,118 @@
+package com.Backend.services.film_service.service;
+
+import com.Backend.services.FilmType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight layer for TMDB calls.
+ *
+ * <p>Concurrent callers asking for the same (endpoint, tmdbId, type) share one in-flight HTTP
+ * exchange instead of each spending a rate-limit token. {@code @Cacheable} only helps once a value
+ * has been stored, so bursts of sync tasks for a trending film would otherwise all miss together.
+ *
+ * <p>The number of callers parked on one exchange is capped by {@code tmdb.api.coalescing.max-waiters};
+ * callers beyond the cap run their own request rather than queueing unboundedly.
+ */
+@Slf4j
+@Component
+public class TmdbRequestCoalescer {
+
+    private static final String METRIC_PREFIX = "tmdb.request.coalescing";
+
+    private final ConcurrentHashMap<RequestKey, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final int maxWaiters;
+    private final Counter leaderCounter;
+    private final Counter coalescedCounter;
+    private final Counter overflowCounter;
+
+    public TmdbRequestCoalescer(
+            MeterRegistry meterRegistry,
+            @Value("${tmdb.api.coalescing.max-waiters:64}") int maxWaiters) {
+        this.maxWaiters = Math.max(0, maxWaiters);
+
+        this.leaderCounter = Counter.builder(METRIC_PREFIX + ".leader")
+                .description("TMDB calls that performed the HTTP exchange")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder(METRIC_PREFIX + ".coalesced")
+                .description("TMDB calls served by joining an in-flight exchange")
+                .register(meterRegistry);
+        this.overflowCounter = Counter.builder(METRIC_PREFIX + ".overflow")
+                .description("TMDB calls that ran independently because the waiter cap was reached")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".in_flight", inFlight, ConcurrentHashMap::size)
+                .description("Number of distinct TMDB exchanges currently in flight")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String endpoint, Long tmdbId, FilmType type, Supplier<T> call) {
+        RequestKey key = new RequestKey(endpoint, tmdbId, type);
+        InFlight fresh = new InFlight();
+        InFlight existing = inFlight.putIfAbsent(key, fresh);
+
+        if (existing == null) {
+            return lead(key, fresh, call);
+        }
+
+        if (existing.waiters.incrementAndGet() > maxWaiters) {
+            existing.waiters.decrementAndGet();
+            overflowCounter.increment();
+            log.debug("TMDB coalescing waiter cap reached for {} — issuing independent request", key);
+            return call.get();
+        }
+
+        try {
+            coalescedCounter.increment();
+            return awaitResult(existing);
+        } finally {
+            existing.waiters.decrementAndGet();
+        }
+    }
+
+    private <T> T lead(RequestKey key, InFlight flight, Supplier<T> call) {
+        leaderCounter.increment();
+        try {
+            T result = call.get();
+            flight.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T awaitResult(InFlight flight) {
+        try {
+            return (T) flight.result.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private record RequestKey(String endpoint, Long tmdbId, FilmType type) {
+    }
+
+    private static final class InFlight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger();
+    }
+}
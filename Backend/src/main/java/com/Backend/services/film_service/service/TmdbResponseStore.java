@@ -0,0 +1,286 @@
+package com.Backend.services.film_service.service;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.film_service.model.TmdbResponseCacheEntry;
+import com.Backend.services.film_service.repository.TmdbResponseCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * Durable store of raw TMDB response bodies plus their ETag / Last-Modified validators.
+ *
+ * <p>{@link TmdbClient} sends the stored validators as conditional headers, so a refresh of an
+ * unchanged document (after the in-memory cache TTL, a restart, or enrichment TTL expiry) comes back
+ * as a bodiless 304 and the body is served from here.
+ *
+ * <p>All reads and writes run in their own short transaction: TMDB calls happen inside sync
+ * transactions, and a failed store write must never mark those rollback-only. Store failures are
+ * logged and treated as a miss.
+ */
+@Slf4j
+@Service
+public class TmdbResponseStore {
+
+    private static final String METRIC_PREFIX = "tmdb.response_store";
+
+    private final TmdbResponseCacheRepository repository;
+    private final TransactionTemplate requiresNew;
+    private final boolean enabled;
+    private final int maxEntryBytes;
+    private final long maxTotalBytes;
+    private final Duration maxIdle;
+    private final int evictionBatchSize;
+
+    private final Counter notModifiedCounter;
+    private final Counter modifiedCounter;
+    private final Counter unconditionalCounter;
+    private final Counter bytesSavedCounter;
+    private final Counter evictedCounter;
+    private final AtomicLong storedBytes = new AtomicLong(0);
+
+    public TmdbResponseStore(
+            TmdbResponseCacheRepository repository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${tmdb.response-store.enabled:true}") boolean enabled,
+            @Value("${tmdb.response-store.max-entry-bytes:2097152}") int maxEntryBytes,
+            @Value("${tmdb.response-store.max-total-bytes:268435456}") long maxTotalBytes,
+            @Value("${tmdb.response-store.max-idle-days:30}") long maxIdleDays,
+            @Value("${tmdb.response-store.eviction-batch-size:500}") int evictionBatchSize) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxEntryBytes = Math.max(1, maxEntryBytes);
+        this.maxTotalBytes = Math.max(1L, maxTotalBytes);
+        this.maxIdle = Duration.ofDays(Math.max(1L, maxIdleDays));
+        this.evictionBatchSize = Math.max(1, evictionBatchSize);
+
+        this.notModifiedCounter = Counter.builder(METRIC_PREFIX + ".responses")
+                .description("TMDB document fetches by revalidation outcome")
+                .tag("outcome", "not_modified")
+                .register(meterRegistry);
+        this.modifiedCounter = Counter.builder(METRIC_PREFIX + ".responses")
+                .description("TMDB document fetches by revalidation outcome")
+                .tag("outcome", "modified")
+                .register(meterRegistry);
+        this.unconditionalCounter = Counter.builder(METRIC_PREFIX + ".responses")
+                .description("TMDB document fetches by revalidation outcome")
+                .tag("outcome", "unconditional")
+                .register(meterRegistry);
+        this.bytesSavedCounter = Counter.builder(METRIC_PREFIX + ".bytes.saved")
+                .description("Response body bytes served from the store instead of downloaded")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder(METRIC_PREFIX + ".evicted")
+                .description("Stored TMDB responses removed by size or idle eviction")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".stored.bytes", storedBytes, AtomicLong::get)
+                .description("Compressed bytes held in the TMDB response store")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".not_modified.ratio", this, TmdbResponseStore::notModifiedRatio)
+                .description("Share of conditional TMDB requests answered with 304")
+                .register(meterRegistry);
+    }
+
+    public Optional<StoredResponse> lookup(String endpoint, Long tmdbId, FilmType type) {
+        if (!enabled || endpoint == null || tmdbId == null || type == null) {
+            return Optional.empty();
+        }
+        try {
+            return requiresNew.execute(status -> repository
+                    .findValidatorsByEndpointAndTmdbIdAndType(endpoint, tmdbId, type)
+                    .map(StoredResponse::from));
+        } catch (RuntimeException ex) {
+            log.warn("TMDB response store lookup failed for endpoint={} tmdbId={} type={}: {}",
+                    endpoint, tmdbId, type, ex.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Called when TMDB answered 304 for {@code stored}. Loads and returns the stored body, or
+     * {@code null} if it is gone or (after dropping the entry) can no longer be decoded.
+     */
+    public byte[] revalidated(StoredResponse stored) {
+        byte[] compressed;
+        try {
+            compressed = requiresNew.execute(status -> repository.findBodyGzipById(stored.id()).orElse(null));
+        } catch (RuntimeException ex) {
+            log.warn("TMDB response store body read failed for id={}: {}", stored.id(), ex.toString());
+            return null;
+        }
+        if (compressed == null) {
+            return null;
+        }
+
+        byte[] body;
+        try {
+            body = gunzip(compressed);
+        } catch (UncheckedIOException ex) {
+            log.warn("Dropping undecodable TMDB response store entry id={}: {}", stored.id(), ex.toString());
+            runQuietly(() -> repository.deleteById(stored.id()));
+            return null;
+        }
+
+        notModifiedCounter.increment();
+        bytesSavedCounter.increment(body.length);
+
+        Instant now = Instant.now();
+        runQuietly(() -> repository.markValidated(stored.id(), now));
+        return body;
+    }
+
+    /**
+     * Records a full (200) response. {@code conditional} tells whether validators were sent, so the
+     * 304 ratio only counts real revalidations. The stored row is overwritten in place and counts as
+     * accessed; a changed document that can no longer be stored drops the outdated row instead.
+     */
+    public void store(
+            String endpoint,
+            Long tmdbId,
+            FilmType type,
+            boolean conditional,
+            String etag,
+            String lastModified,
+            byte[] body) {
+        if (!enabled || body == null || endpoint == null || tmdbId == null || type == null) {
+            return;
+        }
+        (conditional ? modifiedCounter : unconditionalCounter).increment();
+
+        if (!StringUtils.hasText(etag) && !StringUtils.hasText(lastModified)) {
+            // Nothing to revalidate with; storing the body would never save a download.
+            if (conditional) {
+                runQuietly(() -> repository.deleteByKey(endpoint, tmdbId, type));
+            }
+            return;
+        }
+
+        byte[] compressed = gzip(body);
+        if (compressed.length > maxEntryBytes) {
+            log.debug("Skipping TMDB response store for endpoint={} tmdbId={}: {} bytes exceeds entry limit",
+                    endpoint, tmdbId, compressed.length);
+            if (conditional) {
+                runQuietly(() -> repository.deleteByKey(endpoint, tmdbId, type));
+            }
+            return;
+        }
+
+        Instant now = Instant.now();
+        runQuietly(() -> {
+            int replaced = repository.replaceResponse(endpoint, tmdbId, type, etag, lastModified,
+                    compressed, body.length, compressed.length, now);
+            if (replaced == 0) {
+                repository.save(TmdbResponseCacheEntry.builder()
+                        .endpoint(endpoint)
+                        .tmdbId(tmdbId)
+                        .type(type)
+                        .etag(etag)
+                        .lastModified(lastModified)
+                        .bodyGzip(compressed)
+                        .bodySize(body.length)
+                        .compressedSize(compressed.length)
+                        .fetchedAt(now)
+                        .validatedAt(now)
+                        .lastAccessedAt(now)
+                        .build());
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${tmdb.response-store.eviction-interval-ms:300000}")
+    public void evict() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Integer idleEvicted = requiresNew.execute(status ->
+                    repository.deleteNotAccessedSince(Instant.now().minus(maxIdle)));
+            int evicted = idleEvicted == null ? 0 : idleEvicted;
+
+            long total = currentStoredBytes();
+            while (total > maxTotalBytes) {
+                Integer deleted = requiresNew.execute(status ->
+                        repository.deleteLeastRecentlyAccessed(evictionBatchSize));
+                if (deleted == null || deleted == 0) {
+                    break;
+                }
+                evicted += deleted;
+                total = currentStoredBytes();
+            }
+
+            storedBytes.set(total);
+            if (evicted > 0) {
+                evictedCounter.increment(evicted);
+                log.info("Evicted {} TMDB response store entries, {} bytes remain", evicted, total);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("TMDB response store eviction failed: {}", ex.toString());
+        }
+    }
+
+    private long currentStoredBytes() {
+        Long total = requiresNew.execute(status -> repository.sumCompressedSize());
+        return total == null ? 0L : total;
+    }
+
+    private double notModifiedRatio() {
+        double notModified = notModifiedCounter.count();
+        double revalidations = notModified + modifiedCounter.count();
+        return revalidations <= 0.0d ? 0.0d : notModified / revalidations;
+    }
+
+    private void runQuietly(Runnable action) {
+        try {
+            requiresNew.executeWithoutResult(status -> action.run());
+        } catch (RuntimeException ex) {
+            log.warn("TMDB response store write failed: {}", ex.toString());
+        }
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] compressed) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return in.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    public record StoredResponse(Long id, String etag, String lastModified) {
+
+        static StoredResponse from(TmdbResponseCacheRepository.Validators validators) {
+            return new StoredResponse(validators.getId(), validators.getEtag(), validators.getLastModified());
+        }
+    }
+}
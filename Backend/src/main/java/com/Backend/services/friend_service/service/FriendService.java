@@ -1,5 +1,6 @@
 package com.Backend.services.friend_service.service;
 
+import com.Backend.cache.CacheScopes;
 import com.Backend.services.friend_service.model.Friend;
 import com.Backend.services.friend_service.model.Status;
 import com.Backend.services.friend_service.model.DTO.FriendDTO;
@@ -39,6 +40,7 @@ public class FriendService {
     private final ApplicationEventPublisher publisher;
 
     private final UserLookUpHelper userLookUpHelper;
+    private final CacheScopes cacheScopes;
 
     @Cacheable(value = "friendRequests", key = "'from-' + #id")
     public Set<FriendRequestDTO> getRequestsFromThisUser(Long id) {
@@ -72,9 +74,8 @@ public class FriendService {
             @CacheEvict(value = "friendRequests", key = "'to-' + #user1.id"),
             @CacheEvict(value = "friends", key = "#user1.id"),
             @CacheEvict(value = "friends", key = "#user1.email"),
-            @CacheEvict(value = "friendStatus", allEntries = true),
-            @CacheEvict(value = "userMeDTO", key = "#user1.email"),
-            @CacheEvict(value = "isFriend", allEntries = true)
+            @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "'user:' + #user1.id + ':friends'"),
+            @CacheEvict(value = "userMeDTO", key = "#user1.email")
     })
     public void sendRequest(User user1, String friendEmail) {
         User user2 = userLookUpHelper.getUserByEmail(friendEmail);
@@ -111,7 +112,7 @@ public class FriendService {
         log.debug("Friend request sent from user={} to user={}", user1.getId(), user2.getId());
     }
 
-    @Cacheable(value = "friendStatus", key = "#user1.id + '-' + #friendEmail")
+    @Cacheable(value = "friendStatus", key = "@cacheScopes.key('user:' + #user1.id + ':friends', #friendEmail)")
     public Status getFriendStatus(User user1, String friendEmail) {
         log.debug("Fetching friend status for user={} and friend={} from database", user1.getId(), friendEmail);
         User user2 = userLookUpHelper.getUserByEmail(friendEmail);
@@ -120,7 +121,7 @@ public class FriendService {
                 .orElseThrow(() -> new FriendshipNotFoundException("No friend relationship found"));
     }
 
-    @Cacheable(value = "friendStatus", key = "#user1.id + '-' + #friendId")
+    @Cacheable(value = "friendStatus", key = "@cacheScopes.key('user:' + #user1.id + ':friends', #friendId)")
     public Status getFriendStatus(User user1, Long friendId) {
         log.debug("Fetching friend status for user={} and friendId={} from database", user1.getId(), friendId);
         User user2 = userLookUpHelper.getUserById(friendId);
@@ -129,14 +130,14 @@ public class FriendService {
                 .orElseThrow(() -> new FriendshipNotFoundException("No friend relationship found"));
     }
 
-    @Cacheable(value = "isFriend", key = "#user1.id + '-' + #friendEmail" )
+    @Cacheable(value = "isFriend", key = "@cacheScopes.key('user:' + #user1.id + ':friends', #friendEmail)")
     public boolean isFriend(User user1, String friendEmail) {
         log.info("Checking if user={} is a friend of user with email={}", user1.getId(), friendEmail);
         User user2 = userLookUpHelper.getUserByEmail(friendEmail);
         return friendRepo.existsFriendshipBetween(user1, user2);
     }
 
-    @Cacheable(value = "isFriend", key = "#user1.id + '-' + #friendId" )
+    @Cacheable(value = "isFriend", key = "@cacheScopes.key('user:' + #user1.id + ':friends', #friendId)")
     public boolean isFriend(User user1, Long friendId) {
         log.info("Checking if user={} is a friend of user with id={}", user1.getId(), friendId);
         User user2 = userLookUpHelper.getUserById(friendId);
@@ -149,8 +150,7 @@ public class FriendService {
             @CacheEvict(value = "friendRequests", key = "'to-' + #user1.id"),
             @CacheEvict(value = "friends", key = "#user1.id"),
             @CacheEvict(value = "friends", key = "#user1.email"),
-            @CacheEvict(value = "friendStatus", allEntries = true),
-            @CacheEvict(value = "isFriend", allEntries = true),
+            @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "'user:' + #user1.id + ':friends'"),
             @CacheEvict(value = "userMeDTO", key = "#user1.email")
     })
     public void updateFriend(User user1, Long senderEmail, Status status) {
@@ -233,8 +233,7 @@ public class FriendService {
             @CacheEvict(value = "friendRequests", key = "'to-' + #user1.id"),
             @CacheEvict(value = "friends", key = "#user1.id"),
             @CacheEvict(value = "friends", key = "#user1.email"),
-            @CacheEvict(value = "friendStatus", allEntries = true),
-            @CacheEvict(value = "isFriend", allEntries = true),
+            @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "'user:' + #user1.id + ':friends'"),
             @CacheEvict(value = "userMeDTO", key = "#user1.email")
     })
     public void deleteFriend(User user1, Long friendEmail) {
@@ -269,6 +268,8 @@ public class FriendService {
         if (userMeDTOCache != null) {
             userMeDTOCache.evict(user.getEmail());
         }
+        // The other user's friendStatus/isFriend lookups of this relationship.
+        cacheScopes.invalidate(CacheScopes.userScope(user.getId(), "friends"));
     }
 
     private void evictAllCachesForUser(User user) {
@@ -288,6 +289,7 @@ public class FriendService {
         if (userMeDTOCache != null) {
             userMeDTOCache.evict(user.getEmail());
         }
+        cacheScopes.invalidate(CacheScopes.userScope(user.getId(), "friends"));
     }
 
     // ==================== Private Helper Methods ====================
@@ -0,0 +1,74 @@
+package com.Backend.services.genre_service.repository;
+
+import com.Backend.services.FilmType;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based writes for genre enrichment.
+ *
+ * <p>Films are linked through the {@code film_genre} join table directly, so linking a film to a
+ * popular genre never loads the thousands of films already in {@code Genre.films}. TMDB returns a
+ * handful of genres per film, so every call is a single statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GenreBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertGenresIfAbsent(Collection<GenreRow> genres) {
+        if (genres == null || genres.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("insert into genre (genre_id, name, type) values ");
+        List<Object> args = new ArrayList<>(genres.size() * 3);
+        for (GenreRow row : genres) {
+            sql.append(args.isEmpty() ? "(?, ?, ?)" : ", (?, ?, ?)");
+            args.add(row.genreId());
+            args.add(row.name());
+            args.add(row.type().name());
+        }
+        sql.append(" on conflict do nothing");
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Applies TMDB renames to existing genres as one JDBC batch; rows whose name already matches
+     * are not touched.
+     */
+    public void refreshNames(Collection<GenreRow> genres) {
+        if (genres == null || genres.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(genres.size());
+        for (GenreRow row : genres) {
+            args.add(new Object[] {row.name(), row.genreId(), row.name()});
+        }
+        jdbcTemplate.batchUpdate("update genre set name = ? where genre_id = ? and name <> ?", args);
+    }
+
+    public int linkGenresToFilm(Long filmInternalId, Collection<Long> genreIds) {
+        if (genreIds == null || genreIds.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(
+                "insert into film_genre (internal_film_id, genre_id) "
+                        + "select ?, g.genre_id from genre g where g.genre_id in (");
+        List<Object> args = new ArrayList<>(genreIds.size() + 1);
+        args.add(filmInternalId);
+        for (Long genreId : genreIds) {
+            sql.append(args.size() == 1 ? "?" : ", ?");
+            args.add(genreId);
+        }
+        sql.append(") on conflict do nothing");
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    public record GenreRow(Long genreId, String name, FilmType type) {
+    }
+}
@@ -6,12 +6,15 @@ import com.Backend.services.film_service.model.TmdbFilmResponse;
 import com.Backend.services.film_service.model.TmdbFilmResponse.GenreItem;
 import com.Backend.services.film_service.service.TmdbClient;
 import com.Backend.services.genre_service.model.Genre;
+import com.Backend.services.genre_service.repository.GenreBulkRepository;
+import com.Backend.services.genre_service.repository.GenreBulkRepository.GenreRow;
 import com.Backend.services.genre_service.repository.GenreRepository;
 import java.time.LocalDate;
-import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -24,6 +27,7 @@ import org.springframework.util.StringUtils;
 public class GenreService {
 
     private final GenreRepository genreRepository;
+    private final GenreBulkRepository genreBulkRepository;
     private final TmdbClient tmdbClient;
 
     @Transactional
@@ -32,7 +36,21 @@ public class GenreService {
             return;
         }
 
-        TmdbFilmResponse details = tmdbClient.fetchGenres(tmdbId, type);
+        applyGenresToFilm(tmdbClient.fetchGenres(tmdbId, type), type, film);
+    }
+
+    /**
+     * Write half of {@link #syncGenresForFilm}: applies an already fetched TMDB details payload to
+     * the film without touching TMDB, so enrichment can fetch stages concurrently and write once.
+     *
+     * <p>Genres are linked with one {@code insert ... select} into {@code film_genre} rather than
+     * through {@code Genre.films}, which for a genre like Drama holds most of the catalog.
+     */
+    @Transactional
+    public void applyGenresToFilm(TmdbFilmResponse details, FilmType type, Film film) {
+        if (type == null || film == null) {
+            return;
+        }
         if (details == null || details.getGenres() == null || details.getGenres().isEmpty()) {
             return;
         }
@@ -62,14 +80,24 @@ public class GenreService {
             }
         }
 
-        List<GenreItem> genres = details.getGenres();
-        for (GenreItem genreInfo : genres) {
+        if (film.getInternalId() == null) {
+            return;
+        }
+
+        Map<Long, GenreRow> rows = new TreeMap<>();
+        for (GenreItem genreInfo : details.getGenres()) {
             if (genreInfo == null || genreInfo.getId() == null || !StringUtils.hasText(genreInfo.getName())) {
                 continue;
             }
-            Genre genre = getOrCreateGenre(genreInfo.getId(), genreInfo.getName(), type);
-            linkGenreToFilm(genre, film);
+            rows.putIfAbsent(genreInfo.getId(), new GenreRow(genreInfo.getId(), genreInfo.getName(), type));
+        }
+        if (rows.isEmpty()) {
+            return;
         }
+
+        genreBulkRepository.insertGenresIfAbsent(rows.values());
+        genreBulkRepository.refreshNames(rows.values());
+        genreBulkRepository.linkGenresToFilm(film.getInternalId(), rows.keySet());
     }
 
     @Transactional
@@ -93,18 +121,4 @@ public class GenreService {
                 .build();
         return genreRepository.save(Objects.requireNonNull(genre, "genre"));
     }
-
-    @Transactional
-    public void linkGenreToFilm(Genre genre, Film film) {
-        if (genre == null || film == null) {
-            return;
-        }
-        if (!genre.getFilms().contains(film)) {
-            genre.getFilms().add(film);
-        }
-        if (film.getGenres() != null && !film.getGenres().contains(genre)) {
-            film.getGenres().add(genre);
-        }
-        genreRepository.save(genre);
-    }
 }
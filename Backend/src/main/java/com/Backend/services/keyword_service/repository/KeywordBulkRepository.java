@@ -0,0 +1,79 @@
+package com.Backend.services.keyword_service.repository;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.JdbcBatches;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based writes for keyword enrichment.
+ *
+ * <p>Films are linked through the {@code film_keyword} join table directly, so linking never loads
+ * the inverse {@code Keyword.films} collection. Each call issues one statement per chunk of
+ * {@link JdbcBatches#MAX_ROWS_PER_STATEMENT} rows. Runs on the JDBC connection bound to the
+ * current JPA transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class KeywordBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertKeywordsIfAbsent(Collection<KeywordRow> keywords) {
+        int inserted = 0;
+        for (List<KeywordRow> chunk : JdbcBatches.chunks(keywords)) {
+            StringBuilder sql = new StringBuilder("insert into keyword (keyword_id, name, type) values ");
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            for (int i = 0; i < chunk.size(); i++) {
+                KeywordRow row = chunk.get(i);
+                sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+                args.add(row.keywordId());
+                args.add(row.name());
+                args.add(row.type().name());
+            }
+            sql.append(" on conflict do nothing");
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+
+    /**
+     * Applies TMDB renames to existing keywords as one JDBC batch; rows whose name already matches
+     * are not touched.
+     */
+    public void refreshNames(Collection<KeywordRow> keywords) {
+        if (keywords == null || keywords.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(keywords.size());
+        for (KeywordRow row : keywords) {
+            args.add(new Object[] {row.name(), row.keywordId(), row.name()});
+        }
+        jdbcTemplate.batchUpdate("update keyword set name = ? where keyword_id = ? and name <> ?", args);
+    }
+
+    public int linkKeywordsToFilm(Long filmInternalId, Collection<Long> keywordIds) {
+        int linked = 0;
+        for (List<Long> chunk : JdbcBatches.chunks(keywordIds)) {
+            StringBuilder sql = new StringBuilder(
+                    "insert into film_keyword (internal_film_id, keyword_id) "
+                            + "select ?, k.keyword_id from keyword k where k.keyword_id in (");
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(filmInternalId);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                args.add(chunk.get(i));
+            }
+            sql.append(") on conflict do nothing");
+            linked += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return linked;
+    }
+
+    public record KeywordRow(Long keywordId, String name, FilmType type) {
+    }
+}
@@ -6,10 +6,14 @@ import com.Backend.services.film_service.model.TmdbKeywordsResponse;
 import com.Backend.services.film_service.model.TmdbKeywordsResponse.KeywordItem;
 import com.Backend.services.film_service.service.TmdbClient;
 import com.Backend.services.keyword_service.model.Keyword;
+import com.Backend.services.keyword_service.repository.KeywordBulkRepository;
+import com.Backend.services.keyword_service.repository.KeywordBulkRepository.KeywordRow;
 import com.Backend.services.keyword_service.repository.KeywordRepository;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.TreeMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -22,6 +26,7 @@ import org.springframework.util.StringUtils;
 public class KeywordService {
 
     private final KeywordRepository keywordRepository;
+    private final KeywordBulkRepository keywordBulkRepository;
     private final TmdbClient tmdbClient;
 
     @Transactional
@@ -29,8 +34,20 @@ public class KeywordService {
         if (tmdbId == null || type == null || film == null) {
             return;
         }
-        TmdbKeywordsResponse keywordsResponse = tmdbClient.fetchKeywords(tmdbId, type);
-        if (keywordsResponse == null) {
+        applyKeywordsToFilm(tmdbClient.fetchKeywords(tmdbId, type), type, film);
+    }
+
+    /**
+     * Write half of {@link #syncKeywordsForFilm}: links an already fetched TMDB keyword payload to
+     * the film without touching TMDB.
+     *
+     * <p>Keywords are written set-based: one insert for new dictionary rows, one batch for renames
+     * and one {@code insert ... select} into {@code film_keyword}. The inverse {@code Keyword.films}
+     * collection is never loaded, so cost does not grow with how many films share a keyword.
+     */
+    @Transactional
+    public void applyKeywordsToFilm(TmdbKeywordsResponse keywordsResponse, FilmType type, Film film) {
+        if (keywordsResponse == null || type == null || film == null || film.getInternalId() == null) {
             return;
         }
 
@@ -39,13 +56,21 @@ public class KeywordService {
             return;
         }
 
+        // Sorted by id so concurrent films inserting overlapping keywords lock rows in the same order.
+        Map<Long, KeywordRow> rows = new TreeMap<>();
         for (KeywordItem keywordInfo : keywords) {
             if (keywordInfo == null || keywordInfo.getId() == null || !StringUtils.hasText(keywordInfo.getName())) {
                 continue;
             }
-            Keyword keyword = getOrCreateKeyword(keywordInfo.getId(), keywordInfo.getName(), type);
-            linkKeywordToFilm(keyword, film);
+            rows.putIfAbsent(keywordInfo.getId(), new KeywordRow(keywordInfo.getId(), keywordInfo.getName(), type));
         }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        keywordBulkRepository.insertKeywordsIfAbsent(rows.values());
+        keywordBulkRepository.refreshNames(rows.values());
+        keywordBulkRepository.linkKeywordsToFilm(film.getInternalId(), rows.keySet());
     }
 
     @Transactional
@@ -68,18 +93,4 @@ public class KeywordService {
                 .build();
         return keywordRepository.save(Objects.requireNonNull(keyword, "keyword"));
     }
-
-    @Transactional
-    public void linkKeywordToFilm(Keyword keyword, Film film) {
-        if (keyword == null || film == null) {
-            return;
-        }
-        if (!keyword.getFilms().contains(film)) {
-            keyword.getFilms().add(film);
-        }
-        if (film.getKeywords() != null && !film.getKeywords().contains(keyword)) {
-            film.getKeywords().add(keyword);
-        }
-        keywordRepository.save(keyword);
-    }
 }
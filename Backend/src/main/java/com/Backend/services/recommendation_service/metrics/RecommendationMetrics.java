@@ -23,6 +23,7 @@ import org.springframework.stereotype.Component;
  * <ul>
  *   <li>{@code recommendation.snapshot.recompute.latency} — timer for full snapshot recompute</li>
  *   <li>{@code recommendation.snapshot.recompute.success} / {@code .failure} — counters</li>
+ *   <li>{@code recommendation.snapshot.recompute.start.latency} — timer from a recompute task becoming due to its start</li>
  *   <li>{@code recommendation.snapshot.queue.depth} — gauge of pending {@code user_recompute_tasks} rows</li>
  *   <li>{@code recommendation.sync_task.queue.depth} — gauge of pending {@code sync_task} rows by category</li>
  *   <li>{@code recommendation.enrichment.stage.latency} — per-stage (genre/keyword/credits) timers</li>
@@ -43,6 +44,7 @@ public class RecommendationMetrics {
     // Snapshot recompute
     // -------------------------------------------------------------------------
     private Timer snapshotRecomputeLatencyTimer;
+    private Timer snapshotRecomputeStartLatencyTimer;
     private Counter snapshotRecomputeSuccessCounter;
     private Counter snapshotRecomputeFailureCounter;
 
@@ -83,6 +85,12 @@ public class RecommendationMetrics {
                         Duration.ofSeconds(5))
                 .register(meterRegistry);
 
+        snapshotRecomputeStartLatencyTimer = Timer.builder(PREFIX + ".snapshot.recompute.start.latency")
+                .description("Delay between a user recompute task becoming due and its recompute starting")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(30))
+                .register(meterRegistry);
+
         snapshotRecomputeSuccessCounter = Counter.builder(PREFIX + ".snapshot.recompute.success")
                 .description("Count of successful snapshot recompute runs")
                 .register(meterRegistry);
@@ -141,6 +149,10 @@ public class RecommendationMetrics {
     // Snapshot recompute
     // -------------------------------------------------------------------------
 
+    public void recordSnapshotRecomputeStartLatency(Duration latency) {
+        snapshotRecomputeStartLatencyTimer.record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
     public Timer.Sample startSnapshotRecomputeTimer() {
         return Timer.start(meterRegistry);
     }
@@ -0,0 +1,60 @@
+package com.Backend.services.recommendation_service.repository;
+
+import com.Backend.services.JdbcBatches;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based edge writes for recommendation ingestion, so replacing a source film's edges costs one
+ * delete and one insert for the edges that actually changed. Each call issues one statement per
+ * chunk of {@link JdbcBatches#MAX_ROWS_PER_STATEMENT} rows. Runs on the JDBC connection bound to
+ * the current transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RecommendationBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int insertEdgesIfAbsent(Long sourceFilmInternalId, Collection<Long> targetFilmInternalIds, Instant ingestedAt) {
+        int inserted = 0;
+        Timestamp ingestedAtValue = Timestamp.from(ingestedAt);
+        for (List<Long> chunk : JdbcBatches.chunks(targetFilmInternalIds)) {
+            StringBuilder sql = new StringBuilder(
+                    "insert into recommendation (film_id, recommended_film_id, ingested_at) values ");
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+                args.add(sourceFilmInternalId);
+                args.add(chunk.get(i));
+                args.add(ingestedAtValue);
+            }
+            sql.append(" on conflict do nothing");
+            inserted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return inserted;
+    }
+
+    public int deleteEdges(Long sourceFilmInternalId, Collection<Long> targetFilmInternalIds) {
+        int deleted = 0;
+        for (List<Long> chunk : JdbcBatches.chunks(targetFilmInternalIds)) {
+            StringBuilder sql = new StringBuilder(
+                    "delete from recommendation where film_id = ? and recommended_film_id in (");
+            List<Object> args = new ArrayList<>(chunk.size() + 1);
+            args.add(sourceFilmInternalId);
+            for (int i = 0; i < chunk.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+                args.add(chunk.get(i));
+            }
+            sql.append(")");
+            deleted += jdbcTemplate.update(sql.toString(), args.toArray());
+        }
+        return deleted;
+    }
+}
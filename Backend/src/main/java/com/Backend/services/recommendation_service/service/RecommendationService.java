@@ -5,16 +5,18 @@ import com.Backend.services.film_service.model.Film;
 import com.Backend.services.film_service.model.TmdbSimilarItem;
 import com.Backend.services.film_service.service.FilmService;
 import com.Backend.services.film_service.service.TmdbClient;
-import com.Backend.services.recommendation_service.model.Recommendation;
-import com.Backend.services.recommendation_service.model.RecommendationId;
+import com.Backend.services.recommendation_service.repository.RecommendationBulkRepository;
 import com.Backend.services.recommendation_service.repository.RecommendationRepository;
 import com.Backend.services.sync_service.model.LocalBudgetDeferException;
+import com.Backend.services.sync_service.service.SyncDemandService;
 import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
@@ -38,7 +40,9 @@ public class RecommendationService {
     private final TmdbClient tmdbClient;
     private final FilmService filmService;
     private final RecommendationRepository recommendationRepository;
+    private final RecommendationBulkRepository recommendationBulkRepository;
     private final PlatformTransactionManager transactionManager;
+    private final SyncDemandService syncDemandService;
 
     @Value("${recommendation.sync.max-similar-per-film:20}")
     private int maxCandidatesPerSource;
@@ -65,8 +69,8 @@ public class RecommendationService {
      * <ul>
      *   <li>Filtered: drop candidates with missing/invalid dates; apply cutoff-year.</li>
         *   <li>Bounded: cap to the first N <em>valid</em> candidates after filtering.</li>
-     *   <li>Idempotent replace semantics: delete all prior edges for the source and insert the new bounded set
-     *       in one transaction.</li>
+     *   <li>Idempotent replace semantics: the source's edges become exactly the new bounded set in one
+     *       transaction; only edges that were dropped or added are written.</li>
      * </ul>
      */
     public void syncRecommendationsForFilm(Long tmdbId, Film sourceFilm) {
@@ -94,8 +98,8 @@ public class RecommendationService {
         }
 
         // Phase A (outside the edge transaction): filter → limit → resolve candidate Film rows.
-        // Rationale: the edge transaction is REQUIRES_NEW and should only do delete+insert, with no nested
-        // service calls. Candidate film resolution is done per-candidate and failures are skipped.
+        // Rationale: the edge transaction is REQUIRES_NEW and should only diff edges, with no nested
+        // service calls. Candidate film rows are resolved in bulk (lookup + multi-row insert).
         List<TmdbSimilarItem> nonNullFetched = fetched == null
             ? List.of()
             : fetched.stream().filter(item -> item != null).toList();
@@ -111,7 +115,7 @@ public class RecommendationService {
             boundedValidCandidates
         );
 
-        // Phase B (REQUIRES_NEW): pure delete+insert with no external calls.
+        // Phase B (REQUIRES_NEW): diff-based edge replace with no external calls.
         replaceEdgesInNewTransaction(sourceFilm.getInternalId(), resolvedCandidateInternalIds);
 
         log.debug(
@@ -204,48 +208,31 @@ public class RecommendationService {
             return List.of();
         }
 
-        // Deduplicate by internalId to keep insertion idempotent and stable.
-        Set<Long> seenInternalIds = new LinkedHashSet<>();
-        List<Long> resolvedInternalIds = new ArrayList<>(boundedValidCandidates.size());
+        Map<Long, Long> internalIdsByTmdbId;
+        try {
+            internalIdsByTmdbId = filmService.resolveFilmIdsFromTmdbSnapshots(type, boundedValidCandidates);
+        } catch (RuntimeException ex) {
+            // Candidate resolution failing should not abort the whole source film sync.
+            log.warn(
+                    "Skipping recommendation candidates; failed to resolve Film rows sourceInternalId={} sourceTmdbId={} type={} candidates={}",
+                    sourceFilmInternalId,
+                    sourceTmdbId,
+                    type,
+                    boundedValidCandidates.size(),
+                    ex
+            );
+            return List.of();
+        }
 
+        // Deduplicate by internalId and keep TMDB order so the edge set is stable.
+        Set<Long> resolvedInternalIds = new LinkedHashSet<>();
         for (TmdbSimilarItem candidate : boundedValidCandidates) {
-            if (candidate == null || candidate.tmdbId() == null) {
-                continue;
-            }
-
-            try {
-                Film candidateFilm = filmService.getOrCreateFilmFromTmdbSnapshot(
-                        candidate.tmdbId(),
-                        type,
-                        candidate.title(),
-                        candidate.dateValue(),
-                        candidate.backgroundImg(),
-                        candidate.voteAverage(),
-                        candidate.originalLanguage()
-                );
-
-                Long candidateInternalId = candidateFilm != null ? candidateFilm.getInternalId() : null;
-                if (candidateInternalId == null || candidateInternalId.equals(sourceFilmInternalId)) {
-                    continue;
-                }
-
-                if (seenInternalIds.add(candidateInternalId)) {
-                    resolvedInternalIds.add(candidateInternalId);
-                }
-            } catch (RuntimeException ex) {
-                // Per-candidate failure should not abort the whole source film sync.
-                log.warn(
-                        "Skipping recommendation candidate; failed to resolve Film row sourceInternalId={} sourceTmdbId={} candidateTmdbId={} type={}",
-                        sourceFilmInternalId,
-                        sourceTmdbId,
-                        candidate.tmdbId(),
-                        type,
-                        ex
-                );
+            Long candidateInternalId = candidate == null ? null : internalIdsByTmdbId.get(candidate.tmdbId());
+            if (candidateInternalId != null && !candidateInternalId.equals(sourceFilmInternalId)) {
+                resolvedInternalIds.add(candidateInternalId);
             }
         }
-
-        return resolvedInternalIds;
+        return List.copyOf(resolvedInternalIds);
     }
 
     private void replaceEdgesInNewTransaction(Long sourceFilmInternalId, List<Long> candidateInternalIds) {
@@ -254,27 +241,36 @@ public class RecommendationService {
         );
         requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
 
-        requiresNew.executeWithoutResult(status -> {
-            recommendationRepository.deleteAllByFilmId(sourceFilmInternalId);
-
-            if (candidateInternalIds == null || candidateInternalIds.isEmpty()) {
-                return;
-            }
-
-            List<Recommendation> edgesToInsert = new ArrayList<>(candidateInternalIds.size());
+        Set<Long> nextTargets = new LinkedHashSet<>();
+        if (candidateInternalIds != null) {
             for (Long candidateInternalId : candidateInternalIds) {
-                if (candidateInternalId == null || candidateInternalId.equals(sourceFilmInternalId)) {
-                    continue;
+                if (candidateInternalId != null && !candidateInternalId.equals(sourceFilmInternalId)) {
+                    nextTargets.add(candidateInternalId);
                 }
-                edgesToInsert.add(Recommendation.builder()
-                        .id(new RecommendationId(sourceFilmInternalId, candidateInternalId))
-                        .build());
             }
+        }
 
-            if (!edgesToInsert.isEmpty()) {
-                recommendationRepository.saveAll(edgesToInsert);
-            }
+        // Diff against the stored edges so unchanged edges (the common case on a refresh) are not
+        // rewritten and keep their ingested_at.
+        Set<Long> previousTargets = requiresNew.execute(status -> {
+            Set<Long> previous = recommendationRepository.findRecommendedFilmIdsByFilmIds(Set.of(sourceFilmInternalId));
+
+            Set<Long> removed = new LinkedHashSet<>(previous);
+            removed.removeAll(nextTargets);
+            Set<Long> added = new LinkedHashSet<>(nextTargets);
+            added.removeAll(previous);
+
+            recommendationBulkRepository.deleteEdges(sourceFilmInternalId, removed);
+            recommendationBulkRepository.insertEdgesIfAbsent(sourceFilmInternalId, added, Instant.now());
+            return previous;
         });
+
+        // Targets gained or lost this source's watchlist users; rescore their queued tasks.
+        Set<Long> affectedTargets = new LinkedHashSet<>(nextTargets);
+        if (previousTargets != null) {
+            affectedTargets.addAll(previousTargets);
+        }
+        syncDemandService.refreshFilms(affectedTargets);
     }
 
     private LocalBudgetDeferException localBudgetDefer(String errorCode, String message) {
@@ -3,11 +3,16 @@ package com.Backend.services.recommendation_service.snapshot.service;
 import com.Backend.services.recommendation_service.metrics.RecommendationMetrics;
 import com.Backend.services.recommendation_service.snapshot.model.UserRecomputeTask;
 import com.Backend.services.recommendation_service.snapshot.repository.UserRecomputeTaskRepository;
+import com.Backend.services.sync_service.wakeup.IdleBackoff;
+import com.Backend.services.sync_service.wakeup.WorkQueue;
+import com.Backend.services.sync_service.wakeup.WorkWakeupChannel;
 import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,6 +31,10 @@ public class RecommendationSnapshotScheduler {
     private final RecommendationSnapshotRecomputeService recomputeService;
     private final RecommendationMetrics metrics;
     private final PlatformTransactionManager transactionManager;
+    private final WorkWakeupChannel wakeupChannel;
+    private final ReentrantLock pollLock = new ReentrantLock();
+    private volatile boolean rerunRequested;
+    private IdleBackoff idleBackoff;
 
     @Value("${recommendation.recompute.scheduler.max-users-per-tick:10}")
     private int maxUsersPerTick;
@@ -36,24 +45,84 @@ public class RecommendationSnapshotScheduler {
     @Value("${recommendation.recompute.scheduler.max-attempts:10}")
     private int maxAttempts;
 
+    @Value("${recommendation.recompute.scheduler.fixed-delay-ms:5000}")
+    private long pollDelayMs;
+
+    @Value("${recommendation.recompute.scheduler.max-idle-delay-ms:60000}")
+    private long maxIdleDelayMs;
+
+    @PostConstruct
+    void registerWakeup() {
+        idleBackoff = wakeupChannel.isEnabled()
+                ? new IdleBackoff(Duration.ofMillis(pollDelayMs), Duration.ofMillis(maxIdleDelayMs))
+                : new IdleBackoff(Duration.ZERO, Duration.ZERO);
+        wakeupChannel.register(WorkQueue.USER_RECOMPUTE, () -> {
+            if (runDueRecomputeTasks() > 0) {
+                idleBackoff.onWork();
+            }
+        });
+    }
+
+    /**
+     * Safety-net poll; recompute tasks normally start from a {@link WorkQueue#USER_RECOMPUTE}
+     * wakeup at their scheduled time, so idle polls back off up to
+     * {@code recommendation.recompute.scheduler.max-idle-delay-ms}.
+     */
     @Scheduled(fixedDelayString = "${recommendation.recompute.scheduler.fixed-delay-ms:5000}")
     public void processDueRecomputeTasks() {
+        Instant now = Instant.now();
+        if (!idleBackoff.isPollDue(now)) {
+            return;
+        }
+        if (runDueRecomputeTasks() > 0) {
+            idleBackoff.onWork();
+        } else {
+            idleBackoff.onIdle(now);
+        }
+    }
+
+    private int runDueRecomputeTasks() {
+        int processed = 0;
+        do {
+            if (!pollLock.tryLock()) {
+                rerunRequested = true;
+                return processed;
+            }
+            rerunRequested = false;
+            try {
+                processed += processClaimedBatch();
+            } finally {
+                pollLock.unlock();
+            }
+        } while (rerunRequested);
+        return processed;
+    }
+
+    private int processClaimedBatch() {
         int limit = Math.max(0, maxUsersPerTick);
         if (limit == 0) {
-            return;
+            return 0;
         }
 
         List<UserRecomputeTask> due = claimDueTasks(limit);
         if (due.isEmpty()) {
-            return;
+            return 0;
+        }
+        if (due.size() >= limit && wakeupChannel.isEnabled()) {
+            // A full batch likely left more due work; drain it now rather than on the next poll.
+            rerunRequested = true;
         }
 
+        Instant startedAt = Instant.now();
         for (UserRecomputeTask task : due) {
             if (task == null || task.getUserId() == null) {
                 continue;
             }
 
             Long userId = Objects.requireNonNull(task.getUserId(), "userId");
+            if (task.getScheduledAt() != null) {
+                metrics.recordSnapshotRecomputeStartLatency(Duration.between(task.getScheduledAt(), startedAt));
+            }
 
             Timer.Sample sample = metrics.startSnapshotRecomputeTimer();
             boolean success = false;
@@ -91,6 +160,7 @@ public class RecommendationSnapshotScheduler {
                 metrics.stopSnapshotRecomputeTimer(sample, success);
             }
         }
+        return due.size();
     }
 
     @Scheduled(fixedDelayString = "${recommendation.metrics.queue-depth-interval-ms:30000}")
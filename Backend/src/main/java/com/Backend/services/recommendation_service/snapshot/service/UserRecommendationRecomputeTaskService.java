@@ -3,6 +3,8 @@ package com.Backend.services.recommendation_service.snapshot.service;
 import com.Backend.services.recommendation_service.snapshot.model.RecommendationRecomputeTriggeredBy;
 import com.Backend.services.recommendation_service.snapshot.model.UserRecomputeTask;
 import com.Backend.services.recommendation_service.snapshot.repository.UserRecomputeTaskRepository;
+import com.Backend.services.sync_service.wakeup.WorkQueue;
+import com.Backend.services.sync_service.wakeup.WorkWakeupChannel;
 import java.time.Instant;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +18,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserRecommendationRecomputeTaskService {
 
     private final UserRecomputeTaskRepository userRecomputeTaskRepository;
+    private final WorkWakeupChannel wakeupChannel;
 
     @Value("${recommendation.recompute.debounce-seconds:30}")
     private int debounceSeconds;
@@ -58,6 +61,7 @@ public class UserRecommendationRecomputeTaskService {
                 concurrentTask.setTriggeredBy(triggeredBy);
                 userRecomputeTaskRepository.save(concurrentTask);
             }
+            wakeupChannel.signal(WorkQueue.USER_RECOMPUTE, desired);
             return;
         }
 
@@ -69,6 +73,7 @@ public class UserRecommendationRecomputeTaskService {
         existing.setTriggeredBy(triggeredBy);
 
         userRecomputeTaskRepository.save(existing);
+        wakeupChannel.signal(WorkQueue.USER_RECOMPUTE, next);
     }
 
     private int resolveDebounceSeconds(RecommendationRecomputeTriggeredBy triggeredBy) {
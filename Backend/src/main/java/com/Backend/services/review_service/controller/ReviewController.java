@@ -1,5 +1,7 @@
 package com.Backend.services.review_service.controller;
 
+import com.Backend.cache.CachedJsonResponse;
+import com.Backend.cache.JsonResponseCache;
 import com.Backend.exception.ErrorRes;
 import com.Backend.services.FilmType;
 import com.Backend.services.review_service.model.CreateReplyRequest;
@@ -14,7 +16,6 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Page;
 
@@ -31,8 +32,10 @@ import java.util.List;
 public class ReviewController {
 
     private final ReviewService reviewService;
+    private final JsonResponseCache jsonResponseCache;
 
     @GetMapping()
+    @CachedJsonResponse
     @Operation(summary = "Get reviews by film")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Reviews returned successfully"),
@@ -51,10 +54,11 @@ public class ReviewController {
 
          List<ReviewsDTO> reviews = reviewService.getReviewsByFilmId(filmId, type, seasonNumber, episodeNumber, page, user);
          Long totalElements = reviewService.countReviewsByFilmIdNoPage(filmId, type, seasonNumber, episodeNumber);
-         return ResponseEntity.ok(new PageImpl<>(reviews, PageRequest.of(page, 10), totalElements));
+         return ResponseEntity.ok(jsonResponseCache.page(reviews, PageRequest.of(page, 10), totalElements));
     }
 
     @GetMapping("/reply")
+    @CachedJsonResponse
     @Operation(summary = "Get replies by review")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Replies returned successfully"),
@@ -68,10 +72,11 @@ public class ReviewController {
             @AuthenticationPrincipal User user){
         List<ReviewsDTO> replies = reviewService.getRepliesByReviewId(reviewId, page, user);
         Long totalElements = reviewService.countRepliesByReviewIdNoPage(reviewId);
-        return ResponseEntity.ok(new PageImpl<>(replies, PageRequest.of(page, 20), totalElements)); 
+        return ResponseEntity.ok(jsonResponseCache.page(replies, PageRequest.of(page, 20), totalElements));
     }
 
     @GetMapping("/user")
+    @CachedJsonResponse
     @Operation(summary = "Get current user reviews")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User reviews returned successfully"),
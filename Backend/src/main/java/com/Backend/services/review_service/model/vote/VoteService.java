@@ -1,11 +1,11 @@
 package com.Backend.services.review_service.model.vote;
 
+import com.Backend.cache.CacheScopes;
 import com.Backend.services.review_service.model.Review;
 import com.Backend.services.review_service.repository.ReviewRepository;
 import com.Backend.services.user_service.model.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -18,8 +18,9 @@ import java.util.List;
 public class VoteService {
     private final VoteRepository voteRepository;
     private final ReviewRepository reviewRepository;
+    private final CacheScopes cacheScopes;
 
-    @Cacheable(value = "userVotes", key = "{ (#user != null ? #user.id : 0), #reviewIds }")
+    @Cacheable(value = "userVotes", key = "@cacheScopes.key('user:' + (#user != null ? #user.id : 0) + ':votes', #reviewIds)")
     public List<SimpleVoteDTO> voteByUserAndReviewIds(User user, List<Long> reviewIds) {
         Long userId = (user != null ? user.getId() : null);
         log.info("Fetching votes for userId={}, reviewIds.size={} ", userId, (reviewIds != null ? reviewIds.size() : 0));
@@ -35,7 +36,6 @@ public class VoteService {
     }
 
     @Transactional
-    @CacheEvict(value = {"userVotes", "filmReviews", "reviewReplies", "userReviews"}, allEntries = true)
     public void updateVote(VoteStateRequest request, User user) {
         Long userId = (user != null ? user.getId() : null);
         Long reviewId = request != null ? request.getReviewId() : null;
@@ -61,6 +61,7 @@ public class VoteService {
             voteRepository.save(vote);
             review.setScore((review.getScore() == null ? 0L : review.getScore()) + newValue);
             reviewRepository.save(review);
+            invalidateVoteScopes(review, user);
             log.info("Created new vote (value={}) for userId={} on reviewId={}, newScore={} ", newValue, userId, reviewId, review.getScore());
             return;
         }
@@ -76,6 +77,7 @@ public class VoteService {
             review.setScore((review.getScore() == null ? 0L : review.getScore()) - oldValue);
             reviewRepository.save(review);
             voteRepository.delete(existingVote);
+            invalidateVoteScopes(review, user);
             log.info("Removed vote (oldValue={}) for userId={} on reviewId={}, newScore={}", oldValue, userId, reviewId, review.getScore());
             return;
         }
@@ -85,7 +87,19 @@ public class VoteService {
         voteRepository.save(existingVote);
         review.setScore((review.getScore() == null ? 0L : review.getScore()) + delta);
         reviewRepository.save(review);
+        invalidateVoteScopes(review, user);
         log.info("Updated vote from {} to {} for userId={} on reviewId={}, delta={}, newScore={}", oldValue, newValue, userId, reviewId, delta, review.getScore());
     }
 
+    // A score change shows wherever the review is listed: its film, its parent's replies and its
+    // author's reviews. The voter's own vote lookups change too.
+    private void invalidateVoteScopes(Review review, User voter) {
+        cacheScopes.invalidate(
+                CacheScopes.filmScope(review.getType(), review.getFilmId()),
+                CacheScopes.userScope(review.getUser().getId(), "reviews"),
+                CacheScopes.userScope(voter.getId(), "votes"));
+        if (review.getAnswerTo() != null) {
+            cacheScopes.invalidate(CacheScopes.reviewScope(review.getAnswerTo().getId()));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.Backend.services.review_service.service;
 
+import com.Backend.cache.CacheScopes;
 import com.Backend.services.FilmType;
 import com.Backend.services.review_service.model.*;
 import com.Backend.services.review_service.model.vote.SimpleVoteDTO;
@@ -18,7 +19,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Caching;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -32,8 +32,9 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final VoteRepository voteRepository;
     private final VoteService voteService;
+    private final CacheScopes cacheScopes;
 
-    @Cacheable(value = "filmReviews", key = "{#filmId, #filmType, #seasonNumber, #episodeNumber, #page, (#user != null ? #user.id : 0)}")
+    @Cacheable(value = "filmReviews", key = "@cacheScopes.key('film:' + #filmType + ':' + #filmId, #seasonNumber, #episodeNumber, #page, (#user != null ? #user.id : 0))", sync = true)
     public List<ReviewsDTO> getReviewsByFilmId(Long filmId, FilmType filmType, Integer seasonNumber, Integer episodeNumber, int page, User user) {
         log.info("Fetching reviews for filmId={}, type={}, season={}, episode={}, page={}", filmId, filmType, seasonNumber, episodeNumber, page);
         Pageable pageable = PageRequest.of(page, 20, Sort.by("createdAt").descending());
@@ -58,7 +59,7 @@ public class ReviewService {
         return handleVoteForReviewsDTO(reviews.getContent(), user);
     }
 
-    @Cacheable(value = "reviewReplies", key = "{#reviewId, #page, (#user != null ? #user.id : 0)}")
+    @Cacheable(value = "reviewReplies", key = "@cacheScopes.key('review:' + #reviewId, #page, (#user != null ? #user.id : 0))")
     public List<ReviewsDTO> getRepliesByReviewId(Long reviewId, int page, User user) {
         log.info("Fetching replies for reviewId={}", reviewId);
         Pageable pageable = PageRequest.of(page, 20, Sort.by("createdAt").descending());
@@ -72,7 +73,7 @@ public class ReviewService {
         return handleVoteForReviewsDTO(reviews.getContent(), user);
     }
 
-    @Cacheable(value = "userReviews", key = "{ (#user != null ? #user.id : 0), #page }")
+    @Cacheable(value = "userReviews", key = "@cacheScopes.key('user:' + (#user != null ? #user.id : 0) + ':reviews', #page)")
     public List<ReviewsDTO> getReviewsByUser(User user, int page) {
         Long userId = (user != null) ? user.getId() : null;
         log.info("Fetching reviews by userId={}, page={}", userId, page);
@@ -83,12 +84,7 @@ public class ReviewService {
         return handleVoteForReviewsDTO(reviews.getContent(), user);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "filmReviews", allEntries = true),
-            @CacheEvict(value = "filmReviewsCount", allEntries = true),
-            @CacheEvict(value = "userReviews", allEntries = true),
-            @CacheEvict(value = "userMeDTO", key = "#user.email")
-    })
+    @CacheEvict(value = "userMeDTO", key = "#user.email")
     @Transactional
     public ReviewsDTO createReview(CreateReviewRequest request, User user) {
         EpisodeMetadata metadata = request.getEpisodeMetadata();
@@ -131,17 +127,13 @@ public class ReviewService {
                 .value(1)
                 .build();
         voteRepository.save(vote);
+        cacheScopes.invalidate(
+                CacheScopes.filmScope(review.getType(), review.getFilmId()),
+                CacheScopes.userScope(userId, "reviews"));
         return ReviewsDTO.fromReview(review, true, false);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "reviewReplies", allEntries = true),
-            @CacheEvict(value = "reviewRepliesCount", allEntries = true),
-            @CacheEvict(value = "filmReviews", allEntries = true),
-            @CacheEvict(value = "filmReviewsCount", allEntries = true),
-            @CacheEvict(value = "userReviews", allEntries = true),
-            @CacheEvict(value = "userMeDTO", key = "#user.email")
-    })
+    @CacheEvict(value = "userMeDTO", key = "#user.email")
     @Transactional
     public ReviewsDTO createReply(CreateReplyRequest request, User user) {
         Long userId = (user != null) ? user.getId() : null;
@@ -171,17 +163,15 @@ public class ReviewService {
                 .value(1)
                 .build();
         voteRepository.save(vote);
+        // The parent's reply count changes too, which shows in its film's listing.
+        cacheScopes.invalidate(
+                CacheScopes.reviewScope(parent.getId()),
+                CacheScopes.filmScope(parent.getType(), parent.getFilmId()),
+                CacheScopes.userScope(userId, "reviews"));
         return ReviewsDTO.fromReview(reply, true, false);
     }
 
-    @Caching(evict = {
-            @CacheEvict(value = "reviewReplies", key = "#reviewId"),
-            @CacheEvict(value = "reviewRepliesCount", key = "#reviewId"),
-            @CacheEvict(value = "filmReviews", allEntries = true),
-            @CacheEvict(value = "filmReviewsCount", allEntries = true),
-            @CacheEvict(value = "userReviews", allEntries = true),
-            @CacheEvict(value = "userMeDTO", key = "#user.email")
-    })
+    @CacheEvict(value = "userMeDTO", key = "#user.email")
     @Transactional
     public void deleteReview(Long reviewId, User user) {
         Long userId = (user != null) ? user.getId() : null;
@@ -199,7 +189,12 @@ public class ReviewService {
         if (review.getAnswerTo() != null) {
             review.getAnswerTo().setReplyCount(review.getAnswerTo().getReplyCount() - 1);
             reviewRepository.save(review.getAnswerTo());
+            cacheScopes.invalidate(CacheScopes.reviewScope(review.getAnswerTo().getId()));
         }
+        cacheScopes.invalidate(
+                CacheScopes.reviewScope(reviewId),
+                CacheScopes.filmScope(review.getType(), review.getFilmId()),
+                CacheScopes.userScope(userId, "reviews"));
         log.info("Deleted reviewId={} by userId={}", reviewId, userId);
     }
 
@@ -229,7 +224,7 @@ public class ReviewService {
                 }).toList();
     }
 
-    @Cacheable(value = "filmReviewsCount", key = "{#filmId, #filmType, #seasonNumber, #episodeNumber}")
+    @Cacheable(value = "filmReviewsCount", key = "@cacheScopes.key('film:' + #filmType + ':' + #filmId, #seasonNumber, #episodeNumber)")
     public long countReviewsByFilmIdNoPage(Long filmId, FilmType filmType, Integer seasonNumber, Integer episodeNumber) {
         if (seasonNumber != null && episodeNumber != null) {
             return reviewRepository.countByFilmIdAndTypeAndSeasonNumberAndEpisodeNumber(filmId, filmType, seasonNumber, episodeNumber);
@@ -242,7 +237,7 @@ public class ReviewService {
         }
     }
 
-    @Cacheable(value = "reviewRepliesCount", key = "#reviewId")
+    @Cacheable(value = "reviewRepliesCount", key = "@cacheScopes.key('review:' + #reviewId)")
     public long countRepliesByReviewIdNoPage(Long reviewId) {
         return reviewRepository.countByAnswerTo_Id(reviewId);
     }
@@ -0,0 +1,261 @@
+package com.Backend.services.sync_service.changes;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.JdbcBatches;
+import com.Backend.services.film_service.model.Film;
+import com.Backend.services.film_service.model.FilmEnrichmentStatus;
+import com.Backend.services.film_service.repository.FilmRepository;
+import com.Backend.services.sync_service.changes.CatalogChangesFeed.ChangesPage;
+import com.Backend.services.sync_service.model.SyncCategory;
+import com.Backend.services.sync_service.model.TmdbChangeCheckpoint;
+import com.Backend.services.sync_service.repository.TmdbChangeCheckpointRepository;
+import com.Backend.services.sync_service.service.FilmSyncTaskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Re-enriches only the films TMDB reports as changed, instead of every film whose enrichment is
+ * older than a fixed TTL.
+ *
+ * <p>Each run reads the {@link CatalogChangesFeed} for each film type from its checkpoint up to now,
+ * intersects the ids with local films in {@code DONE} state, and resets those films and queues an
+ * ENRICHMENT task for them. The checkpoint only advances past a day once that day has been read
+ * and applied in full, so a failed or capped run re-reads the same day; films already reset are no
+ * longer {@code DONE} and are skipped. A day with more pages than {@code max-pages-per-run} is
+ * applied as far as it was read, and the next page is saved with the checkpoint so the following
+ * run continues the day from there.
+ *
+ * <p>The feed only reaches back {@link CatalogChangesFeed#MAX_WINDOW_DAYS} days. As a fallback for
+ * longer outages and for changes the feed misses, a bounded batch of films enriched more than
+ * {@code sync.changes.full-refresh-after-days} ago is refreshed on every run.
+ */
+@Slf4j
+@Service
+public class CatalogChangeRefreshService {
+
+    private static final String METRIC_PREFIX = "sync.changes";
+    private static final int REFRESH_CHUNK_SIZE = 100;
+
+    private final CatalogChangesFeed changesFeed;
+    private final FilmRepository filmRepository;
+    private final TmdbChangeCheckpointRepository checkpointRepository;
+    private final FilmSyncTaskService filmSyncTaskService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration initialLookback;
+    private final Duration fullRefreshAfter;
+    private final int maxPagesPerRun;
+    private final int maxRefreshPerRun;
+    private final int fullRefreshBatchSize;
+    private final Map<FilmType, Counter> feedIdCounters = new EnumMap<>(FilmType.class);
+    private final Counter changedRefreshes;
+    private final Counter staleRefreshes;
+
+    public CatalogChangeRefreshService(
+            CatalogChangesFeed changesFeed,
+            FilmRepository filmRepository,
+            TmdbChangeCheckpointRepository checkpointRepository,
+            FilmSyncTaskService filmSyncTaskService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${sync.changes.enabled:true}") boolean enabled,
+            @Value("${sync.changes.initial-lookback-hours:24}") long initialLookbackHours,
+            @Value("${sync.changes.full-refresh-after-days:90}") long fullRefreshAfterDays,
+            @Value("${sync.changes.max-pages-per-run:200}") int maxPagesPerRun,
+            @Value("${sync.changes.max-refresh-per-run:500}") int maxRefreshPerRun,
+            @Value("${sync.changes.full-refresh-batch-size:50}") int fullRefreshBatchSize) {
+        this.changesFeed = changesFeed;
+        this.filmRepository = filmRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.filmSyncTaskService = filmSyncTaskService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.initialLookback = Duration.ofHours(Math.max(1L, initialLookbackHours));
+        this.fullRefreshAfter = Duration.ofDays(Math.max(1L, fullRefreshAfterDays));
+        this.maxPagesPerRun = Math.max(1, maxPagesPerRun);
+        this.maxRefreshPerRun = Math.max(1, maxRefreshPerRun);
+        this.fullRefreshBatchSize = Math.max(0, fullRefreshBatchSize);
+
+        for (FilmType type : FilmType.values()) {
+            feedIdCounters.put(type, Counter.builder(METRIC_PREFIX + ".feed.ids")
+                    .description("Changed TMDB ids read from the changes feed")
+                    .tag("type", type.name())
+                    .register(meterRegistry));
+        }
+        this.changedRefreshes = Counter.builder(METRIC_PREFIX + ".refreshed")
+                .description("Films queued for re-enrichment by the catalog refresh")
+                .tag("reason", "changed")
+                .register(meterRegistry);
+        this.staleRefreshes = Counter.builder(METRIC_PREFIX + ".refreshed")
+                .description("Films queued for re-enrichment by the catalog refresh")
+                .tag("reason", "stale")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${sync.changes.refresh-interval-ms:3600000}",
+            initialDelayString = "${sync.changes.initial-delay-ms:60000}")
+    public void refreshChangedFilms() {
+        if (!enabled) {
+            return;
+        }
+        for (FilmType type : FilmType.values()) {
+            try {
+                applyChanges(type);
+            } catch (RuntimeException ex) {
+                log.warn("Catalog change refresh failed for type={}; window will be re-read: {}", type, ex.toString());
+            }
+        }
+        try {
+            refreshStaleFilms();
+        } catch (RuntimeException ex) {
+            log.warn("Full-refresh fallback failed: {}", ex.toString());
+        }
+    }
+
+    /**
+     * Applies one type's changes since its checkpoint, one UTC day of the feed at a time, and
+     * returns the number of films queued. The checkpoint advances after each fully applied day, and
+     * records the next page to read when the page budget runs out part way through a day.
+     */
+    private int applyChanges(FilmType type) {
+        Instant now = Instant.now();
+        TmdbChangeCheckpoint saved = checkpointRepository.findById(type).orElse(null);
+        Instant since = saved != null ? saved.getSyncedUntil() : now.minus(initialLookback);
+        int startPage = saved != null ? Math.max(1, saved.getNextPage()) : 1;
+        Instant oldestReadable = LocalDate.ofInstant(now, ZoneOffset.UTC)
+                .minusDays(CatalogChangesFeed.MAX_WINDOW_DAYS - 1L)
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant();
+        if (since.isBefore(oldestReadable)) {
+            // Changes before this are out of the feed's reach; the full-refresh fallback covers them.
+            log.info("Changes feed checkpoint for type={} is older than the feed window; resuming from {}",
+                    type, oldestReadable);
+            since = oldestReadable;
+            startPage = 1;
+        }
+
+        LocalDate today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        int pagesLeft = maxPagesPerRun;
+        int refreshesLeft = maxRefreshPerRun;
+        int queued = 0;
+        for (LocalDate day = LocalDate.ofInstant(since, ZoneOffset.UTC); !day.isAfter(today); day = day.plusDays(1)) {
+            Set<Long> changedTmdbIds = new LinkedHashSet<>();
+            boolean dayComplete = false;
+            int nextPage = startPage;
+            startPage = 1;
+            for (; pagesLeft > 0; pagesLeft--) {
+                ChangesPage changes = changesFeed.fetchChanges(type, day, day, nextPage);
+                changedTmdbIds.addAll(changes.tmdbIds());
+                if (nextPage++ >= changes.totalPages()) {
+                    pagesLeft--;
+                    dayComplete = true;
+                    break;
+                }
+            }
+            feedIdCounters.get(type).increment(changedTmdbIds.size());
+
+            // The feed has no per-id change time, so a change may be as late as the end of the day or
+            // the moment the feed was read. Only films enriched after that are known to reflect it;
+            // films changed today are therefore refreshed again on each run until the day is over.
+            Instant dayEnd = day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            Instant changedUntil = dayEnd.isBefore(now) ? dayEnd : now;
+            List<Long> changedFilms = findFilmsEnrichedBefore(type, changedTmdbIds, changedUntil);
+            boolean capped = changedFilms.size() > refreshesLeft;
+            int dayQueued = queueRefresh(capped ? changedFilms.subList(0, refreshesLeft) : changedFilms);
+            queued += dayQueued;
+            refreshesLeft -= dayQueued;
+            if (capped) {
+                break;
+            }
+            if (!dayComplete) {
+                // Out of pages part way through the day: keep the checkpoint on this day and continue
+                // from the next unread page on the following run.
+                Instant dayStart = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+                saveCheckpoint(type, since.isAfter(dayStart) ? since : dayStart, nextPage);
+                log.info("Changes feed for type={} day={} exceeds the page budget; resuming at page {}",
+                        type, day, nextPage);
+                break;
+            }
+            saveCheckpoint(type, day.equals(today) ? now : day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant(), 1);
+        }
+        changedRefreshes.increment(queued);
+        log.debug("Applied TMDB changes type={} since={} queued={}", type, since, queued);
+        return queued;
+    }
+
+    private int refreshStaleFilms() {
+        if (fullRefreshBatchSize == 0) {
+            return 0;
+        }
+        List<Long> staleFilms = filmRepository.findInternalIdsEnrichedBefore(
+                FilmEnrichmentStatus.DONE,
+                Instant.now().minus(fullRefreshAfter),
+                PageRequest.of(0, fullRefreshBatchSize)
+        );
+        int queued = queueRefresh(staleFilms);
+        staleRefreshes.increment(queued);
+        return queued;
+    }
+
+    private List<Long> findFilmsEnrichedBefore(FilmType type, Set<Long> tmdbIds, Instant enrichedBefore) {
+        List<Long> filmInternalIds = new ArrayList<>();
+        for (List<Long> chunk : JdbcBatches.chunks(tmdbIds)) {
+            filmInternalIds.addAll(filmRepository.findInternalIdsByTypeAndFilmIdsEnrichedBefore(
+                    type,
+                    chunk,
+                    FilmEnrichmentStatus.DONE,
+                    enrichedBefore
+            ));
+        }
+        return filmInternalIds;
+    }
+
+    /**
+     * Resets the films' enrichment state and queues their ENRICHMENT tasks, in transactions of
+     * {@link #REFRESH_CHUNK_SIZE} films, so a film is never left reset without a task.
+     */
+    private int queueRefresh(List<Long> filmInternalIds) {
+        int queued = 0;
+        for (int start = 0; start < filmInternalIds.size(); start += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = filmInternalIds.subList(start, Math.min(filmInternalIds.size(), start + REFRESH_CHUNK_SIZE));
+            Integer chunkQueued = transactionTemplate.execute(status -> {
+                filmRepository.resetEnrichmentForRefresh(chunk, FilmEnrichmentStatus.DONE, FilmEnrichmentStatus.PENDING);
+                int count = 0;
+                for (Film film : filmRepository.findAllById(chunk)) {
+                    filmSyncTaskService.enqueuePendingSync(film, film.getFilmId(), SyncCategory.ENRICHMENT);
+                    count++;
+                }
+                return count;
+            });
+            queued += chunkQueued == null ? 0 : chunkQueued;
+        }
+        return queued;
+    }
+
+    private void saveCheckpoint(FilmType type, Instant syncedUntil, int nextPage) {
+        TmdbChangeCheckpoint checkpoint = checkpointRepository.findById(type)
+                .orElseGet(() -> TmdbChangeCheckpoint.builder().type(type).build());
+        checkpoint.setSyncedUntil(syncedUntil);
+        checkpoint.setNextPage(nextPage);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+}
@@ -0,0 +1,33 @@
+package com.Backend.services.sync_service.changes;
+
+import com.Backend.services.FilmType;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Source of the TMDB ids whose data changed in a date window. Backed by TMDB's changes endpoints
+ * in production; tests substitute a local feed.
+ */
+public interface CatalogChangesFeed {
+
+    /** Longest window, in days, a single request may cover. */
+    int MAX_WINDOW_DAYS = 14;
+
+    /**
+     * Returns page {@code page} (1-based) of the ids of {@code type} changed between
+     * {@code startDate} and {@code endDate}, inclusive.
+     */
+    ChangesPage fetchChanges(FilmType type, LocalDate startDate, LocalDate endDate, int page);
+
+    record ChangesPage(List<Long> tmdbIds, int totalPages) {
+
+        public ChangesPage {
+            tmdbIds = tmdbIds == null ? List.of() : List.copyOf(tmdbIds);
+            totalPages = Math.max(0, totalPages);
+        }
+
+        public static ChangesPage empty() {
+            return new ChangesPage(List.of(), 0);
+        }
+    }
+}
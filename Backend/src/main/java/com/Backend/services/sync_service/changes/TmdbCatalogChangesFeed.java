@@ -0,0 +1,32 @@
+package com.Backend.services.sync_service.changes;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.film_service.model.TmdbChangesResponse;
+import com.Backend.services.film_service.service.TmdbClient;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class TmdbCatalogChangesFeed implements CatalogChangesFeed {
+
+    private final TmdbClient tmdbClient;
+
+    @Override
+    public ChangesPage fetchChanges(FilmType type, LocalDate startDate, LocalDate endDate, int page) {
+        TmdbChangesResponse response = tmdbClient.fetchChanges(type, startDate, endDate, page);
+        if (response == null || response.getResults() == null) {
+            return ChangesPage.empty();
+        }
+        List<Long> tmdbIds = response.getResults().stream()
+                .filter(Objects::nonNull)
+                .map(TmdbChangesResponse.ChangeItem::getId)
+                .filter(Objects::nonNull)
+                .toList();
+        int totalPages = response.getTotalPages() == null ? 0 : response.getTotalPages();
+        return new ChangesPage(tmdbIds, totalPages);
+    }
+}
@@ -4,11 +4,15 @@ import com.Backend.services.sync_service.model.LocalBudgetDeferException;
 import com.Backend.services.sync_service.model.SyncCategory;
 import com.Backend.services.sync_service.model.SyncRetryDecision;
 import com.Backend.services.sync_service.model.SyncTask;
+import com.Backend.services.sync_service.model.SyncTaskStatus;
 import com.Backend.services.sync_service.repository.SyncTaskRepository;
 import com.Backend.services.sync_service.service.SyncRetryPolicy;
+import com.Backend.services.sync_service.wakeup.WorkQueue;
+import com.Backend.services.sync_service.wakeup.WorkWakeupChannel;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.Locale;
 import java.util.Objects;
 import lombok.RequiredArgsConstructor;
@@ -29,6 +33,7 @@ public class SyncTaskHelper {
     private final SyncRetryPolicy syncRetryPolicy;
     private final SyncTaskRepository syncTaskRepository;
     private final MeterRegistry meterRegistry;
+    private final WorkWakeupChannel wakeupChannel;
 
     @Value("${sync.retry.max-attempts:8}")
     private int defaultMaxAttempts;
@@ -71,7 +76,30 @@ public class SyncTaskHelper {
         };
     }
 
+    /**
+     * True while a worker holds an unexpired RUNNING lease on the task. Enqueue paths leave such
+     * tasks alone; resetting them to PENDING would let a second node claim the same work.
+     */
+    public boolean isLeasedByWorker(SyncTask task) {
+        return task != null
+                && task.getStatus() == SyncTaskStatus.RUNNING
+                && task.getLeaseExpiresAt() != null
+                && task.getLeaseExpiresAt().isAfter(Instant.now());
+    }
+
+    /**
+     * Saves a task, merging into the existing row if a concurrent enqueue inserted it first, and
+     * wakes the worker pool when the saved task is queued.
+     */
     public SyncTask saveTaskWithConflictRecovery(SyncTask task) {
+        SyncTask saved = saveOrMerge(task);
+        if (saved.getStatus() == SyncTaskStatus.PENDING || saved.getStatus() == SyncTaskStatus.RETRYING) {
+            wakeupChannel.signal(WorkQueue.SYNC_TASK, saved.getNextRetryAt());
+        }
+        return saved;
+    }
+
+    private SyncTask saveOrMerge(SyncTask task) {
         try {
             return syncTaskRepository.save(Objects.requireNonNull(task, "sync task"));
         } catch (DataIntegrityViolationException ex) {
@@ -93,6 +121,7 @@ public class SyncTaskHelper {
             existing.setNextRetryAt(task.getNextRetryAt());
             existing.setLastErrorCode(task.getLastErrorCode());
             existing.setLastErrorMessage(task.getLastErrorMessage());
+            existing.setDemandScore(task.getDemandScore());
 
             log.debug(
                     "Recovered sync_task save conflict for category={} filmInternalId={} tmdbId={}",
@@ -7,7 +7,6 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import java.time.Instant;
@@ -16,6 +15,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
 
 @Entity
 @Data
@@ -23,11 +23,9 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
+// Runnable-only partial indexes are defined in the Flyway migrations; JPA cannot express them.
 @Table(
     name = "sync_task",
-    indexes = {
-        @Index(name = "idx_sync_task_status_next_retry", columnList = "status, next_retry_at")
-    },
     uniqueConstraints = {
         @UniqueConstraint(name = "uq_sync_task_film_category", columnNames = {"film_internal_id", "sync_category"})
     }
@@ -70,4 +68,19 @@ public class SyncTask {
 
     @Column(name = "last_error_message", length = 1000)
     private String lastErrorMessage;
+
+    @Column(name = "lease_owner", length = 128)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private Instant leaseExpiresAt;
+
+    @Column(name = "demand_score", nullable = false)
+    @Builder.Default
+    private Integer demandScore = 0;
+
+    // Settled rows are archived to sync_task_history once this is older than the compactor's grace period.
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
 }
@@ -0,0 +1,71 @@
+package com.Backend.services.sync_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/** A settled sync task moved out of {@code sync_task} by the compactor; keeps the task's original id. */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(
+    name = "sync_task_history",
+    indexes = {
+        @Index(name = "idx_sync_task_history_film", columnList = "film_internal_id, sync_category"),
+        @Index(name = "idx_sync_task_history_archived_at", columnList = "archived_at")
+    }
+)
+public class SyncTaskHistory {
+
+    @Id
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    @Column(name = "film_internal_id", nullable = false)
+    private Long filmInternalId;
+
+    @Column(name = "tmdb_id", nullable = false)
+    private Long tmdbId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "sync_category", nullable = false)
+    private SyncCategory syncCategory;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private SyncTaskStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "max_attempts", nullable = false)
+    private Integer maxAttempts;
+
+    @Column(name = "last_error_code", length = 64)
+    private String lastErrorCode;
+
+    @Column(name = "last_error_message", length = 1000)
+    private String lastErrorMessage;
+
+    @Column(name = "settled_at")
+    private Instant settledAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+}
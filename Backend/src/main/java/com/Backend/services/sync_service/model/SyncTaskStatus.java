@@ -3,6 +3,7 @@ package com.Backend.services.sync_service.model;
 public enum SyncTaskStatus {
     PENDING,
     RETRYING,
+    RUNNING,
     SUCCEEDED,
     FAILED_PERMANENT
 }
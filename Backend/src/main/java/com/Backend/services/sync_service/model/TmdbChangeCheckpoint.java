@@ -0,0 +1,46 @@
+package com.Backend.services.sync_service.model;
+
+import com.Backend.services.FilmType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * How far the TMDB changes feed of one film type has been applied to the local catalog, down to
+ * the page within a day that was only partly read.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@Table(name = "tmdb_change_checkpoint")
+public class TmdbChangeCheckpoint {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 16)
+    @EqualsAndHashCode.Include
+    private FilmType type;
+
+    @Column(name = "synced_until", nullable = false)
+    private Instant syncedUntil;
+
+    /** First page of the day holding {@code syncedUntil} that has not been applied yet. */
+    @Column(name = "next_page", nullable = false)
+    @Builder.Default
+    private Integer nextPage = 1;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
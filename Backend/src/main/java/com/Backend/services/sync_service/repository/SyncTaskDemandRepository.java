@@ -0,0 +1,103 @@
+package com.Backend.services.sync_service.repository;
+
+import com.Backend.services.JdbcBatches;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Set-based reads and writes for {@code sync_task.demand_score}.
+ *
+ * <p>A film's demand is the number of distinct users whose watchlist holds the film itself or a
+ * film with a recommendation edge to it, plus {@code activeUserWeight} for each of those users
+ * active since {@code activeSince}. {@code watchlist_items.watchlist_id} is the owning user's id.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyncTaskDemandRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Returns the demand of each given film; films no watchlist reaches are absent from the map. */
+    public Map<Long, Integer> computeDemand(Collection<Long> filmInternalIds, Instant activeSince, int activeUserWeight) {
+        Map<Long, Integer> demand = new HashMap<>();
+        if (filmInternalIds == null || filmInternalIds.isEmpty()) {
+            return demand;
+        }
+        List<Long> distinctIds = filmInternalIds.stream().filter(Objects::nonNull).distinct().toList();
+        for (List<Long> chunk : JdbcBatches.chunks(distinctIds)) {
+            String placeholders = JdbcBatches.placeholders(chunk.size());
+            String sql = """
+                    select e.target_id,
+                           count(distinct wi.watchlist_id) as reach,
+                           count(distinct case when s.updated_at >= ? then wi.watchlist_id end) as active
+                    from (
+                        select r.recommended_film_id as target_id, r.film_id as source_id
+                        from recommendation r
+                        where r.recommended_film_id in (%1$s)
+                        union all
+                        select f.internal_id as target_id, f.internal_id as source_id
+                        from film f
+                        where f.internal_id in (%1$s)
+                    ) e
+                    join watchlist_items wi on wi.internal_film_id = e.source_id
+                    left join user_recommendation_snapshot_state s on s.user_id = wi.watchlist_id
+                    group by e.target_id
+                    """.formatted(placeholders);
+
+            List<Object> args = new ArrayList<>(chunk.size() * 2 + 1);
+            args.add(Timestamp.from(activeSince));
+            args.addAll(chunk);
+            args.addAll(chunk);
+            jdbcTemplate.query(sql, rs -> {
+                long reach = rs.getLong("reach");
+                long active = rs.getLong("active");
+                long score = reach + Math.max(0, activeUserWeight) * active;
+                demand.put(rs.getLong("target_id"), (int) Math.min(Integer.MAX_VALUE, score));
+            }, args.toArray());
+        }
+        return demand;
+    }
+
+    /**
+     * Writes new scores to the due (PENDING/RETRYING) tasks of the given films in one JDBC batch.
+     * Films missing from {@code demandByFilm} are reset to zero; rows already holding the score and
+     * tasks held by a worker are not touched.
+     */
+    public void applyDemand(Collection<Long> filmInternalIds, Map<Long, Integer> demandByFilm) {
+        if (filmInternalIds == null || filmInternalIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>(filmInternalIds.size());
+        for (Long filmInternalId : filmInternalIds) {
+            int score = demandByFilm.getOrDefault(filmInternalId, 0);
+            args.add(new Object[] {score, filmInternalId, score});
+        }
+        jdbcTemplate.batchUpdate("""
+                update sync_task set demand_score = ?
+                 where film_internal_id = ?
+                   and status in ('PENDING', 'RETRYING')
+                   and demand_score <> ?
+                """, args);
+    }
+
+    /** Keyset page over the films that currently have a due task, in id order. */
+    public List<Long> findDueFilmIdsAfter(long afterFilmInternalId, int limit) {
+        return jdbcTemplate.queryForList("""
+                select distinct film_internal_id
+                from sync_task
+                where status in ('PENDING', 'RETRYING')
+                  and film_internal_id > ?
+                order by film_internal_id
+                limit ?
+                """, Long.class, afterFilmInternalId, limit);
+    }
+}
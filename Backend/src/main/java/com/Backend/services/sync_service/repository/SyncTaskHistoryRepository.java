@@ -0,0 +1,92 @@
+package com.Backend.services.sync_service.repository;
+
+import com.Backend.services.JdbcBatches;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Moves settled {@code sync_task} rows to {@code sync_task_history} and trims the history.
+ *
+ * <p>Each call handles at most {@code limit} rows, selected through the partial index on settled
+ * rows and locked with {@code for update skip locked}, so concurrent compactors take disjoint
+ * batches. Callers keep {@code limit} within {@link JdbcBatches#MAX_ROWS_PER_STATEMENT} so the
+ * selected ids fit one {@code IN} list. Must run inside a transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SyncTaskHistoryRepository {
+
+    private static final String SETTLED_STATUSES = "('SUCCEEDED', 'FAILED_PERMANENT')";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** Archives up to {@code limit} tasks settled before {@code settledBefore}; returns the rows moved. */
+    public int archiveSettledTasks(Instant settledBefore, Instant archivedAt, int limit) {
+        List<Long> ids = jdbcTemplate.queryForList("""
+                select id from sync_task
+                where status in %s
+                  and updated_at < ?
+                order by updated_at
+                limit ?
+                for update skip locked
+                """.formatted(SETTLED_STATUSES), Long.class, Timestamp.from(settledBefore), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = JdbcBatches.placeholders(ids.size());
+        Object[] insertArgs = new Object[ids.size() + 1];
+        insertArgs[0] = Timestamp.from(archivedAt);
+        for (int i = 0; i < ids.size(); i++) {
+            insertArgs[i + 1] = ids.get(i);
+        }
+        jdbcTemplate.update("""
+                insert into sync_task_history (id, film_internal_id, tmdb_id, user_id, sync_category, status,
+                                               attempts, max_attempts, last_error_code, last_error_message,
+                                               settled_at, archived_at)
+                select id, film_internal_id, tmdb_id, user_id, sync_category, status,
+                       attempts, max_attempts, last_error_code, last_error_message,
+                       updated_at, ?
+                from sync_task
+                where id in (%s)
+                """.formatted(placeholders), insertArgs);
+        return jdbcTemplate.update(
+                "delete from sync_task where id in (%s)".formatted(placeholders),
+                ids.toArray());
+    }
+
+    /** Deletes up to {@code limit} history rows archived before {@code archivedBefore}. */
+    public int purgeHistory(Instant archivedBefore, int limit) {
+        return jdbcTemplate.update("""
+                delete from sync_task_history
+                where id in (
+                    select id from sync_task_history
+                    where archived_at < ?
+                    order by archived_at
+                    limit ?
+                )
+                """, Timestamp.from(archivedBefore), limit);
+    }
+
+    /**
+     * Row count of {@code table} from the planner's statistics on PostgreSQL, so sampling does not
+     * scan the table; other databases (the H2 test profile) count exactly.
+     */
+    public long estimateRowCount(String table) {
+        Boolean postgres = jdbcTemplate.execute(
+                (ConnectionCallback<Boolean>) connection -> connection.isWrapperFor(PGConnection.class));
+        if (Boolean.TRUE.equals(postgres)) {
+            Long estimate = jdbcTemplate.queryForObject(
+                    "select reltuples::bigint from pg_class where oid = to_regclass(?)", Long.class, table);
+            // reltuples is -1 until the table is first vacuumed or analyzed.
+            return estimate == null ? 0L : Math.max(0L, estimate);
+        }
+        Long count = jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+        return count == null ? 0L : count;
+    }
+}
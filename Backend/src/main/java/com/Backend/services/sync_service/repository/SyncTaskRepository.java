@@ -2,20 +2,111 @@ package com.Backend.services.sync_service.repository;
 
 import com.Backend.services.sync_service.model.SyncCategory;
 import com.Backend.services.sync_service.model.SyncTask;
-import com.Backend.services.sync_service.model.SyncTaskStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface SyncTaskRepository extends JpaRepository<SyncTask, Long> {
+    // jakarta.persistence.lock.timeout of -2 is Hibernate's LockOptions.SKIP_LOCKED.
+    String SKIP_LOCKED = "-2";
+
     Optional<SyncTask> findByFilmInternalIdAndSyncCategory(Long filmInternalId, SyncCategory syncCategory);
 
-    List<SyncTask> findTop50ByStatusInAndNextRetryAtLessThanEqualOrderByNextRetryAtAsc(
-            Collection<SyncTaskStatus> statuses,
-            Instant nextRetryAt
+    /**
+     * Locks due tasks for claiming, skipping rows another node has already locked, so concurrent
+     * claimers each get a disjoint batch. Highest demand goes first, then the longest-waiting task.
+     * Must run inside the transaction that marks them RUNNING.
+     *
+     * <p>Runnable statuses are literals rather than parameters here and below, so PostgreSQL can
+     * match the partial indexes on {@code status in ('PENDING', 'RETRYING')} in cached plans too.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("""
+            select t from SyncTask t
+            where t.status in (com.Backend.services.sync_service.model.SyncTaskStatus.PENDING,
+                               com.Backend.services.sync_service.model.SyncTaskStatus.RETRYING)
+              and t.nextRetryAt <= :now
+              and t.syncCategory in :categories
+            order by t.demandScore desc, t.nextRetryAt asc
+            """)
+    List<SyncTask> findDueForClaim(
+            @Param("categories") Collection<SyncCategory> categories,
+            @Param("now") Instant now,
+            Pageable pageable
     );
 
-    long countByStatusIn(Collection<SyncTaskStatus> statuses);
+    /**
+     * Returns RUNNING tasks whose lease has expired to RETRYING. The lost run counts as an attempt
+     * so a task that keeps killing its worker still reaches its attempt cap.
+     */
+    @Modifying
+    @Query("""
+            update SyncTask t
+               set t.status = com.Backend.services.sync_service.model.SyncTaskStatus.RETRYING,
+                   t.attempts = t.attempts + 1,
+                   t.nextRetryAt = :now,
+                   t.leaseOwner = null,
+                   t.leaseExpiresAt = null,
+                   t.lastErrorCode = 'LEASE_EXPIRED',
+                   t.lastErrorMessage = 'Worker lease expired before the task completed'
+             where t.status = com.Backend.services.sync_service.model.SyncTaskStatus.RUNNING
+               and t.leaseExpiresAt < :now
+            """)
+    int reclaimExpiredLeases(@Param("now") Instant now);
+
+    /**
+     * Drops this node's lease once it is done with a task. A task still RUNNING (never started,
+     * or not settled by the run) goes back to RETRYING; a settled status is kept.
+     */
+    @Modifying
+    @Query("""
+            update SyncTask t
+               set t.status = case
+                       when t.status = com.Backend.services.sync_service.model.SyncTaskStatus.RUNNING
+                           then com.Backend.services.sync_service.model.SyncTaskStatus.RETRYING
+                       else t.status
+                   end,
+                   t.leaseOwner = null,
+                   t.leaseExpiresAt = null
+             where t.id = :id
+               and t.leaseOwner = :owner
+            """)
+    int settleLease(@Param("id") Long id, @Param("owner") String owner);
+
+    @Query("""
+            select t.syncCategory as category, count(t) as dueCount, min(t.nextRetryAt) as oldestDueAt
+            from SyncTask t
+            where t.status in (com.Backend.services.sync_service.model.SyncTaskStatus.PENDING,
+                               com.Backend.services.sync_service.model.SyncTaskStatus.RETRYING)
+              and t.nextRetryAt <= :now
+            group by t.syncCategory
+            """)
+    List<DueBacklog> summarizeDueBacklog(@Param("now") Instant now);
+
+    /** Counts PENDING and RETRYING tasks; served from the runnable-only partial index. */
+    @Query("""
+            select count(t) from SyncTask t
+            where t.status in (com.Backend.services.sync_service.model.SyncTaskStatus.PENDING,
+                               com.Backend.services.sync_service.model.SyncTaskStatus.RETRYING)
+            """)
+    long countRunnable();
+
+    interface DueBacklog {
+        SyncCategory getCategory();
+
+        Long getDueCount();
+
+        Instant getOldestDueAt();
+    }
 }
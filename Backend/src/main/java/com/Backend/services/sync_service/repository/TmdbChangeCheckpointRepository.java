@@ -0,0 +1,8 @@
+package com.Backend.services.sync_service.repository;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.sync_service.model.TmdbChangeCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TmdbChangeCheckpointRepository extends JpaRepository<TmdbChangeCheckpoint, FilmType> {
+}
@@ -30,6 +30,13 @@ public class FilmEnrichmentStateService {
     @Value("${recommendation.enrichment.ttl-ms:604800000}")
     private long enrichmentTtlMs;
 
+    // With the TMDB changes feed driving refreshes, the TTL only backstops films the feed missed.
+    @Value("${sync.changes.enabled:true}")
+    private boolean changesFeedEnabled;
+
+    @Value("${sync.changes.full-refresh-after-days:90}")
+    private long fullRefreshAfterDays;
+
     @Value("${sync.retry.fixed-delay-ms:30000}")
     private long schedulerTickMs;
 
@@ -163,6 +170,9 @@ public class FilmEnrichmentStateService {
     }
 
     private long resolveTtlMs() {
+        if (changesFeedEnabled) {
+            return Duration.ofDays(Math.max(1L, fullRefreshAfterDays)).toMillis();
+        }
         return Math.max(Duration.ofMinutes(1).toMillis(), enrichmentTtlMs);
     }
 }
@@ -1,24 +1,58 @@
 package com.Backend.services.sync_service.service;
 
 import com.Backend.exception.SyncProcessingException;
+import com.Backend.services.FilmType;
 import com.Backend.services.credit_service.service.CreditService;
 import com.Backend.services.film_service.model.Film;
+import com.Backend.services.film_service.model.TmdbCreditsResponse;
+import com.Backend.services.film_service.model.TmdbFilmResponse;
+import com.Backend.services.film_service.model.TmdbKeywordsResponse;
+import com.Backend.services.film_service.service.TmdbClient;
 import com.Backend.services.genre_service.service.GenreService;
 import com.Backend.services.keyword_service.service.KeywordService;
 import com.Backend.services.recommendation_service.metrics.RecommendationMetrics;
 import com.Backend.services.sync_service.model.SyncCategory;
 import io.micrometer.core.instrument.Timer;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Component
-@RequiredArgsConstructor
 public class FilmEnrichmentSyncProcessor implements FilmSyncProcessor {
 
     private final GenreService genreService;
     private final KeywordService keywordService;
     private final CreditService creditService;
+    private final TmdbClient tmdbClient;
     private final RecommendationMetrics metrics;
+    private final Executor enrichmentFetchExecutor;
+    private final TransactionTemplate requiresNew;
+
+    public FilmEnrichmentSyncProcessor(
+            GenreService genreService,
+            KeywordService keywordService,
+            CreditService creditService,
+            TmdbClient tmdbClient,
+            RecommendationMetrics metrics,
+            @Qualifier("enrichmentFetchExecutor") Executor enrichmentFetchExecutor,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.genreService = genreService;
+        this.keywordService = keywordService;
+        this.creditService = creditService;
+        this.tmdbClient = tmdbClient;
+        this.metrics = metrics;
+        this.enrichmentFetchExecutor = enrichmentFetchExecutor;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     @Override
     public SyncCategory getCategory() {
@@ -39,6 +73,14 @@ public class FilmEnrichmentSyncProcessor implements FilmSyncProcessor {
         // resumes from the first incomplete stage instead of repeating all TMDB work.
     }
 
+    /**
+     * Fetches every incomplete stage from TMDB concurrently, then applies the stages whose fetch
+     * succeeded in one write transaction of their own, suspending the task's transaction. Latency is
+     * roughly the slowest single fetch rather than the sum of all three. If any fetch failed, its
+     * stage flag stays false and the first failure (in genre, keyword, credits order) is rethrown
+     * after the successful stages are committed. Stage flags are saved with the task; should that
+     * transaction roll back, the next attempt re-applies the stage, and its writes are idempotent.
+     */
     @Override
     public void syncForFilm(Long tmdbId, Film film) {
         if (film == null || film.getType() == null) {
@@ -50,39 +92,101 @@ public class FilmEnrichmentSyncProcessor implements FilmSyncProcessor {
             throw new SyncProcessingException("TMDB_ID_MISSING", "TMDB id is missing for enrichment");
         }
 
-        if (!Boolean.TRUE.equals(film.getGenreSyncCompleted())) {
-            Timer.Sample sample = metrics.startEnrichmentStageTimer();
-            try {
-                genreService.syncGenresForFilm(sourceTmdbId, film.getType(), film);
-            } finally {
-                metrics.stopEnrichmentGenreTimer(sample);
+        FilmType type = film.getType();
+
+        CompletableFuture<TmdbFilmResponse> genreFetch = Boolean.TRUE.equals(film.getGenreSyncCompleted())
+                ? null
+                : fetchAsync(() -> tmdbClient.fetchGenres(sourceTmdbId, type), metrics::stopEnrichmentGenreTimer);
+        CompletableFuture<TmdbKeywordsResponse> keywordFetch = Boolean.TRUE.equals(film.getKeywordSyncCompleted())
+                ? null
+                : fetchAsync(() -> tmdbClient.fetchKeywords(sourceTmdbId, type), metrics::stopEnrichmentKeywordTimer);
+        CompletableFuture<TmdbCreditsResponse> creditsFetch = Boolean.TRUE.equals(film.getCreditsSyncCompleted())
+                ? null
+                : fetchAsync(() -> tmdbClient.fetchCredits(sourceTmdbId, type), metrics::stopEnrichmentCreditsTimer);
+
+        StageFetch<TmdbFilmResponse> genres = await(genreFetch);
+        StageFetch<TmdbKeywordsResponse> keywords = await(keywordFetch);
+        StageFetch<TmdbCreditsResponse> credits = await(creditsFetch);
+
+        requiresNew.executeWithoutResult(status -> {
+            if (genres.succeeded()) {
+                genreService.applyGenresToFilm(genres.payload(), type, film);
+                film.setGenreSyncCompleted(true);
+            }
+            if (keywords.succeeded()) {
+                keywordService.applyKeywordsToFilm(keywords.payload(), type, film);
+                film.setKeywordSyncCompleted(true);
             }
-            film.setGenreSyncCompleted(true);
+            if (credits.succeeded()) {
+                creditService.applyCreditsToFilm(credits.payload(), film);
+                film.setCreditsSyncCompleted(true);
+            }
+        });
+
+        RuntimeException failure = firstFailure(genres, keywords, credits);
+        if (failure != null) {
+            throw failure;
         }
+    }
 
-        if (!Boolean.TRUE.equals(film.getKeywordSyncCompleted())) {
+    @Override
+    public void backfillWeightsForFilm(Film film) {
+        // Recommendation v2 uses shared film enrichment state/snapshots, not per-user weight backfills.
+    }
+
+    private <T> CompletableFuture<T> fetchAsync(Supplier<T> fetch, Consumer<Timer.Sample> stopTimer) {
+        return CompletableFuture.supplyAsync(() -> {
             Timer.Sample sample = metrics.startEnrichmentStageTimer();
             try {
-                keywordService.syncKeywordsForFilm(sourceTmdbId, film.getType(), film);
+                return fetch.get();
             } finally {
-                metrics.stopEnrichmentKeywordTimer(sample);
+                stopTimer.accept(sample);
             }
-            film.setKeywordSyncCompleted(true);
+        }, enrichmentFetchExecutor);
+    }
+
+    private <T> StageFetch<T> await(CompletableFuture<T> fetch) {
+        if (fetch == null) {
+            return StageFetch.skipped();
+        }
+        try {
+            return StageFetch.success(fetch.join());
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            return StageFetch.failure(cause instanceof RuntimeException runtime ? runtime : ex);
         }
+    }
 
-        if (!Boolean.TRUE.equals(film.getCreditsSyncCompleted())) {
-            Timer.Sample sample = metrics.startEnrichmentStageTimer();
-            try {
-                creditService.syncCreditsForFilm(sourceTmdbId, film.getType(), film);
-            } finally {
-                metrics.stopEnrichmentCreditsTimer(sample);
+    private RuntimeException firstFailure(StageFetch<?>... stages) {
+        RuntimeException first = null;
+        for (StageFetch<?> stage : stages) {
+            if (stage.error() == null) {
+                continue;
+            }
+            if (first == null) {
+                first = stage.error();
+            } else if (first != stage.error()) {
+                first.addSuppressed(stage.error());
             }
-            film.setCreditsSyncCompleted(true);
         }
+        return first;
     }
 
-    @Override
-    public void backfillWeightsForFilm(Film film) {
-        // Recommendation v2 uses shared film enrichment state/snapshots, not per-user weight backfills.
+    private record StageFetch<T>(boolean succeeded, T payload, RuntimeException error) {
+
+        static <T> StageFetch<T> skipped() {
+            return new StageFetch<>(false, null, null);
+        }
+
+        static <T> StageFetch<T> success(T payload) {
+            return new StageFetch<>(true, payload, null);
+        }
+
+        static <T> StageFetch<T> failure(RuntimeException error) {
+            return new StageFetch<>(false, null, error);
+        }
     }
-}
\ No newline at end of file
+}
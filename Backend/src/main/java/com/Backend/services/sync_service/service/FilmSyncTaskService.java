@@ -3,7 +3,6 @@ package com.Backend.services.sync_service.service;
 import com.Backend.exception.SyncProcessingException;
 import com.Backend.services.film_service.model.Film;
 import com.Backend.services.film_service.repository.FilmRepository;
-import com.Backend.services.film_service.service.TmdbClient;
 import com.Backend.services.recommendation_service.metrics.RecommendationMetrics;
 import com.Backend.services.sync_service.helper.SyncTaskHelper;
 import com.Backend.services.sync_service.model.LocalBudgetDeferException;
@@ -13,20 +12,37 @@ import com.Backend.services.sync_service.model.SyncRetryDecision;
 import com.Backend.services.sync_service.model.SyncTask;
 import com.Backend.services.sync_service.model.SyncTaskStatus;
 import com.Backend.services.sync_service.repository.SyncTaskRepository;
+import com.Backend.services.sync_service.repository.SyncTaskRepository.DueBacklog;
+import com.Backend.services.sync_service.wakeup.IdleBackoff;
+import com.Backend.services.sync_service.wakeup.WorkQueue;
+import com.Backend.services.sync_service.wakeup.WorkWakeupChannel;
+import jakarta.annotation.PostConstruct;
+import java.net.InetAddress;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
 @Slf4j
 @Service
@@ -37,36 +53,56 @@ public class FilmSyncTaskService {
 
     private final SyncTaskRepository syncTaskRepository;
     private final FilmRepository filmRepository;
-    private final TmdbClient tmdbClient;
+    private final SyncCategoryScheduler categoryScheduler;
+    private final SyncDemandService syncDemandService;
+    private final WorkWakeupChannel wakeupChannel;
+    private final IdleBackoff idleBackoff;
     private final SyncTaskHelper syncTaskHelper;
     private final RecommendationMetrics metrics;
     private final Map<SyncCategory, FilmSyncTaskHandler> handlers;
     private final PlatformTransactionManager transactionManager;
-
-    @Value("${recommendation.sync.scheduler.max-tasks-per-tick:5}")
-    private int recommendationMaxTasksPerTick;
-
-    @Value("${recommendation.sync.scheduler.reserved-tokens:6}")
-    private int recommendationReservedTokens;
-
-    @Value("${recommendation.sync.max-requests-per-run:8}")
-    private int recommendationMaxRequestsPerRun;
+    private final Executor syncWorkerExecutor;
+    private final String workerId;
+    private final int workerConcurrency;
+    private final Duration leaseDuration;
+    private final AtomicInteger inFlightTasks = new AtomicInteger();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private volatile boolean backlogPending;
+    private volatile boolean redispatchRequested;
 
     public FilmSyncTaskService(
             SyncTaskRepository syncTaskRepository,
             FilmRepository filmRepository,
-            TmdbClient tmdbClient,
+            SyncCategoryScheduler categoryScheduler,
+            SyncDemandService syncDemandService,
+            WorkWakeupChannel wakeupChannel,
             SyncTaskHelper syncTaskHelper,
             RecommendationMetrics metrics,
             List<FilmSyncTaskHandler> handlers,
-            PlatformTransactionManager transactionManager
+            PlatformTransactionManager transactionManager,
+            @Qualifier("syncWorkerExecutor") Executor syncWorkerExecutor,
+            @Value("${sync.worker.concurrency:4}") int workerConcurrency,
+            @Value("${sync.worker.lease-duration-ms:300000}") long leaseDurationMs,
+            @Value("${sync.worker.node-id:}") String nodeId,
+            @Value("${sync.retry.fixed-delay-ms:30000}") long pollDelayMs,
+            @Value("${sync.wakeup.max-idle-poll-ms:300000}") long maxIdlePollMs
     ) {
         this.syncTaskRepository = syncTaskRepository;
         this.filmRepository = filmRepository;
-        this.tmdbClient = tmdbClient;
+        this.categoryScheduler = categoryScheduler;
+        this.syncDemandService = syncDemandService;
+        this.wakeupChannel = wakeupChannel;
+        // Without wakeups the fixed-delay poll is the only way to find new work, so it never backs off.
+        this.idleBackoff = wakeupChannel.isEnabled()
+                ? new IdleBackoff(Duration.ofMillis(pollDelayMs), Duration.ofMillis(maxIdlePollMs))
+                : new IdleBackoff(Duration.ZERO, Duration.ZERO);
         this.syncTaskHelper = syncTaskHelper;
         this.metrics = metrics;
         this.transactionManager = transactionManager;
+        this.syncWorkerExecutor = syncWorkerExecutor;
+        this.workerConcurrency = Math.max(1, workerConcurrency);
+        this.leaseDuration = Duration.ofMillis(Math.max(1_000L, leaseDurationMs));
+        this.workerId = resolveWorkerId(nodeId);
         this.handlers = handlers.stream()
                 .flatMap(handler -> handler.getSupportedCategories().stream()
                         .map(category -> Map.entry(category, handler)))
@@ -191,6 +227,9 @@ public class FilmSyncTaskService {
                         .status(SyncTaskStatus.PENDING)
                         .build());
 
+        if (syncTaskHelper.isLeasedByWorker(task)) {
+            return;
+        }
         if (task.getStatus() == SyncTaskStatus.FAILED_PERMANENT) {
             task.setAttempts(0);
         }
@@ -211,6 +250,7 @@ public class FilmSyncTaskService {
         task.setNextRetryAt(Instant.now());
         task.setLastErrorCode(null);
         task.setLastErrorMessage(null);
+        task.setDemandScore(syncDemandService.scoreFor(film.getInternalId()));
 
         syncTaskHelper.saveTaskWithConflictRecovery(task);
     }
@@ -257,6 +297,9 @@ public class FilmSyncTaskService {
                 task.setUserId(userId);
             }
             task.setSyncCategory(category);
+            if (task.getId() == null) {
+                task.setDemandScore(syncDemandService.scoreFor(film.getInternalId()));
+            }
             task.setLastErrorCode(decision.errorCode());
             task.setLastErrorMessage(decision.errorMessage());
 
@@ -304,67 +347,174 @@ public class FilmSyncTaskService {
         }
     }
 
+    @PostConstruct
+    void registerWakeup() {
+        wakeupChannel.register(WorkQueue.SYNC_TASK, () -> {
+            if (dispatchDueTasks() > 0) {
+                idleBackoff.onWork();
+            }
+        });
+    }
+
+    /**
+     * Safety-net poll for the sync worker pool: returns expired leases to the queue, then claims as
+     * many due tasks as this node has free worker slots. New work normally arrives through a
+     * {@link WorkQueue#SYNC_TASK} wakeup, so while polls keep finding nothing the claim backs off up
+     * to {@code sync.wakeup.max-idle-poll-ms}. Expired leases raise no wakeup, so they are reclaimed
+     * on every tick regardless of the backoff.
+     */
     @Scheduled(fixedDelayString = "${sync.retry.fixed-delay-ms:30000}")
     public void processRetries() {
-        List<SyncTask> dueTasks = syncTaskRepository
-                .findTop50ByStatusInAndNextRetryAtLessThanEqualOrderByNextRetryAtAsc(RUNNABLE_STATUSES, Instant.now());
-        if (dueTasks.isEmpty()) {
+        Instant now = Instant.now();
+        int reclaimed = reclaimExpiredLeases();
+        if (reclaimed == 0 && !idleBackoff.isPollDue(now)) {
             return;
         }
+        int claimed = dispatchDueTasks();
+        if (reclaimed > 0 || claimed > 0) {
+            idleBackoff.onWork();
+        } else {
+            idleBackoff.onIdle(now);
+        }
+    }
 
-        TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+    private int reclaimExpiredLeases() {
+        try {
+            Integer reclaimed = new TransactionTemplate(transactionManager)
+                    .execute(status -> syncTaskRepository.reclaimExpiredLeases(Instant.now()));
+            if (reclaimed != null && reclaimed > 0) {
+                log.warn("Reclaimed {} sync task(s) whose worker lease expired", reclaimed);
+                return reclaimed;
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Failed to reclaim expired sync task leases: {}", ex.toString());
+        }
+        return 0;
+    }
 
-        int nonRecommendationTasks = 0;
-        List<SyncTask> recommendationTasks = dueTasks.stream()
-                .filter(task -> {
-                    boolean isRecommendation = task.getSyncCategory() == SyncCategory.RECOMMENDATION;
-                    if (!isRecommendation) {
-                        txTemplate.executeWithoutResult(status -> processTask(task.getId()));
-                    }
-                    return isRecommendation;
-                })
-                .toList();
+    private int dispatchDueTasks() {
+        int claimed = 0;
+        do {
+            // One claimer per node at a time; a dispatch requested meanwhile is re-run by the holder,
+            // since the work it announces may have committed after the holder's claim query.
+            if (!dispatchLock.tryLock()) {
+                redispatchRequested = true;
+                return claimed;
+            }
+            redispatchRequested = false;
+            try {
+                int freeSlots = workerConcurrency - inFlightTasks.get();
+                if (freeSlots <= 0) {
+                    backlogPending = true;
+                    return claimed;
+                }
+
+                ClaimBatch batch = claimDueTasks(freeSlots);
+                // Work left behind by this plan is drained by workers as their slots free up.
+                backlogPending = batch.moreDue();
+                for (ClaimedTask task : batch.tasks()) {
+                    submitClaimedTask(task);
+                }
+                claimed += batch.tasks().size();
+            } catch (RuntimeException ex) {
+                log.warn("Failed to claim due sync tasks: {}", ex.toString());
+                return claimed;
+            } finally {
+                dispatchLock.unlock();
+            }
+        } while (redispatchRequested);
+        return claimed;
+    }
 
-        for (SyncTask task : dueTasks) {
-            if (task.getSyncCategory() != SyncCategory.RECOMMENDATION) {
-                nonRecommendationTasks++;
+    /**
+     * Claims up to {@code limit} due tasks in one short transaction. Rows are locked with
+     * {@code FOR UPDATE SKIP LOCKED}, so nodes claiming concurrently get disjoint batches, and are
+     * committed as RUNNING under this node's lease before any work starts. How many tasks of each
+     * category are claimed is decided by {@link SyncCategoryScheduler#plan}.
+     */
+    private ClaimBatch claimDueTasks(int limit) {
+        ClaimBatch batch = new TransactionTemplate(transactionManager).execute(status -> {
+            Instant now = Instant.now();
+            List<DueBacklog> backlog = syncTaskRepository.summarizeDueBacklog(now);
+            categoryScheduler.recordBacklog(backlog, now);
+
+            Map<SyncCategory, Long> dueCounts = new EnumMap<>(SyncCategory.class);
+            for (DueBacklog row : backlog) {
+                if (row.getCategory() != null && row.getDueCount() != null && row.getDueCount() > 0) {
+                    dueCounts.put(row.getCategory(), row.getDueCount());
+                }
             }
-        }
 
-        int allowedRecommendationTasks = computeAllowedRecommendationTasks(
-                recommendationTasks.size(),
-                nonRecommendationTasks
-        );
+            Map<SyncCategory, Integer> plan = categoryScheduler.plan(limit, dueCounts);
+            List<SyncTask> claimed = new ArrayList<>();
+            boolean moreDue = false;
+            for (Map.Entry<SyncCategory, Long> due : dueCounts.entrySet()) {
+                int granted = plan.getOrDefault(due.getKey(), 0);
+                if (due.getValue() > granted) {
+                    moreDue = true;
+                }
+                if (granted > 0) {
+                    claimed.addAll(syncTaskRepository.findDueForClaim(
+                            EnumSet.of(due.getKey()), now, PageRequest.of(0, granted)));
+                }
+            }
 
-        for (int i = 0; i < allowedRecommendationTasks; i++) {
-            final Long taskId = recommendationTasks.get(i).getId();
-            txTemplate.executeWithoutResult(status -> processTask(taskId));
-        }
+            Instant leaseExpiresAt = now.plus(leaseDuration);
+            for (SyncTask task : claimed) {
+                task.setStatus(SyncTaskStatus.RUNNING);
+                task.setLeaseOwner(workerId);
+                task.setLeaseExpiresAt(leaseExpiresAt);
+            }
+            syncTaskRepository.saveAll(claimed);
+            List<ClaimedTask> tasks = claimed.stream()
+                    .map(task -> new ClaimedTask(task.getId(), task.getSyncCategory(), task.getNextRetryAt()))
+                    .toList();
+            return new ClaimBatch(tasks, moreDue);
+        });
+        return batch == null ? new ClaimBatch(List.of(), false) : batch;
     }
 
-    private int computeAllowedRecommendationTasks(int recommendationTaskCount, int nonRecommendationTaskCount) {
-        if (recommendationTaskCount <= 0) {
-            return 0;
+    private void submitClaimedTask(ClaimedTask task) {
+        inFlightTasks.incrementAndGet();
+        categoryScheduler.onStarted(task.category());
+        try {
+            syncWorkerExecutor.execute(() -> runClaimedTask(task));
+        } catch (RejectedExecutionException ex) {
+            inFlightTasks.decrementAndGet();
+            categoryScheduler.onFinished(task.category());
+            log.warn("Sync worker pool rejected taskId={}; releasing its lease", task.id());
+            new TransactionTemplate(transactionManager)
+                    .executeWithoutResult(status -> syncTaskRepository.settleLease(task.id(), workerId));
         }
+    }
 
-        double availableTokens = tmdbClient.getAvailableTokens();
-        int reservedTokens = nonRecommendationTaskCount > 0 ? Math.max(0, recommendationReservedTokens) : 0;
-        int tokensForRecommendation = (int) Math.floor(Math.max(0.0d, availableTokens - reservedTokens));
-        if (tokensForRecommendation < 1) {
-            return 0;
+    private void runClaimedTask(ClaimedTask task) {
+        Long taskId = task.id();
+        categoryScheduler.recordStartLatency(task.category(), task.dueAt());
+        try {
+            TransactionTemplate txTemplate = new TransactionTemplate(transactionManager);
+            txTemplate.executeWithoutResult(status -> processTask(taskId));
+            // Lease fields are cleared only after processTask commits: touching the task inside it
+            // would lock the row that its REQUIRES_NEW final save needs.
+            txTemplate.executeWithoutResult(status -> syncTaskRepository.settleLease(taskId, workerId));
+        } catch (RuntimeException ex) {
+            // The task stays RUNNING under our lease and is reclaimed once the lease expires.
+            log.error("Sync worker failed processing taskId={}", taskId, ex);
+        } finally {
+            inFlightTasks.decrementAndGet();
+            categoryScheduler.onFinished(task.category());
+            if (backlogPending) {
+                dispatchDueTasks();
+            }
         }
-
-        int maxTasksPerTick = Math.max(1, recommendationMaxTasksPerTick);
-        int perTaskBudget = Math.max(1, recommendationMaxRequestsPerRun);
-        int maxByBudget = Math.max(1, tokensForRecommendation / perTaskBudget);
-
-        return Math.min(recommendationTaskCount, Math.min(maxTasksPerTick, maxByBudget));
     }
 
     @Scheduled(fixedDelayString = "${recommendation.metrics.queue-depth-interval-ms:30000}")
     public void sampleSyncTaskQueueDepth() {
-        long pendingCount = syncTaskRepository.countByStatusIn(RUNNABLE_STATUSES);
+        long pendingCount = syncTaskRepository.countRunnable();
         metrics.setSyncTaskQueueDepth(pendingCount);
+        Instant now = Instant.now();
+        categoryScheduler.recordBacklog(syncTaskRepository.summarizeDueBacklog(now), now);
     }
 
     @Transactional
@@ -374,7 +524,7 @@ public class FilmSyncTaskService {
         }
 
         SyncTask task = syncTaskRepository.findById(taskId).orElse(null);
-        if (task == null || !RUNNABLE_STATUSES.contains(task.getStatus())) {
+        if (task == null || !isRunnableHere(task)) {
             return;
         }
 
@@ -494,7 +644,7 @@ public class FilmSyncTaskService {
             return;
         }
         task = syncTaskRepository.findById(taskId).orElse(null);
-        if (task == null || !RUNNABLE_STATUSES.contains(task.getStatus())) {
+        if (task == null || (!RUNNABLE_STATUSES.contains(task.getStatus()) && task.getStatus() != SyncTaskStatus.RUNNING)) {
             return;
         }
 
@@ -520,6 +670,7 @@ public class FilmSyncTaskService {
             handler.syncForFilm(task.getTmdbId(), film, category);
             handler.markSyncCompleted(film, category);
             handler.afterSyncSuccess(film, category, task.getUserId());
+            syncDemandService.recordServed(category, task.getDemandScore());
 
             task.setStatus(SyncTaskStatus.SUCCEEDED);
             task.setNextRetryAt(null);
@@ -592,9 +743,33 @@ public class FilmSyncTaskService {
             TransactionTemplate requiresNew = new TransactionTemplate(transactionManager);
             requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
             requiresNew.executeWithoutResult(status -> syncTaskRepository.save(finalTask));
+            if (RUNNABLE_STATUSES.contains(finalTask.getStatus())) {
+                wakeupChannel.signal(WorkQueue.SYNC_TASK, finalTask.getNextRetryAt());
+            }
         }
     }
 
+    private boolean isRunnableHere(SyncTask task) {
+        if (RUNNABLE_STATUSES.contains(task.getStatus())) {
+            return true;
+        }
+        return task.getStatus() == SyncTaskStatus.RUNNING && workerId.equals(task.getLeaseOwner());
+    }
+
+    private static String resolveWorkerId(String configuredNodeId) {
+        if (StringUtils.hasText(configuredNodeId)) {
+            return configuredNodeId.trim();
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception ex) {
+            host = "unknown-host";
+        }
+        // Suffix keeps ids unique when several instances share a host name.
+        return host + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
     private record SyncRetryEnqueueResult(
             boolean retryScheduled,
             boolean failedPermanently,
@@ -602,4 +777,10 @@ public class FilmSyncTaskService {
             String errorMessage
     ) {
     }
+
+    private record ClaimedTask(Long id, SyncCategory category, Instant dueAt) {
+    }
+
+    private record ClaimBatch(List<ClaimedTask> tasks, boolean moreDue) {
+    }
 }
@@ -15,6 +15,7 @@ import com.Backend.services.sync_service.model.SyncTaskStatus;
 import com.Backend.services.sync_service.repository.SyncTaskRepository;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +34,7 @@ public class RecommendationSyncTaskHandler implements FilmSyncTaskHandler {
     private final FilmRepository filmRepository;
     private final SyncTaskRepository syncTaskRepository;
     private final SyncTaskHelper syncTaskHelper;
+    private final SyncDemandService syncDemandService;
 
     @Value("${recommendation.enrichment.max-candidates-per-sync:${recommendation.sync.max-similar-per-film:20}}")
     private int recommendationEnrichmentMaxCandidatesPerSync;
@@ -143,8 +145,9 @@ public class RecommendationSyncTaskHandler implements FilmSyncTaskHandler {
         // the circular dependency: non-enriched films can still qualify based on
         // language/rating placeholders from TMDB.
         if (userId != null && pass1Survivors != null && !pass1Survivors.isEmpty()) {
+            Map<Long, Integer> demand = syncDemandService.scoresFor(pass1Survivors);
             for (Film candidateFilm : filmRepository.findAllById(List.copyOf(pass1Survivors))) {
-                enqueueEnrichmentTask(candidateFilm, userId);
+                enqueueEnrichmentTask(candidateFilm, userId, demand);
             }
             return;
         }
@@ -167,12 +170,13 @@ public class RecommendationSyncTaskHandler implements FilmSyncTaskHandler {
                 .filter(id -> id != null && !id.equals(sourceFilm.getInternalId()))
                 .toList();
 
+        Map<Long, Integer> demand = syncDemandService.scoresFor(boundedCandidateIds);
         for (Film candidateFilm : filmRepository.findAllById(boundedCandidateIds)) {
-            enqueueEnrichmentTask(candidateFilm, userId);
+            enqueueEnrichmentTask(candidateFilm, userId, demand);
         }
     }
 
-    private void enqueueEnrichmentTask(Film candidateFilm, Long userId) {
+    private void enqueueEnrichmentTask(Film candidateFilm, Long userId, Map<Long, Integer> demand) {
         if (candidateFilm == null
                 || candidateFilm.getInternalId() == null
                 || candidateFilm.getFilmId() == null
@@ -195,6 +199,9 @@ public class RecommendationSyncTaskHandler implements FilmSyncTaskHandler {
                         .status(SyncTaskStatus.PENDING)
                         .build());
 
+        if (syncTaskHelper.isLeasedByWorker(task)) {
+            return;
+        }
         if (task.getStatus() == SyncTaskStatus.FAILED_PERMANENT) {
             task.setAttempts(0);
         }
@@ -214,6 +221,7 @@ public class RecommendationSyncTaskHandler implements FilmSyncTaskHandler {
         task.setNextRetryAt(Instant.now());
         task.setLastErrorCode(null);
         task.setLastErrorMessage(null);
+        task.setDemandScore(demand.getOrDefault(candidateFilm.getInternalId(), 0));
 
         syncTaskHelper.saveTaskWithConflictRecovery(task);
     }
@@ -0,0 +1,244 @@
+package com.Backend.services.sync_service.service;
+
+import com.Backend.services.film_service.service.TmdbClient;
+import com.Backend.services.sync_service.model.SyncCategory;
+import com.Backend.services.sync_service.repository.SyncTaskRepository.DueBacklog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits each dispatch of the sync worker pool between {@link SyncCategory SyncCategories}.
+ *
+ * <p>Every category has a concurrency cap, a weight and an estimated TMDB cost per task
+ * ({@code sync.scheduler.max-concurrency.<category>}, {@code .weight.<category>},
+ * {@code .tokens-per-task.<category>}). Free worker slots are handed out one at a time to the
+ * category with the lowest weighted load ({@code (inFlight + granted) / weight}) whose cap and
+ * TMDB cost still fit, so a flood in one category cannot starve the other while an idle category's
+ * share goes to whoever has work. Recommendation tasks keep the token reserve applied by the
+ * former per-tick recommendation budget whenever other categories have work due.
+ *
+ * <p>Also tracks per-category in-flight counts and exports lag (age of the oldest due task),
+ * due depth, throughput and start latency (task due to worker start).
+ */
+@Component
+public class SyncCategoryScheduler {
+
+    private static final String METRIC_PREFIX = "sync.scheduler";
+
+    private final TmdbClient tmdbClient;
+    private final int recommendationReservedTokens;
+    private final Map<SyncCategory, CategoryState> states = new EnumMap<>(SyncCategory.class);
+
+    public SyncCategoryScheduler(
+            TmdbClient tmdbClient,
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${sync.worker.concurrency:4}") int workerConcurrency,
+            @Value("${recommendation.sync.scheduler.max-tasks-per-tick:5}") int recommendationMaxConcurrency,
+            @Value("${recommendation.sync.scheduler.reserved-tokens:6}") int recommendationReservedTokens,
+            @Value("${recommendation.sync.max-requests-per-run:8}") int recommendationMaxRequestsPerRun) {
+        this.tmdbClient = tmdbClient;
+        this.recommendationReservedTokens = Math.max(0, recommendationReservedTokens);
+
+        for (SyncCategory category : SyncCategory.values()) {
+            int defaultMaxConcurrency = category == SyncCategory.RECOMMENDATION
+                    ? recommendationMaxConcurrency
+                    : workerConcurrency;
+            int defaultWeight = category == SyncCategory.ENRICHMENT ? 3 : 1;
+            int defaultTokensPerTask = switch (category) {
+                // details/genres, keywords and credits
+                case ENRICHMENT -> 3;
+                case RECOMMENDATION -> recommendationMaxRequestsPerRun;
+                default -> 1;
+            };
+
+            String key = category.name().toLowerCase(Locale.ROOT);
+            CategoryState state = new CategoryState(
+                    Math.max(1, environment.getProperty(
+                            "sync.scheduler.max-concurrency." + key, Integer.class, defaultMaxConcurrency)),
+                    Math.max(1, environment.getProperty(
+                            "sync.scheduler.weight." + key, Integer.class, defaultWeight)),
+                    Math.max(1, environment.getProperty(
+                            "sync.scheduler.tokens-per-task." + key, Integer.class, defaultTokensPerTask)),
+                    meterRegistry,
+                    category);
+            states.put(category, state);
+        }
+    }
+
+    /**
+     * Returns how many due tasks of each category the current dispatch may claim, given the node's
+     * free worker slots and the due backlog per category.
+     */
+    public Map<SyncCategory, Integer> plan(int freeSlots, Map<SyncCategory, Long> dueCounts) {
+        Map<SyncCategory, Integer> granted = new EnumMap<>(SyncCategory.class);
+        if (freeSlots <= 0 || dueCounts.isEmpty()) {
+            return granted;
+        }
+
+        double availableTokens = Math.max(0.0d, tmdbClient.getAvailableTokens());
+        Map<SyncCategory, Integer> limits = new EnumMap<>(SyncCategory.class);
+        for (Map.Entry<SyncCategory, Long> due : dueCounts.entrySet()) {
+            SyncCategory category = due.getKey();
+            int limit = computeAllowedTasks(category, due.getValue(), availableTokens, dueCounts);
+            if (limit > 0) {
+                limits.put(category, limit);
+            }
+        }
+
+        double remainingTokens = availableTokens;
+        for (int slot = 0; slot < freeSlots; slot++) {
+            SyncCategory next = null;
+            double nextLoad = Double.MAX_VALUE;
+            for (Map.Entry<SyncCategory, Integer> limit : limits.entrySet()) {
+                SyncCategory category = limit.getKey();
+                CategoryState state = states.get(category);
+                int alreadyGranted = granted.getOrDefault(category, 0);
+                if (alreadyGranted >= limit.getValue() || state.tokensPerTask > remainingTokens) {
+                    continue;
+                }
+                double load = (state.inFlight.get() + alreadyGranted + 1) / (double) state.weight;
+                if (load < nextLoad) {
+                    next = category;
+                    nextLoad = load;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            granted.merge(next, 1, Integer::sum);
+            remainingTokens -= states.get(next).tokensPerTask;
+        }
+        return granted;
+    }
+
+    /**
+     * Upper bound for one category before fair sharing: due tasks, free concurrency under the
+     * category cap, and — for recommendations — the token budget left after the reserve kept for
+     * other categories' work.
+     */
+    private int computeAllowedTasks(
+            SyncCategory category,
+            long dueCount,
+            double availableTokens,
+            Map<SyncCategory, Long> dueCounts) {
+        CategoryState state = states.get(category);
+        int freeConcurrency = state.maxConcurrency - state.inFlight.get();
+        int allowed = (int) Math.min(dueCount, Math.max(0, freeConcurrency));
+        if (allowed <= 0 || category != SyncCategory.RECOMMENDATION) {
+            return allowed;
+        }
+
+        boolean otherWorkDue = dueCounts.entrySet().stream()
+                .anyMatch(due -> due.getKey() != SyncCategory.RECOMMENDATION && due.getValue() > 0);
+        int reservedTokens = otherWorkDue ? recommendationReservedTokens : 0;
+        int tokensForRecommendation = (int) Math.floor(Math.max(0.0d, availableTokens - reservedTokens));
+        return Math.min(allowed, tokensForRecommendation / state.tokensPerTask);
+    }
+
+    /** Refreshes per-category lag and due-depth gauges from a backlog summary. */
+    public void recordBacklog(Collection<DueBacklog> backlog, Instant now) {
+        Map<SyncCategory, DueBacklog> byCategory = new EnumMap<>(SyncCategory.class);
+        for (DueBacklog row : backlog) {
+            if (row.getCategory() != null) {
+                byCategory.put(row.getCategory(), row);
+            }
+        }
+        for (Map.Entry<SyncCategory, CategoryState> entry : states.entrySet()) {
+            DueBacklog row = byCategory.get(entry.getKey());
+            CategoryState state = entry.getValue();
+            if (row == null || row.getOldestDueAt() == null) {
+                state.dueCount.set(0);
+                state.lagMillis.set(0);
+                continue;
+            }
+            state.dueCount.set(row.getDueCount() == null ? 0 : row.getDueCount());
+            state.lagMillis.set(Math.max(0L, Duration.between(row.getOldestDueAt(), now).toMillis()));
+        }
+    }
+
+    public void onStarted(SyncCategory category) {
+        CategoryState state = states.get(category);
+        state.inFlight.incrementAndGet();
+        state.startedCounter.increment();
+    }
+
+    public void recordStartLatency(SyncCategory category, Instant dueAt) {
+        if (dueAt == null) {
+            return;
+        }
+        Duration latency = Duration.between(dueAt, Instant.now());
+        states.get(category).startLatency.record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    public void onFinished(SyncCategory category) {
+        CategoryState state = states.get(category);
+        state.inFlight.decrementAndGet();
+        state.completedCounter.increment();
+    }
+
+    private static final class CategoryState {
+        private final int maxConcurrency;
+        private final int weight;
+        private final int tokensPerTask;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong dueCount = new AtomicLong();
+        private final AtomicLong lagMillis = new AtomicLong();
+        private final Counter startedCounter;
+        private final Counter completedCounter;
+        private final Timer startLatency;
+
+        private CategoryState(
+                int maxConcurrency,
+                int weight,
+                int tokensPerTask,
+                MeterRegistry meterRegistry,
+                SyncCategory category) {
+            this.maxConcurrency = maxConcurrency;
+            this.weight = weight;
+            this.tokensPerTask = tokensPerTask;
+
+            String tag = category.name();
+            this.startedCounter = Counter.builder(METRIC_PREFIX + ".tasks.started")
+                    .description("Sync tasks handed to a worker")
+                    .tag("category", tag)
+                    .register(meterRegistry);
+            this.completedCounter = Counter.builder(METRIC_PREFIX + ".tasks.completed")
+                    .description("Sync tasks finished by a worker, whatever the outcome")
+                    .tag("category", tag)
+                    .register(meterRegistry);
+            this.startLatency = Timer.builder(METRIC_PREFIX + ".start.latency")
+                    .description("Delay between a sync task becoming due and a worker starting it")
+                    .tag("category", tag)
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofSeconds(30))
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".lag.seconds", lagMillis, millis -> millis.get() / 1000.0d)
+                    .description("Age of the oldest due sync task")
+                    .tag("category", tag)
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".due", dueCount, AtomicLong::get)
+                    .description("Sync tasks due and waiting for a worker")
+                    .tag("category", tag)
+                    .register(meterRegistry);
+            Gauge.builder(METRIC_PREFIX + ".in_flight", inFlight, AtomicInteger::get)
+                    .description("Sync tasks currently running on this node")
+                    .tag("category", tag)
+                    .register(meterRegistry);
+        }
+    }
+}
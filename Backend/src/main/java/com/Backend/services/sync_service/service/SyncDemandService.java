@@ -0,0 +1,133 @@
+package com.Backend.services.sync_service.service;
+
+import com.Backend.services.recommendation_service.repository.RecommendationRepository;
+import com.Backend.services.sync_service.model.SyncCategory;
+import com.Backend.services.sync_service.repository.SyncTaskDemandRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps {@code sync_task.demand_score} current so workers claim the tasks that improve the most
+ * user snapshots first.
+ *
+ * <p>Scores are computed when a task is enqueued and recomputed, in one grouped read plus one
+ * batched write, for the films whose reach changes: recommendation targets when a source's edges
+ * are replaced, and a film plus its targets when it enters or leaves a watchlist. A periodic sweep
+ * over queued tasks picks up drift in user activity. A user counts as active while their
+ * recommendation snapshot was refreshed within {@code sync.demand.active-window}.
+ *
+ * <p>{@code sync.demand.served} counts the demand of every task that completed a sync; divided by
+ * {@code tmdb.request.coalescing.leader} it gives users served per TMDB call.
+ */
+@Slf4j
+@Service
+public class SyncDemandService {
+
+    private static final String METRIC_PREFIX = "sync.demand";
+
+    private final SyncTaskDemandRepository demandRepository;
+    private final RecommendationRepository recommendationRepository;
+    private final Duration activeWindow;
+    private final int activeUserWeight;
+    private final int refreshBatchSize;
+    private final Map<SyncCategory, Counter> servedCounters = new EnumMap<>(SyncCategory.class);
+
+    public SyncDemandService(
+            SyncTaskDemandRepository demandRepository,
+            RecommendationRepository recommendationRepository,
+            MeterRegistry meterRegistry,
+            @Value("${sync.demand.active-window-days:14}") long activeWindowDays,
+            @Value("${sync.demand.active-user-weight:2}") int activeUserWeight,
+            @Value("${sync.demand.refresh-batch-size:500}") int refreshBatchSize) {
+        this.demandRepository = demandRepository;
+        this.recommendationRepository = recommendationRepository;
+        this.activeWindow = Duration.ofDays(Math.max(1L, activeWindowDays));
+        this.activeUserWeight = Math.max(0, activeUserWeight);
+        this.refreshBatchSize = Math.max(1, refreshBatchSize);
+
+        for (SyncCategory category : SyncCategory.values()) {
+            servedCounters.put(category, Counter.builder(METRIC_PREFIX + ".served")
+                    .description("Demand (weighted users reached) of sync tasks that completed a sync")
+                    .tag("category", category.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    public int scoreFor(Long filmInternalId) {
+        if (filmInternalId == null) {
+            return 0;
+        }
+        return scoresFor(List.of(filmInternalId)).getOrDefault(filmInternalId, 0);
+    }
+
+    public Map<Long, Integer> scoresFor(Collection<Long> filmInternalIds) {
+        return demandRepository.computeDemand(filmInternalIds, activeSince(), activeUserWeight);
+    }
+
+    /**
+     * Recomputes the demand of the given films' queued tasks. Demand only orders work, so a failure
+     * is logged and left for the periodic sweep.
+     */
+    public void refreshFilms(Collection<Long> filmInternalIds) {
+        if (filmInternalIds == null || filmInternalIds.isEmpty()) {
+            return;
+        }
+        try {
+            demandRepository.applyDemand(filmInternalIds, scoresFor(filmInternalIds));
+        } catch (RuntimeException ex) {
+            log.warn("Failed to refresh sync task demand for {} film(s): {}", filmInternalIds.size(), ex.toString());
+        }
+    }
+
+    /** A watchlist change moves the demand of the film itself and of every film it recommends. */
+    public void refreshForWatchlistFilm(Long filmInternalId) {
+        if (filmInternalId == null) {
+            return;
+        }
+        Set<Long> affected = new LinkedHashSet<>();
+        affected.add(filmInternalId);
+        affected.addAll(recommendationRepository.findRecommendedFilmIdsByFilmIds(Set.of(filmInternalId)));
+        refreshFilms(affected);
+    }
+
+    public void recordServed(SyncCategory category, Integer demandScore) {
+        if (category != null && demandScore != null && demandScore > 0) {
+            servedCounters.get(category).increment(demandScore);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${sync.demand.refresh-interval-ms:600000}")
+    public void refreshQueuedDemand() {
+        long after = 0L;
+        int refreshed = 0;
+        while (true) {
+            List<Long> filmIds = demandRepository.findDueFilmIdsAfter(after, refreshBatchSize);
+            if (filmIds.isEmpty()) {
+                break;
+            }
+            refreshFilms(filmIds);
+            refreshed += filmIds.size();
+            after = filmIds.get(filmIds.size() - 1);
+            if (filmIds.size() < refreshBatchSize) {
+                break;
+            }
+        }
+        log.debug("Refreshed sync task demand for {} film(s)", refreshed);
+    }
+
+    private Instant activeSince() {
+        return Instant.now().minus(activeWindow);
+    }
+}
@@ -0,0 +1,125 @@
+package com.Backend.services.sync_service.service;
+
+import com.Backend.services.JdbcBatches;
+import com.Backend.services.sync_service.repository.SyncTaskHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps {@code sync_task} limited to live work by moving settled tasks to {@code sync_task_history}.
+ *
+ * <p>A task is archived once it has been SUCCEEDED or FAILED_PERMANENT for
+ * {@code sync.history.settled-grace-minutes}; re-enqueueing the film later simply creates a new
+ * task. Each run moves at most {@code max-batches-per-run} batches, one transaction per batch, and
+ * purges history older than {@code sync.history.retention-days}. The run also samples both tables'
+ * row counts into the {@code sync.task.rows.estimated} gauges. On PostgreSQL these are the
+ * planner's {@code pg_class.reltuples} estimates, refreshed by vacuum and analyze, not exact
+ * counts.
+ */
+@Slf4j
+@Service
+public class SyncTaskCompactor {
+
+    private static final String METRIC_PREFIX = "sync.task";
+    private static final String HOT_TABLE = "sync_task";
+    private static final String HISTORY_TABLE = "sync_task_history";
+
+    private final SyncTaskHistoryRepository historyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration settledGrace;
+    private final Duration retention;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Counter archivedCounter;
+    private final Counter purgedCounter;
+    private final AtomicLong hotRows = new AtomicLong();
+    private final AtomicLong historyRows = new AtomicLong();
+
+    public SyncTaskCompactor(
+            SyncTaskHistoryRepository historyRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${sync.history.enabled:true}") boolean enabled,
+            @Value("${sync.history.settled-grace-minutes:60}") long settledGraceMinutes,
+            @Value("${sync.history.retention-days:90}") long retentionDays,
+            @Value("${sync.history.batch-size:1000}") int batchSize,
+            @Value("${sync.history.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.historyRepository = historyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.settledGrace = Duration.ofMinutes(Math.max(0L, settledGraceMinutes));
+        this.retention = Duration.ofDays(Math.max(1L, retentionDays));
+        // One IN list per batch.
+        this.batchSize = Math.min(JdbcBatches.MAX_ROWS_PER_STATEMENT, Math.max(1, batchSize));
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+
+        this.archivedCounter = Counter.builder(METRIC_PREFIX + ".archived")
+                .description("Settled sync tasks moved to sync_task_history")
+                .register(meterRegistry);
+        this.purgedCounter = Counter.builder(METRIC_PREFIX + ".history.purged")
+                .description("sync_task_history rows deleted after the retention period")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".rows.estimated", hotRows, AtomicLong::get)
+                .description("Planner estimate of rows in sync_task (pg_class.reltuples), not an exact count")
+                .tag("table", HOT_TABLE)
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + ".rows.estimated", historyRows, AtomicLong::get)
+                .description("Planner estimate of rows in sync_task_history (pg_class.reltuples), not an exact count")
+                .tag("table", HISTORY_TABLE)
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            fixedDelayString = "${sync.history.compact-interval-ms:300000}",
+            initialDelayString = "${sync.history.initial-delay-ms:120000}")
+    public void compactOnSchedule() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            compact();
+        } catch (RuntimeException ex) {
+            log.warn("Sync task compaction failed; will retry next run: {}", ex.toString());
+        }
+    }
+
+    /** Runs one compaction pass and returns the number of tasks archived. */
+    public int compact() {
+        Instant now = Instant.now();
+        Instant settledBefore = now.minus(settledGrace);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(
+                    status -> historyRepository.archiveSettledTasks(settledBefore, now, batchSize));
+            int count = moved == null ? 0 : moved;
+            archived += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+        archivedCounter.increment(archived);
+
+        Integer purged = transactionTemplate.execute(
+                status -> historyRepository.purgeHistory(now.minus(retention), batchSize));
+        purgedCounter.increment(purged == null ? 0 : purged);
+
+        hotRows.set(historyRepository.estimateRowCount(HOT_TABLE));
+        historyRows.set(historyRepository.estimateRowCount(HISTORY_TABLE));
+        if (archived > 0) {
+            log.info("Archived {} settled sync tasks; sync_task≈{} rows, history≈{} rows",
+                    archived, hotRows.get(), historyRows.get());
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,36 @@
+package com.Backend.services.sync_service.service;
+
+import com.Backend.services.watchlist_service.event.WatchlistItemAddedEvent;
+import com.Backend.services.watchlist_service.event.WatchlistItemRemovedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class WatchlistDemandListener {
+
+    private final SyncDemandService syncDemandService;
+
+    @Async("watchlistSyncExecutor")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleWatchlistAdded(WatchlistItemAddedEvent event) {
+        if (event != null) {
+            syncDemandService.refreshForWatchlistFilm(event.filmInternalId());
+        }
+    }
+
+    @Async("watchlistSyncExecutor")
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void handleWatchlistRemoved(WatchlistItemRemovedEvent event) {
+        if (event != null) {
+            syncDemandService.refreshForWatchlistFilm(event.filmInternalId());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.Backend.services.sync_service.wakeup;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Spaces out safety-net polls of a queue that keeps coming back empty: every idle poll doubles the
+ * wait, from {@code base} up to {@code max}. Any poll or wakeup that finds work resets it.
+ */
+public class IdleBackoff {
+
+    private final Duration base;
+    private final Duration max;
+    private int idleStreak;
+    private Instant nextPollAt = Instant.MIN;
+
+    public IdleBackoff(Duration base, Duration max) {
+        this.base = base;
+        this.max = max.compareTo(base) < 0 ? base : max;
+    }
+
+    public synchronized boolean isPollDue(Instant now) {
+        return !now.isBefore(nextPollAt);
+    }
+
+    public synchronized void onWork() {
+        idleStreak = 0;
+        nextPollAt = Instant.MIN;
+    }
+
+    public synchronized void onIdle(Instant now) {
+        idleStreak = Math.min(idleStreak + 1, 30);
+        long delayMs = base.toMillis() << Math.min(idleStreak - 1, 20);
+        nextPollAt = now.plusMillis(Math.min(delayMs, max.toMillis()));
+    }
+}
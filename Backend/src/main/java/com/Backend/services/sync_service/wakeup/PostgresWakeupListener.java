@@ -0,0 +1,149 @@
+package com.Backend.services.sync_service.wakeup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.Properties;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Listens on the {@link WorkQueue} channels and hands other nodes' {@code NOTIFY}s to
+ * {@link WorkWakeupChannel}.
+ *
+ * <p>Uses one dedicated connection outside the Hikari pool, so it never takes a connection from
+ * request or worker threads. After a lost connection it reconnects with backoff and wakes every
+ * queue once, since notifications sent while disconnected are gone.
+ */
+@Slf4j
+@Component
+public class PostgresWakeupListener implements SmartLifecycle {
+
+    private static final long MAX_RECONNECT_DELAY_MS = 30_000L;
+
+    private final WorkWakeupChannel wakeupChannel;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollTimeoutMs;
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    public PostgresWakeupListener(
+            WorkWakeupChannel wakeupChannel,
+            @Value("${spring.datasource.url:}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${sync.wakeup.listen-poll-timeout-ms:10000}") int pollTimeoutMs) {
+        this.wakeupChannel = wakeupChannel;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollTimeoutMs = Math.max(100, pollTimeoutMs);
+    }
+
+    @Override
+    public void start() {
+        if (!wakeupChannel.isNotifyEnabled()) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "sync-wakeup-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        long reconnectDelayMs = 1_000L;
+        boolean reconnected = false;
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    for (WorkQueue queue : WorkQueue.values()) {
+                        statement.execute("LISTEN " + queue.channel());
+                    }
+                }
+                if (reconnected) {
+                    for (WorkQueue queue : WorkQueue.values()) {
+                        wakeupChannel.deliverRemote(queue, Instant.now());
+                    }
+                }
+                reconnectDelayMs = 1_000L;
+                reconnected = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMs);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        dispatch(notification);
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Sync wakeup listener lost its connection; retrying in {} ms: {}", reconnectDelayMs, ex.toString());
+                try {
+                    Thread.sleep(reconnectDelayMs);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                reconnectDelayMs = Math.min(MAX_RECONNECT_DELAY_MS, reconnectDelayMs * 2);
+            }
+        }
+    }
+
+    private void dispatch(PGNotification notification) {
+        WorkQueue queue = WorkQueue.fromChannel(notification.getName());
+        String payload = notification.getParameter();
+        if (queue == null || !StringUtils.hasText(payload)) {
+            return;
+        }
+        int separator = payload.lastIndexOf('|');
+        if (separator < 0 || payload.substring(0, separator).equals(wakeupChannel.nodeId())) {
+            // Our own NOTIFY; the in-process signal already covered it.
+            return;
+        }
+        try {
+            long dueAtMillis = Long.parseLong(payload.substring(separator + 1));
+            wakeupChannel.deliverRemote(queue, Instant.ofEpochMilli(dueAtMillis));
+        } catch (NumberFormatException ex) {
+            log.debug("Ignoring malformed wakeup payload on {}: {}", notification.getName(), payload);
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        Properties properties = new Properties();
+        if (StringUtils.hasText(username)) {
+            properties.setProperty("user", username);
+        }
+        if (StringUtils.hasText(password)) {
+            properties.setProperty("password", password);
+        }
+        return DriverManager.getConnection(url, properties);
+    }
+}
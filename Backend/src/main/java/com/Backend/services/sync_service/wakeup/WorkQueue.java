@@ -0,0 +1,29 @@
+package com.Backend.services.sync_service.wakeup;
+
+/**
+ * Database-backed work queues whose pollers can be woken through {@link WorkWakeupChannel}. Each
+ * queue has its own Postgres {@code NOTIFY} channel.
+ */
+public enum WorkQueue {
+    SYNC_TASK("sync_task_ready"),
+    USER_RECOMPUTE("user_recompute_ready");
+
+    private final String channel;
+
+    WorkQueue(String channel) {
+        this.channel = channel;
+    }
+
+    public String channel() {
+        return channel;
+    }
+
+    public static WorkQueue fromChannel(String channel) {
+        for (WorkQueue queue : values()) {
+            if (queue.channel.equals(channel)) {
+                return queue;
+            }
+        }
+        return null;
+    }
+}
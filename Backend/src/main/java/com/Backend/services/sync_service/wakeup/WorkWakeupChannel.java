@@ -0,0 +1,209 @@
+package com.Backend.services.sync_service.wakeup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Wakes queue pollers when work is enqueued instead of leaving it for the next poll.
+ *
+ * <p>{@link #signal} is called by producers with the time the new work becomes due. Once the
+ * producing transaction commits, the signal reaches pollers on this node through an in-process
+ * schedule, and pollers on other nodes through a Postgres {@code NOTIFY} sent in a transaction of
+ * its own (see {@link PostgresWakeupListener}), so a failed {@code NOTIFY} can never abort the
+ * enqueue. Wakeups per queue are de-duplicated to one per
+ * second of due time, so a burst of enqueues costs one poll.
+ *
+ * <p>Disabled with {@code sync.wakeup.enabled=false}; pollers then fall back to their fixed-delay
+ * schedules without idle backoff.
+ */
+@Slf4j
+@Component
+public class WorkWakeupChannel {
+
+    private static final String METRIC_PREFIX = "sync.wakeup";
+    // Bounds the pending due times per queue; anything beyond is left to the safety-net poll.
+    private static final int MAX_PENDING_WAKEUPS = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate notifyTransaction;
+    private final TaskScheduler taskScheduler;
+    private final boolean enabled;
+    private final boolean notifyEnabled;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<WorkQueue, QueueState> queues = new EnumMap<>(WorkQueue.class);
+
+    public WorkWakeupChannel(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            TaskScheduler taskScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${sync.wakeup.enabled:true}") boolean enabled,
+            @Value("${sync.wakeup.notify-enabled:true}") boolean notifyEnabled,
+            @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notifyTransaction = new TransactionTemplate(transactionManager);
+        this.notifyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskScheduler = taskScheduler;
+        this.enabled = enabled;
+        this.notifyEnabled = enabled && notifyEnabled && datasourceUrl.startsWith("jdbc:postgresql:");
+        for (WorkQueue queue : WorkQueue.values()) {
+            queues.put(queue, new QueueState(queue, meterRegistry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    boolean isNotifyEnabled() {
+        return notifyEnabled;
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    /** Registers the poll to run when {@code queue} is woken. One poller per queue and node. */
+    public void register(WorkQueue queue, Runnable poller) {
+        queues.get(queue).poller = poller;
+    }
+
+    /**
+     * Announces work on {@code queue} that becomes due at {@code dueAt} ({@code null} means now).
+     * Inside a transaction, delivery waits for the commit; the work is not visible before it, and
+     * nothing is sent if the transaction rolls back.
+     */
+    public void signal(WorkQueue queue, Instant dueAt) {
+        if (!enabled || queue == null) {
+            return;
+        }
+        Instant resolvedDueAt = dueAt == null ? Instant.now() : dueAt;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    notifyPeers(queue, resolvedDueAt);
+                    wake(queue, resolvedDueAt, false);
+                }
+            });
+        } else {
+            notifyPeers(queue, resolvedDueAt);
+            wake(queue, resolvedDueAt, false);
+        }
+    }
+
+    private void notifyPeers(WorkQueue queue, Instant dueAt) {
+        if (!notifyEnabled) {
+            return;
+        }
+        try {
+            // After commit the producer's connection no longer commits anything, so the NOTIFY runs
+            // and commits in a transaction of its own.
+            notifyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    "select pg_notify(?, ?)",
+                    rs -> { },
+                    queue.channel(),
+                    nodeId + "|" + dueAt.toEpochMilli()));
+        } catch (RuntimeException ex) {
+            log.debug("Failed to NOTIFY {}: {}", queue.channel(), ex.toString());
+        }
+    }
+
+    /** Delivers a wakeup received from another node. */
+    void deliverRemote(WorkQueue queue, Instant dueAt) {
+        wake(queue, dueAt, true);
+    }
+
+    private void wake(WorkQueue queue, Instant dueAt, boolean remote) {
+        QueueState state = queues.get(queue);
+        (remote ? state.remoteSignals : state.localSignals).increment();
+        if (state.poller == null) {
+            return;
+        }
+        // Work due now shares one immediate slot; future work is rounded up to the next second so
+        // a wakeup never fires before the work it announces is due.
+        Instant wakeAt = dueAt.isAfter(Instant.now())
+                ? dueAt.truncatedTo(ChronoUnit.SECONDS).plusSeconds(dueAt.getNano() == 0 ? 0 : 1)
+                : Instant.EPOCH;
+        if (state.pending.size() >= MAX_PENDING_WAKEUPS && !state.pending.contains(wakeAt)) {
+            return;
+        }
+        state.pending.add(wakeAt);
+        armNext(state);
+    }
+
+    private void armNext(QueueState state) {
+        synchronized (state) {
+            Instant earliest = state.pending.isEmpty() ? null : state.pending.first();
+            if (earliest == null) {
+                return;
+            }
+            if (state.armedFor != null && !state.armedFor.isAfter(earliest)) {
+                return;
+            }
+            if (state.armed != null) {
+                state.armed.cancel(false);
+            }
+            state.armedFor = earliest;
+            state.armed = taskScheduler.schedule(() -> fire(state), earliest);
+        }
+    }
+
+    private void fire(QueueState state) {
+        Instant now = Instant.now();
+        synchronized (state) {
+            state.armed = null;
+            state.armedFor = null;
+            state.pending.headSet(now, true).clear();
+        }
+        try {
+            state.poller.run();
+        } catch (RuntimeException ex) {
+            log.warn("Wakeup poll failed for queue={}: {}", state.queue, ex.toString());
+        } finally {
+            armNext(state);
+        }
+    }
+
+    private static final class QueueState {
+        private final WorkQueue queue;
+        private final ConcurrentSkipListSet<Instant> pending = new ConcurrentSkipListSet<>();
+        private final Counter localSignals;
+        private final Counter remoteSignals;
+        private volatile Runnable poller;
+        private ScheduledFuture<?> armed;
+        private Instant armedFor;
+
+        private QueueState(WorkQueue queue, MeterRegistry meterRegistry) {
+            this.queue = queue;
+            this.localSignals = Counter.builder(METRIC_PREFIX + ".signals")
+                    .description("Queue wakeups received")
+                    .tag("queue", queue.name())
+                    .tag("source", "local")
+                    .register(meterRegistry);
+            this.remoteSignals = Counter.builder(METRIC_PREFIX + ".signals")
+                    .description("Queue wakeups received")
+                    .tag("queue", queue.name())
+                    .tag("source", "notify")
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.Backend.services.user_service.controller;
 
+import com.Backend.cache.CachedJsonResponse;
 import com.Backend.exception.ErrorRes;
 import com.Backend.exception.ErrorResObject;
 import com.Backend.services.user_service.model.DTO.*;
@@ -68,6 +69,7 @@ public class UserController {
     }
 
     @GetMapping("/me")
+    @CachedJsonResponse
     @Operation(summary = "Get current user profile")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Profile returned successfully"),
@@ -1,18 +1,29 @@
 package com.Backend.services.user_service.model;
 
+import com.Backend.cache.Multilevel_Cache;
 import com.Backend.exception.UserNotFoundException;
+import com.Backend.services.user_service.model.DTO.SimpleUserDTO;
 import com.Backend.services.user_service.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class UserLookUpHelper {
     private final UserRepository userRepository;
+    private final CacheManager cacheManager;
 
     public User getUserById(Long id) {
         log.debug("Fetching user by id={} from database", id);
@@ -27,6 +38,28 @@ public class UserLookUpHelper {
                 .orElseThrow(() -> new UserNotFoundException("User with id " + id + " not found"));
     }
 
+    /**
+     * Same entries as {@code UserService.getSimpleUserByIdCached}, resolved in bulk: cached users
+     * come from L1 or one Redis MGET, the rest from one {@code IN} query. Unknown ids are absent.
+     */
+    public Map<Long, SimpleUserDTO> getSimpleUsersByIdsCached(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        Cache cache = cacheManager.getCache("users");
+        if (cache instanceof Multilevel_Cache multilevel) {
+            return multilevel.getAll(ids, this::loadSimpleUsers);
+        }
+        return loadSimpleUsers(new LinkedHashSet<>(ids));
+    }
+
+    private Map<Long, SimpleUserDTO> loadSimpleUsers(Set<Long> ids) {
+        log.debug("Fetching {} simple user DTOs by id from database", ids.size());
+        return userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId,
+                        user -> new SimpleUserDTO(user.getId(), user.getEmail(), user.getUsername())));
+    }
+
     @Cacheable(value = "userId", key = "#email")
     public Long getUserIdByEmail(String email) {
         log.debug("Fetching user id by email={} from database", email);
@@ -1,5 +1,6 @@
 package com.Backend.services.user_service.service;
 
+import com.Backend.cache.CacheScopes;
 import com.Backend.services.chat_service.message.dto.MessageDTO;
 import com.Backend.services.chat_service.service.ChatService;
 import com.Backend.services.friend_service.model.Status;
@@ -16,6 +17,8 @@ import com.Backend.services.watchlist_service.model.WatchlistItem;
 import com.Backend.springSecurity.jwtAuthentication.JwtService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.Caching;
@@ -32,8 +35,11 @@ import com.Backend.exception.AuthenticationFailedException;
 import com.Backend.exception.UserNotFoundException;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -49,6 +55,7 @@ public class UserService {
     private final FriendService friendService;
 
     private final UserLookUpHelper lookUpHelper;
+    private final CacheManager cacheManager;
 
     // Removed @Cacheable - was caching JPA entities which causes Kryo serialization issues
     public List<User> getAllUsers() {
@@ -75,9 +82,8 @@ public class UserService {
 
     @Transactional
     @Caching(evict = {
-            @CacheEvict(value = "userSearch", allEntries = true),
-            @CacheEvict(value = "allUsersDTO", key = "'all'"),
-            @CacheEvict(value = "userSearchCache", allEntries = true)
+            @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "T(com.Backend.cache.CacheScopes).USER_DIRECTORY"),
+            @CacheEvict(value = "allUsersDTO", key = "'all'")
     })
     public JwtToken registerUser(RegisterDTO registerDTO) {
         String encryptedPassword = passwordEncoder.encode(registerDTO.password());
@@ -122,8 +128,9 @@ public class UserService {
     @Transactional
     @Caching(evict = {
                 @CacheEvict(value = "userMeDTO", key = "#userFromContext.email"),
-                @CacheEvict(value = "userSearch", allEntries = true),
-                @CacheEvict(value = "userId", key = "#userFromContext.getEmail()")
+                @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "T(com.Backend.cache.CacheScopes).USER_DIRECTORY"),
+                @CacheEvict(value = "userId", key = "#userFromContext.getEmail()"),
+                @CacheEvict(value = "users", key = "#userFromContext.id")
         }
     )
     public User updateUser(UpdateUserDTO update, User userFromContext) {
@@ -137,23 +144,28 @@ public class UserService {
 
     @Transactional
     @Caching(evict = {
+            // Other users' profiles list the deleted user among friends and chats; deletions are
+            // rare enough that clearing every profile beats tracking who mentions whom.
             @CacheEvict(value = "userMeDTO", allEntries = true),
-            @CacheEvict(value = "userSearch", allEntries = true),
-            @CacheEvict(value = "userId", allEntries = true),
+            @CacheEvict(cacheNames = CacheScopes.GENERATIONS, key = "T(com.Backend.cache.CacheScopes).USER_DIRECTORY"),
             @CacheEvict(value = "allUsersDTO", key = "'all'"),
-            @CacheEvict(value = "userSearchCache",  allEntries = true)
+            @CacheEvict(value = "users", key = "#id")
     })
     public void deleteUserById(Long id) {
-        if (!userRepository.existsById(id)) {
+        User user = userRepository.findById(id).orElseThrow(() -> {
             log.error("User with id {} does not exist", id);
-            throw new UserNotFoundException("User with id " + id + " does not exist");
+            return new UserNotFoundException("User with id " + id + " does not exist");
+        });
+        Cache userIdCache = cacheManager.getCache("userId");
+        if (userIdCache != null) {
+            userIdCache.evict(user.getEmail());
         }
         userRepository.deleteById(id);
         log.info("User with id {} deleted successfully", id);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "userSearch", key = "{#query, #id, #pageable.pageNumber, #pageable.pageSize}")
+    @Cacheable(value = "userSearch", key = "@cacheScopes.key(T(com.Backend.cache.CacheScopes).USER_DIRECTORY, #query, #id, #pageable.pageNumber, #pageable.pageSize)")
     public List<SimpleUserDTO> searchUsers(String query, Long id, Pageable pageable) {
         log.debug("Searching users with query: '{}', excluding user ID: {}, page: {}, size: {}",
                 query, id, pageable.getPageNumber(), pageable.getPageSize());
@@ -175,7 +187,7 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = "userMeDTO", key = "#principal.email")
+    @Cacheable(value = "userMeDTO", key = "#principal.email", sync = true)
     public UserMeDTO getMeDTO(User principal) {
         log.debug("Fetching UserMeDTO for email={} from database", principal.getEmail());
 
@@ -242,6 +254,19 @@ public class UserService {
 
         // Chats with participants and latest message
         if (user.getChats() != null) {
+            // Using helper to prevent cycle
+            Map<Long, MessageDTO> latestByChat = new HashMap<>();
+            user.getChats().forEach(chat -> {
+                MessageDTO latestDTO = chatService.getLatestMessageDTO(chat.getId());
+                if (latestDTO != null) {
+                    latestByChat.put(chat.getId(), latestDTO);
+                }
+            });
+            // One batched lookup for every sender instead of one per chat
+            Map<Long, SimpleUserDTO> senders = lookUpHelper.getSimpleUsersByIdsCached(latestByChat.values().stream()
+                    .map(MessageDTO::getSenderId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()));
             dto.setChats(user.getChats().stream()
                     .map(chat -> {
                         ChatSummaryDTO c = new ChatSummaryDTO();
@@ -250,10 +275,12 @@ public class UserService {
                         c.setParticipants(chat.getParticipants().stream()
                                 .map(u -> new SimpleUserDTO(u.getId(), u.getEmail(), u.getRealUsername()))
                                 .toList());
-                        // Using helper to prevent cycle
-                        MessageDTO latestDTO = chatService.getLatestMessageDTO(chat.getId());
+                        MessageDTO latestDTO = latestByChat.get(chat.getId());
                         if (latestDTO != null) {
-                            SimpleUserDTO senderDTO = getSimpleUserByIdCached(latestDTO.getSenderId());
+                            SimpleUserDTO senderDTO = senders.get(latestDTO.getSenderId());
+                            if (senderDTO == null) {
+                                throw new UserNotFoundException("User with id " + latestDTO.getSenderId() + " not found");
+                            }
                             c.setLatestMessage(new UserMessageDTO(
                                     latestDTO.getId(),
                                     latestDTO.getContent(),
@@ -312,7 +339,7 @@ public class UserService {
         }
 
     // ====Helper===
-    @Cacheable(value = "userSearchCache", key = "#query + - + #userId")
+    @Cacheable(value = "userSearchCache", key = "@cacheScopes.key(T(com.Backend.cache.CacheScopes).USER_DIRECTORY, #query, #userId)")
     public List<SimpleUserDTO> getPageUserSearch(String query, Long userId) {
         return userRepository.findByUsernameContainingIgnoreCaseAndIdNot(query, userId)
                 .stream()
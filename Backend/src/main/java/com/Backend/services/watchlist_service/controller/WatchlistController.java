@@ -1,5 +1,6 @@
 package com.Backend.services.watchlist_service.controller;
 
+import com.Backend.cache.CachedJsonResponse;
 import com.Backend.exception.ErrorRes;
 import com.Backend.services.user_service.model.User;
 import com.Backend.services.watchlist_service.model.WatchlistPosting;
@@ -25,6 +26,7 @@ public class WatchlistController {
     private final WatchlistService watchlistService;
 
     @GetMapping()
+    @CachedJsonResponse
     @Operation(summary = "Get current user watchlist")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Watchlist returned successfully"),
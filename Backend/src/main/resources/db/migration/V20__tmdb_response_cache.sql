@@ -0,0 +1,21 @@
+-- Durable TMDB response store used for conditional (If-None-Match / If-Modified-Since) refreshes.
+-- Bodies are gzip-compressed; eviction is driven by last_accessed_at.
+create table if not exists tmdb_response_cache (
+    id bigserial primary key,
+    endpoint varchar(32) not null,
+    tmdb_id bigint not null,
+    type varchar(16) not null,
+    etag varchar(256),
+    last_modified varchar(64),
+    body_gzip bytea not null,
+    body_size int not null,
+    compressed_size int not null,
+    fetched_at timestamptz not null,
+    validated_at timestamptz not null,
+    last_accessed_at timestamptz not null,
+
+    constraint uq_tmdb_response_cache_key unique (endpoint, tmdb_id, type)
+);
+
+create index if not exists idx_tmdb_response_cache_last_accessed
+    on tmdb_response_cache (last_accessed_at);
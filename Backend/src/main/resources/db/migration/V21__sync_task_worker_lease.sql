@@ -0,0 +1,11 @@
+-- Sync tasks are claimed by worker nodes with FOR UPDATE SKIP LOCKED and held as RUNNING under a
+-- time-bounded lease. Expired leases (crashed or stalled workers) are returned to RETRYING.
+alter table sync_task
+    add column if not exists lease_owner varchar(128);
+
+alter table sync_task
+    add column if not exists lease_expires_at timestamptz;
+
+create index if not exists idx_sync_task_running_lease
+    on sync_task (lease_expires_at)
+    where status = 'RUNNING';
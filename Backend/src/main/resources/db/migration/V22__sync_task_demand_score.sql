@@ -0,0 +1,8 @@
+-- Demand score: how many users' watchlists reach the film (directly or through a recommendation
+-- edge), with active users weighted up. Due tasks are claimed highest demand first within a category.
+alter table sync_task
+    add column if not exists demand_score integer not null default 0;
+
+create index if not exists idx_sync_task_due_by_demand
+    on sync_task (sync_category, demand_score desc, next_retry_at)
+    where status in ('PENDING', 'RETRYING');
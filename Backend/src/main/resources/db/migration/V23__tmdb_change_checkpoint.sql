@@ -0,0 +1,11 @@
+-- Catalog refresh follows TMDB's /movie/changes and /tv/changes feeds. Each row records, per film
+-- type, the instant up to which the feed has been applied to the local catalog.
+create table if not exists tmdb_change_checkpoint (
+    type varchar(16) primary key,
+    synced_until timestamptz not null,
+    updated_at timestamptz not null
+);
+
+create index if not exists idx_film_done_enriched_at
+    on film (enriched_at)
+    where enrichment_status = 'DONE';
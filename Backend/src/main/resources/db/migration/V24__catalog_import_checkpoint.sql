@@ -0,0 +1,9 @@
+-- Offline catalog import from TMDB export files. One row per export file so an interrupted import
+-- resumes after the last committed batch instead of re-reading from the top.
+create table if not exists catalog_import_checkpoint (
+    file_name varchar(255) primary key,
+    lines_applied bigint not null default 0,
+    rows_inserted bigint not null default 0,
+    completed_at timestamptz,
+    updated_at timestamptz not null
+);
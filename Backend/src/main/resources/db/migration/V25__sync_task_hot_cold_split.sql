@@ -0,0 +1,44 @@
+-- sync_task holds only live work. Settled rows (SUCCEEDED, FAILED_PERMANENT) are moved to
+-- sync_task_history by the compactor once they have been settled for a grace period, so claim and
+-- backlog queries stay proportional to the runnable queue rather than to the whole catalog.
+alter table sync_task
+    add column if not exists updated_at timestamptz;
+
+update sync_task set updated_at = now() where updated_at is null;
+
+alter table sync_task
+    alter column updated_at set default now();
+
+-- The full (status, next_retry_at) index also covered every settled row. Runnable lookups use
+-- partial indexes instead; settled rows are only ever read by the compactor.
+drop index if exists idx_sync_task_status_next_retry;
+
+create index if not exists idx_sync_task_runnable_due
+    on sync_task (sync_category, next_retry_at)
+    where status in ('PENDING', 'RETRYING');
+
+create index if not exists idx_sync_task_settled_updated
+    on sync_task (updated_at)
+    where status in ('SUCCEEDED', 'FAILED_PERMANENT');
+
+-- No foreign key to film: history outlives the films it describes and must not block their removal.
+create table if not exists sync_task_history (
+    id bigint primary key,
+    film_internal_id bigint not null,
+    tmdb_id bigint not null,
+    user_id bigint,
+    sync_category varchar(32) not null,
+    status varchar(32) not null,
+    attempts integer not null,
+    max_attempts integer not null,
+    last_error_code varchar(64),
+    last_error_message varchar(1000),
+    settled_at timestamptz,
+    archived_at timestamptz not null default now()
+);
+
+create index if not exists idx_sync_task_history_film
+    on sync_task_history (film_internal_id, sync_category);
+
+create index if not exists idx_sync_task_history_archived_at
+    on sync_task_history (archived_at);
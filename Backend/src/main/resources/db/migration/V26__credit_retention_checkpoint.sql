@@ -0,0 +1,7 @@
+-- The credit retention compactor walks films in keyset pages. The single row records the last film
+-- pruned so a restarted node resumes there instead of rescanning the catalog from the start.
+create table if not exists credit_retention_checkpoint (
+    id smallint primary key,
+    film_cursor bigint not null default 0,
+    updated_at timestamptz not null
+);
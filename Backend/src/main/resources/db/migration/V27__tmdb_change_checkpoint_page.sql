@@ -0,0 +1,3 @@
+-- A day of the changes feed can hold more pages than one refresh run reads. The next unread page of
+-- the day holding synced_until is kept with the checkpoint so the following run continues there.
+alter table tmdb_change_checkpoint add column if not exists next_page integer not null default 1;
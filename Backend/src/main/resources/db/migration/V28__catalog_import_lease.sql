@@ -0,0 +1,7 @@
+-- Only one node runs the offline catalog import at a time. The node holding this single-row lease
+-- renews it with every committed batch; a crashed node's lease expires and another node may resume.
+create table if not exists catalog_import_lease (
+    id smallint primary key,
+    lease_owner varchar(128),
+    lease_expires_at timestamptz
+);
@@ -0,0 +1,46 @@
+package com.Backend.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.Backend.services.user_service.model.DTO.SimpleUserDTO;
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CacheEntryWeigherTest {
+
+    private final KryoRedisSerializer<Object> codec = new KryoRedisSerializer<>(Object.class);
+    private final KryoRedisSerializer<Object> weighingCodec = spy(new KryoRedisSerializer<>(Object.class));
+    private final CacheEntryWeigher weigher = new CacheEntryWeigher(weighingCodec);
+
+    @Test
+    @DisplayName("A value just read from Redis is weighed by its payload without serializing it again")
+    void valueReadFromRedisReusesPayloadSize() {
+        // Large and repetitive enough to be stored LZ4-compressed.
+        List<SimpleUserDTO> users = LongStream.range(0, 200)
+                .mapToObj(id -> new SimpleUserDTO(id, "user" + id + "@example.com", "user"))
+                .toList();
+        byte[] payload = codec.serialize(users);
+        assertThat(payload[0]).isEqualTo(KryoRedisSerializer.FORMAT_LZ4);
+
+        Object read;
+        KryoRedisSerializer.capturePayloadSizes();
+        try {
+            read = codec.deserialize(payload);
+            assertThat(weigher.weigh("key", read)).isEqualTo(codec.serializedSize(users));
+        } finally {
+            KryoRedisSerializer.releasePayloadSizes();
+        }
+        verify(weighingCodec, never()).serializedSize(any());
+
+        // Outside a capture the same value is serialized to be weighed.
+        assertThat(weigher.weigh("key", read)).isEqualTo(codec.serializedSize(users));
+        verify(weighingCodec, times(1)).serializedSize(any());
+    }
+}
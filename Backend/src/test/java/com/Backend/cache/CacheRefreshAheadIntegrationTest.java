@@ -0,0 +1,162 @@
+package com.Backend.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import com.Backend.services.user_service.model.ROLE;
+import com.Backend.services.user_service.model.User;
+import com.Backend.services.user_service.repository.UserRepository;
+import com.Backend.test.DotenvTestInitializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drives refresh-ahead through a real proxied {@code @Transactional @Cacheable(sync = true)} bean.
+ * Its loader joins the caller's transaction, as it does whenever the transaction advice runs
+ * outside the cache advice, so the background reload only succeeds if the coordinator opens a
+ * transaction of its own.
+ */
+@SpringBootTest(properties = {
+        "spring.task.scheduling.enabled=false",
+        "cache.policies.caches.[refreshAheadTest].mode=local-only",
+        "cache.policies.caches.[refreshAheadTest].refresh-ahead=true",
+        "cache.policies.caches.[refreshAheadTest].refresh-after-write=1ms",
+        "cache.policies.caches.[refreshAheadOffTest].mode=local-only",
+        "cache.policies.caches.[refreshAheadOffTest].refresh-after-write=1ms"
+})
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = DotenvTestInitializer.class)
+@Import(CacheRefreshAheadIntegrationTest.Config.class)
+class CacheRefreshAheadIntegrationTest {
+
+    @Autowired
+    private NotificationCounts notificationCounts;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @AfterEach
+    void cleanup() {
+        if (user != null) {
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("A refresh-ahead reload of a transactional loader runs inside a transaction")
+    void refreshAheadRunsTheLoaderInATransaction() throws InterruptedException {
+        user = createUser();
+
+        assertThat(inTransaction(() -> notificationCounts.refreshing(user.getId()))).isZero();
+        Thread.sleep(5);
+        assertThat(inTransaction(() -> notificationCounts.refreshing(user.getId()))).isZero();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(refreshAhead("refreshAheadTest", "refreshed")).isEqualTo(1.0);
+            assertThat(notificationCounts.refreshingLoads()).isEqualTo(2);
+        });
+        assertThat(refreshAhead("refreshAheadTest", "failed")).isZero();
+    }
+
+    @Test
+    @DisplayName("Caches that do not opt in never reload on a hit")
+    void cachesWithoutTheOptInDoNotRefreshAhead() throws InterruptedException {
+        user = createUser();
+
+        inTransaction(() -> notificationCounts.plain(user.getId()));
+        Thread.sleep(5);
+        inTransaction(() -> notificationCounts.plain(user.getId()));
+        Thread.sleep(100);
+
+        assertThat(notificationCounts.plainLoads()).isEqualTo(1);
+        assertThat(refreshAhead("refreshAheadOffTest", "refreshed")).isZero();
+    }
+
+    private Integer inTransaction(Supplier<Integer> call) {
+        return new TransactionTemplate(transactionManager).execute(status -> call.get());
+    }
+
+    private double refreshAhead(String cacheName, String outcome) {
+        return meterRegistry.get("cache.refresh.ahead").tags("cache", cacheName, "outcome", outcome)
+                .counter().count();
+    }
+
+    private User createUser() {
+        String suffix = "refresh-ahead-" + System.nanoTime();
+        return userRepository.saveAndFlush(User.builder()
+                .username(suffix)
+                .email(suffix + "@example.com")
+                .password("password123")
+                .role(ROLE.ROLE_USER)
+                .watchlist(null)
+                .build());
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        NotificationCounts notificationCounts(UserRepository userRepository) {
+            return new NotificationCounts(userRepository);
+        }
+    }
+
+    /** Reads a lazy association inside the caller's transaction, and fails without one. */
+    public static class NotificationCounts {
+
+        private final UserRepository userRepository;
+        private final AtomicInteger refreshingLoads = new AtomicInteger();
+        private final AtomicInteger plainLoads = new AtomicInteger();
+
+        NotificationCounts(UserRepository userRepository) {
+            this.userRepository = userRepository;
+        }
+
+        @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+        @Cacheable(value = "refreshAheadTest", key = "#userId", sync = true)
+        public Integer refreshing(Long userId) {
+            refreshingLoads.incrementAndGet();
+            return userRepository.findById(userId).orElseThrow().getNotifications().size();
+        }
+
+        @Transactional(propagation = Propagation.MANDATORY, readOnly = true)
+        @Cacheable(value = "refreshAheadOffTest", key = "#userId", sync = true)
+        public Integer plain(Long userId) {
+            plainLoads.incrementAndGet();
+            return userRepository.findById(userId).orElseThrow().getNotifications().size();
+        }
+
+        public int refreshingLoads() {
+            return refreshingLoads.get();
+        }
+
+        public int plainLoads() {
+            return plainLoads.get();
+        }
+    }
+}
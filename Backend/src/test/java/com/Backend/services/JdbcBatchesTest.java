@@ -0,0 +1,31 @@
+package com.Backend.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class JdbcBatchesTest {
+
+    @Test
+    @DisplayName("Rows are split into ordered chunks of at most the per-statement limit")
+    void chunksAreBoundedAndOrdered() {
+        List<Long> rows = LongStream.range(0, 2_500).boxed().toList();
+
+        List<List<Long>> chunks = JdbcBatches.chunks(rows);
+
+        assertThat(chunks).extracting(List::size).containsExactly(1000, 1000, 500);
+        assertThat(chunks.stream().flatMap(List::stream).toList()).isEqualTo(rows);
+        assertThat(JdbcBatches.chunks(List.of())).isEmpty();
+        assertThat(JdbcBatches.chunks(null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Placeholders hold one bind marker per value")
+    void placeholdersMatchCount() {
+        assertThat(JdbcBatches.placeholders(1)).isEqualTo("?");
+        assertThat(JdbcBatches.placeholders(3)).isEqualTo("?, ?, ?");
+    }
+}
@@ -0,0 +1,112 @@
+package com.Backend.services.catalog_import_service.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.catalog_import_service.repository.CatalogImportBulkRepository.CatalogFilmRow;
+import com.Backend.services.catalog_import_service.repository.CatalogImportBulkRepository.CatalogKeywordRow;
+import com.Backend.services.film_service.repository.FilmBulkRepository;
+import com.Backend.services.keyword_service.repository.KeywordBulkRepository;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Drives the PostgreSQL {@code COPY} path against a mocked driver connection, checking the staged
+ * CSV and the statement that moves it into the target table.
+ */
+class CatalogImportBulkRepositoryTest {
+
+    private final Connection connection = mock(Connection.class);
+    private final PGConnection pgConnection = mock(PGConnection.class);
+    private final CopyManager copyManager = mock(CopyManager.class);
+    private final PreparedStatement insert = mock(PreparedStatement.class);
+    private final FilmBulkRepository filmBulkRepository = mock(FilmBulkRepository.class);
+    private final KeywordBulkRepository keywordBulkRepository = mock(KeywordBulkRepository.class);
+    private final List<String> copySql = new ArrayList<>();
+    private final List<String> copiedCsv = new ArrayList<>();
+    private CatalogImportBulkRepository repository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        when(connection.prepareStatement(anyString())).thenReturn(insert);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString(), any(Reader.class))).thenAnswer(invocation -> {
+            StringWriter csv = new StringWriter();
+            invocation.<Reader>getArgument(1).transferTo(csv);
+            copySql.add(invocation.getArgument(0));
+            copiedCsv.add(csv.toString());
+            return 0L;
+        });
+        repository = new CatalogImportBulkRepository(
+                new JdbcTemplate(dataSource), filmBulkRepository, keywordBulkRepository);
+    }
+
+    @Test
+    @DisplayName("Films are copied as quoted CSV, with nulls unquoted and long titles truncated")
+    void filmsAreStagedWithCopy() throws Exception {
+        when(insert.executeUpdate()).thenReturn(3);
+
+        int inserted = repository.insertFilmsIfAbsent(FilmType.SERIES, List.of(
+                new CatalogFilmRow(1L, "Plain"),
+                new CatalogFilmRow(2L, "Say \"hi\", twice"),
+                new CatalogFilmRow(3L, null),
+                new CatalogFilmRow(4L, "x".repeat(300))));
+
+        assertThat(inserted).isEqualTo(3);
+        assertThat(copySql).containsExactly(
+                "copy catalog_import_film_stage (film_id, title) from stdin with (format csv)");
+        assertThat(copiedCsv).containsExactly("1,\"Plain\"\n"
+                + "2,\"Say \"\"hi\"\", twice\"\n"
+                + "3,\n"
+                + "4,\"" + "x".repeat(255) + "\"\n");
+        verify(insert).setObject(1, "SERIES");
+        verify(insert).setObject(2, "PENDING");
+        verifyNoInteractions(filmBulkRepository);
+    }
+
+    @Test
+    @DisplayName("Keywords are copied into their stage and inserted with the configured type")
+    void keywordsAreStagedWithCopy() throws Exception {
+        when(insert.executeUpdate()).thenReturn(1);
+
+        int inserted = repository.insertKeywordsIfAbsent(FilmType.MOVIE, List.of(
+                new CatalogKeywordRow(10L, "heist")));
+
+        assertThat(inserted).isEqualTo(1);
+        assertThat(copySql).containsExactly(
+                "copy catalog_import_keyword_stage (keyword_id, name) from stdin with (format csv)");
+        assertThat(copiedCsv).containsExactly("10,\"heist\"\n");
+        verify(insert).setObject(1, "MOVIE");
+        verify(connection).prepareStatement(eq("""
+                insert into keyword (keyword_id, name, type)
+                select s.keyword_id, s.name, ?
+                from catalog_import_keyword_stage s
+                on conflict do nothing
+                """));
+        verifyNoInteractions(keywordBulkRepository);
+    }
+}
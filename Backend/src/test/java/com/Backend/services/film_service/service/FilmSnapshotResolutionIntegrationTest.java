@@ -0,0 +1,73 @@
+package com.Backend.services.film_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.film_service.model.TmdbSimilarItem;
+import com.Backend.test.DotenvTestInitializer;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Checks that resolving TMDB list items to film rows survives a rejected row without losing the
+ * others or the caller's transaction.
+ */
+@SpringBootTest(properties = "spring.task.scheduling.enabled=false")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = DotenvTestInitializer.class)
+class FilmSnapshotResolutionIntegrationTest {
+
+    @Autowired
+    private FilmService filmService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("delete from film where film_id between 897001 and 897099");
+    }
+
+    @Test
+    @DisplayName("A snapshot row that violates a constraint is skipped and the other rows still persist")
+    void rejectedSnapshotRowDoesNotLoseTheOthers() {
+        // original_language holds at most 16 characters, so the whole batch insert fails on this row.
+        List<TmdbSimilarItem> items = List.of(
+                item(897_001L, "en"),
+                item(897_002L, "x".repeat(32)),
+                item(897_003L, "ko"));
+
+        Map<Long, Long> resolved = new TransactionTemplate(transactionManager).execute(status -> {
+            Map<Long, Long> result = filmService.resolveFilmIdsFromTmdbSnapshots(FilmType.MOVIE, items);
+            assertThat(status.isRollbackOnly()).isFalse();
+            // The caller's transaction is still usable after the failed batch.
+            jdbcTemplate.update("update film set title = 'Resolved in caller' where film_id = 897001");
+            return result;
+        });
+
+        assertThat(resolved).containsOnlyKeys(897_001L, 897_003L);
+        assertThat(jdbcTemplate.queryForList(
+                "select film_id from film where film_id between 897001 and 897099 order by film_id", Long.class))
+                .containsExactly(897_001L, 897_003L);
+        assertThat(jdbcTemplate.queryForObject(
+                "select title from film where film_id = 897001", String.class))
+                .isEqualTo("Resolved in caller");
+    }
+
+    private static TmdbSimilarItem item(long tmdbId, String originalLanguage) {
+        return new TmdbSimilarItem(tmdbId, "Snapshot " + tmdbId, "2024-01-01", null, 7.0, originalLanguage, null);
+    }
+}
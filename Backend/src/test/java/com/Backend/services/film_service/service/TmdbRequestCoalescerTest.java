@@ -0,0 +1,154 @@
+package com.Backend.services.film_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import com.Backend.services.FilmType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TmdbRequestCoalescerTest {
+
+    private static final int CALLERS = 8;
+    private static final long TMDB_ID = 550L;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Concurrent callers for one key share a single call, and the key is released afterwards")
+    void concurrentCallersShareOneCall() throws Exception {
+        TmdbRequestCoalescer coalescer = new TmdbRequestCoalescer(meterRegistry, 64);
+        BlockingCall call = new BlockingCall(() -> "details");
+
+        List<CompletableFuture<String>> results = callConcurrently(coalescer, call, CALLERS);
+        call.release();
+
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("details");
+        }
+        assertThat(call.calls.get()).isEqualTo(1);
+        assertThat(inFlight()).isZero();
+
+        // Nothing is left in flight, so the next caller runs its own call.
+        assertThat(coalescer.execute("details", TMDB_ID, FilmType.MOVIE, () -> "again")).isEqualTo("again");
+    }
+
+    @Test
+    @DisplayName("A failure of the shared call reaches every waiting caller")
+    void leaderFailureReachesEveryWaiter() {
+        TmdbRequestCoalescer coalescer = new TmdbRequestCoalescer(meterRegistry, 64);
+        IllegalStateException failure = new IllegalStateException("TMDB unavailable");
+        BlockingCall call = new BlockingCall(() -> {
+            throw failure;
+        });
+
+        List<CompletableFuture<String>> results = callConcurrently(coalescer, call, CALLERS);
+        call.release();
+
+        for (CompletableFuture<String> result : results) {
+            assertThatThrownBy(result::join)
+                    .isInstanceOf(CompletionException.class)
+                    .cause().isSameAs(failure);
+        }
+        assertThat(call.calls.get()).isEqualTo(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Callers beyond the waiter cap run their own call instead of joining")
+    void callersOverWaiterCapRunTheirOwnCall() throws Exception {
+        TmdbRequestCoalescer coalescer = new TmdbRequestCoalescer(meterRegistry, 2);
+        BlockingCall call = new BlockingCall(() -> "shared");
+
+        List<CompletableFuture<String>> results = callConcurrently(coalescer, call, 3);
+        AtomicInteger ownCalls = new AtomicInteger();
+        String own = coalescer.execute("details", TMDB_ID, FilmType.MOVIE, () -> {
+            ownCalls.incrementAndGet();
+            return "own";
+        });
+        call.release();
+
+        assertThat(own).isEqualTo("own");
+        assertThat(ownCalls.get()).isEqualTo(1);
+        assertThat(meterRegistry.counter("tmdb.request.coalescing.overflow").count()).isEqualTo(1.0d);
+        for (CompletableFuture<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("shared");
+        }
+        assertThat(call.calls.get()).isEqualTo(1);
+        assertThat(inFlight()).isZero();
+    }
+
+    /**
+     * Starts {@code callers} concurrent requests for the same key and returns once one of them is
+     * running {@code call} and all others are parked on it.
+     */
+    private List<CompletableFuture<String>> callConcurrently(
+            TmdbRequestCoalescer coalescer, BlockingCall call, int callers) {
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(CompletableFuture.supplyAsync(
+                    () -> coalescer.execute("details", TMDB_ID, FilmType.MOVIE, call), executor));
+        }
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(call.calls.get()).isEqualTo(1);
+            assertThat(meterRegistry.counter("tmdb.request.coalescing.coalesced").count())
+                    .isEqualTo(callers - 1.0d);
+        });
+        return results;
+    }
+
+    private double inFlight() {
+        return meterRegistry.get("tmdb.request.coalescing.in_flight").gauge().value();
+    }
+
+    /** Holds every invocation until {@link #release()}, then returns or throws from {@code outcome}. */
+    private static final class BlockingCall implements Supplier<String> {
+
+        private final Supplier<String> outcome;
+        private final CountDownLatch released = new CountDownLatch(1);
+        private final AtomicInteger calls = new AtomicInteger();
+
+        BlockingCall(Supplier<String> outcome) {
+            this.outcome = outcome;
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        @Override
+        public String get() {
+            calls.incrementAndGet();
+            try {
+                if (!released.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Call was never released");
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(ex);
+            }
+            return outcome.get();
+        }
+    }
+}
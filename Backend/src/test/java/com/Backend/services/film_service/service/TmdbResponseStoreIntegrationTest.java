@@ -0,0 +1,209 @@
+package com.Backend.services.film_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.film_service.model.TmdbResponseCacheEntry;
+import com.Backend.services.film_service.repository.TmdbResponseCacheRepository;
+import com.Backend.services.sync_service.service.SyncRetryPolicy;
+import com.Backend.test.DotenvTestInitializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drives a real {@link TmdbClient} against a stubbed TMDB exchange to check that stored responses
+ * are revalidated with their validators, served from the store on 304 and evicted by idle time and
+ * total size.
+ */
+@SpringBootTest(properties = "spring.task.scheduling.enabled=false")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = DotenvTestInitializer.class)
+class TmdbResponseStoreIntegrationTest {
+
+    @Autowired
+    private TmdbResponseStore responseStore;
+
+    @Autowired
+    private TmdbResponseCacheRepository responseCacheRepository;
+
+    @Autowired
+    private TmdbRequestCoalescer requestCoalescer;
+
+    @Autowired
+    private SyncRetryPolicy syncRetryPolicy;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TmdbPayloadDecoder payloadDecoder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        responseCacheRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("A stored TMDB response is revalidated with its ETag, served on 304 and replaced on 200")
+    void storedResponseIsRevalidatedAndServedOn304() {
+        StubTmdb tmdb = new StubTmdb();
+        TmdbClient client = tmdbClient(tmdb);
+        String v1 = "{\"id\":895001,\"title\":\"Stored Title\"}";
+
+        tmdb.respond(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.ETAG, "\"v1\"")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(v1)
+                .build());
+        assertThat(client.fetchFilmDetails(895_001L, FilmType.MOVIE).getTitle()).isEqualTo("Stored Title");
+        assertThat(tmdb.requests.get(0).headers().getIfNoneMatch()).isEmpty();
+
+        TmdbResponseCacheEntry stored = storedDetails(895_001L);
+        assertThat(stored.getEtag()).isEqualTo("\"v1\"");
+        assertThat(stored.getBodySize()).isEqualTo(v1.getBytes(StandardCharsets.UTF_8).length);
+        assertThat(stored.getCompressedSize()).isEqualTo(stored.getBodyGzip().length);
+
+        tmdb.respond(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+        assertThat(client.fetchFilmDetails(895_001L, FilmType.MOVIE).getTitle()).isEqualTo("Stored Title");
+        assertThat(tmdb.requests.get(1).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+        TmdbResponseCacheEntry revalidated = storedDetails(895_001L);
+        assertThat(revalidated.getFetchedAt()).isEqualTo(stored.getFetchedAt());
+        assertThat(revalidated.getValidatedAt()).isAfterOrEqualTo(stored.getValidatedAt());
+
+        // An unreadable stored body turns the 304 into one unconditional refetch.
+        jdbcTemplate.update("update tmdb_response_cache set body_gzip = ? where id = ?",
+                "not gzip".getBytes(StandardCharsets.UTF_8), stored.getId());
+        tmdb.respond(ClientResponse.create(HttpStatus.NOT_MODIFIED).build());
+        tmdb.respond(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.ETAG, "\"v2\"")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"id\":895001,\"title\":\"Fresh Title\"}")
+                .build());
+        assertThat(client.fetchFilmDetails(895_001L, FilmType.MOVIE).getTitle()).isEqualTo("Fresh Title");
+        assertThat(tmdb.requests).hasSize(4);
+        assertThat(tmdb.requests.get(2).headers().getIfNoneMatch()).containsExactly("\"v1\"");
+        assertThat(tmdb.requests.get(3).headers().getIfNoneMatch()).isEmpty();
+        TmdbResponseCacheEntry v2 = storedDetails(895_001L);
+        assertThat(v2.getEtag()).isEqualTo("\"v2\"");
+        assertThat(responseCacheRepository.count()).isEqualTo(1);
+
+        // A changed document is overwritten in place, and the 200 counts as an access.
+        Instant longAgo = Instant.now().minus(20, ChronoUnit.DAYS);
+        jdbcTemplate.update("update tmdb_response_cache set last_accessed_at = ? where id = ?",
+                Timestamp.from(longAgo), v2.getId());
+        tmdb.respond(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.ETAG, "\"v3\"")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"id\":895001,\"title\":\"Newest Title\"}")
+                .build());
+        assertThat(client.fetchFilmDetails(895_001L, FilmType.MOVIE).getTitle()).isEqualTo("Newest Title");
+        assertThat(tmdb.requests.get(4).headers().getIfNoneMatch()).containsExactly("\"v2\"");
+        TmdbResponseCacheEntry v3 = storedDetails(895_001L);
+        assertThat(v3.getId()).isEqualTo(v2.getId());
+        assertThat(v3.getEtag()).isEqualTo("\"v3\"");
+        assertThat(v3.getLastAccessedAt()).isAfter(longAgo.plus(1, ChronoUnit.DAYS));
+
+        // A changed document without validators drops the outdated stored one.
+        tmdb.respond(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body("{\"id\":895001,\"title\":\"Untagged Title\"}")
+                .build());
+        assertThat(client.fetchFilmDetails(895_001L, FilmType.MOVIE).getTitle()).isEqualTo("Untagged Title");
+        assertThat(tmdb.requests.get(5).headers().getIfNoneMatch()).containsExactly("\"v3\"");
+        assertThat(responseCacheRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Eviction drops idle entries, then least recently used ones over the byte budget")
+    void evictionDropsIdleThenLeastRecentlyUsedEntries() {
+        // 1 day idle limit, 250 compressed bytes in total, evicted one entry at a time.
+        TmdbResponseStore store = new TmdbResponseStore(responseCacheRepository, transactionManager,
+                new SimpleMeterRegistry(), true, 2048, 250L, 1L, 1);
+        Instant now = Instant.now();
+        saveStoredResponse(896_001L, now.minus(3, ChronoUnit.DAYS));
+        saveStoredResponse(896_002L, now.minus(3, ChronoUnit.HOURS));
+        saveStoredResponse(896_003L, now.minus(2, ChronoUnit.HOURS));
+        saveStoredResponse(896_004L, now.minus(1, ChronoUnit.HOURS));
+
+        store.evict();
+
+        assertThat(responseCacheRepository.findAll())
+                .extracting(TmdbResponseCacheEntry::getTmdbId)
+                .containsExactlyInAnyOrder(896_003L, 896_004L);
+        assertThat(responseCacheRepository.sumCompressedSize()).isEqualTo(200L);
+    }
+
+    private TmdbClient tmdbClient(StubTmdb tmdb) {
+        return new TmdbClient(WebClient.builder().exchangeFunction(tmdb::exchange), syncRetryPolicy,
+                requestCoalescer, responseStore, objectMapper, payloadDecoder, "http://tmdb.test", "test-token",
+                1, 0L, 40L, 40L, 10L, 4_194_304);
+    }
+
+    private TmdbResponseCacheEntry storedDetails(long tmdbId) {
+        return responseCacheRepository.findByEndpointAndTmdbIdAndType("details", tmdbId, FilmType.MOVIE).orElseThrow();
+    }
+
+    private void saveStoredResponse(long tmdbId, Instant lastAccessedAt) {
+        responseCacheRepository.save(TmdbResponseCacheEntry.builder()
+                .endpoint("details")
+                .tmdbId(tmdbId)
+                .type(FilmType.MOVIE)
+                .etag("\"" + tmdbId + "\"")
+                .bodyGzip(new byte[100])
+                .bodySize(400)
+                .compressedSize(100)
+                .fetchedAt(lastAccessedAt)
+                .validatedAt(lastAccessedAt)
+                .lastAccessedAt(lastAccessedAt)
+                .build());
+    }
+
+    /** Answers TMDB requests with queued responses, recording each request it receives. */
+    static class StubTmdb {
+
+        private final Deque<ClientResponse> responses = new ArrayDeque<>();
+        private final List<ClientRequest> requests = new ArrayList<>();
+
+        void respond(ClientResponse response) {
+            responses.add(response);
+        }
+
+        Mono<ClientResponse> exchange(ClientRequest request) {
+            requests.add(request);
+            ClientResponse response = responses.poll();
+            return response != null
+                    ? Mono.just(response)
+                    : Mono.error(new IllegalStateException("Unexpected TMDB request " + request.url()));
+        }
+    }
+}
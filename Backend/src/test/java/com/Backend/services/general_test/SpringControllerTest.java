@@ -1,5 +1,21 @@
 package com.Backend.services.general_test;
 
+import com.Backend.cache.CacheInvalidation;
+import com.Backend.cache.CacheInvalidationBus;
+import com.Backend.cache.CacheHotKeysEndpoint;
+import com.Backend.cache.CacheLoadCoordinator;
+import com.Backend.cache.CacheMetrics;
+import com.Backend.cache.CachePolicy;
+import com.Backend.cache.CachePolicyProperties;
+import com.Backend.cache.KryoRedisSerializer;
+import com.Backend.cache.JsonResponseCache;
+import com.Backend.cache.JsonResponseCacheAdvice;
+import com.Backend.cache.Multilevel_Cache;
+import com.Backend.cache.OffHeapCache;
+import com.Backend.cache.RedisCircuitBreaker;
+import com.Backend.cache.RemoteWriteBehind;
+import com.Backend.cache.CacheScopes;
+import com.Backend.cache.HotKeySampler;
 import com.Backend.services.notification_service.model.NotificationDTO;
 import com.Backend.services.notification_service.service.NotificationService;
 import com.Backend.services.credit_service.model.Credit;
@@ -43,14 +59,20 @@ import com.Backend.services.sync_service.model.SyncTaskStatus;
 import com.Backend.services.sync_service.service.FilmSyncTaskService;
 import com.Backend.services.sync_service.service.FilmEnrichmentStateService;
 import com.Backend.services.sync_service.repository.SyncTaskRepository;
+import com.Backend.services.sync_service.wakeup.WorkWakeupChannel;
+import com.Backend.services.review_service.controller.ReviewController;
+import com.Backend.services.review_service.model.ReviewsDTO;
 import com.Backend.services.user_service.model.DTO.AuthenticateDTO;
+import com.Backend.services.user_service.model.DTO.SimpleUserDTO;
 import com.Backend.services.user_service.model.DTO.RegisterDTO;
 import com.Backend.services.user_service.model.DTO.UpdateUserDTO;
 import com.Backend.services.user_service.model.User;
+import com.Backend.services.user_service.model.UserLookUpHelper;
 import com.Backend.services.user_service.model.ROLE;
 import com.Backend.services.user_service.repository.UserRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import com.Backend.services.watchlist_service.model.WatchlistItemId;
 import com.Backend.services.watchlist_service.model.WatchlistItem;
 import com.Backend.services.watchlist_service.model.Watchlist;
@@ -69,31 +91,61 @@ import org.junit.jupiter.api.TestMethodOrder;
 import org.junit.jupiter.api.MethodOrderer;
 import org.junit.jupiter.api.Order;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.SerializationException;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Set;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 import static org.hamcrest.Matchers.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -103,6 +155,8 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
@@ -112,6 +166,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
+import static org.awaitility.Awaitility.await;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 
@@ -201,6 +256,34 @@ class SpringControllerTest {
         @Autowired
         private UserRecommendationSnapshotStateRepository stateRepository;
 
+        @Autowired
+        private WorkWakeupChannel workWakeupChannel;
+
+        @Autowired
+        private CacheInvalidationBus cacheInvalidationBus;
+
+        @Autowired
+        @Qualifier("caffeineCacheManager")
+        private CacheManager caffeineCacheManager;
+
+        @Autowired
+        private CacheScopes cacheScopes;
+
+        @Autowired
+        private CachePolicyProperties cachePolicies;
+
+        @Autowired
+        private CacheManager cacheManager;
+
+        @Autowired
+        private UserLookUpHelper userLookUpHelper;
+
+        @Autowired
+        private CacheHotKeysEndpoint cacheHotKeysEndpoint;
+
+        @Autowired
+        private MappingJackson2HttpMessageConverter jsonConverter;
+
         @MockBean
         private TmdbClient tmdbClient;
 
@@ -1221,7 +1304,8 @@ class SpringControllerTest {
             });
 
             assertThat(firstSyncInvocation.await(3, TimeUnit.SECONDS)).isTrue();
-            assertThat(addCompleted.getCount()).isEqualTo(1L);
+            // The add returns while the sync is still blocked; it never waits for it.
+            assertThat(addCompleted.await(3, TimeUnit.SECONDS)).isTrue();
 
             unblockSync.countDown();
             assertThat(addCompleted.await(5, TimeUnit.SECONDS)).isTrue();
@@ -1999,7 +2083,7 @@ class SpringControllerTest {
                 LocalDate.parse("2025-01-01"), 7.0);
 
         UserRecommendationRecomputeTaskService taskService = new UserRecommendationRecomputeTaskService(
-                userRecomputeTaskRepository);
+                userRecomputeTaskRepository, workWakeupChannel);
 
         // Simulate three rapid recompute requests (like rapid watchlist changes)
         taskService.scheduleRecompute(user.getId(), RecommendationRecomputeTriggeredBy.WATCHLIST_REMOVE);
@@ -2154,6 +2238,608 @@ class SpringControllerTest {
         }
     }
 
+    @Test
+    @Order(44)
+    @DisplayName("Peer cache invalidations evict L1 entries, and missed messages flush all of L1")
+    void cacheInvalidationBus_appliesPeerEvictsAndFlushesOnGapOrResubscribe() throws Exception {
+        Cache reviews = Objects.requireNonNull(caffeineCacheManager.getCache("busTestReviews"));
+        Cache users = Objects.requireNonNull(caffeineCacheManager.getCache("busTestUsers"));
+        reviews.put(List.of(1L, "MOVIE"), "page-1");
+        reviews.put(List.of(2L, "MOVIE"), "page-2");
+        users.put("a@example.com", 7L);
+        long lagSamples = meterRegistry.get("cache.invalidation.lag").timer().count();
+
+        // A peer's evict drops only that key from this node's L1.
+        cacheInvalidationBus.onMessage(peerMessage("peer-a", 1, "busTestReviews", List.of(1L, "MOVIE")), null);
+        assertThat(reviews.get(List.of(1L, "MOVIE"))).isNull();
+        assertThat(reviews.get(List.of(2L, "MOVIE"))).isNotNull();
+        assertThat(meterRegistry.get("cache.invalidation.lag").timer().count()).isEqualTo(lagSamples + 1);
+
+        // Sequence 2 never arrived, so anything may be stale: the whole L1 is flushed.
+        cacheInvalidationBus.onMessage(peerMessage("peer-a", 3, "busTestUsers", "other@example.com"), null);
+        assertThat(reviews.get(List.of(2L, "MOVIE"))).isNull();
+        assertThat(users.get("a@example.com")).isNull();
+
+        // Re-subscribing after a dropped connection flushes as well.
+        users.put("a@example.com", 7L);
+        byte[] channel = CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8);
+        cacheInvalidationBus.onChannelSubscribed(channel, 1);
+        cacheInvalidationBus.onChannelSubscribed(channel, 1);
+        assertThat(users.get("a@example.com")).isNull();
+    }
+
+    @Test
+    @Order(45)
+    @DisplayName("Invalidating a cache scope re-keys only that scope, and only after commit")
+    void cacheScopes_invalidateRekeysOneScopeAfterCommit() {
+        String chat = CacheScopes.chatScope(9001L);
+        String otherChat = CacheScopes.chatScope(9002L);
+        String chatKey = cacheScopes.key(chat, 0, 20);
+        String otherKey = cacheScopes.key(otherChat, 0, 20);
+        assertThat(cacheScopes.key(chat, 0, 20)).isEqualTo(chatKey);
+
+        cacheScopes.invalidate(chat);
+        String rekeyed = cacheScopes.key(chat, 0, 20);
+        assertThat(rekeyed).isNotEqualTo(chatKey).startsWith(chat + "#").endsWith(":0:20");
+        assertThat(cacheScopes.key(otherChat, 0, 20)).isEqualTo(otherKey);
+
+        // Inside a transaction the old generation stays readable until commit.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            cacheScopes.invalidate(chat);
+            assertThat(cacheScopes.key(chat, 0, 20)).isEqualTo(rekeyed);
+        });
+        assertThat(cacheScopes.key(chat, 0, 20)).isNotEqualTo(rekeyed);
+    }
+
+    @Test
+    @Order(46)
+    @DisplayName("Concurrent cache misses share one load, and hits near expiry are refreshed ahead")
+    void multilevelCache_coalescesMissesAndRefreshesAhead() throws Exception {
+        // Lease off: no Redis here. With an extreme beta, any hit after the 200 ms load is due for refresh.
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(new RedisCircuitBreaker.Settings(
+                50, 10, 50, 100, Duration.ofSeconds(1), Duration.ofSeconds(10), 1), new SimpleMeterRegistry());
+        CacheLoadCoordinator coordinator = new CacheLoadCoordinator(null, breaker, Runnable::run, null, meterRegistry,
+                new CacheLoadCoordinator.Settings(false, Duration.ofSeconds(10), Duration.ZERO,
+                        Duration.ofMillis(10), 1e12, Duration.ofMinutes(10)));
+        RemoteWriteBehind writeBehind = new RemoteWriteBehind(
+                new RemoteWriteBehind.Settings(false, 100, 100, Duration.ofMillis(10)), new SimpleMeterRegistry());
+        CachePolicy refreshing = CachePolicy.builtIn();
+        refreshing.setRefreshAhead(true);
+        Multilevel_Cache cache = new Multilevel_Cache(new ConcurrentMapCache("stampedeTest"),
+                new ConcurrentMapCache("stampedeTest"), cacheInvalidationBus, coordinator, refreshing,
+                breaker, writeBehind, testCacheMetrics(new SimpleMeterRegistry()));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        int callers = 8;
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Integer>> results = new java.util.ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get("page-0", () -> {
+                        Thread.sleep(200);
+                        return loads.incrementAndGet();
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.loads").tags("cache", "stampedeTest", "path", "leader")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("cache.loads").tags("cache", "stampedeTest", "path", "coalesced")
+                .counter().count()).isPositive();
+
+        // The hit returns the cached value and reloads it behind the caller (inline executor here).
+        assertThat(cache.get("page-0", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.get("page-0", Integer.class)).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.refresh.ahead").tags("cache", "stampedeTest", "outcome", "refreshed")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @Order(47)
+    @DisplayName("Per-cache policies size L1 by weight and keep remote-only caches off the heap")
+    void cachePolicies_applyPerCacheWeightTtlAndMode() {
+        CachePolicy profiles = cachePolicies.policyFor("userMeDTO");
+        assertThat(profiles.getMode()).isEqualTo(CachePolicy.Mode.MULTILEVEL);
+        assertThat(profiles.getLocalMaxWeight()).isEqualTo(DataSize.ofMegabytes(16));
+        assertThat(profiles.getLocalTtl()).isEqualTo(Duration.ofMinutes(2));
+        // Unset fields come from the defaults.
+        assertThat(profiles.getRemoteTtl()).isEqualTo(cachePolicies.defaultPolicy().getRemoteTtl());
+
+        @SuppressWarnings("unchecked")
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> profilesL1 =
+                (com.github.benmanes.caffeine.cache.Cache<Object, Object>)
+                        Objects.requireNonNull(caffeineCacheManager.getCache("userMeDTO")).getNativeCache();
+        assertThat(profilesL1.policy().eviction()).hasValueSatisfying(eviction -> {
+            assertThat(eviction.isWeighted()).isTrue();
+            assertThat(eviction.getMaximum()).isEqualTo(DataSize.ofMegabytes(16).toBytes());
+        });
+
+        // Remote-only: written to Redis (unreachable here), never held in L1.
+        assertThat(cachePolicies.policyFor("tmdbCredits").getMode()).isEqualTo(CachePolicy.Mode.REMOTE_ONLY);
+        Cache credits = Objects.requireNonNull(cacheManager.getCache("tmdbCredits"));
+        credits.put("policy-test", "payload");
+        assertThat(Objects.requireNonNull(caffeineCacheManager.getCache("tmdbCredits")).get("policy-test")).isNull();
+    }
+
+    @Test
+    @Order(48)
+    @DisplayName("Kryo cache codec reads legacy payloads and writes smaller headered ones")
+    void kryoCodec_readsLegacyPayloadsAndCompressesLargeValues() {
+        KryoRedisSerializer<Object> legacy = new KryoRedisSerializer<>(Object.class,
+                KryoRedisSerializer.LEGACY_WRITE_VERSION, 0);
+        KryoRedisSerializer<Object> codec = new KryoRedisSerializer<>(Object.class);
+        List<ReviewsDTO> page = new java.util.ArrayList<>();
+        for (long i = 0; i < 20; i++) {
+            page.add(ReviewsDTO.builder()
+                    .id(i)
+                    .content("Review " + i + " with enough repeated text to be worth compressing")
+                    .user(new SimpleUserDTO(7L, "codec@example.com", "codec"))
+                    .likedByMe(false)
+                    .createdAt(java.time.LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(i))
+                    .build());
+        }
+
+        byte[] legacyBytes = legacy.serialize(page);
+        byte[] lz4Bytes = codec.serialize(page);
+        byte[] plainBytes = codec.serialize(List.of(new SimpleUserDTO(7L, "codec@example.com", "codec")));
+
+        // Entries already in Redis keep working after the upgrade.
+        assertThat(codec.deserialize(legacyBytes)).isEqualTo(page);
+        assertThat(lz4Bytes[0]).isEqualTo((byte) 0x82);
+        assertThat(lz4Bytes.length).isLessThan(legacyBytes.length / 2);
+        assertThat(codec.deserialize(lz4Bytes)).isEqualTo(page);
+        assertThat(plainBytes[0]).isEqualTo((byte) 0x81);
+        assertThat(codec.deserialize(plainBytes)).isEqualTo(List.of(new SimpleUserDTO(7L, "codec@example.com", "codec")));
+        assertThat(codec.serializedSize(page)).isGreaterThan(lz4Bytes.length);
+        // A format from a newer build is rejected, which the cache treats as a miss.
+        assertThatThrownBy(() -> codec.deserialize(new byte[] {(byte) 0x90, 1, 2}))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    @Order(49)
+    @DisplayName("Redis breaker opens on errors or slow calls and probes back; write-behind coalesces and evicts first")
+    void redisBreakerAndWriteBehind_shedFailingRedisAndCoalesceWrites() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(new RedisCircuitBreaker.Settings(
+                4, 4, 50, 100, Duration.ofMillis(100), Duration.ofMillis(50), 1), registry);
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onError(0);
+        }
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        Thread.sleep(60);
+        // One probe at a time while half-open; its success closes the breaker.
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        breaker.onSuccess(0);
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onSuccess(Duration.ofMillis(150).toNanos());
+        }
+        assertThat(breaker.state()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(registry.get("cache.remote.breaker.state").tag("state", "open").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("cache.remote.breaker.rejected").counter().count()).isEqualTo(2.0);
+
+        SimpleMeterRegistry queueRegistry = new SimpleMeterRegistry();
+        RedisCircuitBreaker healthy = new RedisCircuitBreaker(new RedisCircuitBreaker.Settings(
+                50, 10, 50, 100, Duration.ofSeconds(1), Duration.ofSeconds(10), 1), queueRegistry);
+        RemoteWriteBehind writeBehind = new RemoteWriteBehind(
+                new RemoteWriteBehind.Settings(true, 100, 100, Duration.ofMillis(10)), queueRegistry);
+        ConcurrentMapCache remote = new ConcurrentMapCache("writeBehindTest");
+        CacheLoadCoordinator coordinator = new CacheLoadCoordinator(null, healthy, Runnable::run, null, queueRegistry,
+                new CacheLoadCoordinator.Settings(false, Duration.ofSeconds(10), Duration.ZERO,
+                        Duration.ofMillis(10), 1.0, Duration.ofMinutes(10)));
+        Multilevel_Cache cache = new Multilevel_Cache(remote, new ConcurrentMapCache("writeBehindTest"),
+                cacheInvalidationBus, coordinator, CachePolicy.builtIn(), healthy, writeBehind,
+                testCacheMetrics(queueRegistry));
+
+        // The worker is not started yet, so every write is still pending.
+        cache.put("a", 1);
+        cache.put("a", 2);
+        cache.put("c", 3);
+        assertThat(writeBehind.pending("put")).isEqualTo(2);
+        assertThat(remote.get("a")).isNull();
+        assertThat(cache.get("a", Integer.class)).isEqualTo(2);
+
+        cache.evict("a");
+        remote.put("b", "stale");
+        cache.evict("b");
+        assertThat(writeBehind.pending("put")).isEqualTo(1);
+        assertThat(writeBehind.pending("evict")).isEqualTo(2);
+        // Until the evict reaches Redis this node does not read the stale L2 entry back.
+        assertThat(cache.get("b")).isNull();
+        assertThat(queueRegistry.get("cache.write_behind.coalesced").counter().count()).isEqualTo(1.0);
+
+        writeBehind.start();
+        try {
+            await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+                assertThat(writeBehind.pending("evict")).isZero();
+                assertThat(writeBehind.pending("put")).isZero();
+            });
+        } finally {
+            writeBehind.stop();
+        }
+        assertThat(remote.get("a")).isNull();
+        assertThat(remote.get("b")).isNull();
+        assertThat(remote.get("c", Integer.class)).isEqualTo(3);
+        assertThat(queueRegistry.get("cache.write_behind.applied").tag("op", "evict").counter().count())
+                .isEqualTo(2.0);
+        assertThat(queueRegistry.get("cache.write_behind.applied").tag("op", "put").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @Order(50)
+    @DisplayName("Bulk cache lookups read L1, then L2 in one pass, then load the rest in one call")
+    void multilevelCache_getAllResolvesTiersThenOneBulkLoad() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(new RedisCircuitBreaker.Settings(
+                50, 10, 50, 100, Duration.ofSeconds(1), Duration.ofSeconds(10), 1), registry);
+        RemoteWriteBehind writeBehind = new RemoteWriteBehind(
+                new RemoteWriteBehind.Settings(false, 100, 100, Duration.ofMillis(10)), registry);
+        CacheLoadCoordinator coordinator = new CacheLoadCoordinator(null, breaker, Runnable::run, null, registry,
+                new CacheLoadCoordinator.Settings(false, Duration.ofSeconds(10), Duration.ZERO,
+                        Duration.ofMillis(10), 1.0, Duration.ofMinutes(10)));
+        ConcurrentMapCache remote = new ConcurrentMapCache("bulkTest");
+        ConcurrentMapCache local = new ConcurrentMapCache("bulkTest");
+        Multilevel_Cache cache = new Multilevel_Cache(remote, local, cacheInvalidationBus, coordinator,
+                CachePolicy.builtIn(), breaker, writeBehind, testCacheMetrics(registry));
+        local.put(1L, "one");
+        remote.put(2L, "two");
+        List<Set<Long>> loaderCalls = new java.util.ArrayList<>();
+
+        Map<Long, String> values = cache.getAll(List.of(3L, 2L, 1L, 4L, 3L), missing -> {
+            loaderCalls.add(Set.copyOf(missing));
+            return Map.of(3L, "three");
+        });
+
+        assertThat(values).containsExactly(Map.entry(3L, "three"), Map.entry(2L, "two"), Map.entry(1L, "one"));
+        assertThat(loaderCalls).containsExactly(Set.of(3L, 4L));
+        assertThat(local.get(2L, String.class)).isEqualTo("two");
+        assertThat(remote.get(3L, String.class)).isEqualTo("three");
+
+        // The user helper fills the same "users" entries the single-id lookup reads.
+        User first = createUserWithWatchlist("bulk-a");
+        User second = createUserWithWatchlist("bulk-b");
+        Map<Long, SimpleUserDTO> users = userLookUpHelper.getSimpleUsersByIdsCached(
+                List.of(first.getId(), second.getId(), -1L));
+        assertThat(users).containsOnlyKeys(first.getId(), second.getId());
+        assertThat(users.get(first.getId()).getEmail()).isEqualTo(first.getEmail());
+        assertThat(cacheManager.getCache("users").get(second.getId(), SimpleUserDTO.class))
+                .isEqualTo(users.get(second.getId()));
+    }
+
+    @Test
+    @Order(51)
+    @DisplayName("Cache meters split hits, misses, loads and evictions by tier, and sampling ranks hot keys")
+    void multilevelCache_recordsPerTierMetricsAndHotKeys() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(new RedisCircuitBreaker.Settings(
+                50, 10, 50, 100, Duration.ofSeconds(1), Duration.ofSeconds(10), 1), registry);
+        RemoteWriteBehind writeBehind = new RemoteWriteBehind(
+                new RemoteWriteBehind.Settings(false, 100, 100, Duration.ofMillis(10)), registry);
+        CacheLoadCoordinator coordinator = new CacheLoadCoordinator(null, breaker, Runnable::run, null, registry,
+                new CacheLoadCoordinator.Settings(false, Duration.ofSeconds(10), Duration.ZERO,
+                        Duration.ofMillis(10), 1.0, Duration.ofMinutes(10)));
+        CacheMetrics metrics = testCacheMetrics(registry);
+        ConcurrentMapCache remote = new ConcurrentMapCache("metricsTest");
+        Multilevel_Cache cache = new Multilevel_Cache(remote, new ConcurrentMapCache("metricsTest"),
+                cacheInvalidationBus, coordinator, CachePolicy.builtIn(), breaker, writeBehind, metrics);
+
+        assertThat(cache.get("cold", () -> "loaded")).isEqualTo("loaded");
+        assertThat(cache.get("cold", () -> "unused")).isEqualTo("loaded");
+        remote.put("warm", "from-redis");
+        assertThat(cache.get("warm", String.class)).isEqualTo("from-redis");
+        cache.evict("cold");
+
+        assertThat(registry.get("cache.gets").tags("cache", "metricsTest", "tier", "l1", "result", "hit")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tags("cache", "metricsTest", "tier", "l1", "result", "miss")
+                .counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("cache.gets").tags("cache", "metricsTest", "tier", "l2", "result", "hit")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tags("cache", "metricsTest", "tier", "l2", "result", "miss")
+                .counter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.load.duration").tags("cache", "metricsTest", "outcome", "success")
+                .timer().count()).isEqualTo(1L);
+        assertThat(registry.get("cache.remote.duration").tags("cache", "metricsTest", "op", "get", "outcome", "success")
+                .timer().count()).isEqualTo(2L);
+        assertThat(registry.get("cache.evictions").tags("cache", "metricsTest", "tier", "l2", "cause", "explicit")
+                .counter().count()).isEqualTo(1.0);
+
+        // Every lookup is sampled at rate 1.0, so the key read most often ranks first.
+        assertThat(metrics.hotKeys().top(1)).singleElement()
+                .satisfies(hot -> assertThat(hot.key()).isEqualTo("cold"))
+                .satisfies(hot -> assertThat(hot.samples()).isEqualTo(2L));
+
+        // The application-wide sampler is served by the actuator endpoint, for admins only.
+        assertThat(cacheHotKeysEndpoint.hotKeys(5).keys()).hasSizeLessThanOrEqualTo(5);
+        mockMvc.perform(get("/actuator/cachehotkeys"))
+                .andExpect(status().is4xxClientError());
+        String token = registerAndAuth("hotkeys_" + System.nanoTime(), "hotkeys_" + System.nanoTime() + "@example.com");
+        mockMvc.perform(get("/actuator/cachehotkeys").header("Authorization", bearer(token)))
+                .andExpect(status().is4xxClientError());
+    }
+
+    @Test
+    @Order(52)
+    @DisplayName("Off-heap L1 round-trips values, stays within its block budget and backs Multilevel_Cache")
+    void offHeapCache_storesSerializedValuesWithinBudget() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CacheMetrics metrics = testCacheMetrics(registry);
+        CachePolicy policy = CachePolicy.builtIn();
+        policy.setLocalStore(CachePolicy.LocalStore.OFF_HEAP);
+        policy.setLocalMaxWeight(DataSize.ofKilobytes(64));
+        OffHeapCache offHeap = new OffHeapCache("offHeapTest", policy, new KryoRedisSerializer<>(Object.class), metrics);
+
+        SimpleUserDTO user = new SimpleUserDTO(7L, "offheap@example.com", "offheap");
+        offHeap.put("user", user);
+        offHeap.put("nothing", null);
+        assertThat(offHeap.get("user", SimpleUserDTO.class)).isEqualTo(user).isNotSameAs(user);
+        assertThat(offHeap.get("nothing")).isNotNull().satisfies(wrapper -> assertThat(wrapper.get()).isNull());
+        offHeap.evict("user");
+        assertThat(offHeap.get("user")).isNull();
+        offHeap.clear();
+        assertThat(offHeap.get("nothing")).isNull();
+        assertThat(offHeap.usedBytes()).isZero();
+
+        // Each 6000-byte random (incompressible) value takes six 1KB blocks; 64KB holds ten of them.
+        for (int i = 0; i < 40; i++) {
+            offHeap.put("page-" + i, randomBytes(i, 6_000));
+        }
+        assertThat(offHeap.usedBytes()).isLessThanOrEqualTo(64 * 1024);
+        assertThat(offHeap.reservedBytes()).isLessThanOrEqualTo(72 * 1024);
+        assertThat(offHeap.estimatedSize()).isBetween(1L, 10L);
+        assertThat(registry.get("cache.evictions").tags("cache", "offHeapTest", "tier", "l1", "cause", "size")
+                .counter().count()).isGreaterThanOrEqualTo(30.0);
+        // Entries that survived still read back intact from reused blocks.
+        for (int i = 0; i < 40; i++) {
+            byte[] value = offHeap.get("page-" + i, byte[].class);
+            if (value != null) {
+                assertThat(value).isEqualTo(randomBytes(i, 6_000));
+            }
+        }
+        assertThat(registry.get("cache.offheap.read").tag("cache", "offHeapTest").timer().count()).isPositive();
+        assertThat(registry.get("cache.weight").tags("cache", "offHeapTest", "tier", "l1").gauge().value())
+                .isEqualTo((double) offHeap.usedBytes());
+
+        // As the local tier of Multilevel_Cache, a value loaded once is served from direct memory.
+        // (Cleared first: TinyLFU may refuse a cold newcomer while the frequently read pages fill the budget.)
+        offHeap.clear();
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(new RedisCircuitBreaker.Settings(
+                50, 10, 50, 100, Duration.ofSeconds(1), Duration.ofSeconds(10), 1), registry);
+        RemoteWriteBehind writeBehind = new RemoteWriteBehind(
+                new RemoteWriteBehind.Settings(false, 100, 100, Duration.ofMillis(10)), registry);
+        CacheLoadCoordinator coordinator = new CacheLoadCoordinator(null, breaker, Runnable::run, null, registry,
+                new CacheLoadCoordinator.Settings(false, Duration.ofSeconds(10), Duration.ZERO,
+                        Duration.ofMillis(10), 1.0, Duration.ofMinutes(10)));
+        ConcurrentMapCache remote = new ConcurrentMapCache("offHeapTest");
+        Multilevel_Cache cache = new Multilevel_Cache(remote, offHeap, cacheInvalidationBus, coordinator,
+                policy, breaker, writeBehind, metrics);
+        AtomicInteger loads = new AtomicInteger();
+        assertThat(cache.get(7L, () -> { loads.incrementAndGet(); return user; })).isEqualTo(user);
+        remote.clear();
+        assertThat(cache.get(7L, SimpleUserDTO.class)).isEqualTo(user);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @Order(53)
+    @DisplayName("Cached JSON responses are byte-identical to Jackson, reused per cached value and gzipped on request")
+    void cachedJsonResponses_matchJacksonAndFollowCacheInvalidation() throws Exception {
+        String email = "jsonbytes_" + System.nanoTime() + "@example.com";
+        String token = registerAndAuth("jsonbytes", email);
+        double hitsBefore = meterRegistry.get("cache.response.lookups").tag("result", "hit").counter().count();
+
+        byte[] first = mockMvc.perform(get("/user/me").header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+        MockHttpServletResponse second = mockMvc.perform(get("/user/me").header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("no-store")))
+                .andReturn().getResponse();
+
+        // Parity with what the Jackson converter writes for the cached DTO itself.
+        Object cachedDto = cacheManager.getCache("userMeDTO").get(email).get();
+        assertThat(first).isEqualTo(jsonConverter.getObjectMapper().writeValueAsBytes(cachedDto));
+        assertThat(second.getContentAsByteArray()).isEqualTo(first);
+        assertThat(second.getContentLength()).isEqualTo(first.length);
+        assertThat(meterRegistry.get("cache.response.lookups").tag("result", "hit").counter().count())
+                .isGreaterThan(hitsBefore);
+
+        // Evicting the cached DTO retires its bytes with it.
+        mockMvc.perform(put("/user")
+                        .header("Authorization", bearer(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UpdateUserDTO(email, "jsonbytes_renamed"))))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/user/me").header("Authorization", bearer(token)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username", is("jsonbytes_renamed")));
+
+        // Pre-gzipped bytes for clients that accept them, plain bytes for the others.
+        JsonResponseCache responseCache = new JsonResponseCache(
+                new JsonResponseCache.Settings(true, 1024 * 1024, 1), new SimpleMeterRegistry());
+        JsonResponseCacheAdvice advice = new JsonResponseCacheAdvice(responseCache, jsonConverter);
+        MethodParameter returnType = new MethodParameter(
+                ReviewController.class.getMethod("getReviewsByUser", int.class, User.class), -1);
+        assertThat(advice.supports(returnType, MappingJackson2HttpMessageConverter.class)).isTrue();
+        assertThat(advice.supports(returnType, StringHttpMessageConverter.class)).isFalse();
+        List<ReviewsDTO> reviews = new java.util.ArrayList<>();
+        for (long i = 0; i < 10; i++) {
+            reviews.add(ReviewsDTO.builder()
+                    .id(i)
+                    .content("Review " + i)
+                    .user(new SimpleUserDTO(7L, "json@example.com", "json"))
+                    .likedByMe(i % 2 == 0)
+                    .createdAt(java.time.LocalDateTime.of(2025, 1, 1, 0, 0).plusHours(i))
+                    .build());
+        }
+        byte[] expected = jsonConverter.getObjectMapper().writeValueAsBytes(reviews);
+
+        MockHttpServletResponse gzipped = new MockHttpServletResponse();
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest("GET", "/reviews/user");
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "deflate, gzip;q=0.8");
+        assertThat(advice.beforeBodyWrite(reviews, returnType, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class, new ServletServerHttpRequest(gzipRequest),
+                new ServletServerHttpResponse(gzipped))).isNull();
+        assertThat(gzipped.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gzipped.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(expected);
+        }
+
+        MockHttpServletResponse plain = new MockHttpServletResponse();
+        MockHttpServletRequest refusesGzip = new MockHttpServletRequest("GET", "/reviews/user");
+        refusesGzip.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0");
+        advice.beforeBodyWrite(reviews, returnType, MediaType.APPLICATION_JSON,
+                MappingJackson2HttpMessageConverter.class, new ServletServerHttpRequest(refusesGzip),
+                new ServletServerHttpResponse(plain));
+        assertThat(plain.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(plain.getContentAsByteArray()).isEqualTo(expected);
+
+        // A page over the same cached list is the same instance, so its bytes are shared too.
+        Page<ReviewsDTO> page = responseCache.page(reviews, PageRequest.of(0, 10), 10);
+        assertThat(responseCache.page(reviews, PageRequest.of(0, 10), 10)).isSameAs(page);
+        assertThat(responseCache.page(reviews, PageRequest.of(0, 10), 11)).isNotSameAs(page);
+    }
+
+    @Test
+    @Order(54)
+    @DisplayName("With write-behind on, scope tokens and lease loads never hand out values Redis has not caught up with")
+    @SuppressWarnings("unchecked")
+    void writeBehind_keepsScopeInvalidationAndLeaseHandOffConsistent() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RedisCircuitBreaker breaker = new RedisCircuitBreaker(new RedisCircuitBreaker.Settings(
+                50, 10, 50, 100, Duration.ofSeconds(1), Duration.ofSeconds(10), 1), registry);
+
+        // Scope invalidated, then read again before the queued Redis evict is applied.
+        RemoteWriteBehind scopeQueue = new RemoteWriteBehind(
+                new RemoteWriteBehind.Settings(true, 100, 100, Duration.ofMillis(10)), registry);
+        CacheLoadCoordinator noLease = new CacheLoadCoordinator(null, breaker, Runnable::run, null, registry,
+                new CacheLoadCoordinator.Settings(false, Duration.ofSeconds(10), Duration.ZERO,
+                        Duration.ofMillis(10), 1.0, Duration.ofMinutes(10)));
+        ConcurrentMapCache remoteTokens = new ConcurrentMapCache(CacheScopes.GENERATIONS);
+        Multilevel_Cache tokens = new Multilevel_Cache(remoteTokens, new ConcurrentMapCache(CacheScopes.GENERATIONS),
+                cacheInvalidationBus, noLease, CachePolicy.builtIn(), breaker, scopeQueue, testCacheMetrics(registry));
+        org.springframework.cache.support.SimpleCacheManager scopeCaches = new org.springframework.cache.support.SimpleCacheManager();
+        scopeCaches.setCaches(List.of(tokens));
+        scopeCaches.afterPropertiesSet();
+        CacheScopes scopes = new CacheScopes(scopeCaches);
+
+        String before = scopes.key("chat:1", 0);
+        assertThat(remoteTokens.get("chat:1")).isNotNull();
+        scopes.invalidate("chat:1");
+        String after = scopes.key("chat:1", 0);
+        assertThat(after).isNotEqualTo(before);
+        scopeQueue.start();
+        try {
+            await().atMost(Duration.ofSeconds(5)).until(() -> scopeQueue.pending("evict") == 0);
+            assertThat(scopes.key("chat:1", 0)).isNotEqualTo(before);
+        } finally {
+            scopeQueue.stop();
+        }
+
+        // The lease holder's value is in Redis before its lease is released.
+        RemoteWriteBehind loadQueue = new RemoteWriteBehind(
+                new RemoteWriteBehind.Settings(true, 100, 100, Duration.ofMillis(10)), registry);
+        StringRedisTemplate holderRedis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> holderOps = mock(ValueOperations.class);
+        when(holderRedis.opsForValue()).thenReturn(holderOps);
+        when(holderOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        ConcurrentMapCache remote = new ConcurrentMapCache("leaseHandOff");
+        List<Object> storedAtRelease = new java.util.ArrayList<>();
+        when(holderRedis.execute(any(RedisScript.class), anyList(), any(), any())).thenAnswer(invocation -> {
+            Cache.ValueWrapper stored = remote.get("k");
+            storedAtRelease.add(stored != null ? stored.get() : "nothing");
+            return 1L;
+        });
+        CacheLoadCoordinator.Settings leased = new CacheLoadCoordinator.Settings(true, Duration.ofSeconds(10),
+                Duration.ofSeconds(1), Duration.ofMillis(1), 0.0, Duration.ofMinutes(10));
+        Multilevel_Cache holder = new Multilevel_Cache(remote, new ConcurrentMapCache("leaseHandOff"),
+                cacheInvalidationBus, new CacheLoadCoordinator(holderRedis, breaker, Runnable::run, null, registry, leased),
+                CachePolicy.builtIn(), breaker, loadQueue, testCacheMetrics(registry));
+        assertThat(holder.get("k", () -> "loaded")).isEqualTo("loaded");
+        assertThat(storedAtRelease).containsExactly("loaded");
+        assertThat(loadQueue.pending("put")).isZero();
+
+        // A waiter that sees the lease gone reads once more before loading itself.
+        StringRedisTemplate waiterRedis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> waiterOps = mock(ValueOperations.class);
+        when(waiterRedis.opsForValue()).thenReturn(waiterOps);
+        when(waiterOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(waiterRedis.hasKey(anyString())).thenAnswer(invocation -> {
+            remote.put("k2", "from-holder");
+            return false;
+        });
+        Multilevel_Cache waiter = new Multilevel_Cache(remote, new ConcurrentMapCache("leaseHandOff"),
+                cacheInvalidationBus, new CacheLoadCoordinator(waiterRedis, breaker, Runnable::run, null, registry, leased),
+                CachePolicy.builtIn(), breaker, loadQueue, testCacheMetrics(registry));
+        AtomicInteger waiterLoads = new AtomicInteger();
+        assertThat(waiter.get("k2", () -> {
+            waiterLoads.incrementAndGet();
+            return "loaded-by-waiter";
+        })).isEqualTo("from-holder");
+        assertThat(waiterLoads).hasValue(0);
+        assertThat(registry.get("cache.lease.wait").tags("cache", "leaseHandOff", "outcome", "filled")
+                .timer().count()).isEqualTo(1L);
+
+        // A waiter whose holder keeps the lease is woken by the release notice, not by its rechecks.
+        StringRedisTemplate notifiedRedis = mock(StringRedisTemplate.class);
+        ValueOperations<String, String> notifiedOps = mock(ValueOperations.class);
+        when(notifiedRedis.opsForValue()).thenReturn(notifiedOps);
+        when(notifiedOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+        when(notifiedRedis.hasKey(anyString())).thenReturn(true);
+        CacheLoadCoordinator notified = new CacheLoadCoordinator(notifiedRedis, breaker, Runnable::run, null, registry,
+                new CacheLoadCoordinator.Settings(true, Duration.ofSeconds(10), Duration.ofSeconds(20),
+                        Duration.ofSeconds(10), 0.0, Duration.ofMinutes(10)));
+        Multilevel_Cache notifiedWaiter = new Multilevel_Cache(remote, new ConcurrentMapCache("leaseHandOff"),
+                cacheInvalidationBus, notified, CachePolicy.builtIn(), breaker, loadQueue, testCacheMetrics(registry));
+        CompletableFuture.runAsync(() -> {
+            await().atMost(Duration.ofSeconds(5)).until(() -> registry.find("cache.loads")
+                    .tags("cache", "leaseHandOff", "path", "leader").counter() != null);
+            remote.put("k3", "from-notified-holder");
+            notified.onLeaseReleased("cache:lease:leaseHandOff::k3");
+        }, CompletableFuture.delayedExecutor(100, TimeUnit.MILLISECONDS));
+        long waitStarted = System.nanoTime();
+        assertThat(notifiedWaiter.get("k3", () -> "loaded-by-notified-waiter")).isEqualTo("from-notified-holder");
+        assertThat(Duration.ofNanos(System.nanoTime() - waitStarted)).isLessThan(Duration.ofSeconds(5));
+    }
+
+    private static byte[] randomBytes(long seed, int length) {
+        byte[] bytes = new byte[length];
+        new java.util.Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static CacheMetrics testCacheMetrics(MeterRegistry registry) {
+        return new CacheMetrics(registry, new HotKeySampler(1.0, 100, Duration.ofMinutes(10)));
+    }
+
+    private static DefaultMessage peerMessage(String origin, long sequence, String cacheName, Object key)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new CacheInvalidation(origin, sequence, System.currentTimeMillis(), cacheName, key));
+        }
+        return new DefaultMessage(CacheInvalidationBus.CHANNEL.getBytes(StandardCharsets.UTF_8), bytes.toByteArray());
+    }
+
     // -------------------------------------------------------------------------
     // Helpers for the new recommendation engine tests
     // -------------------------------------------------------------------------
@@ -0,0 +1,526 @@
+package com.Backend.services.sync_service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.Backend.services.FilmType;
+import com.Backend.services.credit_service.model.CreditRetentionCheckpoint;
+import com.Backend.services.credit_service.repository.CreditRepository;
+import com.Backend.services.credit_service.repository.CreditRetentionCheckpointRepository;
+import com.Backend.services.credit_service.repository.CreditRetentionRepository;
+import com.Backend.services.credit_service.repository.FilmRoleRepository;
+import com.Backend.services.credit_service.service.CreditRetentionCompactor;
+import com.Backend.services.credit_service.service.CreditRetentionPolicy;
+import com.Backend.services.credit_service.service.CreditService;
+import com.Backend.services.film_service.model.Film;
+import com.Backend.services.film_service.model.TmdbCreditsResponse;
+import com.Backend.services.film_service.model.TmdbFilmResponse;
+import com.Backend.services.film_service.model.TmdbKeywordsResponse;
+import com.Backend.services.film_service.model.TmdbSimilarItem;
+import com.Backend.services.film_service.repository.FilmRepository;
+import com.Backend.services.film_service.service.TmdbClient;
+import com.Backend.services.film_service.service.TmdbPayloadDecoder;
+import com.Backend.services.genre_service.model.Genre;
+import com.Backend.services.genre_service.repository.GenreRepository;
+import com.Backend.services.genre_service.service.GenreService;
+import com.Backend.services.keyword_service.repository.KeywordRepository;
+import com.Backend.services.keyword_service.service.KeywordService;
+import com.Backend.services.recommendation_service.repository.RecommendationRepository;
+import com.Backend.services.recommendation_service.service.RecommendationService;
+import com.Backend.test.DotenvTestInitializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Guards enrichment writes against per-row and per-catalog statement growth: ingesting credits or
+ * linking a film must cost the same number of statements whether it has 3 cast members or 40, 3
+ * keywords or 60, and whether its genre is shared by no other film or by hundreds. Recommendation
+ * ingestion is held to the same bound per source film, however many candidates TMDB returns.
+ * Streamed credits decoding and the credit retention policy keep cast and crew size, and with it
+ * the credits write, bounded however long TMDB's lists are; the retention compactor prunes credits
+ * stored under a wider policy and resumes from its saved cursor.
+ */
+@SpringBootTest(properties = "spring.task.scheduling.enabled=false")
+@ActiveProfiles("test")
+@ContextConfiguration(initializers = DotenvTestInitializer.class)
+class EnrichmentStatementCountIntegrationTest {
+
+    private static final int MAX_STATEMENTS_PER_STAGE = 3;
+    // Film lookup, insert, re-lookup; edge read, delete, insert; demand read and write.
+    private static final int MAX_RECOMMENDATION_SYNC_STATEMENTS = 8;
+    private static final long POPULAR_GENRE_ID = 18L;
+    private static final StatementCounter STATEMENTS = new StatementCounter();
+
+    @Autowired
+    private GenreService genreService;
+
+    @Autowired
+    private KeywordService keywordService;
+
+    @Autowired
+    private CreditService creditService;
+
+    @Autowired
+    private CreditRetentionPolicy creditRetentionPolicy;
+
+    @Autowired
+    private CreditRetentionCompactor creditRetentionCompactor;
+
+    @Autowired
+    private CreditRetentionRepository creditRetentionRepository;
+
+    @Autowired
+    private CreditRetentionCheckpointRepository creditRetentionCheckpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FilmRepository filmRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private KeywordRepository keywordRepository;
+
+    @Autowired
+    private CreditRepository creditRepository;
+
+    @Autowired
+    private FilmRoleRepository filmRoleRepository;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private RecommendationRepository recommendationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private TmdbClient tmdbClient;
+
+    @AfterEach
+    void cleanup() {
+        recommendationRepository.deleteAll();
+        filmRoleRepository.deleteAll();
+        genreRepository.deleteAll();
+        keywordRepository.deleteAll();
+        creditRepository.deleteAll();
+        filmRepository.deleteAll();
+        creditRetentionCheckpointRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Genre and keyword linking costs a constant number of statements per film")
+    void genreAndKeywordLinkingIsBoundedPerFilm() {
+        seedPopularGenre(200);
+        Film small = saveFilm(890_001L);
+        Film large = saveFilm(890_002L);
+
+        int smallGenres = STATEMENTS.count(() ->
+                genreService.applyGenresToFilm(genres(POPULAR_GENRE_ID, 35L), FilmType.MOVIE, small));
+        int largeGenres = STATEMENTS.count(() ->
+                genreService.applyGenresToFilm(genres(POPULAR_GENRE_ID, 35L, 80L, 53L), FilmType.MOVIE, large));
+        int smallKeywords = STATEMENTS.count(() ->
+                keywordService.applyKeywordsToFilm(keywords(3), FilmType.MOVIE, small));
+        int largeKeywords = STATEMENTS.count(() ->
+                keywordService.applyKeywordsToFilm(keywords(60), FilmType.MOVIE, large));
+
+        assertThat(smallGenres).isBetween(1, MAX_STATEMENTS_PER_STAGE);
+        assertThat(largeGenres).isEqualTo(smallGenres);
+        assertThat(smallKeywords).isBetween(1, MAX_STATEMENTS_PER_STAGE);
+        assertThat(largeKeywords).isEqualTo(smallKeywords);
+
+        assertThat(linkCount("film_genre", large)).isEqualTo(4);
+        assertThat(linkCount("film_keyword", large)).isEqualTo(60);
+        assertThat(linkCount("film_keyword", small)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Credit ingestion costs a constant number of statements per film")
+    void creditIngestionIsBoundedPerFilm() {
+        Film small = saveFilm(890_004L);
+        Film large = saveFilm(890_005L);
+        // Resolves and caches the role dictionary outside the measured calls.
+        creditService.applyCreditsToFilm(credits(1), saveFilm(890_006L));
+
+        int smallCredits = STATEMENTS.count(() -> creditService.applyCreditsToFilm(credits(3), small));
+        int largeCredits = STATEMENTS.count(() -> creditService.applyCreditsToFilm(credits(40), large));
+
+        assertThat(smallCredits).isBetween(1, MAX_STATEMENTS_PER_STAGE);
+        assertThat(largeCredits).isEqualTo(smallCredits);
+        assertThat(roleCount(small)).isEqualTo(4);
+        assertThat(roleCount(large)).isGreaterThan(roleCount(small));
+    }
+
+    @Test
+    @DisplayName("Re-applying enrichment is idempotent and stays within the statement bound")
+    void reapplyingEnrichmentIsIdempotent() {
+        Film film = saveFilm(890_003L);
+        TmdbCreditsResponse credits = credits(40);
+
+        // First call resolves and caches the role dictionary.
+        creditService.applyCreditsToFilm(credits, film);
+        keywordService.applyKeywordsToFilm(keywords(20), FilmType.MOVIE, film);
+
+        int creditStatements = STATEMENTS.count(() -> creditService.applyCreditsToFilm(credits, film));
+        int keywordStatements = STATEMENTS.count(() ->
+                keywordService.applyKeywordsToFilm(keywords(20), FilmType.MOVIE, film));
+
+        assertThat(creditStatements).isBetween(1, 2);
+        assertThat(keywordStatements).isLessThanOrEqualTo(MAX_STATEMENTS_PER_STAGE);
+        assertThat(linkCount("film_keyword", film)).isEqualTo(20);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from film_role where film_id = ?", Integer.class, film.getInternalId()))
+                .isEqualTo(creditRetentionPolicy.maxCast() + 1);
+    }
+
+    @Test
+    @DisplayName("Recommendation sync costs a constant number of statements per source film")
+    void recommendationSyncIsBoundedPerSourceFilm() {
+        when(tmdbClient.getAvailableTokens()).thenReturn(100.0d);
+        Film small = saveFilm(892_001L);
+        Film large = saveFilm(892_002L);
+        when(tmdbClient.fetchRecommendations(892_001L, FilmType.MOVIE)).thenReturn(similar(893_000L, 5));
+        when(tmdbClient.fetchRecommendations(892_002L, FilmType.MOVIE)).thenReturn(similar(894_000L, 40));
+        // Half of the large page is already stored, so it exercises both lookup and insert.
+        LongStream.range(0, 20).forEach(i -> saveFilm(894_000L + i));
+
+        int smallSync = STATEMENTS.count(() -> recommendationService.syncRecommendationsForFilm(892_001L, small));
+        int largeSync = STATEMENTS.count(() -> recommendationService.syncRecommendationsForFilm(892_002L, large));
+
+        assertThat(largeSync).isEqualTo(smallSync);
+        assertThat(largeSync).isLessThanOrEqualTo(MAX_RECOMMENDATION_SYNC_STATEMENTS);
+        assertThat(edgeCount(large)).isEqualTo(40);
+        Timestamp keptIngestedAt = edgeIngestedAt(large, 894_020L);
+
+        // A refresh returning an overlapping page only rewrites the edges that changed.
+        when(tmdbClient.fetchRecommendations(892_002L, FilmType.MOVIE)).thenReturn(similar(894_010L, 40));
+        int refresh = STATEMENTS.count(() -> recommendationService.syncRecommendationsForFilm(892_002L, large));
+
+        assertThat(refresh).isLessThanOrEqualTo(MAX_RECOMMENDATION_SYNC_STATEMENTS);
+        assertThat(edgeCount(large)).isEqualTo(40);
+        assertThat(edgeIngestedAt(large, 894_020L)).isEqualTo(keptIngestedAt);
+        assertThat(jdbcTemplate.queryForObject(
+                "select min(f.film_id) from recommendation r join film f on f.internal_id = r.recommended_film_id"
+                        + " where r.film_id = ?", Long.class, large.getInternalId()))
+                .isEqualTo(894_010L);
+    }
+
+    @Test
+    @DisplayName("Streaming decode keeps only used fields and caps crew rows per person and role while keeping directors")
+    void streamingDecodeCapsCrewAndKeepsUsedFields() throws IOException {
+        TmdbPayloadDecoder decoder = new TmdbPayloadDecoder(new ObjectMapper(), creditRetentionPolicy, 50);
+        StringBuilder json = new StringBuilder("{\"id\":7,\"cast\":[");
+        for (int i = 1; i <= 30; i++) {
+            json.append(i == 1 ? "" : ",")
+                    .append("{\"adult\":false,\"gender\":2,\"id\":").append(60_000 + i)
+                    .append(",\"name\":\"Actor ").append(i).append("\",\"character\":\"Role ").append(i)
+                    .append("\",\"known_for_department\":\"Acting\",\"order\":").append(i)
+                    .append(",\"roles\":[{\"credit_id\":\"x\",\"episode_count\":3}]}");
+        }
+        // The director also wrote the screenplay; that crew row is kept next to the director row.
+        json.append("],\"crew\":[{\"id\":69999,\"name\":\"The Director\",\"job\":\"Screenplay\"}");
+        for (int i = 1; i <= 2_000; i++) {
+            // Every person appears twice, under two jobs, as in long-running series.
+            json.append(",")
+                    .append("{\"id\":").append(61_000 + (i + 1) / 2)
+                    .append(",\"name\":\"Crew ").append(i).append("\",\"job\":\"")
+                    .append(i % 2 == 0 ? "Editor" : "Producer").append("\",\"jobs\":[{\"job\":\"Editor\"}]}");
+        }
+        // Outside the retained jobs, so dropped while parsing.
+        json.append(",{\"id\":69998,\"name\":\"The Grip\",\"job\":\"Grip\"}");
+        json.append(",{\"id\":69999,\"name\":\"The Director\",\"job\":\"Director\"}]}");
+
+        TmdbCreditsResponse credits = decoder.decodeCredits(json.toString().getBytes(StandardCharsets.UTF_8));
+
+        assertThat(credits.getCast()).hasSize(30);
+        assertThat(credits.getCast().get(0).getCharacter()).isEqualTo("Role 1");
+        assertThat(credits.getCast().get(0).getDepartment()).isEqualTo("Acting");
+        assertThat(credits.getCrew()).hasSize(51);
+        assertThat(credits.getCrew()).extracting(TmdbCreditsResponse.CrewMember::getJob)
+                .contains("Director")
+                .doesNotContain("Grip");
+        assertThat(credits.getCrew()).filteredOn(member -> member.getId() == 69_999L)
+                .extracting(TmdbCreditsResponse.CrewMember::getJob)
+                .containsExactly("Screenplay", "Director");
+        // A second non-director job shares the person's crew row, so only the first is kept.
+        assertThat(credits.getCrew()).filteredOn(member -> member.getId() == 61_001L)
+                .extracting(TmdbCreditsResponse.CrewMember::getJob)
+                .containsExactly("Producer");
+
+        Film film = saveFilm(890_010L);
+        creditService.applyCreditsToFilm(credits, film);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from film_role where film_id = ?", Integer.class, film.getInternalId()))
+                .isEqualTo(creditRetentionPolicy.maxCast() + 51);
+
+        List<TmdbSimilarItem> items = decoder.decodeSimilarItems("""
+                {"page":1,"results":[
+                  {"id":11,"name":"Series","first_air_date":"2020-01-01","backdrop_path":"/b.jpg",
+                   "vote_average":7.5,"original_language":"ko","genre_ids":[18,10765],
+                   "overview":"long text","origin_country":["KR"]},
+                  {"name":"No id"}
+                ],"total_pages":3}
+                """.getBytes(StandardCharsets.UTF_8), FilmType.SERIES);
+        assertThat(items).containsExactly(new TmdbSimilarItem(
+                11L, "Series", "2020-01-01", "/b.jpg", 7.5, "ko", List.of(18, 10765)));
+    }
+
+    @Test
+    @DisplayName("Retention compactor prunes stored cast and crew beyond the policy and orphaned credits")
+    void retentionCompactorPrunesCreditsBeyondPolicy() {
+        Film film = saveFilm(890_020L);
+        TmdbCreditsResponse credits = credits(40);
+        creditService.applyCreditsToFilm(credits, film);
+        int retained = creditRetentionPolicy.maxCast() + 1;
+
+        // Rows written before the policy existed: trailing cast, a non-retained crew job, orphans.
+        Long castRoleId = jdbcTemplate.queryForObject(
+                "select role_id from role where role_code = 'CAST'", Long.class);
+        Long crewRoleId = jdbcTemplate.queryForObject(
+                "select role_id from role where role_code = 'CREW'", Long.class);
+        for (long id = 1; id <= 10; id++) {
+            jdbcTemplate.update("insert into credit (credit_id, name) values (?, ?)", 75_000L + id, "Legacy " + id);
+        }
+        for (long id = 1; id <= 5; id++) {
+            jdbcTemplate.update("insert into film_role (film_id, credit_id, role_id, character_name) values (?, ?, ?, ?)",
+                    film.getInternalId(), 75_000L + id, castRoleId, "Extra " + id);
+        }
+        for (long id = 6; id <= 8; id++) {
+            jdbcTemplate.update("insert into film_role (film_id, credit_id, role_id, job_name) values (?, ?, ?, ?)",
+                    film.getInternalId(), 75_000L + id, crewRoleId, "Grip");
+        }
+
+        creditRetentionCompactor.compact();
+
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from film_role where film_id = ?", Integer.class, film.getInternalId()))
+                .isEqualTo(retained);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from film_role where film_id = ? and job_name = 'Director'",
+                Integer.class, film.getInternalId()))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from credit where credit_id between 75001 and 75010", Integer.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from credit where credit_id between 70001 and 70015", Integer.class))
+                .isEqualTo(creditRetentionPolicy.maxCast());
+    }
+
+    @Test
+    @DisplayName("Retention compactor resumes from its saved film cursor after a restart")
+    void retentionCompactorResumesFromSavedCursor() {
+        Film first = saveFilm(890_021L);
+        Film second = saveFilm(890_022L);
+        creditService.applyCreditsToFilm(credits(3), first);
+        creditService.applyCreditsToFilm(credits(3), second);
+
+        // One film per page and one page per run; each run uses a fresh instance, as after a restart.
+        retentionCompactor(1, 1).compact();
+        assertThat(savedFilmCursor()).isEqualTo(first.getInternalId());
+
+        retentionCompactor(1, 1).compact();
+        assertThat(savedFilmCursor()).isEqualTo(second.getInternalId());
+
+        retentionCompactor(1, 1).compact();
+        assertThat(savedFilmCursor()).isZero();
+    }
+
+    private CreditRetentionCompactor retentionCompactor(int filmsPerPage, int maxPagesPerRun) {
+        return new CreditRetentionCompactor(creditRetentionRepository, creditRetentionCheckpointRepository,
+                creditRetentionPolicy, transactionManager, new SimpleMeterRegistry(), true, filmsPerPage, maxPagesPerRun);
+    }
+
+    private long savedFilmCursor() {
+        return creditRetentionCheckpointRepository.findById(CreditRetentionCheckpoint.SINGLETON_ID)
+                .orElseThrow()
+                .getFilmCursor();
+    }
+
+    private void seedPopularGenre(int filmCount) {
+        Genre drama = Genre.builder().genreId(POPULAR_GENRE_ID).name("Drama").type(FilmType.MOVIE).build();
+        for (long i = 0; i < filmCount; i++) {
+            drama.getFilms().add(saveFilm(891_000L + i));
+        }
+        genreRepository.saveAndFlush(drama);
+    }
+
+    private Film saveFilm(Long tmdbId) {
+        return filmRepository.saveAndFlush(Film.builder()
+                .filmId(tmdbId)
+                .type(FilmType.MOVIE)
+                .title("Statement Count Film " + tmdbId)
+                .creditsSyncCompleted(false)
+                .keywordSyncCompleted(false)
+                .genreSyncCompleted(false)
+                .recommendationSyncCompleted(false)
+                .build());
+    }
+
+    private int linkCount(String joinTable, Film film) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from " + joinTable + " where internal_film_id = ?", Integer.class, film.getInternalId());
+    }
+
+    private int roleCount(Film film) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from film_role where film_id = ?", Integer.class, film.getInternalId());
+    }
+
+    private Timestamp edgeIngestedAt(Film source, long targetTmdbId) {
+        return jdbcTemplate.queryForObject(
+                "select r.ingested_at from recommendation r join film f on f.internal_id = r.recommended_film_id"
+                        + " where r.film_id = ? and f.film_id = ?", Timestamp.class, source.getInternalId(), targetTmdbId);
+    }
+
+    private int edgeCount(Film source) {
+        return jdbcTemplate.queryForObject(
+                "select count(*) from recommendation where film_id = ?", Integer.class, source.getInternalId());
+    }
+
+    private static List<TmdbSimilarItem> similar(long firstTmdbId, int count) {
+        return LongStream.range(0, count)
+                .mapToObj(i -> new TmdbSimilarItem(firstTmdbId + i, "Similar " + (firstTmdbId + i), "2023-05-01",
+                        "/similar.jpg", 6.5, "en", List.of(18)))
+                .toList();
+    }
+
+    private static TmdbFilmResponse genres(long... genreIds) {
+        TmdbFilmResponse response = new TmdbFilmResponse();
+        for (long genreId : genreIds) {
+            TmdbFilmResponse.GenreItem item = new TmdbFilmResponse.GenreItem();
+            item.setId(genreId);
+            item.setName("Genre " + genreId);
+            response.getGenres().add(item);
+        }
+        return response;
+    }
+
+    private static TmdbKeywordsResponse keywords(int count) {
+        TmdbKeywordsResponse response = new TmdbKeywordsResponse();
+        LongStream.rangeClosed(1, count).forEach(id -> {
+            TmdbKeywordsResponse.KeywordItem item = new TmdbKeywordsResponse.KeywordItem();
+            item.setId(9_000L + id);
+            item.setName("keyword " + id);
+            response.getKeywords().add(item);
+        });
+        return response;
+    }
+
+    private static TmdbCreditsResponse credits(int castSize) {
+        TmdbCreditsResponse response = new TmdbCreditsResponse();
+        List<TmdbCreditsResponse.CastMember> cast = new ArrayList<>();
+        for (long id = 1; id <= castSize; id++) {
+            TmdbCreditsResponse.CastMember member = new TmdbCreditsResponse.CastMember();
+            member.setId(70_000L + id);
+            member.setName("Actor " + id);
+            member.setCharacter("Character " + id);
+            cast.add(member);
+        }
+        response.setCast(cast);
+        TmdbCreditsResponse.CrewMember director = new TmdbCreditsResponse.CrewMember();
+        director.setId(79_999L);
+        director.setName("Director");
+        director.setJob("Director");
+        response.setCrew(List.of(director));
+        return response;
+    }
+
+    /**
+     * Counts statements prepared on the calling thread while {@link #count(Runnable)} runs. A JDBC
+     * batch counts once, matching its single round trip.
+     */
+    static class StatementCounter {
+
+        private static final Set<String> STATEMENT_METHODS = Set.of("prepareStatement", "createStatement", "prepareCall");
+
+        private final AtomicInteger statements = new AtomicInteger();
+        private volatile Thread recordingThread;
+
+        int count(Runnable action) {
+            statements.set(0);
+            recordingThread = Thread.currentThread();
+            try {
+                action.run();
+            } finally {
+                recordingThread = null;
+            }
+            return statements.get();
+        }
+
+        Connection wrap(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class},
+                    (proxy, method, args) -> {
+                        if (STATEMENT_METHODS.contains(method.getName()) && recordingThread == Thread.currentThread()) {
+                            statements.incrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        }
+                    });
+        }
+    }
+
+    @TestConfiguration
+    static class StatementCountingConfig {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return STATEMENTS.wrap(super.getConnection());
+                        }
+
+                        @Override
+                        public Connection getConnection(String username, String password) throws SQLException {
+                            return STATEMENTS.wrap(super.getConnection(username, password));
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.Backend.services.sync_service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.Backend.services.FilmType;
+import com.Backend.services.catalog_import_service.model.CatalogImportLease;
+import com.Backend.services.catalog_import_service.repository.CatalogImportCheckpointRepository;
+import com.Backend.services.catalog_import_service.repository.CatalogImportLeaseRepository;
+import com.Backend.services.catalog_import_service.service.CatalogImportService;
 import com.Backend.services.credit_service.repository.CreditRepository;
 import com.Backend.services.credit_service.repository.FilmRoleRepository;
 import com.Backend.services.film_service.model.Film;
@@ -20,15 +28,24 @@ import com.Backend.services.recommendation_service.model.Recommendation;
 import com.Backend.services.recommendation_service.model.RecommendationId;
 import com.Backend.services.recommendation_service.repository.RecommendationRepository;
 import com.Backend.services.recommendation_service.snapshot.model.RecommendationRecomputeTriggeredBy;
+import com.Backend.services.recommendation_service.snapshot.model.UserRecommendationSnapshotState;
 import com.Backend.services.recommendation_service.snapshot.model.UserRecomputeTask;
+import com.Backend.services.recommendation_service.snapshot.repository.UserRecommendationSnapshotStateRepository;
 import com.Backend.services.recommendation_service.snapshot.repository.UserRecomputeTaskRepository;
+import com.Backend.services.sync_service.changes.CatalogChangeRefreshService;
+import com.Backend.services.sync_service.changes.CatalogChangesFeed;
 import com.Backend.services.sync_service.model.SyncAttemptResult;
 import com.Backend.services.sync_service.model.SyncCategory;
 import com.Backend.services.sync_service.model.SyncTask;
 import com.Backend.services.sync_service.model.SyncTaskStatus;
+import com.Backend.services.sync_service.model.TmdbChangeCheckpoint;
 import com.Backend.services.sync_service.repository.SyncTaskRepository;
+import com.Backend.services.sync_service.repository.TmdbChangeCheckpointRepository;
 import com.Backend.services.sync_service.service.FilmSyncTaskService;
 import com.Backend.services.sync_service.service.FilmEnrichmentStateService;
+import com.Backend.services.sync_service.service.SyncCategoryScheduler;
+import com.Backend.services.sync_service.service.SyncDemandService;
+import com.Backend.services.sync_service.service.SyncTaskCompactor;
 import com.Backend.services.user_service.model.ROLE;
 import com.Backend.services.user_service.model.User;
 import com.Backend.services.user_service.repository.UserRepository;
@@ -39,17 +56,43 @@ import com.Backend.services.watchlist_service.repository.WatchlistItemRepository
 import com.Backend.services.watchlist_service.repository.WatchlistRepository;
 import com.Backend.test.DotenvTestInitializer;
 import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 @SpringBootTest(properties = {
         "sync.retry.max-attempts=2",
@@ -64,6 +107,18 @@ class FilmSyncRetryCapIntegrationTest {
     @Autowired
     private FilmSyncTaskService filmSyncTaskService;
 
+    @Autowired
+    private SyncCategoryScheduler syncCategoryScheduler;
+
+    @Autowired
+    private SyncDemandService syncDemandService;
+
+    @Autowired
+    private UserRecommendationSnapshotStateRepository snapshotStateRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private FilmRepository filmRepository;
 
@@ -106,9 +161,39 @@ class FilmSyncRetryCapIntegrationTest {
     @Autowired
     private CreditRepository creditRepository;
 
+    @Autowired
+    private CatalogChangeRefreshService catalogChangeRefreshService;
+
+    @Autowired
+    private TmdbChangeCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private LocalCatalogChangesFeed localChangesFeed;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogImportCheckpointRepository catalogImportCheckpointRepository;
+
+    @Autowired
+    private CatalogImportLeaseRepository catalogImportLeaseRepository;
+
+    @Autowired
+    private SyncTaskCompactor syncTaskCompactor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @AfterEach
     void cleanup() {
+        localChangesFeed.reset();
+        checkpointRepository.deleteAll();
+        catalogImportCheckpointRepository.deleteAll();
+        catalogImportLeaseRepository.deleteAll();
+        jdbcTemplate.update("delete from sync_task_history");
         userRecomputeTaskRepository.deleteAll();
+        snapshotStateRepository.deleteAll();
         syncTaskRepository.deleteAll();
         recommendationRepository.deleteAll();
         watchlistItemRepository.deleteAll();
@@ -449,6 +534,356 @@ class FilmSyncRetryCapIntegrationTest {
         assertThat(enriched.getGenreSyncCompleted()).isTrue();
     }
 
+    @Test
+    @DisplayName("Enrichment applies the stages fetched in parallel that succeeded and retries only the failed one")
+    void enrichmentKeepsSucceededStagesWhenOneFetchFails() {
+        when(tmdbClient.getAvailableTokens()).thenReturn(100.0d);
+        Film film = saveFilm(880_250L, "Partial Film", "en", 7.0, true, false);
+        TmdbFilmResponse genresResponse = new TmdbFilmResponse();
+        genresResponse.setGenres(List.of(createGenreItem(18, "Drama"), createGenreItem(35, "Comedy")));
+        when(tmdbClient.fetchGenres(880_250L, FilmType.MOVIE)).thenReturn(genresResponse);
+        when(tmdbClient.fetchKeywords(880_250L, FilmType.MOVIE)).thenThrow(WebClientResponseException.create(
+                503, "Service Unavailable", HttpHeaders.EMPTY, new byte[0], StandardCharsets.UTF_8));
+        when(tmdbClient.fetchCredits(880_250L, FilmType.MOVIE)).thenReturn(createCredits(5));
+
+        SyncAttemptResult first = filmSyncTaskService.syncNowOrQueue(film, 880_250L, SyncCategory.ENRICHMENT);
+
+        assertThat(first.retryScheduled()).isTrue();
+        SyncTask task = syncTaskRepository
+                .findByFilmInternalIdAndSyncCategory(film.getInternalId(), SyncCategory.ENRICHMENT)
+                .orElseThrow();
+        assertThat(task.getStatus()).isIn(SyncTaskStatus.PENDING, SyncTaskStatus.RETRYING);
+        assertThat(task.getLastErrorCode()).isEqualTo("TMDB_5XX");
+        Film partial = filmRepository.findById(film.getInternalId()).orElseThrow();
+        assertThat(partial.getGenreSyncCompleted()).isTrue();
+        assertThat(partial.getCreditsSyncCompleted()).isTrue();
+        assertThat(partial.getKeywordSyncCompleted()).isFalse();
+        assertThat(genreRepository.count()).isEqualTo(2);
+        assertThat(filmRoleRepository.count()).isEqualTo(5);
+        assertThat(keywordRepository.count()).isZero();
+
+        // The retry fetches only the stage that failed.
+        TmdbKeywordsResponse keywords = new TmdbKeywordsResponse();
+        TmdbKeywordsResponse.KeywordItem keyword = new TmdbKeywordsResponse.KeywordItem();
+        keyword.setId(9_001L);
+        keyword.setName("heist");
+        keywords.setKeywords(List.of(keyword));
+        doReturn(keywords).when(tmdbClient).fetchKeywords(880_250L, FilmType.MOVIE);
+        filmSyncTaskService.processTask(task.getId());
+
+        Film enriched = filmRepository.findById(film.getInternalId()).orElseThrow();
+        assertThat(enriched.getKeywordSyncCompleted()).isTrue();
+        assertThat(keywordRepository.count()).isEqualTo(1);
+        verify(tmdbClient, times(1)).fetchGenres(880_250L, FilmType.MOVIE);
+        verify(tmdbClient, times(1)).fetchCredits(880_250L, FilmType.MOVIE);
+        verify(tmdbClient, times(2)).fetchKeywords(880_250L, FilmType.MOVIE);
+    }
+
+    @Test
+    @DisplayName("Worker pool claims due tasks under a lease and reclaims leases left by a dead node")
+    void workerPoolClaimsDueTasksAndReclaimsExpiredLeases() {
+        Film dueFilm = saveFilm(880_300L, "Due Film", "en", 7.0, false, false);
+        Film orphanedFilm = saveFilm(880_301L, "Orphaned Film", "en", 7.0, false, false);
+        for (Film film : List.of(dueFilm, orphanedFilm)) {
+            TmdbFilmResponse genresResponse = new TmdbFilmResponse();
+            genresResponse.setGenres(List.of(createGenreItem(18, "Drama")));
+            when(tmdbClient.fetchGenres(film.getFilmId(), FilmType.MOVIE)).thenReturn(genresResponse);
+            when(tmdbClient.fetchKeywords(film.getFilmId(), FilmType.MOVIE)).thenReturn(new TmdbKeywordsResponse());
+            when(tmdbClient.fetchCredits(film.getFilmId(), FilmType.MOVIE)).thenReturn(new TmdbCreditsResponse());
+        }
+
+        SyncTask dueTask = syncTaskRepository.saveAndFlush(SyncTask.builder()
+                .filmInternalId(dueFilm.getInternalId())
+                .tmdbId(dueFilm.getFilmId())
+                .syncCategory(SyncCategory.ENRICHMENT)
+                .status(SyncTaskStatus.PENDING)
+                .attempts(0)
+                .maxAttempts(3)
+                .nextRetryAt(Instant.now().minusSeconds(1))
+                .build());
+        SyncTask orphanedTask = syncTaskRepository.saveAndFlush(SyncTask.builder()
+                .filmInternalId(orphanedFilm.getInternalId())
+                .tmdbId(orphanedFilm.getFilmId())
+                .syncCategory(SyncCategory.ENRICHMENT)
+                .status(SyncTaskStatus.RUNNING)
+                .attempts(0)
+                .maxAttempts(3)
+                .nextRetryAt(Instant.now().minusSeconds(60))
+                .leaseOwner("dead-node")
+                .leaseExpiresAt(Instant.now().minusSeconds(1))
+                .build());
+
+        when(tmdbClient.getAvailableTokens()).thenReturn(100.0d);
+        filmSyncTaskService.processRetries();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            for (Long taskId : List.of(dueTask.getId(), orphanedTask.getId())) {
+                SyncTask task = syncTaskRepository.findById(taskId).orElseThrow();
+                assertThat(task.getStatus()).isEqualTo(SyncTaskStatus.SUCCEEDED);
+                assertThat(task.getLeaseOwner()).isNull();
+                assertThat(task.getLeaseExpiresAt()).isNull();
+            }
+        });
+        assertThat(syncTaskRepository.findById(orphanedTask.getId()).orElseThrow().getAttempts()).isEqualTo(1);
+        assertThat(syncTaskRepository.findById(dueTask.getId()).orElseThrow().getAttempts()).isZero();
+    }
+
+    @Test
+    @DisplayName("Category scheduler keeps enrichment moving during a recommendation flood")
+    void categorySchedulerSharesSlotsAcrossCategories() {
+        when(tmdbClient.getAvailableTokens()).thenReturn(100.0d);
+        Map<SyncCategory, Integer> plan = syncCategoryScheduler.plan(4, Map.of(
+                SyncCategory.RECOMMENDATION, 500L,
+                SyncCategory.ENRICHMENT, 1L));
+        assertThat(plan).containsEntry(SyncCategory.ENRICHMENT, 1).containsEntry(SyncCategory.RECOMMENDATION, 3);
+
+        // Only enough budget for one enrichment task: recommendations wait instead of spending it.
+        when(tmdbClient.getAvailableTokens()).thenReturn(3.0d);
+        plan = syncCategoryScheduler.plan(4, Map.of(
+                SyncCategory.RECOMMENDATION, 500L,
+                SyncCategory.ENRICHMENT, 10L));
+        assertThat(plan).containsOnly(Map.entry(SyncCategory.ENRICHMENT, 1));
+    }
+
+    @Test
+    @DisplayName("Due tasks are claimed by watchlist demand before due time")
+    void dueTasksAreClaimedByDemandFirst() {
+        Film obscureFilm = saveFilm(880_400L, "Obscure Film", "en", 6.0, false, false);
+        Film popularFilm = saveFilm(880_401L, "Popular Film", "en", 8.0, false, false);
+        Film sourceFilm = saveFilm(880_402L, "Source Film", "en", 7.5, true, true);
+        linkRecommendation(sourceFilm, popularFilm);
+
+        User activeUser = createUserWithWatchlist("demand-active");
+        User idleUser = createUserWithWatchlist("demand-idle");
+        User directUser = createUserWithWatchlist("demand-direct");
+        addWatchlistItem(activeUser, sourceFilm);
+        addWatchlistItem(idleUser, sourceFilm);
+        addWatchlistItem(directUser, popularFilm);
+        snapshotStateRepository.saveAndFlush(UserRecommendationSnapshotState.builder()
+                .userId(activeUser.getId())
+                .activeVersion(1L)
+                .build());
+
+        // The obscure film is enqueued first, so due-time order alone would run it first.
+        filmSyncTaskService.enqueuePendingSync(obscureFilm, obscureFilm.getFilmId(), SyncCategory.ENRICHMENT);
+        filmSyncTaskService.enqueuePendingSync(popularFilm, popularFilm.getFilmId(), SyncCategory.ENRICHMENT);
+
+        SyncTask popularTask = syncTaskRepository
+                .findByFilmInternalIdAndSyncCategory(popularFilm.getInternalId(), SyncCategory.ENRICHMENT)
+                .orElseThrow();
+        // Three users reach the film, one of them active (default weight 2).
+        assertThat(popularTask.getDemandScore()).isEqualTo(5);
+        assertThat(syncTaskRepository
+                .findByFilmInternalIdAndSyncCategory(obscureFilm.getInternalId(), SyncCategory.ENRICHMENT)
+                .orElseThrow()
+                .getDemandScore()).isZero();
+
+        assertThat(claimFirstDueEnrichmentFilm()).isEqualTo(popularFilm.getInternalId());
+
+        // Dropping the edge leaves only the direct watchlist user.
+        recommendationRepository.deleteAll();
+        syncDemandService.refreshFilms(List.of(popularFilm.getInternalId()));
+        assertThat(syncTaskRepository.findById(popularTask.getId()).orElseThrow().getDemandScore()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Catalog refresh re-enriches only films in the changes feed, plus very old rows")
+    void catalogRefreshQueuesOnlyChangedAndStaleFilms() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Instant checkpoint = today.atStartOfDay(ZoneOffset.UTC).toInstant();
+        Film changed = markEnrichedAt(saveFilm(880_500L, "Changed Film", "en", 7.0, true, true),
+                checkpoint.minus(Duration.ofDays(2)));
+        Film unchanged = markEnrichedAt(saveFilm(880_501L, "Unchanged Film", "en", 7.0, true, true),
+                checkpoint.minus(Duration.ofDays(2)));
+        // Enriched after the checkpoint but possibly before the change; the feed cannot tell.
+        Film enrichedEarlierToday = markEnrichedAt(saveFilm(880_502L, "Fresh Film", "en", 7.0, true, true),
+                Instant.now().minus(Duration.ofSeconds(1)));
+        Film enrichedAfterFeedRead = markEnrichedAt(saveFilm(880_505L, "Fresher Film", "en", 7.0, true, true),
+                Instant.now().plus(Duration.ofHours(1)));
+        Film notYetEnriched = saveFilm(880_503L, "Pending Film", "en", 7.0, true, false);
+        Film stale = markEnrichedAt(saveFilm(880_504L, "Stale Film", "en", 7.0, true, true),
+                Instant.now().minus(Duration.ofDays(120)));
+
+        checkpointRepository.saveAndFlush(TmdbChangeCheckpoint.builder()
+                .type(FilmType.MOVIE)
+                .syncedUntil(checkpoint)
+                .updatedAt(checkpoint)
+                .build());
+        // Spread over three pages, with an id the local catalog does not hold.
+        localChangesFeed.publish(FilmType.MOVIE, today, 880_500L, 880_502L, 880_503L, 880_505L, 999_999L);
+
+        catalogChangeRefreshService.refreshChangedFilms();
+
+        assertThat(enrichmentTaskStatus(changed)).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(enrichmentTaskStatus(stale)).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(enrichmentTaskStatus(unchanged)).isNull();
+        assertThat(enrichmentTaskStatus(enrichedEarlierToday)).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(enrichmentTaskStatus(enrichedAfterFeedRead)).isNull();
+        assertThat(enrichmentTaskStatus(notYetEnriched)).isNull();
+
+        Film reset = filmRepository.findById(changed.getInternalId()).orElseThrow();
+        assertThat(reset.getEnrichmentStatus()).isEqualTo(FilmEnrichmentStatus.PENDING);
+        assertThat(reset.getCreditsSyncCompleted()).isFalse();
+        assertThat(reset.getEnrichedAt()).isNull();
+        assertThat(filmRepository.findById(unchanged.getInternalId()).orElseThrow().getEnrichmentStatus())
+                .isEqualTo(FilmEnrichmentStatus.DONE);
+        assertThat(checkpointRepository.findById(FilmType.MOVIE).orElseThrow().getSyncedUntil())
+                .isAfter(checkpoint);
+        assertThat(localChangesFeed.requestedPages(FilmType.MOVIE)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("A changes-feed day larger than the page budget is applied in parts and resumed at the next page")
+    void catalogRefreshResumesDayLargerThanPageBudget() {
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        Instant checkpoint = yesterday.atStartOfDay(ZoneOffset.UTC).toInstant();
+        List<Film> changed = new ArrayList<>();
+        for (long tmdbId = 880_510L; tmdbId <= 880_514L; tmdbId++) {
+            changed.add(markEnrichedAt(saveFilm(tmdbId, "Changed Film " + tmdbId, "en", 7.0, true, true),
+                    checkpoint.minus(Duration.ofDays(2))));
+        }
+        checkpointRepository.saveAndFlush(TmdbChangeCheckpoint.builder()
+                .type(FilmType.MOVIE)
+                .syncedUntil(checkpoint)
+                .updatedAt(checkpoint)
+                .build());
+        // Five ids on three pages, read by a refresh allowed two pages per run.
+        localChangesFeed.publish(FilmType.MOVIE, yesterday, 880_510L, 880_511L, 880_512L, 880_513L, 880_514L);
+        CatalogChangeRefreshService twoPagesPerRun = new CatalogChangeRefreshService(localChangesFeed, filmRepository,
+                checkpointRepository, filmSyncTaskService, transactionManager, meterRegistry,
+                true, 24L, 90L, 2, 500, 0);
+
+        twoPagesPerRun.refreshChangedFilms();
+
+        assertThat(changed.subList(0, 4)).allSatisfy(film ->
+                assertThat(enrichmentTaskStatus(film)).isEqualTo(SyncTaskStatus.PENDING));
+        assertThat(enrichmentTaskStatus(changed.get(4))).isNull();
+        TmdbChangeCheckpoint partial = checkpointRepository.findById(FilmType.MOVIE).orElseThrow();
+        assertThat(partial.getSyncedUntil()).isEqualTo(checkpoint);
+        assertThat(partial.getNextPage()).isEqualTo(3);
+
+        twoPagesPerRun.refreshChangedFilms();
+
+        assertThat(enrichmentTaskStatus(changed.get(4))).isEqualTo(SyncTaskStatus.PENDING);
+        TmdbChangeCheckpoint resumed = checkpointRepository.findById(FilmType.MOVIE).orElseThrow();
+        assertThat(resumed.getSyncedUntil()).isAfterOrEqualTo(checkpoint.plus(Duration.ofDays(1)));
+        assertThat(resumed.getNextPage()).isEqualTo(1);
+        // Pages 1-2, then page 3 of yesterday and today's single empty page.
+        assertThat(localChangesFeed.requestedPages(FilmType.MOVIE)).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Catalog import inserts new films once, skips known and adult rows, and queues missing enrichment")
+    void catalogImportIsIdempotentAndReconcilesWatchlistedFilms(@TempDir Path exportDir) throws IOException {
+        Film known = saveFilm(880_700L, "Known Title", "en", 7.0, true, true);
+        Film unenriched = saveFilm(880_701L, "Watchlisted Without Task", "en", 6.0, false, false);
+        addWatchlistItem(createUserWithWatchlist("catalog-import"), unenriched);
+
+        writeGzipLines(exportDir.resolve("movie_ids_10_18_2026.json.gz"), List.of(
+                "{\"adult\":false,\"id\":880700,\"original_title\":\"Export Title\",\"popularity\":3.1}",
+                "{\"adult\":false,\"id\":880702,\"original_title\":\"Imported Film\",\"popularity\":1.2}",
+                "{\"adult\":true,\"id\":880703,\"original_title\":\"Adult Film\",\"popularity\":9.9}",
+                "not json",
+                "{\"adult\":false,\"id\":880704,\"original_title\":\"Another Film\",\"popularity\":0.6}"
+        ));
+        writeGzipLines(exportDir.resolve("keyword_ids_10_18_2026.json.gz"), List.of(
+                "{\"id\":880710,\"name\":\"imported keyword\"}"
+        ));
+
+        CatalogImportService.ImportSummary first = catalogImportService.importDirectory(exportDir);
+
+        assertThat(first.files()).isEqualTo(2);
+        assertThat(first.rowsInserted()).isEqualTo(3L);
+        assertThat(first.enrichmentTasksQueued()).isEqualTo(1);
+        assertThat(filmRepository.findByFilmIdAndType(880_700L, FilmType.MOVIE))
+                .get().extracting(Film::getTitle).isEqualTo("Known Title");
+        assertThat(filmRepository.findByFilmIdAndType(880_702L, FilmType.MOVIE))
+                .get().extracting(Film::getEnrichmentStatus).isEqualTo(FilmEnrichmentStatus.PENDING);
+        assertThat(filmRepository.findByFilmIdAndType(880_703L, FilmType.MOVIE)).isEmpty();
+        assertThat(filmRepository.findByFilmIdAndType(880_704L, FilmType.MOVIE)).isPresent();
+        assertThat(keywordRepository.findById(880_710L)).isPresent();
+        assertThat(enrichmentTaskStatus(unenriched)).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(enrichmentTaskStatus(known)).isNull();
+        assertThat(catalogImportCheckpointRepository.findById("movie_ids_10_18_2026.json.gz"))
+                .get().satisfies(checkpoint -> {
+                    assertThat(checkpoint.getLinesApplied()).isEqualTo(5L);
+                    assertThat(checkpoint.getCompletedAt()).isNotNull();
+                });
+
+        long filmsAfterFirstRun = filmRepository.count();
+        CatalogImportService.ImportSummary second = catalogImportService.importDirectory(exportDir);
+
+        assertThat(second.rowsInserted()).isZero();
+        assertThat(second.enrichmentTasksQueued()).isZero();
+        assertThat(filmRepository.count()).isEqualTo(filmsAfterFirstRun);
+    }
+
+    @Test
+    @DisplayName("Catalog import skips while another node holds the lease and takes it over once it expires")
+    void catalogImportRunsOnlyUnderTheLease(@TempDir Path exportDir) throws IOException {
+        writeGzipLines(exportDir.resolve("movie_ids_10_19_2026.json.gz"), List.of(
+                "{\"adult\":false,\"id\":880720,\"original_title\":\"Leased Import\",\"popularity\":1.0}"
+        ));
+        catalogImportLeaseRepository.save(CatalogImportLease.builder()
+                .id(CatalogImportLease.SINGLETON_ID)
+                .leaseOwner("other-node")
+                .leaseExpiresAt(Instant.now().plus(Duration.ofMinutes(5)))
+                .build());
+
+        assertThat(catalogImportService.importDirectoryUnderLease(exportDir)).isEmpty();
+        assertThat(filmRepository.findByFilmIdAndType(880_720L, FilmType.MOVIE)).isEmpty();
+
+        jdbcTemplate.update("update catalog_import_lease set lease_expires_at = ? where id = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), CatalogImportLease.SINGLETON_ID);
+
+        assertThat(catalogImportService.importDirectoryUnderLease(exportDir))
+                .get().extracting(CatalogImportService.ImportSummary::rowsInserted).isEqualTo(1L);
+        assertThat(filmRepository.findByFilmIdAndType(880_720L, FilmType.MOVIE)).isPresent();
+        assertThat(catalogImportLeaseRepository.findById(CatalogImportLease.SINGLETON_ID))
+                .get().extracting(CatalogImportLease::getLeaseOwner).isNull();
+    }
+
+    @Test
+    @DisplayName("Compactor moves settled tasks past the grace period to history and leaves live work in place")
+    void compactorArchivesSettledTasksOnly() {
+        Film succeeded = saveFilm(880_800L, "Settled Success", "en", 7.0, true, true);
+        Film failed = saveFilm(880_801L, "Settled Failure", "en", 6.0, false, false);
+        Film recent = saveFilm(880_802L, "Recently Settled", "en", 6.5, true, true);
+        Film pending = saveFilm(880_803L, "Still Pending", "en", 5.0, false, false);
+        SyncTask succeededTask = saveTask(succeeded, SyncTaskStatus.SUCCEEDED);
+        SyncTask failedTask = saveTask(failed, SyncTaskStatus.FAILED_PERMANENT);
+        saveTask(recent, SyncTaskStatus.SUCCEEDED);
+        saveTask(pending, SyncTaskStatus.PENDING);
+        Timestamp settledLongAgo = Timestamp.from(Instant.now().minus(Duration.ofHours(3)));
+        jdbcTemplate.update("update sync_task set updated_at = ? where id in (?, ?, ?)",
+                settledLongAgo, succeededTask.getId(), failedTask.getId(),
+                syncTaskRepository.findByFilmInternalIdAndSyncCategory(pending.getInternalId(), SyncCategory.ENRICHMENT)
+                        .orElseThrow().getId());
+
+        int archived = syncTaskCompactor.compact();
+
+        assertThat(archived).isEqualTo(2);
+        assertThat(enrichmentTaskStatus(succeeded)).isNull();
+        assertThat(enrichmentTaskStatus(failed)).isNull();
+        assertThat(enrichmentTaskStatus(recent)).isEqualTo(SyncTaskStatus.SUCCEEDED);
+        assertThat(enrichmentTaskStatus(pending)).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(syncTaskRepository.countRunnable()).isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForList(
+                "select status from sync_task_history where film_internal_id in (?, ?) order by status",
+                String.class, succeeded.getInternalId(), failed.getInternalId()))
+                .containsExactly("FAILED_PERMANENT", "SUCCEEDED");
+
+        // A later enqueue starts a fresh task instead of reviving the archived one.
+        filmSyncTaskService.enqueuePendingSync(failed, failed.getFilmId(), SyncCategory.ENRICHMENT);
+        SyncTask requeued = syncTaskRepository
+                .findByFilmInternalIdAndSyncCategory(failed.getInternalId(), SyncCategory.ENRICHMENT)
+                .orElseThrow();
+        assertThat(requeued.getId()).isNotEqualTo(failedTask.getId());
+        assertThat(requeued.getStatus()).isEqualTo(SyncTaskStatus.PENDING);
+        assertThat(requeued.getAttempts()).isZero();
+        assertThat(syncTaskCompactor.compact()).isZero();
+    }
+
     @Test
     @DisplayName("Recency boost: candidate within newReleaseDays gets boost, outside window gets 0")
     void recencyBoost_candidateWithinWindow_getsBoost_candidateOutsideGetsZero() {
@@ -549,6 +984,20 @@ class FilmSyncRetryCapIntegrationTest {
         return item;
     }
 
+    private TmdbCreditsResponse createCredits(int castSize) {
+        List<TmdbCreditsResponse.CastMember> cast = new ArrayList<>();
+        for (long id = 1; id <= castSize; id++) {
+            TmdbCreditsResponse.CastMember member = new TmdbCreditsResponse.CastMember();
+            member.setId(880_900L + id);
+            member.setName("Actor " + id);
+            member.setCharacter("Character " + id);
+            cast.add(member);
+        }
+        TmdbCreditsResponse response = new TmdbCreditsResponse();
+        response.setCast(cast);
+        return response;
+    }
+
     private User createUserWithWatchlist(String prefix) {
         String suffix = prefix + "-" + System.nanoTime();
         User user = User.builder()
@@ -585,6 +1034,40 @@ class FilmSyncRetryCapIntegrationTest {
                 .build());
     }
 
+    private Film markEnrichedAt(Film film, Instant enrichedAt) {
+        film.setEnrichedAt(enrichedAt);
+        return filmRepository.saveAndFlush(film);
+    }
+
+    private SyncTaskStatus enrichmentTaskStatus(Film film) {
+        return syncTaskRepository
+                .findByFilmInternalIdAndSyncCategory(film.getInternalId(), SyncCategory.ENRICHMENT)
+                .map(SyncTask::getStatus)
+                .orElse(null);
+    }
+
+    private SyncTask saveTask(Film film, SyncTaskStatus status) {
+        return syncTaskRepository.saveAndFlush(SyncTask.builder()
+                .filmInternalId(film.getInternalId())
+                .tmdbId(film.getFilmId())
+                .syncCategory(SyncCategory.ENRICHMENT)
+                .status(status)
+                .attempts(status == SyncTaskStatus.FAILED_PERMANENT ? 2 : 1)
+                .maxAttempts(2)
+                .nextRetryAt(status == SyncTaskStatus.PENDING ? Instant.now() : null)
+                .build());
+    }
+
+    private void writeGzipLines(Path file, List<String> lines) throws IOException {
+        try (Writer writer = new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+    }
+
     private void addWatchlistItem(User user, Film film) {
         Watchlist watchlist = watchlistRepository.findByUserId(user.getId()).orElseThrow();
         watchlistItemRepository.saveAndFlush(WatchlistItem.builder()
@@ -594,9 +1077,63 @@ class FilmSyncRetryCapIntegrationTest {
                 .build());
     }
 
+    private Long claimFirstDueEnrichmentFilm() {
+        return new TransactionTemplate(transactionManager).execute(status -> syncTaskRepository.findDueForClaim(
+                        EnumSet.of(SyncCategory.ENRICHMENT),
+                        Instant.now().plusSeconds(1),
+                        PageRequest.of(0, 1))
+                .get(0)
+                .getFilmInternalId());
+    }
+
     private void linkRecommendation(Film sourceFilm, Film candidateFilm) {
         recommendationRepository.saveAndFlush(Recommendation.builder()
                 .id(new RecommendationId(sourceFilm.getInternalId(), candidateFilm.getInternalId()))
                 .build());
     }
+
+    /** Local stand-in for TMDB's changes feed: serves published ids in pages of two. */
+    static class LocalCatalogChangesFeed implements CatalogChangesFeed {
+
+        private static final int PAGE_SIZE = 2;
+
+        private final Map<FilmType, Map<LocalDate, List<Long>>> changes = new ConcurrentHashMap<>();
+        private final Map<FilmType, AtomicInteger> requests = new ConcurrentHashMap<>();
+
+        void publish(FilmType type, LocalDate day, Long... tmdbIds) {
+            changes.computeIfAbsent(type, ignored -> new ConcurrentHashMap<>()).put(day, List.of(tmdbIds));
+        }
+
+        int requestedPages(FilmType type) {
+            AtomicInteger count = requests.get(type);
+            return count == null ? 0 : count.get();
+        }
+
+        void reset() {
+            changes.clear();
+            requests.clear();
+        }
+
+        @Override
+        public ChangesPage fetchChanges(FilmType type, LocalDate startDate, LocalDate endDate, int page) {
+            requests.computeIfAbsent(type, ignored -> new AtomicInteger()).incrementAndGet();
+            List<Long> ids = changes.getOrDefault(type, Map.of()).entrySet().stream()
+                    .filter(entry -> !entry.getKey().isBefore(startDate) && !entry.getKey().isAfter(endDate))
+                    .flatMap(entry -> entry.getValue().stream())
+                    .toList();
+            int totalPages = (ids.size() + PAGE_SIZE - 1) / PAGE_SIZE;
+            int from = Math.min(ids.size(), (page - 1) * PAGE_SIZE);
+            return new ChangesPage(ids.subList(from, Math.min(ids.size(), from + PAGE_SIZE)), totalPages);
+        }
+    }
+
+    @TestConfiguration
+    static class LocalChangesFeedConfig {
+
+        @Bean
+        @Primary
+        LocalCatalogChangesFeed localCatalogChangesFeed() {
+            return new LocalCatalogChangesFeed();
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.Backend.services.sync_service.wakeup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IdleBackoffTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final IdleBackoff backoff = new IdleBackoff(Duration.ofSeconds(1), Duration.ofSeconds(8));
+
+    @Test
+    @DisplayName("Every idle poll doubles the wait until the cap")
+    void idlePollsDoubleTheWaitUpToTheCap() {
+        assertThat(backoff.isPollDue(START)).isTrue();
+
+        Instant now = START;
+        for (long expectedSeconds : new long[] {1, 2, 4, 8, 8, 8}) {
+            backoff.onIdle(now);
+            Instant dueAt = now.plusSeconds(expectedSeconds);
+            assertThat(backoff.isPollDue(dueAt.minusMillis(1))).isFalse();
+            assertThat(backoff.isPollDue(dueAt)).isTrue();
+            now = dueAt;
+        }
+    }
+
+    @Test
+    @DisplayName("Finding work makes the next poll due at once and restarts from the base wait")
+    void workResetsTheBackoff() {
+        Instant now = START;
+        for (int i = 0; i < 5; i++) {
+            backoff.onIdle(now);
+        }
+        assertThat(backoff.isPollDue(now.plusSeconds(7))).isFalse();
+
+        backoff.onWork();
+        assertThat(backoff.isPollDue(now)).isTrue();
+
+        backoff.onIdle(now);
+        assertThat(backoff.isPollDue(now.plusMillis(999))).isFalse();
+        assertThat(backoff.isPollDue(now.plusSeconds(1))).isTrue();
+    }
+
+    @Test
+    @DisplayName("A cap below the base wait is raised to the base")
+    void capBelowBaseIsRaisedToBase() {
+        IdleBackoff inverted = new IdleBackoff(Duration.ofSeconds(5), Duration.ofSeconds(1));
+
+        inverted.onIdle(START);
+        inverted.onIdle(START);
+
+        assertThat(inverted.isPollDue(START.plusMillis(4_999))).isFalse();
+        assertThat(inverted.isPollDue(START.plusSeconds(5))).isTrue();
+    }
+}
@@ -0,0 +1,99 @@
+package com.Backend.services.sync_service.wakeup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+class WorkWakeupChannelTest {
+
+    private final List<Scheduled> scheduled = new ArrayList<>();
+    private final AtomicInteger polls = new AtomicInteger();
+    private final WorkWakeupChannel channel = new WorkWakeupChannel(
+            null, null, recordingScheduler(), new SimpleMeterRegistry(), true, false, "");
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("A signal inside a transaction wakes the poller once, after commit")
+    void signalInsideTransactionWakesPollerAfterCommit() {
+        channel.register(WorkQueue.SYNC_TASK, polls::incrementAndGet);
+
+        TransactionSynchronizationManager.initSynchronization();
+        for (int i = 0; i < 5; i++) {
+            channel.signal(WorkQueue.SYNC_TASK, null);
+        }
+        assertThat(scheduled).isEmpty();
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(scheduled).hasSize(1);
+        scheduled.get(0).task().run();
+        assertThat(polls.get()).isEqualTo(1);
+        // The burst shared one slot, so nothing else is armed.
+        assertThat(scheduled).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Future work is woken once per second of due time, never before it is due")
+    void futureSignalsAreDeduplicatedPerSecond() {
+        channel.register(WorkQueue.SYNC_TASK, polls::incrementAndGet);
+        Instant second = Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+
+        channel.signal(WorkQueue.SYNC_TASK, second.plusMillis(100));
+        channel.signal(WorkQueue.SYNC_TASK, second.plusMillis(700));
+        channel.signal(WorkQueue.SYNC_TASK, second.plusMillis(1_000));
+        channel.signal(WorkQueue.SYNC_TASK, second.plusMillis(2_500));
+
+        assertThat(scheduled).extracting(Scheduled::at).containsExactly(second.plusSeconds(1));
+
+        // Earlier work re-arms for its own second.
+        channel.signal(WorkQueue.SYNC_TASK, second.minusMillis(500));
+        assertThat(scheduled).extracting(Scheduled::at).containsExactly(second.plusSeconds(1), second);
+        assertThat(polls.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("Signals are dropped when wakeups are disabled")
+    void disabledChannelIgnoresSignals() {
+        WorkWakeupChannel disabled = new WorkWakeupChannel(
+                null, null, recordingScheduler(), new SimpleMeterRegistry(), false, false, "");
+        disabled.register(WorkQueue.SYNC_TASK, polls::incrementAndGet);
+
+        disabled.signal(WorkQueue.SYNC_TASK, null);
+
+        assertThat(scheduled).isEmpty();
+    }
+
+    private TaskScheduler recordingScheduler() {
+        TaskScheduler scheduler = mock(TaskScheduler.class);
+        when(scheduler.schedule(any(Runnable.class), any(Instant.class))).thenAnswer(invocation -> {
+            scheduled.add(new Scheduled(invocation.getArgument(0), invocation.getArgument(1)));
+            return mock(ScheduledFuture.class);
+        });
+        return scheduler;
+    }
+
+    private record Scheduled(Runnable task, Instant at) {
+    }
+}